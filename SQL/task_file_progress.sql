@@ -0,0 +1,7 @@
+CREATE TABLE `task_file_progress` (
+  `task_id` varchar(64) NOT NULL COMMENT '任务ID',
+  `audio_file_name` varchar(512) NOT NULL COMMENT '音频文件名',
+  `success` tinyint(1) NOT NULL COMMENT '该文件是否处理成功',
+  `create_time` timestamp DEFAULT CURRENT_TIMESTAMP COMMENT '记录时间',
+  PRIMARY KEY (`task_id`, `audio_file_name`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='任务单文件处理结果表（每个文件只记录首个最终结果，用于进度去重）';
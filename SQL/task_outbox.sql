@@ -0,0 +1,19 @@
+CREATE TABLE `task_outbox` (
+  `id` bigint NOT NULL COMMENT '主键ID',
+  `task_id` varchar(64) NOT NULL COMMENT '关联任务ID',
+  `topic` varchar(128) NOT NULL COMMENT '目标Kafka主题',
+  `message_key` varchar(128) COMMENT '消息Key',
+  `message_type` varchar(256) NOT NULL COMMENT '消息类型（消息类全限定名）',
+  `payload` mediumtext NOT NULL COMMENT '消息内容（JSON）',
+  `status` varchar(16) NOT NULL DEFAULT 'PENDING' COMMENT '投递状态',
+  `attempts` int NOT NULL DEFAULT 0 COMMENT '已尝试投递次数',
+  `last_error` varchar(1024) COMMENT '最近一次投递失败原因',
+  `claim_token` varchar(64) COMMENT '当前领取该记录的中继批次标识',
+  `claim_expire_time` timestamp(3) NULL COMMENT '领取租约到期时间，到期前其它中继不会再领取',
+  `create_time` timestamp DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
+  `sent_time` timestamp NULL COMMENT '投递成功时间',
+  PRIMARY KEY (`id`),
+  KEY `idx_status_id` (`status`, `id`),
+  KEY `idx_task_id` (`task_id`),
+  KEY `idx_claim_token` (`claim_token`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='任务消息发件箱表';
@@ -3,8 +3,10 @@ CREATE TABLE `translation_task` (
   `task_id` varchar(64) NOT NULL COMMENT '任务ID（唯一标识）',
   `task_type` varchar(32) NOT NULL COMMENT '任务类型',
   `audio_directory_path` varchar(512) COMMENT '音频文件目录路径',
+  `recursive_scan` tinyint(1) NOT NULL DEFAULT 0 COMMENT '是否递归扫描子目录',
   `source_language` varchar(16) NOT NULL COMMENT '源语言',
   `target_languages` text COMMENT '目标语言列表',
+  `target_language_mask` bigint NOT NULL DEFAULT 0 COMMENT '目标语言位掩码（按位对应LanguageEnum）',
   `status` varchar(32) NOT NULL COMMENT '任务状态',
   `total_files` int DEFAULT 0 COMMENT '总文件数',
   `processed_files` int DEFAULT 0 COMMENT '已处理文件数',
@@ -14,6 +16,7 @@ CREATE TABLE `translation_task` (
   `error_message` text COMMENT '错误信息',
   `result_file_path` varchar(512) COMMENT '结果文件路径',
   `priority` int DEFAULT 5 COMMENT '优先级(1-10)',
+  `version` int NOT NULL DEFAULT 0 COMMENT '版本号（每次状态或进度变更递增）',
   `create_time` timestamp DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
   `update_time` timestamp DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
   `start_time` timestamp NULL COMMENT '开始时间',
@@ -21,6 +24,7 @@ CREATE TABLE `translation_task` (
   PRIMARY KEY (`id`),
   UNIQUE KEY `uk_task_id` (`task_id`),
   KEY `idx_status` (`status`),
-  KEY `idx_create_time` (`create_time`),
+  KEY `idx_create_time` (`create_time`, `id`),
+  KEY `idx_status_create_time` (`status`, `create_time`, `id`),
   KEY `idx_priority` (`priority`)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='翻译任务表';
\ No newline at end of file
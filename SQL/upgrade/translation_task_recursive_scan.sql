@@ -0,0 +1,5 @@
+-- 已有部署升级：增加是否递归扫描子目录列
+-- 已有任务创建时只扫描目录本身，默认值0与原行为一致，不需要回填
+
+ALTER TABLE `translation_task`
+  ADD COLUMN `recursive_scan` tinyint(1) NOT NULL DEFAULT 0 COMMENT '是否递归扫描子目录' AFTER `audio_directory_path`;
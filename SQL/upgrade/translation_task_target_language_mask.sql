@@ -0,0 +1,22 @@
+-- 已有部署升级：增加目标语言位掩码列，并由 target_languages 回填
+-- 位定义与 LanguageEnum 的声明顺序一致（getMask() = 1 << ordinal），调整枚举时需同步修改本脚本：
+--   zh-CN/zh = 1, zh-TW/zh-tw = 2, en = 4, ja = 8, auto = 16
+-- 无法识别的语言代码不占位，与 LanguageEnum.toMask 的规则相同
+-- 注意：按位与条件（target_language_mask & ? <> 0）无法使用索引，只能在 (create_time, id) /
+-- (status, create_time, id) 索引扫描到的行上逐行过滤；目标语言越少见，游标分页每页需要扫描的行越多
+
+ALTER TABLE `translation_task`
+  ADD COLUMN `target_language_mask` bigint NOT NULL DEFAULT 0 COMMENT '目标语言位掩码（按位对应LanguageEnum）' AFTER `target_languages`;
+
+-- 回填只处理掩码仍为0的行，可重复执行；大表可追加 AND `id` BETWEEN ? AND ? 按主键范围分段执行
+UPDATE `translation_task`
+SET `target_language_mask` =
+      IF(FIND_IN_SET('zh-cn', LOWER(REPLACE(`target_languages`, ' ', ''))) > 0
+         OR FIND_IN_SET('zh', LOWER(REPLACE(`target_languages`, ' ', ''))) > 0, 1, 0)
+    | IF(FIND_IN_SET('zh-tw', LOWER(REPLACE(`target_languages`, ' ', ''))) > 0, 2, 0)
+    | IF(FIND_IN_SET('en', LOWER(REPLACE(`target_languages`, ' ', ''))) > 0, 4, 0)
+    | IF(FIND_IN_SET('ja', LOWER(REPLACE(`target_languages`, ' ', ''))) > 0, 8, 0)
+    | IF(FIND_IN_SET('auto', LOWER(REPLACE(`target_languages`, ' ', ''))) > 0, 16, 0)
+WHERE `target_language_mask` = 0
+  AND `target_languages` IS NOT NULL
+  AND `target_languages` <> '';
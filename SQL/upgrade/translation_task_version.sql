@@ -0,0 +1,12 @@
+-- 已有部署升级：增加乐观锁版本号列，并调整任务列表分页使用的索引
+-- 状态流转和进度更新均以 version = version + 1 递增，重启任务时按 version = #{version} 条件更新；
+-- 已有行从0开始计数，不需要回填
+
+ALTER TABLE `translation_task`
+  ADD COLUMN `version` int NOT NULL DEFAULT 0 COMMENT '版本号（每次状态或进度变更递增）' AFTER `priority`;
+
+-- 游标分页按 (create_time, id) 排序：原单列索引改为复合索引，并增加按状态过滤时使用的索引
+ALTER TABLE `translation_task`
+  DROP INDEX `idx_create_time`,
+  ADD INDEX `idx_create_time` (`create_time`, `id`),
+  ADD INDEX `idx_status_create_time` (`status`, `create_time`, `id`);
@@ -0,0 +1,55 @@
+package com.translation.common.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 音频清单
+ * 任务创建时扫描一次音频目录生成（只含文件属性），随任务消息下发，下游服务直接使用而不再重复扫描目录
+ */
+@Data
+@NoArgsConstructor
+public class AudioManifest {
+    
+    /** 音频目录路径 */
+    private String directoryPath;
+    
+    /** 是否递归扫描了子目录 */
+    private Boolean recursive;
+    
+    /** 音频文件列表（按相对路径排序） */
+    private List<Entry> entries = new ArrayList<>();
+    
+    /** 音频文件总大小（字节） */
+    private Long totalSize;
+    
+    /** 扫描时间 */
+    private LocalDateTime scanTime;
+    
+    /**
+     * 单个音频文件信息
+     */
+    @Data
+    @NoArgsConstructor
+    public static class Entry {
+        
+        /** 相对于音频目录的文件路径（使用/分隔） */
+        private String fileName;
+        
+        /** 文件大小（字节） */
+        private Long size;
+        
+        /** 最后修改时间（毫秒时间戳） */
+        private Long lastModified;
+        
+        /** 文件内容校验值（SHA-256），扫描时不计算，处理前由AudioDirectoryScanner.inspect补齐 */
+        private String checksum;
+        
+        /** 音频时长估算（秒），与校验值一同补齐，无法解析时为空 */
+        private Double durationSeconds;
+    }
+}
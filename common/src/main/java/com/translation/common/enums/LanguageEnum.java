@@ -51,6 +51,31 @@ public enum LanguageEnum {
                 .orElse(null);
     }
 
+    /**
+     * 该语言在语言位掩码中对应的位
+     * 掩码会持久化到数据库，不要调整已有语言的定义顺序
+     */
+    public long getMask() {
+        return 1L << ordinal();
+    }
+
+    /**
+     * 将逗号分隔的语言代码列表转换为语言位掩码，无法识别的语言代码忽略
+     */
+    public static long toMask(String codes) {
+        long mask = 0L;
+        if (codes == null) {
+            return mask;
+        }
+
+        for (String code : codes.split(",")) {
+            LanguageEnum language = code.trim().isEmpty() ? null : fromCode(code.trim());
+            if (language != null) {
+                mask |= language.getMask();
+            }
+        }
+        return mask;
+    }
 
     @Override
     public String toString() {
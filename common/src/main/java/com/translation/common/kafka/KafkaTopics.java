@@ -11,10 +11,16 @@ public class KafkaTopics {
     public static final String TASK_CREATED = "task.created";
     
     /**
-     * 语音识别完成主题 - speech-service发送，translate-service接收
+     * 语音识别完成主题 - speech-service发送，translate-service接收（流水线模式下完成消息发送到单文件语音识别结果主题）
      */
     public static final String SPEECH_RECOGNITION_COMPLETED = "speech.recognition.completed";
     
+    /**
+     * 单文件语音识别结果主题 - speech-service每识别出一个分段、每识别完一个文件即发送，translate-service接收后立即翻译。
+     * 分段消息、单文件结果消息和流水线模式的识别完成消息都以taskId为键发送到该主题，同一任务的消息由同一消费者按发送顺序处理
+     */
+    public static final String SPEECH_RECOGNITION_PARTIAL = "speech.recognition.partial";
+    
     /**
      * 翻译完成主题 - translate-service发送，encoding-service接收
      */
@@ -25,6 +31,11 @@ public class KafkaTopics {
      */
     public static final String ENCODING_COMPLETED = "encoding.completed";
     
+    /**
+     * 单文件处理进度主题 - speech-service、translate-service发送，task-service接收（更新任务进度）
+     */
+    public static final String TASK_PROGRESS = "task.progress";
+    
     /**
      * 任务失败主题 - 任何服务都可以发送
      */
@@ -0,0 +1,47 @@
+package com.translation.common.kafka.message;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 编码完成消息
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EncodingCompletedMessage {
+    
+    /**
+     * 任务ID
+     */
+    private String taskId;
+    
+    /**
+     * 编码ID
+     */
+    private String encodingId;
+    
+    /**
+     * 原始大小（字节）
+     */
+    private Long originalSize;
+    
+    /**
+     * 压缩后大小（字节）
+     */
+    private Long compressedSize;
+    
+    /**
+     * 文本索引对应的音频文件名，按索引排列（第i条文本来自第i个文件）
+     */
+    private List<String> audioFileNames;
+    
+    /**
+     * 处理完成时间
+     */
+    private LocalDateTime completedTime;
+}
@@ -45,6 +45,17 @@ public class SpeechRecognitionCompletedMessage {
      */
     private LocalDateTime completedTime;
     
+    /**
+     * 是否为续跑模式
+     */
+    private Boolean resumeMode = false;
+    
+    /**
+     * 是否已逐文件发送过部分识别消息（翻译服务复用这些文件已保存的翻译结果，只补齐未翻译的文件）
+     * 为true时完成主题上的该消息只是阶段完成事件（不带识别结果），翻译由部分识别主题上的完成消息触发
+     */
+    private Boolean incremental = false;
+    
     /**
      * 识别结果详情
      */
@@ -71,5 +82,10 @@ public class SpeechRecognitionCompletedMessage {
          * 文本结果文件路径
          */
         private String textFilePath;
+        
+        /**
+         * 源音频文件校验值（SHA-256）
+         */
+        private String audioChecksum;
     }
 }
\ No newline at end of file
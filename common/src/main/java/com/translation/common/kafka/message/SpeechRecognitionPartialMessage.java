@@ -0,0 +1,52 @@
+package com.translation.common.kafka.message;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 单文件语音识别结果消息
+ * 流水线模式下每个文件识别完成即发送，翻译服务无需等待整个任务识别完成即可开始翻译
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SpeechRecognitionPartialMessage {
+    
+    /**
+     * 任务ID
+     */
+    private String taskId;
+    
+    /**
+     * 音频文件目录路径
+     */
+    private String audioDirectoryPath;
+    
+    /**
+     * 源语言
+     */
+    private String sourceLanguage;
+    
+    /**
+     * 目标语言列表
+     */
+    private String targetLanguages;
+    
+    /**
+     * 是否为续跑模式
+     */
+    private Boolean resumeMode = false;
+    
+    /**
+     * 单个文件的识别结果
+     */
+    private SpeechRecognitionCompletedMessage.RecognitionResult recognitionResult;
+    
+    /**
+     * 识别完成时间
+     */
+    private LocalDateTime recognizedTime;
+}
@@ -0,0 +1,58 @@
+package com.translation.common.kafka.message;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 识别分段消息
+ * 流水线模式下Whisper每输出一个分段即发送，同一文件的分段按时间顺序到达，
+ * 翻译服务在文件识别完成前就可以开始翻译已识别的分段
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SpeechRecognitionSegmentMessage {
+    
+    /**
+     * 任务ID
+     */
+    private String taskId;
+    
+    /**
+     * 音频文件名（相对于音频目录）
+     */
+    private String audioFileName;
+    
+    /**
+     * 源语言
+     */
+    private String sourceLanguage;
+    
+    /**
+     * 目标语言列表
+     */
+    private String targetLanguages;
+    
+    /**
+     * 分段开始时间（秒，相对于整个音频）
+     */
+    private Double start;
+    
+    /**
+     * 分段结束时间（秒，相对于整个音频）
+     */
+    private Double end;
+    
+    /**
+     * 分段文本
+     */
+    private String text;
+    
+    /**
+     * 识别时间
+     */
+    private LocalDateTime recognizedTime;
+}
@@ -1,5 +1,6 @@
 package com.translation.common.kafka.message;
 
+import com.translation.common.dto.AudioManifest;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
@@ -48,4 +49,19 @@ public class TaskCreatedMessage {
      * 优先级（1-10，数字越小优先级越高）
      */
     private Integer priority = 5;
+    
+    /**
+     * 是否为续跑模式（重启任务时复用已有的有效阶段产物，只处理缺失或失败的文件）
+     */
+    private Boolean resumeMode = false;
+    
+    /**
+     * 音频清单（任务创建时扫描生成，下游直接使用，不再重复扫描目录）
+     */
+    private AudioManifest audioManifest;
+    
+    /**
+     * 投递ID（任务每次创建或重启时生成，同一次投递被重复发送时不变，消费端据此去重）
+     */
+    private String dispatchId;
 }
\ No newline at end of file
@@ -0,0 +1,52 @@
+package com.translation.common.kafka.message;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 单文件处理进度消息
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskProgressMessage {
+    
+    /**
+     * 任务ID
+     */
+    private String taskId;
+    
+    /**
+     * 音频文件名
+     */
+    private String audioFileName;
+    
+    /**
+     * 处理阶段（SPEECH_RECOGNITION / TRANSLATION）
+     */
+    private String stage;
+    
+    /**
+     * 该文件在本阶段是否处理成功
+     */
+    private Boolean success;
+    
+    /**
+     * 错误信息
+     */
+    private String errorMessage;
+    
+    /**
+     * 上报时间
+     */
+    private LocalDateTime reportTime;
+    
+    // 处理阶段常量
+    public static class Stage {
+        public static final String SPEECH_RECOGNITION = "SPEECH_RECOGNITION";
+        public static final String TRANSLATION = "TRANSLATION";
+    }
+}
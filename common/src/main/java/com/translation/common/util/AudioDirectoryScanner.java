@@ -0,0 +1,204 @@
+package com.translation.common.util;
+
+import com.translation.common.dto.AudioManifest;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileVisitOption;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.List;
+
+/**
+ * 音频目录扫描器
+ * 基于NIO walkFileTree单次遍历目录，直接使用遍历时得到的文件属性生成音频清单（大小、修改时间），扫描时不读取文件内容。
+ * 内容校验值和时长由处理音频的服务在处理前调用inspect补齐，按处理时的文件内容计算
+ */
+@Slf4j
+public final class AudioDirectoryScanner {
+
+    private static final String AUDIO_EXTENSION = ".mp3";
+
+    /** MPEG1 Layer III 比特率表（kbps） */
+    private static final int[] MPEG1_LAYER3_BITRATES = {0, 32, 40, 48, 56, 64, 80, 96, 112, 128, 160, 192, 224, 256, 320};
+
+    /** MPEG2/2.5 Layer III 比特率表（kbps） */
+    private static final int[] MPEG2_LAYER3_BITRATES = {0, 8, 16, 24, 32, 40, 48, 56, 64, 80, 96, 112, 128, 144, 160};
+
+    /** 采样率表，按 MPEG1、MPEG2、MPEG2.5 排列 */
+    private static final int[][] SAMPLE_RATES = {{44100, 48000, 32000}, {22050, 24000, 16000}, {11025, 12000, 8000}};
+
+    /** 查找首个音频帧时读取的字节数 */
+    private static final int FRAME_SEARCH_BYTES = 8192;
+
+    private AudioDirectoryScanner() {
+    }
+
+    /**
+     * 扫描音频目录生成音频清单，只记录文件属性，耗时与文件数相关而与音频大小无关
+     *
+     * @param directoryPath 音频目录路径
+     * @param recursive 是否递归扫描子目录
+     */
+    public static AudioManifest scan(String directoryPath, boolean recursive) {
+        Path root = Paths.get(directoryPath);
+        if (!Files.isDirectory(root)) {
+            throw new RuntimeException("音频目录不存在: " + directoryPath);
+        }
+
+        List<AudioManifest.Entry> entries = new ArrayList<>();
+        try {
+            Files.walkFileTree(root, EnumSet.noneOf(FileVisitOption.class), recursive ? Integer.MAX_VALUE : 1,
+                    new SimpleFileVisitor<Path>() {
+                        @Override
+                        public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                            if (attrs.isRegularFile()
+                                    && file.getFileName().toString().toLowerCase().endsWith(AUDIO_EXTENSION)) {
+                                entries.add(buildEntry(root, file, attrs));
+                            }
+                            return FileVisitResult.CONTINUE;
+                        }
+
+                        @Override
+                        public FileVisitResult visitFileFailed(Path file, IOException e) {
+                            log.warn("无法访问音频文件，已跳过: {}, {}", file, e.getMessage());
+                            return FileVisitResult.CONTINUE;
+                        }
+                    });
+        } catch (IOException e) {
+            throw new RuntimeException("扫描音频目录失败: " + e.getMessage());
+        }
+
+        entries.sort(Comparator.comparing(AudioManifest.Entry::getFileName));
+
+        AudioManifest manifest = new AudioManifest();
+        manifest.setDirectoryPath(directoryPath);
+        manifest.setRecursive(recursive);
+        manifest.setEntries(Collections.unmodifiableList(entries));
+        manifest.setTotalSize(entries.stream().mapToLong(AudioManifest.Entry::getSize).sum());
+        manifest.setScanTime(LocalDateTime.now());
+        return manifest;
+    }
+
+    private static AudioManifest.Entry buildEntry(Path root, Path file, BasicFileAttributes attrs) {
+        AudioManifest.Entry entry = new AudioManifest.Entry();
+        entry.setFileName(root.relativize(file).toString().replace('\\', '/'));
+        entry.setSize(attrs.size());
+        entry.setLastModified(attrs.lastModifiedTime().toMillis());
+        return entry;
+    }
+
+    /**
+     * 补齐清单条目的内容校验值和时长估算
+     * 已有校验值且文件大小、修改时间与条目一致时直接返回；文件在扫描后被修改过时同时更新条目的文件属性
+     *
+     * @param directoryPath 音频目录路径
+     * @param entry 清单条目，原地更新
+     */
+    public static AudioManifest.Entry inspect(String directoryPath, AudioManifest.Entry entry) {
+        Path file = Paths.get(directoryPath, entry.getFileName());
+        BasicFileAttributes attrs;
+        try {
+            attrs = Files.readAttributes(file, BasicFileAttributes.class);
+        } catch (IOException e) {
+            throw new RuntimeException("读取音频文件属性失败: " + entry.getFileName() + ", " + e.getMessage());
+        }
+
+        long lastModified = attrs.lastModifiedTime().toMillis();
+        if (entry.getChecksum() != null && Long.valueOf(attrs.size()).equals(entry.getSize())
+                && Long.valueOf(lastModified).equals(entry.getLastModified())) {
+            return entry;
+        }
+
+        entry.setSize(attrs.size());
+        entry.setLastModified(lastModified);
+        entry.setChecksum(AudioFileUtils.checksum(file.toFile()));
+        entry.setDurationSeconds(estimateMp3Duration(file, attrs.size()));
+        return entry;
+    }
+
+    /**
+     * 根据MP3帧头估算时长：存在Xing/Info头时按总帧数计算，否则按首帧比特率（CBR）计算
+     *
+     * @return 时长（秒），无法解析时返回null
+     */
+    private static Double estimateMp3Duration(Path file, long fileSize) {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            // 跳过ID3v2标签
+            long audioStart = 0;
+            ByteBuffer id3 = ByteBuffer.allocate(10);
+            if (channel.read(id3, 0) == 10 && id3.get(0) == 'I' && id3.get(1) == 'D' && id3.get(2) == '3') {
+                int tagSize = ((id3.get(6) & 0x7F) << 21) | ((id3.get(7) & 0x7F) << 14)
+                        | ((id3.get(8) & 0x7F) << 7) | (id3.get(9) & 0x7F);
+                boolean hasFooter = (id3.get(5) & 0x10) != 0;
+                audioStart = 10 + tagSize + (hasFooter ? 10 : 0);
+            }
+
+            ByteBuffer buffer = ByteBuffer.allocate(FRAME_SEARCH_BYTES);
+            int length = channel.read(buffer, audioStart);
+            if (length < 4) {
+                return null;
+            }
+            byte[] data = buffer.array();
+
+            for (int i = 0; i + 4 <= length; i++) {
+                if ((data[i] & 0xFF) != 0xFF || (data[i + 1] & 0xE0) != 0xE0) {
+                    continue;
+                }
+
+                int versionBits = (data[i + 1] >> 3) & 0x03;
+                int layerBits = (data[i + 1] >> 1) & 0x03;
+                int bitrateIndex = (data[i + 2] >> 4) & 0x0F;
+                int sampleRateIndex = (data[i + 2] >> 2) & 0x03;
+                int channelMode = (data[i + 3] >> 6) & 0x03;
+
+                // 只处理Layer III，跳过保留值
+                if (versionBits == 1 || layerBits != 1 || bitrateIndex == 0 || bitrateIndex == 15 || sampleRateIndex == 3) {
+                    continue;
+                }
+
+                boolean mpeg1 = versionBits == 3;
+                int versionIndex = mpeg1 ? 0 : (versionBits == 2 ? 1 : 2);
+                int sampleRate = SAMPLE_RATES[versionIndex][sampleRateIndex];
+                int samplesPerFrame = mpeg1 ? 1152 : 576;
+                int bitrate = (mpeg1 ? MPEG1_LAYER3_BITRATES : MPEG2_LAYER3_BITRATES)[bitrateIndex] * 1000;
+
+                // VBR文件在首帧中带有Xing/Info头，记录了总帧数
+                boolean mono = channelMode == 3;
+                int sideInfoSize = mpeg1 ? (mono ? 17 : 32) : (mono ? 9 : 17);
+                int xingOffset = i + 4 + sideInfoSize;
+                if (xingOffset + 12 <= length) {
+                    String tag = new String(data, xingOffset, 4, StandardCharsets.ISO_8859_1);
+                    if (("Xing".equals(tag) || "Info".equals(tag)) && (data[xingOffset + 7] & 0x01) != 0) {
+                        long frames = ByteBuffer.wrap(data, xingOffset + 8, 4).getInt() & 0xFFFFFFFFL;
+                        return round((double) frames * samplesPerFrame / sampleRate);
+                    }
+                }
+
+                return round((fileSize - audioStart - i) * 8.0 / bitrate);
+            }
+            return null;
+
+        } catch (Exception e) {
+            log.debug("估算音频时长失败: {}, {}", file, e.getMessage());
+            return null;
+        }
+    }
+
+    private static double round(double seconds) {
+        return Math.round(seconds * 100) / 100.0;
+    }
+}
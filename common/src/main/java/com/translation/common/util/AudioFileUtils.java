@@ -0,0 +1,75 @@
+package com.translation.common.util;
+
+import cn.hutool.core.util.HexUtil;
+
+import java.io.File;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+
+/**
+ * 音频文件工具类
+ * 统一各服务对音频文件及其阶段产物（识别文本、翻译结果）的命名和校验方式
+ */
+public final class AudioFileUtils {
+
+    /**
+     * 语音识别结果文件后缀
+     */
+    public static final String RECOGNITION_SUFFIX = "_recognition.txt";
+
+    /**
+     * 翻译结果文件后缀
+     */
+    public static final String TRANSLATION_SUFFIX = "_translations.json";
+
+    /**
+     * 计算校验值时每段内存映射的大小
+     */
+    private static final long CHECKSUM_MAP_SIZE = 64L * 1024 * 1024;
+
+    private AudioFileUtils() {
+    }
+
+    /**
+     * 去掉扩展名的文件名
+     */
+    public static String baseName(String audioFileName) {
+        return audioFileName.replaceFirst("[.][^.]+$", "");
+    }
+
+    /**
+     * 语音识别结果文件路径（与音频文件同目录）
+     */
+    public static String recognitionFilePath(String audioDirectoryPath, String audioFileName) {
+        return audioDirectoryPath + "/" + baseName(audioFileName) + RECOGNITION_SUFFIX;
+    }
+
+    /**
+     * 翻译结果文件路径（与音频文件同目录）
+     */
+    public static String translationFilePath(String audioDirectoryPath, String audioFileName) {
+        return audioDirectoryPath + "/" + baseName(audioFileName) + TRANSLATION_SUFFIX;
+    }
+
+    /**
+     * 计算音频文件内容校验值（SHA-256）
+     * 用于判断已有的阶段产物是否仍对应当前的源音频，以及跨任务识别内容相同的音频。
+     * 按固定大小分段内存映射文件并流式计算摘要，不经过堆内缓冲区拷贝
+     */
+    public static String checksum(File audioFile) {
+        try (FileChannel channel = FileChannel.open(audioFile.toPath(), StandardOpenOption.READ)) {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            long size = channel.size();
+            for (long position = 0; position < size; position += CHECKSUM_MAP_SIZE) {
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, position,
+                        Math.min(CHECKSUM_MAP_SIZE, size - position));
+                digest.update(buffer);
+            }
+            return HexUtil.encodeHexStr(digest.digest());
+        } catch (Exception e) {
+            throw new RuntimeException("计算音频文件校验值失败: " + audioFile.getName() + ", " + e.getMessage());
+        }
+    }
+}
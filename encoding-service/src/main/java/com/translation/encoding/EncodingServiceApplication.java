@@ -3,6 +3,7 @@ package com.translation.encoding;
 import org.mybatis.spring.annotation.MapperScan;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
  * 编码服务启动类
@@ -13,6 +14,7 @@ import org.springframework.boot.autoconfigure.SpringBootApplication;
  */
 @SpringBootApplication(scanBasePackages = {"com.translation.encoding", "com.translation.common"})
 @MapperScan("com.translation.encoding.mapper")
+@EnableScheduling
 public class EncodingServiceApplication {
     
     public static void main(String[] args) {
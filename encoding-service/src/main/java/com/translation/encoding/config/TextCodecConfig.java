@@ -0,0 +1,38 @@
+package com.translation.encoding.config;
+
+import com.translation.encoding.pack.Lz4Codec;
+import com.translation.encoding.pack.SnappyCodec;
+import com.translation.encoding.pack.TextCodecRegistry;
+import com.translation.encoding.pack.ZstdCodec;
+import com.translation.encoding.pack.ZstdDictionaryCodec;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 文本包压缩算法配置
+ */
+@Slf4j
+@Configuration
+public class TextCodecConfig {
+
+    @Value("${encoding.compression.lz4-level:0}")
+    private int lz4Level;
+
+    @Value("${encoding.compression.zstd-level:3}")
+    private int zstdLevel;
+
+    /**
+     * 注册可用的压缩算法，字典由TextDictionaryStore启动时加载
+     */
+    @Bean
+    public TextCodecRegistry textCodecRegistry() {
+        log.info("注册文本包压缩算法: lz4Level={}, zstdLevel={}", lz4Level, zstdLevel);
+        return new TextCodecRegistry()
+                .register(new SnappyCodec())
+                .register(new Lz4Codec(lz4Level))
+                .register(new ZstdCodec(zstdLevel))
+                .register(new ZstdDictionaryCodec(zstdLevel));
+    }
+}
@@ -0,0 +1,165 @@
+package com.translation.encoding.consumer;
+
+import com.translation.common.kafka.KafkaTopics;
+import com.translation.common.kafka.consumer.MemoryAwareConsumer;
+import com.translation.common.kafka.message.EncodingCompletedMessage;
+import com.translation.common.kafka.message.TranslationCompletedMessage;
+import com.translation.encoding.dto.EncodingResponse;
+import com.translation.encoding.service.TextEncodingService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.messaging.handler.annotation.Payload;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.annotation.Resource;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 翻译完成消息消费者 - 编码服务
+ * 批量拉取翻译完成消息，直接用消息中的翻译结果构建文本包，同一批的多个任务并行编码，
+ * 每个任务编码完成后发送编码完成消息
+ */
+@Slf4j
+@Component
+public class TranslationCompletedConsumer extends MemoryAwareConsumer {
+
+    @Resource
+    private TextEncodingService textEncodingService;
+    @Resource
+    private KafkaTemplate<String, Object> kafkaTemplate;
+
+    @Value("${encoding.consumer.parallelism:4}")
+    private int parallelism;
+
+    /**
+     * 任务编码线程池，大小即同一批内并行编码的任务数
+     */
+    private ExecutorService encodeExecutor;
+
+    @PostConstruct
+    public void init() {
+        AtomicInteger threadIndex = new AtomicInteger();
+        encodeExecutor = Executors.newFixedThreadPool(parallelism, runnable -> {
+            Thread thread = new Thread(runnable, "translation-encode-worker-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void destroy() {
+        encodeExecutor.shutdownNow();
+    }
+
+    @KafkaListener(topics = KafkaTopics.TRANSLATION_COMPLETED, groupId = "encoding-service-group",
+            containerFactory = "batchKafkaListenerContainerFactory")
+    public void handleTranslationCompleted(@Payload List<TranslationCompletedMessage> messages,
+                                           Acknowledgment acknowledgment) {
+        // 同一批内重复投递的任务只编码最后一条
+        Map<String, TranslationCompletedMessage> tasks = new LinkedHashMap<>();
+        for (TranslationCompletedMessage message : messages) {
+            tasks.put(message.getTaskId(), message);
+        }
+        log.info("接收到翻译完成消息: 消息数={}, 任务数={}", messages.size(), tasks.size());
+
+        // 内存不足时本批改为逐个编码，避免多个任务的文本同时驻留
+        if (shouldStopConsuming()) {
+            forceGarbageCollection();
+            tasks.values().forEach(this::encodeTask);
+        } else {
+            List<CompletableFuture<Void>> futures = new ArrayList<>();
+            for (TranslationCompletedMessage message : tasks.values()) {
+                futures.add(CompletableFuture.runAsync(() -> encodeTask(message), encodeExecutor));
+            }
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+        }
+
+        acknowledgment.acknowledge();
+    }
+
+    /**
+     * 编码单个任务的翻译结果，失败时发送任务失败消息
+     */
+    private void encodeTask(TranslationCompletedMessage message) {
+        String taskId = message.getTaskId();
+        try {
+            List<TranslationCompletedMessage.TranslationResult> results = sortedResults(message);
+            Map<String, List<String>> texts = toPackTexts(results);
+            if (texts.isEmpty()) {
+                sendTaskFailedMessage(taskId, "编码失败: 没有可编码的翻译结果");
+                return;
+            }
+
+            // 编码ID由任务ID确定，重复投递时覆盖同一编码；文件名随文本包一起存储
+            List<String> audioFileNames = new ArrayList<>(results.size());
+            for (TranslationCompletedMessage.TranslationResult result : results) {
+                audioFileNames.add(result.getAudioFileName() != null ? result.getAudioFileName() : "");
+            }
+            EncodingResponse response = textEncodingService.encodeTaskTexts(taskId, texts, audioFileNames);
+            kafkaTemplate.send(KafkaTopics.ENCODING_COMPLETED, taskId, new EncodingCompletedMessage(
+                    taskId, response.getEncodingId(), response.getOriginalSize(), response.getCompressedSize(),
+                    audioFileNames, LocalDateTime.now()));
+            log.info("已发送编码完成消息: taskId={}, encodingId={}", taskId, response.getEncodingId());
+
+        } catch (Exception e) {
+            log.error("编码翻译结果失败: taskId=" + taskId, e);
+            sendTaskFailedMessage(taskId, "编码失败: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 按音频文件名排序的翻译结果，排序后的序号即文本索引
+     */
+    static List<TranslationCompletedMessage.TranslationResult> sortedResults(TranslationCompletedMessage message) {
+        List<TranslationCompletedMessage.TranslationResult> results = message.getTranslationResults() != null
+                ? new ArrayList<>(message.getTranslationResults()) : new ArrayList<>();
+        results.sort(Comparator.comparing(TranslationCompletedMessage.TranslationResult::getAudioFileName,
+                Comparator.nullsLast(Comparator.naturalOrder())));
+        return results;
+    }
+
+    /**
+     * 翻译结果转为 语言 -> 按文件排列的文本
+     * 文本索引即文件在results中的序号；某个文件缺少该语言的翻译时为空串
+     */
+    static Map<String, List<String>> toPackTexts(List<TranslationCompletedMessage.TranslationResult> results) {
+        Map<String, List<String>> texts = new LinkedHashMap<>();
+        for (int i = 0; i < results.size(); i++) {
+            Map<String, String> translations = results.get(i).getTranslations();
+            if (translations == null) {
+                continue;
+            }
+            for (Map.Entry<String, String> entry : translations.entrySet()) {
+                texts.computeIfAbsent(entry.getKey(), language -> new ArrayList<>(Collections.nCopies(results.size(), "")))
+                        .set(i, entry.getValue() != null ? entry.getValue() : "");
+            }
+        }
+        return texts;
+    }
+
+    private void sendTaskFailedMessage(String taskId, String errorMessage) {
+        try {
+            Map<String, Object> failedMessage = new HashMap<>();
+            failedMessage.put("taskId", taskId);
+            failedMessage.put("service", "encoding-service");
+            failedMessage.put("errorMessage", errorMessage);
+            failedMessage.put("failedTime", LocalDateTime.now());
+
+            kafkaTemplate.send(KafkaTopics.TASK_FAILED, taskId, failedMessage);
+            log.info("已发送任务失败消息: taskId={}", taskId);
+
+        } catch (Exception e) {
+            log.error("发送任务失败消息异常: taskId=" + taskId, e);
+        }
+    }
+}
@@ -177,4 +177,34 @@ public class EncodingController {
             return ApiResponse.error("编码优化失败: " + e.getMessage());
         }
     }
+
+    /**
+     * 训练压缩字典
+     * 从已存储的文本包按语言训练新版本的zstd字典
+     */
+    @PostMapping("/dictionaries/train")
+    public ApiResponse<Object> trainDictionaries() {
+        log.info("训练压缩字典");
+        
+        try {
+            Object result = textEncodingService.trainDictionaries();
+            return ApiResponse.success(result, "字典训练完成");
+        } catch (Exception e) {
+            log.error("训练压缩字典失败", e);
+            return ApiResponse.error("字典训练失败: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 获取压缩字典列表
+     */
+    @GetMapping("/dictionaries")
+    public ApiResponse<Object> getDictionaries() {
+        try {
+            return ApiResponse.success(textEncodingService.getDictionaries());
+        } catch (Exception e) {
+            log.error("获取压缩字典失败", e);
+            return ApiResponse.error("获取压缩字典失败: " + e.getMessage());
+        }
+    }
 }
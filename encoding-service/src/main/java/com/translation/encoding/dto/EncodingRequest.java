@@ -18,7 +18,10 @@ public class EncodingRequest {
     @NotEmpty(message = "文本内容不能为空")
     private Map<String, String> texts;
 
-    private String compressionType = "snappy";
+    /**
+     * 压缩算法：snappy、lz4、zstd、zstd-dict，为空时使用encoding.compression.algorithm
+     */
+    private String compressionType;
 
     private boolean enableOptimization = true;
 }
\ No newline at end of file
@@ -14,6 +14,7 @@ public class EncodingResponse {
     private long originalSize;
     private long compressedSize;
     private double compressionRatio;
+    private String codec;
     private LocalDateTime createTime;
     private String status;
 }
\ No newline at end of file
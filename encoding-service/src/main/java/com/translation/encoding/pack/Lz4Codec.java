@@ -0,0 +1,42 @@
+package com.translation.encoding.pack;
+
+import net.jpountz.lz4.LZ4Compressor;
+import net.jpountz.lz4.LZ4Factory;
+import net.jpountz.lz4.LZ4FastDecompressor;
+
+/**
+ * LZ4压缩：解压速度最快，level大于0时使用高压缩率模式（LZ4 HC）
+ */
+public class Lz4Codec implements TextCodec {
+
+    public static final byte ID = 2;
+
+    private final LZ4Compressor compressor;
+    private final LZ4FastDecompressor decompressor;
+
+    public Lz4Codec(int level) {
+        LZ4Factory factory = LZ4Factory.fastestInstance();
+        this.compressor = level > 0 ? factory.highCompressor(level) : factory.fastCompressor();
+        this.decompressor = factory.fastDecompressor();
+    }
+
+    @Override
+    public byte id() {
+        return ID;
+    }
+
+    @Override
+    public String name() {
+        return "lz4";
+    }
+
+    @Override
+    public byte[] compress(byte[] raw, TextDictionary dictionary) {
+        return compressor.compress(raw);
+    }
+
+    @Override
+    public byte[] decompress(byte[] compressed, int rawLength, TextDictionary dictionary) {
+        return decompressor.decompress(compressed, rawLength);
+    }
+}
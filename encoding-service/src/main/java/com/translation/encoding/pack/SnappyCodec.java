@@ -0,0 +1,39 @@
+package com.translation.encoding.pack;
+
+import org.xerial.snappy.Snappy;
+
+/**
+ * Snappy压缩：速度最快，短文本压缩率一般
+ */
+public class SnappyCodec implements TextCodec {
+
+    public static final byte ID = 1;
+
+    @Override
+    public byte id() {
+        return ID;
+    }
+
+    @Override
+    public String name() {
+        return "snappy";
+    }
+
+    @Override
+    public byte[] compress(byte[] raw, TextDictionary dictionary) {
+        try {
+            return Snappy.compress(raw);
+        } catch (Exception e) {
+            throw new RuntimeException("Snappy压缩失败: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public byte[] decompress(byte[] compressed, int rawLength, TextDictionary dictionary) {
+        try {
+            return Snappy.uncompress(compressed);
+        } catch (Exception e) {
+            throw new RuntimeException("Snappy解压失败: " + e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.translation.encoding.pack;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * 解压后文本块的LRU缓存
+ * 按 (文本包标识, 块位置) 缓存，重复查询同一块内的文本时无需再次解压
+ */
+public class TextBlockCache {
+
+    private final long maxBytes;
+    private long residentBytes;
+    private final LinkedHashMap<BlockKey, byte[]> blocks = new LinkedHashMap<>(16, 0.75f, true);
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * @param maxBytes 缓存的解压数据总字节数上限，不大于0时不缓存
+     */
+    public TextBlockCache(long maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * 获取解压后的文本块，未命中时调用loader解压并放入缓存
+     */
+    public byte[] get(String packKey, int blockOffset, Supplier<byte[]> loader) {
+        if (maxBytes <= 0) {
+            misses.increment();
+            return loader.get();
+        }
+
+        BlockKey key = new BlockKey(packKey, blockOffset);
+        synchronized (this) {
+            byte[] cached = blocks.get(key);
+            if (cached != null) {
+                hits.increment();
+                return cached;
+            }
+        }
+
+        misses.increment();
+        byte[] loaded = loader.get();
+        if (loaded.length <= maxBytes) {
+            synchronized (this) {
+                byte[] previous = blocks.put(key, loaded);
+                residentBytes += loaded.length - (previous != null ? previous.length : 0);
+                while (residentBytes > maxBytes && !blocks.isEmpty()) {
+                    Map.Entry<BlockKey, byte[]> eldest = blocks.entrySet().iterator().next();
+                    residentBytes -= eldest.getValue().length;
+                    blocks.remove(eldest.getKey());
+                }
+            }
+        }
+        return loaded;
+    }
+
+    /**
+     * 只查询缓存，不加载
+     */
+    public synchronized byte[] getIfPresent(String packKey, int blockOffset) {
+        byte[] cached = maxBytes > 0 ? blocks.get(new BlockKey(packKey, blockOffset)) : null;
+        if (cached != null) {
+            hits.increment();
+        }
+        return cached;
+    }
+
+    /**
+     * 移除文本包的全部缓存块（文本包删除或重新编码时调用）
+     */
+    public synchronized void invalidate(String packKey) {
+        blocks.entrySet().removeIf(entry -> {
+            if (entry.getKey().packKey.equals(packKey)) {
+                residentBytes -= entry.getValue().length;
+                return true;
+            }
+            return false;
+        });
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public synchronized long getResidentBytes() {
+        return residentBytes;
+    }
+
+    public synchronized int getBlockCount() {
+        return blocks.size();
+    }
+
+    private static final class BlockKey {
+        private final String packKey;
+        private final int blockOffset;
+
+        private BlockKey(String packKey, int blockOffset) {
+            this.packKey = packKey;
+            this.blockOffset = blockOffset;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof BlockKey)) {
+                return false;
+            }
+            BlockKey other = (BlockKey) o;
+            return blockOffset == other.blockOffset && packKey.equals(other.packKey);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(packKey, blockOffset);
+        }
+    }
+}
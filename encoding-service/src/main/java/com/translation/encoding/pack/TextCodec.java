@@ -0,0 +1,47 @@
+package com.translation.encoding.pack;
+
+/**
+ * 文本块压缩算法
+ * 每个算法有固定的ID写入文本包，新增算法时分配新的ID，已使用的ID不能变更
+ */
+public interface TextCodec {
+
+    /**
+     * 写入文本包的算法ID
+     */
+    byte id();
+
+    /**
+     * 算法名称（EncodingRequest.compressionType）
+     */
+    String name();
+
+    /**
+     * 是否需要按语言训练的压缩字典
+     */
+    default boolean requiresDictionary() {
+        return false;
+    }
+
+    /**
+     * 语言没有字典时改用的算法，压缩级别与本算法相同
+     */
+    default TextCodec withoutDictionary() {
+        return this;
+    }
+
+    /**
+     * 压缩文本块
+     *
+     * @param dictionary 压缩字典，不需要字典的算法传null
+     */
+    byte[] compress(byte[] raw, TextDictionary dictionary);
+
+    /**
+     * 解压文本块
+     *
+     * @param rawLength 解压后的字节数
+     * @param dictionary 压缩时使用的字典，不需要字典的算法传null
+     */
+    byte[] decompress(byte[] compressed, int rawLength, TextDictionary dictionary);
+}
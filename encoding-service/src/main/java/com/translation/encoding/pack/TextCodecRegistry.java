@@ -0,0 +1,90 @@
+package com.translation.encoding.pack;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * 压缩算法和压缩字典注册表
+ * 写入文本包时按名称选择算法，读取时按文本包中记录的算法ID和字典版本解析
+ */
+public class TextCodecRegistry {
+
+    private final Map<Byte, TextCodec> codecsById = new LinkedHashMap<>();
+    private final Map<String, TextCodec> codecsByName = new LinkedHashMap<>();
+    private final Map<String, NavigableMap<Integer, TextDictionary>> dictionaries = new ConcurrentHashMap<>();
+
+    /**
+     * 注册压缩算法，应在启动时完成
+     */
+    public TextCodecRegistry register(TextCodec codec) {
+        if (codecsById.containsKey(codec.id())) {
+            throw new IllegalArgumentException("压缩算法ID重复: " + codec.id());
+        }
+        codecsById.put(codec.id(), codec);
+        codecsByName.put(codec.name(), codec);
+        return this;
+    }
+
+    public TextCodec codec(byte id) {
+        TextCodec codec = codecsById.get(id);
+        if (codec == null) {
+            throw new IllegalArgumentException("不支持的压缩算法: " + id);
+        }
+        return codec;
+    }
+
+    public TextCodec codec(String name) {
+        TextCodec codec = codecsByName.get(name);
+        if (codec == null) {
+            throw new IllegalArgumentException("不支持的压缩算法: " + name + "，可选: " + codecsByName.keySet());
+        }
+        return codec;
+    }
+
+    public Collection<TextCodec> codecs() {
+        return Collections.unmodifiableCollection(codecsByName.values());
+    }
+
+    public void addDictionary(TextDictionary dictionary) {
+        dictionaries.computeIfAbsent(dictionary.getLanguage(), key -> new ConcurrentSkipListMap<>())
+                .put(dictionary.getVersion(), dictionary);
+    }
+
+    /**
+     * 按版本获取字典，不存在时返回null
+     */
+    public TextDictionary dictionary(String language, int version) {
+        NavigableMap<Integer, TextDictionary> versions = dictionaries.get(language);
+        return versions != null ? versions.get(version) : null;
+    }
+
+    /**
+     * 语言的最新字典，没有训练过字典时返回null
+     */
+    public TextDictionary latestDictionary(String language) {
+        NavigableMap<Integer, TextDictionary> versions = dictionaries.get(language);
+        if (versions == null || versions.isEmpty()) {
+            return null;
+        }
+        return versions.lastEntry().getValue();
+    }
+
+    public boolean hasDictionaries() {
+        return !dictionaries.isEmpty();
+    }
+
+    public List<TextDictionary> dictionaries() {
+        List<TextDictionary> all = new ArrayList<>();
+        for (NavigableMap<Integer, TextDictionary> versions : dictionaries.values()) {
+            all.addAll(versions.values());
+        }
+        return all;
+    }
+}
@@ -0,0 +1,27 @@
+package com.translation.encoding.pack;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+/**
+ * 按语言训练的压缩字典
+ * 文本包记录所用字典的版本，字典一经发布不再修改，重新训练时生成新版本
+ */
+@Getter
+@AllArgsConstructor
+public class TextDictionary {
+
+    private final String language;
+    private final int version;
+    private final byte[] data;
+    private final LocalDateTime createTime;
+
+    /**
+     * 字典唯一标识（语言:版本）
+     */
+    public String key() {
+        return language + ":" + version;
+    }
+}
@@ -0,0 +1,273 @@
+package com.translation.encoding.pack;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 二进制文本包（只读视图）
+ * <pre>
+ * 头部      int magic("TPK1") | byte version | byte codec | short flags | int languageCount
+ * 语言目录  每个语言: short nameLength | byte[] name(UTF-8) | byte codec | int dictionaryVersion(0表示无字典)
+ *           | int textCount | int blockCount | int offsetTablePosition | int blockTablePosition
+ * 名称表    flags含FLAG_TEXT_NAMES时存在: int nameCount | 每个索引: short length | byte[] name(UTF-8)
+ * 偏移表    每个语言 int[textCount+1]，文本在该语言解压数据中的累计偏移
+ * 块索引    每个语言 blockCount * (int firstTextIndex | int blockPosition | int blockLength)
+ * 文本块    每个语言按大小切分为多个独立压缩的块，解压后为块内文本的UTF-8字节依次拼接
+ * </pre>
+ * 打开时只解析头部和语言目录；查询单条文本时通过偏移表和块索引定位，只解压所在的块，
+ * 查询耗时与文本包大小无关
+ */
+public final class TextPack {
+
+    public static final int MAGIC = 0x54504B31;
+    public static final byte VERSION = 3;
+    /** 头部标志：语言目录之后有文本名称表；标志为0的文本包（包括早期写入的）没有名称表 */
+    static final short FLAG_TEXT_NAMES = 1;
+    static final int HEADER_SIZE = 12;
+    static final int BLOCK_ENTRY_SIZE = 12;
+
+    private final ByteBuffer buffer;
+    private final Map<String, LanguageEntry> languages;
+    private final byte codecId;
+    private final List<String> textNames;
+    private final String packKey;
+    private final TextBlockCache blockCache;
+
+    private TextPack(ByteBuffer buffer, Map<String, LanguageEntry> languages, byte codecId, List<String> textNames,
+                     String packKey, TextBlockCache blockCache) {
+        this.buffer = buffer;
+        this.languages = languages;
+        this.codecId = codecId;
+        this.textNames = textNames;
+        this.packKey = packKey;
+        this.blockCache = blockCache;
+    }
+
+    /**
+     * 解析文本包头部和语言目录（不使用块缓存）
+     */
+    public static TextPack open(byte[] data, TextCodecRegistry codecs) {
+        return open(ByteBuffer.wrap(data), null, null, codecs);
+    }
+
+    /**
+     * 解析文本包头部和语言目录（不使用块缓存），buffer的position到limit为文本包内容
+     */
+    public static TextPack open(ByteBuffer data, TextCodecRegistry codecs) {
+        return open(data, null, null, codecs);
+    }
+
+    /**
+     * 解析文本包头部和语言目录，buffer的position到limit为文本包内容
+     *
+     * @param packKey 文本包标识，用作块缓存的键
+     * @param blockCache 解压块缓存，可为null
+     * @param codecs 压缩算法和字典注册表
+     */
+    public static TextPack open(ByteBuffer data, String packKey, TextBlockCache blockCache, TextCodecRegistry codecs) {
+        ByteBuffer buffer = data.slice();
+        if (buffer.remaining() < HEADER_SIZE || buffer.getInt(0) != MAGIC) {
+            throw new IllegalArgumentException("不是有效的文本包");
+        }
+        if (buffer.get(4) != VERSION) {
+            throw new IllegalArgumentException("不支持的文本包版本: " + buffer.get(4));
+        }
+
+        ByteBuffer reader = buffer.duplicate();
+        reader.position(8);
+        int languageCount = reader.getInt();
+        Map<String, LanguageEntry> languages = new LinkedHashMap<>();
+        for (int i = 0; i < languageCount; i++) {
+            byte[] name = new byte[reader.getShort()];
+            reader.get(name);
+            String language = new String(name, StandardCharsets.UTF_8);
+            LanguageEntry entry = new LanguageEntry();
+            entry.codec = codecs.codec(reader.get());
+            int dictionaryVersion = reader.getInt();
+            if (dictionaryVersion > 0) {
+                entry.dictionary = codecs.dictionary(language, dictionaryVersion);
+                if (entry.dictionary == null) {
+                    throw new IllegalStateException("压缩字典不存在: " + language + ":" + dictionaryVersion);
+                }
+            }
+            entry.textCount = reader.getInt();
+            entry.blockCount = reader.getInt();
+            entry.offsetTablePosition = reader.getInt();
+            entry.blockTablePosition = reader.getInt();
+            languages.put(language, entry);
+        }
+
+        List<String> textNames = Collections.emptyList();
+        if ((buffer.getShort(6) & FLAG_TEXT_NAMES) != 0) {
+            int nameCount = reader.getInt();
+            textNames = new ArrayList<>(nameCount);
+            for (int i = 0; i < nameCount; i++) {
+                byte[] name = new byte[reader.getShort()];
+                reader.get(name);
+                textNames.add(new String(name, StandardCharsets.UTF_8));
+            }
+        }
+        return new TextPack(buffer, languages, buffer.get(5), Collections.unmodifiableList(textNames), packKey, blockCache);
+    }
+
+    /**
+     * 文本包使用的压缩算法ID
+     * 至少一个语言使用了编码时请求的算法时为请求的算法（其余没有字典的语言退回无字典算法），所有语言都退回时为退回的算法
+     */
+    public byte codecId() {
+        return codecId;
+    }
+
+    /**
+     * 按索引排列的文本名称（如音频文件名），编码时未写入名称时为空列表
+     */
+    public List<String> textNames() {
+        return textNames;
+    }
+
+    /**
+     * 文本包总字节数
+     */
+    public int size() {
+        return buffer.remaining();
+    }
+
+    public Set<String> languages() {
+        return Collections.unmodifiableSet(languages.keySet());
+    }
+
+    /**
+     * 语言的文本数量，语言不存在时返回0
+     */
+    public int textCount(String language) {
+        LanguageEntry entry = languages.get(language);
+        return entry != null ? entry.textCount : 0;
+    }
+
+    public int totalTextCount() {
+        int total = 0;
+        for (LanguageEntry entry : languages.values()) {
+            total += entry.textCount;
+        }
+        return total;
+    }
+
+    /**
+     * 查询单条文本，语言或索引不存在时返回null
+     */
+    public String text(String language, int index) {
+        LanguageEntry entry = languages.get(language);
+        if (entry == null || index < 0 || index >= entry.textCount) {
+            return null;
+        }
+        int block = findBlock(entry, index);
+        int blockStart = textOffset(entry, blockFirstIndex(entry, block));
+        byte[] raw = loadBlock(entry, block, blockStart, true);
+        int start = textOffset(entry, index) - blockStart;
+        return new String(raw, start, textOffset(entry, index + 1) - blockStart - start, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * 查询语言的全部文本，语言不存在时返回空列表
+     * 顺序扫描不写入块缓存，避免冲掉点查询的热点块
+     */
+    public List<String> texts(String language) {
+        LanguageEntry entry = languages.get(language);
+        if (entry == null) {
+            return Collections.emptyList();
+        }
+        List<String> texts = new ArrayList<>(entry.textCount);
+        for (int block = 0; block < entry.blockCount; block++) {
+            int first = blockFirstIndex(entry, block);
+            int end = block + 1 < entry.blockCount ? blockFirstIndex(entry, block + 1) : entry.textCount;
+            int blockStart = textOffset(entry, first);
+            byte[] raw = loadBlock(entry, block, blockStart, false);
+            for (int i = first; i < end; i++) {
+                int start = textOffset(entry, i) - blockStart;
+                texts.add(new String(raw, start, textOffset(entry, i + 1) - blockStart - start, StandardCharsets.UTF_8));
+            }
+        }
+        return texts;
+    }
+
+    /**
+     * 解码全部语言的文本
+     */
+    public Map<String, List<String>> readAll() {
+        Map<String, List<String>> all = new LinkedHashMap<>();
+        for (String language : languages.keySet()) {
+            all.put(language, texts(language));
+        }
+        return all;
+    }
+
+    /**
+     * 二分查找文本所在的块
+     */
+    private int findBlock(LanguageEntry entry, int index) {
+        int low = 0;
+        int high = entry.blockCount - 1;
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            if (blockFirstIndex(entry, mid) <= index) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return low;
+    }
+
+    private int textOffset(LanguageEntry entry, int index) {
+        return buffer.getInt(entry.offsetTablePosition + index * 4);
+    }
+
+    private int blockFirstIndex(LanguageEntry entry, int block) {
+        return buffer.getInt(entry.blockTablePosition + block * BLOCK_ENTRY_SIZE);
+    }
+
+    private byte[] loadBlock(LanguageEntry entry, int block, int blockStart, boolean cacheable) {
+        int position = buffer.getInt(entry.blockTablePosition + block * BLOCK_ENTRY_SIZE + 4);
+        int length = buffer.getInt(entry.blockTablePosition + block * BLOCK_ENTRY_SIZE + 8);
+        int end = block + 1 < entry.blockCount ? blockFirstIndex(entry, block + 1) : entry.textCount;
+        int rawLength = textOffset(entry, end) - blockStart;
+        if (blockCache == null || packKey == null) {
+            return decompress(entry, position, length, rawLength);
+        }
+        if (!cacheable) {
+            byte[] cached = blockCache.getIfPresent(packKey, position);
+            return cached != null ? cached : decompress(entry, position, length, rawLength);
+        }
+        return blockCache.get(packKey, position, () -> decompress(entry, position, length, rawLength));
+    }
+
+    private byte[] decompress(LanguageEntry entry, int position, int length, int rawLength) {
+        try {
+            byte[] compressed = new byte[length];
+            ByteBuffer block = buffer.duplicate();
+            block.position(position);
+            block.get(compressed);
+            return entry.codec.decompress(compressed, rawLength, entry.dictionary);
+        } catch (Exception e) {
+            throw new RuntimeException("文本块解压失败: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 语言目录项
+     */
+    private static class LanguageEntry {
+        private TextCodec codec;
+        private TextDictionary dictionary;
+        private int textCount;
+        private int blockCount;
+        private int offsetTablePosition;
+        private int blockTablePosition;
+    }
+}
@@ -0,0 +1,191 @@
+package com.translation.encoding.pack;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 文本包写入器
+ * 将 语言 -> 文本列表 编码为二进制文本包，格式见{@link TextPack}
+ * 压缩算法和字典按语言记录，同一文本包内不同语言可以使用不同的字典版本
+ */
+public final class TextPackWriter {
+
+    private TextPackWriter() {
+    }
+
+    /**
+     * 编码文本包
+     *
+     * @param texts 语言 -> 按索引排列的文本（null视为空串）
+     * @param blockSize 文本块目标大小（解压后字节数），单条文本超过该大小时独占一个块
+     * @param codec 压缩算法，需要字典的算法在语言没有字典时退回同级别的无字典算法
+     * @param codecs 压缩算法和字典注册表
+     */
+    public static byte[] write(Map<String, List<String>> texts, int blockSize, TextCodec codec, TextCodecRegistry codecs) {
+        return write(texts, Collections.emptyList(), blockSize, codec, codecs);
+    }
+
+    /**
+     * 编码文本包，同时写入文本索引对应的名称（如音频文件名）
+     *
+     * @param texts 语言 -> 按索引排列的文本（null视为空串）
+     * @param textNames 按索引排列的文本名称（null视为空串），为空时不写名称表
+     * @param blockSize 文本块目标大小（解压后字节数），单条文本超过该大小时独占一个块
+     * @param codec 压缩算法，需要字典的算法在语言没有字典时退回同级别的无字典算法
+     * @param codecs 压缩算法和字典注册表
+     */
+    public static byte[] write(Map<String, List<String>> texts, List<String> textNames, int blockSize,
+                               TextCodec codec, TextCodecRegistry codecs) {
+        try {
+            List<LanguageData> languages = new ArrayList<>();
+            int directorySize = 0;
+            int tableSize = 0;
+
+            for (Map.Entry<String, List<String>> entry : texts.entrySet()) {
+                LanguageData language = encodeLanguage(entry.getKey(), entry.getValue(), blockSize, codec, codecs);
+                languages.add(language);
+                directorySize += 2 + language.name.length + 1 + 4 * 5;
+                tableSize += language.offsets.length * 4 + language.blocks.size() * TextPack.BLOCK_ENTRY_SIZE;
+            }
+
+            List<byte[]> names = new ArrayList<>();
+            int nameTableSize = 0;
+            if (textNames != null && !textNames.isEmpty()) {
+                nameTableSize = 4;
+                for (String textName : textNames) {
+                    byte[] name = textName != null ? textName.getBytes(StandardCharsets.UTF_8) : new byte[0];
+                    if (name.length > Short.MAX_VALUE) {
+                        throw new IllegalArgumentException("文本名称过长: " + textName);
+                    }
+                    names.add(name);
+                    nameTableSize += 2 + name.length;
+                }
+            }
+
+            int position = TextPack.HEADER_SIZE + directorySize + nameTableSize + tableSize;
+            int totalSize = position;
+            for (LanguageData language : languages) {
+                for (byte[] block : language.blocks) {
+                    totalSize += block.length;
+                }
+            }
+
+            // 头部记录实际使用的算法：所有语言都退回无字典算法时记录退回的算法
+            TextCodec packCodec = codec;
+            if (!languages.isEmpty() && languages.stream().noneMatch(language -> language.codec == codec)) {
+                packCodec = languages.get(0).codec;
+            }
+
+            ByteBuffer buffer = ByteBuffer.allocate(totalSize);
+            buffer.putInt(TextPack.MAGIC);
+            buffer.put(TextPack.VERSION);
+            buffer.put(packCodec.id());
+            buffer.putShort((short) (names.isEmpty() ? 0 : TextPack.FLAG_TEXT_NAMES));
+            buffer.putInt(languages.size());
+
+            // 语言目录
+            int tablePosition = TextPack.HEADER_SIZE + directorySize + nameTableSize;
+            for (LanguageData language : languages) {
+                buffer.putShort((short) language.name.length);
+                buffer.put(language.name);
+                buffer.put(language.codec.id());
+                buffer.putInt(language.dictionary != null ? language.dictionary.getVersion() : 0);
+                buffer.putInt(language.offsets.length - 1);
+                buffer.putInt(language.blocks.size());
+                buffer.putInt(tablePosition);
+                tablePosition += language.offsets.length * 4;
+                buffer.putInt(tablePosition);
+                tablePosition += language.blocks.size() * TextPack.BLOCK_ENTRY_SIZE;
+            }
+
+            // 名称表
+            if (!names.isEmpty()) {
+                buffer.putInt(names.size());
+                for (byte[] name : names) {
+                    buffer.putShort((short) name.length);
+                    buffer.put(name);
+                }
+            }
+
+            // 文本偏移表和块索引
+            for (LanguageData language : languages) {
+                for (int offset : language.offsets) {
+                    buffer.putInt(offset);
+                }
+                for (int i = 0; i < language.blocks.size(); i++) {
+                    buffer.putInt(language.blockFirstIndexes.get(i));
+                    buffer.putInt(position);
+                    buffer.putInt(language.blocks.get(i).length);
+                    position += language.blocks.get(i).length;
+                }
+            }
+
+            // 文本块
+            for (LanguageData language : languages) {
+                for (byte[] block : language.blocks) {
+                    buffer.put(block);
+                }
+            }
+            return buffer.array();
+
+        } catch (IllegalArgumentException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new RuntimeException("文本包编码失败: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 按块大小切分一个语言的文本并逐块压缩
+     */
+    private static LanguageData encodeLanguage(String languageName, List<String> texts, int blockSize,
+                                               TextCodec codec, TextCodecRegistry codecs) throws Exception {
+        LanguageData language = new LanguageData();
+        language.name = languageName.getBytes(StandardCharsets.UTF_8);
+        if (language.name.length > Short.MAX_VALUE) {
+            throw new IllegalArgumentException("语言名称过长: " + languageName);
+        }
+        language.codec = codec;
+        if (codec.requiresDictionary()) {
+            language.dictionary = codecs.latestDictionary(languageName);
+            if (language.dictionary == null) {
+                language.codec = codec.withoutDictionary();
+            }
+        }
+        language.offsets = new int[texts.size() + 1];
+
+        ByteArrayOutputStream block = new ByteArrayOutputStream();
+        int blockFirstIndex = 0;
+        for (int i = 0; i < texts.size(); i++) {
+            String text = texts.get(i);
+            byte[] bytes = text != null ? text.getBytes(StandardCharsets.UTF_8) : new byte[0];
+            block.write(bytes);
+            language.offsets[i + 1] = language.offsets[i] + bytes.length;
+
+            if (block.size() >= blockSize || i == texts.size() - 1) {
+                language.blockFirstIndexes.add(blockFirstIndex);
+                language.blocks.add(language.codec.compress(block.toByteArray(), language.dictionary));
+                block.reset();
+                blockFirstIndex = i + 1;
+            }
+        }
+        return language;
+    }
+
+    /**
+     * 单个语言的编码中间结果
+     */
+    private static class LanguageData {
+        private byte[] name;
+        private int[] offsets;
+        private TextCodec codec;
+        private TextDictionary dictionary;
+        private final List<Integer> blockFirstIndexes = new ArrayList<>();
+        private final List<byte[]> blocks = new ArrayList<>();
+    }
+}
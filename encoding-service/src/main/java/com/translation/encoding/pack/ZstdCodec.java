@@ -0,0 +1,37 @@
+package com.translation.encoding.pack;
+
+import com.github.luben.zstd.Zstd;
+
+/**
+ * zstd压缩：压缩率高于Snappy/LZ4，解压速度仍然较快
+ */
+public class ZstdCodec implements TextCodec {
+
+    public static final byte ID = 3;
+
+    private final int level;
+
+    public ZstdCodec(int level) {
+        this.level = level;
+    }
+
+    @Override
+    public byte id() {
+        return ID;
+    }
+
+    @Override
+    public String name() {
+        return "zstd";
+    }
+
+    @Override
+    public byte[] compress(byte[] raw, TextDictionary dictionary) {
+        return Zstd.compress(raw, level);
+    }
+
+    @Override
+    public byte[] decompress(byte[] compressed, int rawLength, TextDictionary dictionary) {
+        return Zstd.decompress(compressed, rawLength);
+    }
+}
@@ -0,0 +1,62 @@
+package com.translation.encoding.pack;
+
+import com.github.luben.zstd.Zstd;
+import com.github.luben.zstd.ZstdDictCompress;
+import com.github.luben.zstd.ZstdDictDecompress;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 带预训练字典的zstd压缩
+ * 短句之间共享的词汇和结构放在字典中，每个块不必重复携带，短文本压缩率明显高于无字典压缩
+ */
+public class ZstdDictionaryCodec implements TextCodec {
+
+    public static final byte ID = 4;
+
+    private final int level;
+    private final ZstdCodec withoutDictionary;
+    /** 字典的压缩/解压上下文创建开销较大，按字典缓存 */
+    private final Map<String, ZstdDictCompress> compressDictionaries = new ConcurrentHashMap<>();
+    private final Map<String, ZstdDictDecompress> decompressDictionaries = new ConcurrentHashMap<>();
+
+    public ZstdDictionaryCodec(int level) {
+        this.level = level;
+        this.withoutDictionary = new ZstdCodec(level);
+    }
+
+    @Override
+    public byte id() {
+        return ID;
+    }
+
+    @Override
+    public String name() {
+        return "zstd-dict";
+    }
+
+    @Override
+    public boolean requiresDictionary() {
+        return true;
+    }
+
+    @Override
+    public TextCodec withoutDictionary() {
+        return withoutDictionary;
+    }
+
+    @Override
+    public byte[] compress(byte[] raw, TextDictionary dictionary) {
+        ZstdDictCompress compressDictionary = compressDictionaries.computeIfAbsent(dictionary.key(),
+                key -> new ZstdDictCompress(dictionary.getData(), level));
+        return Zstd.compress(raw, compressDictionary);
+    }
+
+    @Override
+    public byte[] decompress(byte[] compressed, int rawLength, TextDictionary dictionary) {
+        ZstdDictDecompress decompressDictionary = decompressDictionaries.computeIfAbsent(dictionary.key(),
+                key -> new ZstdDictDecompress(dictionary.getData()));
+        return Zstd.decompress(compressed, decompressDictionary, rawLength);
+    }
+}
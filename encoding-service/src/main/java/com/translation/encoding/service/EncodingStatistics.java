@@ -0,0 +1,143 @@
+package com.translation.encoding.service;
+
+import com.translation.encoding.store.EncodingRecord;
+import com.translation.encoding.store.EncodingStore;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.Resource;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 编码全局统计
+ * 在编码、重新编码和删除时增量更新总量和分布直方图，存储按容量或过期策略丢弃编码时通过丢弃回调扣除，
+ * 读取统计不需要遍历存储。启动时遍历一次存储，计入重启前已持久化的编码
+ */
+@Slf4j
+@Component
+public class EncodingStatistics {
+
+    /** 压缩率直方图的桶宽，最后一个桶收集压缩率大于等于1（未变小）的编码 */
+    private static final double RATIO_BUCKET_WIDTH = 0.1;
+    private static final int RATIO_BUCKETS = 11;
+
+    /** 原始大小直方图的桶上限（字节），最后一个桶收集更大的编码 */
+    private static final long[] SIZE_BOUNDS = {
+            1L << 10, 4L << 10, 16L << 10, 64L << 10, 256L << 10, 1L << 20, 4L << 20};
+    private static final String[] SIZE_LABELS = {
+            "<1KB", "<4KB", "<16KB", "<64KB", "<256KB", "<1MB", "<4MB", ">=4MB"};
+
+    @Resource
+    private EncodingStore encodingStore;
+
+    private final LongAdder totalEncodings = new LongAdder();
+    private final LongAdder totalTexts = new LongAdder();
+    private final LongAdder totalOriginalSize = new LongAdder();
+    private final LongAdder totalCompressedSize = new LongAdder();
+    private final LongAdder[] ratioHistogram = newHistogram(RATIO_BUCKETS);
+    private final LongAdder[] sizeHistogram = newHistogram(SIZE_LABELS.length);
+
+    @PostConstruct
+    public void load() {
+        encodingStore.addDropListener((encodingId, record) -> recordRemoved(record));
+        encodingStore.forEach((encodingId, record) -> recordEncoded(record));
+        log.info("编码统计初始化完成: 编码数={}", totalEncodings.sum());
+    }
+
+    /**
+     * 新增编码
+     */
+    public void recordEncoded(EncodingRecord record) {
+        totalEncodings.increment();
+        totalTexts.add(record.getTextCount());
+        totalOriginalSize.add(record.getOriginalSize());
+        totalCompressedSize.add(record.packSize());
+        ratioHistogram[ratioBucket(record.compressionRatio())].increment();
+        sizeHistogram[sizeBucket(record.getOriginalSize())].increment();
+    }
+
+    /**
+     * 文本包被重新编码替换，原始大小和文本数不变
+     */
+    public void recordReplaced(EncodingRecord previous, EncodingRecord replacement) {
+        totalCompressedSize.add(replacement.packSize() - previous.packSize());
+        ratioHistogram[ratioBucket(previous.compressionRatio())].decrement();
+        ratioHistogram[ratioBucket(replacement.compressionRatio())].increment();
+    }
+
+    /**
+     * 删除编码，或编码被存储丢弃
+     */
+    public void recordRemoved(EncodingRecord record) {
+        totalEncodings.decrement();
+        totalTexts.add(-record.getTextCount());
+        totalOriginalSize.add(-record.getOriginalSize());
+        totalCompressedSize.add(-record.packSize());
+        ratioHistogram[ratioBucket(record.compressionRatio())].decrement();
+        sizeHistogram[sizeBucket(record.getOriginalSize())].decrement();
+    }
+
+    public long getTotalEncodings() {
+        return totalEncodings.sum();
+    }
+
+    public long getTotalTexts() {
+        return totalTexts.sum();
+    }
+
+    public long getTotalOriginalSize() {
+        return totalOriginalSize.sum();
+    }
+
+    public long getTotalCompressedSize() {
+        return totalCompressedSize.sum();
+    }
+
+    /**
+     * 压缩率分布（区间 -> 编码数）
+     */
+    public Map<String, Long> getRatioHistogram() {
+        Map<String, Long> histogram = new LinkedHashMap<>();
+        for (int i = 0; i < RATIO_BUCKETS - 1; i++) {
+            histogram.put(String.format("%.1f-%.1f", i * RATIO_BUCKET_WIDTH, (i + 1) * RATIO_BUCKET_WIDTH),
+                    ratioHistogram[i].sum());
+        }
+        histogram.put(">=1.0", ratioHistogram[RATIO_BUCKETS - 1].sum());
+        return histogram;
+    }
+
+    /**
+     * 原始大小分布（区间 -> 编码数）
+     */
+    public Map<String, Long> getSizeHistogram() {
+        Map<String, Long> histogram = new LinkedHashMap<>();
+        for (int i = 0; i < SIZE_LABELS.length; i++) {
+            histogram.put(SIZE_LABELS[i], sizeHistogram[i].sum());
+        }
+        return histogram;
+    }
+
+    private static int ratioBucket(double ratio) {
+        return Math.min(RATIO_BUCKETS - 1, Math.max(0, (int) (ratio * (1 / RATIO_BUCKET_WIDTH))));
+    }
+
+    private static int sizeBucket(long size) {
+        for (int i = 0; i < SIZE_BOUNDS.length; i++) {
+            if (size < SIZE_BOUNDS[i]) {
+                return i;
+            }
+        }
+        return SIZE_BOUNDS.length;
+    }
+
+    private static LongAdder[] newHistogram(int buckets) {
+        LongAdder[] histogram = new LongAdder[buckets];
+        for (int i = 0; i < buckets; i++) {
+            histogram[i] = new LongAdder();
+        }
+        return histogram;
+    }
+}
@@ -0,0 +1,142 @@
+package com.translation.encoding.service;
+
+import com.github.luben.zstd.ZstdDictTrainer;
+import com.translation.encoding.pack.TextCodecRegistry;
+import com.translation.encoding.pack.TextDictionary;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.Resource;
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 压缩字典存储
+ * 字典按 语言/v版本.dict 保存在磁盘上，启动时全部加载到注册表。
+ * 已发布的字典只增不改，保证引用旧版本字典的文本包始终可以解压
+ */
+@Slf4j
+@Component
+public class TextDictionaryStore {
+
+    private static final Pattern DICTIONARY_FILE = Pattern.compile("v(\\d+)\\.dict");
+    /** 语言代码同时用作字典目录名，只允许字母、数字、下划线和连字符 */
+    private static final Pattern LANGUAGE = Pattern.compile("[A-Za-z0-9_-]{1,32}");
+
+    @Resource
+    private TextCodecRegistry textCodecRegistry;
+
+    @Value("${encoding.dictionary.path:./encoding-dictionaries}")
+    private String dictionaryPath;
+
+    @Value("${encoding.dictionary.size:112640}")
+    private int dictionarySize;
+
+    @Value("${encoding.dictionary.min-samples:100}")
+    private int minSamples;
+
+    @PostConstruct
+    public void load() {
+        File[] languageDirs = new File(dictionaryPath).listFiles(File::isDirectory);
+        if (languageDirs == null) {
+            return;
+        }
+
+        int loaded = 0;
+        for (File languageDir : languageDirs) {
+            if (!isValidLanguage(languageDir.getName())) {
+                continue;
+            }
+            File[] files = languageDir.listFiles(File::isFile);
+            if (files == null) {
+                continue;
+            }
+            for (File file : files) {
+                Matcher matcher = DICTIONARY_FILE.matcher(file.getName());
+                if (!matcher.matches()) {
+                    continue;
+                }
+                try {
+                    textCodecRegistry.addDictionary(new TextDictionary(languageDir.getName(),
+                            Integer.parseInt(matcher.group(1)), Files.readAllBytes(file.toPath()),
+                            LocalDateTime.ofInstant(Instant.ofEpochMilli(file.lastModified()), ZoneId.systemDefault())));
+                    loaded++;
+                } catch (Exception e) {
+                    log.error("加载压缩字典失败: " + file.getAbsolutePath(), e);
+                }
+            }
+        }
+        log.info("压缩字典加载完成: 目录={}, 字典数={}", dictionaryPath, loaded);
+    }
+
+    /**
+     * 语言代码是否可以用作字典目录名
+     * 语言来自文本包的键（REST请求和Kafka消息），不可信，含路径分隔符或..的键不能训练字典
+     */
+    public static boolean isValidLanguage(String language) {
+        return language != null && LANGUAGE.matcher(language).matches();
+    }
+
+    /**
+     * 用样本文本训练语言的新版本字典
+     *
+     * @return 新字典，样本不足时返回null
+     */
+    public synchronized TextDictionary train(String language, List<byte[]> samples) {
+        if (!isValidLanguage(language)) {
+            throw new IllegalArgumentException("语言代码不能用于字典目录: " + language);
+        }
+        if (samples.size() < minSamples) {
+            log.info("样本不足，跳过字典训练: language={}, 样本数={}", language, samples.size());
+            return null;
+        }
+
+        int sampleBytes = 0;
+        for (byte[] sample : samples) {
+            sampleBytes += sample.length;
+        }
+        ZstdDictTrainer trainer = new ZstdDictTrainer(sampleBytes, dictionarySize);
+        for (byte[] sample : samples) {
+            trainer.addSample(sample);
+        }
+        byte[] data = trainer.trainSamples();
+
+        TextDictionary latest = textCodecRegistry.latestDictionary(language);
+        TextDictionary dictionary = new TextDictionary(language, latest != null ? latest.getVersion() + 1 : 1,
+                data, LocalDateTime.now());
+        save(dictionary);
+        textCodecRegistry.addDictionary(dictionary);
+
+        log.info("压缩字典训练完成: language={}, version={}, 样本数={}, 字典大小={}",
+                language, dictionary.getVersion(), samples.size(), data.length);
+        return dictionary;
+    }
+
+    private void save(TextDictionary dictionary) {
+        try {
+            Path root = Paths.get(dictionaryPath).toAbsolutePath().normalize();
+            Path dir = root.resolve(dictionary.getLanguage()).normalize();
+            if (!isValidLanguage(dictionary.getLanguage()) || !root.equals(dir.getParent())) {
+                throw new IllegalArgumentException("字典目录超出存储路径: " + dictionary.getLanguage());
+            }
+            Files.createDirectories(dir);
+            Path target = dir.resolve("v" + dictionary.getVersion() + ".dict");
+            Path temp = dir.resolve(target.getFileName() + ".tmp");
+            Files.write(temp, dictionary.getData());
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (Exception e) {
+            throw new RuntimeException("保存压缩字典失败: " + dictionary.key() + ", " + e.getMessage());
+        }
+    }
+}
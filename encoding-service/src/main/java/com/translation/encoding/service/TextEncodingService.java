@@ -22,6 +22,28 @@ public interface TextEncodingService {
      */
     EncodingResponse encodeTexts(EncodingRequest request);
 
+    /**
+     * 编码多语言文本包
+     * 每个语言可包含多条文本，按索引查询
+     * 
+     * @param taskId 任务ID
+     * @param texts 语言 -> 按索引排列的文本
+     * @param compressionType 压缩算法，为null时使用encoding.compression.algorithm
+     * @return 编码响应
+     */
+    EncodingResponse encodeTextPack(String taskId, Map<String, List<String>> texts, String compressionType);
+
+    /**
+     * 编码任务的翻译结果
+     * 编码ID由任务ID确定，同一任务重复编码时覆盖原编码，不产生新的编码
+     * 
+     * @param taskId 任务ID
+     * @param texts 语言 -> 按索引排列的文本
+     * @param textNames 按索引排列的文本名称（音频文件名），写入文本包
+     * @return 编码响应
+     */
+    EncodingResponse encodeTaskTexts(String taskId, Map<String, List<String>> texts, List<String> textNames);
+
     /**
      * 查询文本
      * 通过语言->文本编号->文本来源快速查询文本内容
@@ -80,10 +102,25 @@ public interface TextEncodingService {
 
     /**
      * 优化编码
-     * 对现有编码进行优化，提高压缩率和查询效率
+     * 用每种压缩算法重新编码，选择压缩后最小的替换现有编码
      * 
      * @param encodingId 编码ID
      * @return 优化结果
      */
     Object optimizeEncoding(String encodingId);
-}
+
+    /**
+     * 训练压缩字典
+     * 从已存储的文本包中按语言采样，为每个语言训练新版本的zstd字典
+     * 
+     * @return 训练结果
+     */
+    Object trainDictionaries();
+
+    /**
+     * 获取全部压缩字典
+     * 
+     * @return 字典列表（语言、版本、大小）
+     */
+    Object getDictionaries();
+}
\ No newline at end of file
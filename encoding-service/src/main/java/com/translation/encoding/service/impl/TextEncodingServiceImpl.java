@@ -1,21 +1,41 @@
 package com.translation.encoding.service.impl;
 
 import cn.hutool.core.util.IdUtil;
-import cn.hutool.json.JSONUtil;
 import com.translation.encoding.dto.EncodingRequest;
 import com.translation.encoding.dto.EncodingResponse;
 import com.translation.encoding.dto.QueryRequest;
+import com.translation.encoding.pack.TextBlockCache;
+import com.translation.encoding.pack.TextCodec;
+import com.translation.encoding.pack.TextCodecRegistry;
+import com.translation.encoding.pack.TextDictionary;
+import com.translation.encoding.pack.TextPack;
+import com.translation.encoding.pack.TextPackWriter;
+import com.translation.encoding.pack.ZstdCodec;
+import com.translation.encoding.pack.ZstdDictionaryCodec;
+import com.translation.encoding.service.EncodingStatistics;
+import com.translation.encoding.service.TextDictionaryStore;
 import com.translation.encoding.service.TextEncodingService;
-import lombok.AllArgsConstructor;
-import lombok.Data;
-import lombok.NoArgsConstructor;
+import com.translation.encoding.store.EncodingRecord;
+import com.translation.encoding.store.EncodingStore;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
-import org.xerial.snappy.Snappy;
 
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.annotation.Resource;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * 文本编码服务实现类
@@ -25,44 +45,155 @@ import java.util.concurrent.ConcurrentHashMap;
 @Service
 public class TextEncodingServiceImpl implements TextEncodingService {
 
-    // 内存存储，生产环境可替换为数据库或分布式缓存
-    private final Map<String, EncodedData> encodingStorage = new ConcurrentHashMap<>();
-    private final Map<String, CompressionStats> statsStorage = new ConcurrentHashMap<>();
+    /**
+     * 每个编码除文本包外的固定内存开销估算（存储条目、ByteBuffer对象及索引）
+     */
+    private static final long ENTRY_OVERHEAD_BYTES = 320;
+
+    @Resource
+    private EncodingStore encodingStore;
+    @Resource
+    private EncodingStatistics encodingStatistics;
+    @Resource
+    private TextCodecRegistry textCodecRegistry;
+    @Resource
+    private TextDictionaryStore textDictionaryStore;
+
+    @Value("${encoding.compression.algorithm:snappy}")
+    private String defaultAlgorithm;
+    @Value("${encoding.compression.block-size:16384}")
+    private int blockSize;
+    @Value("${encoding.query.enable-caching:true}")
+    private boolean cachingEnabled;
+    @Value("${encoding.query.cache-max-bytes:67108864}")
+    private long cacheMaxBytes;
+    @Value("${encoding.performance.thread-pool-size:10}")
+    private int queryThreadPoolSize;
+    @Value("${encoding.dictionary.sample-bytes:10485760}")
+    private int dictionarySampleBytes;
+    @Value("${encoding.optimizer.enabled:true}")
+    private boolean optimizerEnabled;
+    @Value("${encoding.optimizer.interval-ms:60000}")
+    private long optimizerIntervalMs;
+    @Value("${encoding.optimizer.cold-idle-ms:600000}")
+    private long coldIdleMs;
+    @Value("${encoding.optimizer.cold-codec:zstd-dict}")
+    private String coldCodecName;
+    @Value("${encoding.optimizer.cold-zstd-level:19}")
+    private int coldZstdLevel;
+    @Value("${encoding.optimizer.promote-access-count:20}")
+    private long promoteAccessCount;
+    @Value("${encoding.optimizer.cpu-budget:0.1}")
+    private double optimizerCpuBudget;
+
+    private TextBlockCache blockCache;
+    private TextCodec coldCodec;
+
+    /**
+     * 批量查询线程池，每个线程处理一个文本包的全部查询
+     */
+    private ExecutorService queryExecutor;
+
+    // 后台优化统计
+    private final LongAdder optimizerDemoted = new LongAdder();
+    private final LongAdder optimizerPromoted = new LongAdder();
+    private final LongAdder optimizerBytesReclaimed = new LongAdder();
+    private final LongAdder optimizerCpuTimeMs = new LongAdder();
+    private volatile LocalDateTime optimizerLastRunTime;
+
+    @PostConstruct
+    public void init() {
+        blockCache = new TextBlockCache(cachingEnabled ? cacheMaxBytes : 0);
+        // 存储丢弃的编码再次编码时版本号从0开始，缓存块须随丢弃移除，否则新文本包会读到旧块
+        encodingStore.addDropListener((encodingId, record) -> blockCache.invalidate(packKey(encodingId, record)));
+        // 冷数据使用高压缩级别，解压与压缩级别无关，读取时仍按ID使用注册表中的算法
+        if ("zstd".equals(coldCodecName)) {
+            coldCodec = new ZstdCodec(coldZstdLevel);
+        } else if ("zstd-dict".equals(coldCodecName)) {
+            coldCodec = new ZstdDictionaryCodec(coldZstdLevel);
+        } else {
+            coldCodec = textCodecRegistry.codec(coldCodecName);
+        }
+        AtomicInteger threadIndex = new AtomicInteger();
+        queryExecutor = Executors.newFixedThreadPool(queryThreadPoolSize, runnable -> {
+            Thread thread = new Thread(runnable, "encoding-query-worker-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void destroy() {
+        queryExecutor.shutdownNow();
+    }
 
     @Override
     public EncodingResponse encodeTexts(EncodingRequest request) {
-        log.info("开始编码文本，任务ID: {}, 语言数量: {}", request.getTaskId(), request.getTexts().size());
-        
-        String encodingId = IdUtil.simpleUUID();
+        Map<String, List<String>> packTexts = new LinkedHashMap<>();
+        for (Map.Entry<String, String> entry : request.getTexts().entrySet()) {
+            // 每个语言一条文本，索引为0
+            packTexts.put(entry.getKey(), Collections.singletonList(entry.getValue()));
+        }
+        return encodeTextPack(request.getTaskId(), packTexts, request.getCompressionType());
+    }
+
+    @Override
+    public EncodingResponse encodeTextPack(String taskId, Map<String, List<String>> texts, String compressionType) {
+        return encode(IdUtil.simpleUUID(), taskId, texts, Collections.emptyList(), compressionType);
+    }
+
+    @Override
+    public EncodingResponse encodeTaskTexts(String taskId, Map<String, List<String>> texts, List<String> textNames) {
+        return encode(taskEncodingId(taskId), taskId, texts, textNames, null);
+    }
+
+    /**
+     * 任务的编码ID，由任务ID确定
+     */
+    static String taskEncodingId(String taskId) {
+        return UUID.nameUUIDFromBytes(("task:" + taskId).getBytes(StandardCharsets.UTF_8)).toString().replace("-", "");
+    }
+
+    /**
+     * 编码文本包并存储，编码ID已存在时覆盖原编码
+     */
+    private EncodingResponse encode(String encodingId, String taskId, Map<String, List<String>> texts,
+                                    List<String> textNames, String compressionType) {
+        log.info("开始编码文本，任务ID: {}, 语言数量: {}", taskId, texts.size());
         
         try {
             // 计算原始大小
-            long originalSize = calculateOriginalSize(request.getTexts());
-            
-            // 编码文本数据
-            EncodedData encodedData = encodeTextData(request);
+            long originalSize = calculateOriginalSize(texts);
             
-            // 压缩编码后的数据
-            byte[] compressedData = compressData(encodedData.getData());
-            encodedData.setCompressedData(compressedData);
+            // 编码为二进制文本包（各语言文本块独立压缩）
+            EncodingRecord record = encodeTextData(taskId, texts, textNames, compressionType);
+            record.setOriginalSize(originalSize);
+            int compressedSize = record.packSize();
             
-            // 存储编码数据
-            encodingStorage.put(encodingId, encodedData);
+            // 存储编码数据；覆盖时版本号递增，原编码的统计和缓存块一并移除
+            EncodingRecord previous = encodingStore.get(encodingId);
+            if (previous != null) {
+                record.setPackVersion(previous.getPackVersion() + 1);
+            }
+            encodingStore.put(encodingId, record);
+            if (previous != null) {
+                encodingStatistics.recordRemoved(previous);
+                blockCache.invalidate(packKey(encodingId, previous));
+                log.info("覆盖已有编码，编码ID: {}", encodingId);
+            }
+            encodingStatistics.recordEncoded(record);
             
             // 计算压缩统计
-            double compressionRatio = (double) compressedData.length / originalSize;
-            CompressionStats stats = new CompressionStats(
-                    originalSize, compressedData.length, compressionRatio, LocalDateTime.now()
-            );
-            statsStorage.put(encodingId, stats);
+            double compressionRatio = (double) compressedSize / originalSize;
             
             // 构建响应
             EncodingResponse response = new EncodingResponse();
             response.setEncodingId(encodingId);
-            response.setTaskId(request.getTaskId());
+            response.setTaskId(taskId);
             response.setOriginalSize(originalSize);
-            response.setCompressedSize(compressedData.length);
+            response.setCompressedSize(compressedSize);
             response.setCompressionRatio(compressionRatio);
+            response.setCodec(record.getCodec());
             response.setCreateTime(LocalDateTime.now());
             response.setStatus("SUCCESS");
             
@@ -72,7 +203,7 @@ public class TextEncodingServiceImpl implements TextEncodingService {
             return response;
             
         } catch (Exception e) {
-            log.error("文本编码失败，任务ID: " + request.getTaskId(), e);
+            log.error("文本编码失败，任务ID: " + taskId, e);
             throw new RuntimeException("编码失败: " + e.getMessage(), e);
         }
     }
@@ -82,34 +213,17 @@ public class TextEncodingServiceImpl implements TextEncodingService {
         log.info("查询文本，编码ID: {}, 语言: {}, 索引: {}", 
                 request.getEncodingId(), request.getLanguage(), request.getTextIndex());
         
-        EncodedData encodedData = encodingStorage.get(request.getEncodingId());
-        if (encodedData == null) {
+        EncodingRecord record = encodingStore.get(request.getEncodingId());
+        if (record == null) {
             throw new RuntimeException("编码数据不存在: " + request.getEncodingId());
         }
+        encodingStore.touch(request.getEncodingId());
         
         try {
-            // 解压数据
-            byte[] decompressedData = decompressData(encodedData.getCompressedData());
-            Map<String, Object> textData = JSONUtil.toBean(new String(decompressedData), Map.class);
-            
-            if (request.getLanguage() != null) {
-                // 查询特定语言的文本
-                Map<String, Object> languageData = (Map<String, Object>) textData.get(request.getLanguage());
-                if (languageData == null) {
-                    return Collections.emptyMap();
-                }
-                
-                if (request.getTextIndex() != null) {
-                    // 查询特定索引的文本
-                    return languageData.get(request.getTextIndex().toString());
-                } else {
-                    // 返回该语言的所有文本
-                    return languageData;
-                }
-            } else {
-                // 返回所有语言的文本
-                return textData;
-            }
+            // 只解析文本包目录，按需解压所查询语言的文本块
+            TextPack pack = TextPack.open(record.getPack(),
+                    packKey(request.getEncodingId(), record), blockCache, textCodecRegistry);
+            return resolveQuery(pack, request, new HashMap<>());
             
         } catch (Exception e) {
             log.error("查询文本失败，编码ID: " + request.getEncodingId(), e);
@@ -121,48 +235,119 @@ public class TextEncodingServiceImpl implements TextEncodingService {
     public Object batchQueryTexts(List<QueryRequest> requests) {
         log.info("批量查询文本，请求数量: {}", requests.size());
         
-        List<Object> results = new ArrayList<>();
-        for (QueryRequest request : requests) {
-            try {
-                Object result = queryText(request);
-                results.add(Map.of(
-                        "request", request,
-                        "success", true,
-                        "data", result
-                ));
-            } catch (Exception e) {
-                results.add(Map.of(
-                        "request", request,
-                        "success", false,
-                        "error", e.getMessage()
-                ));
+        // 按编码ID分组，每个文本包只打开一次，不同文本包并行查询
+        Map<String, List<Integer>> groups = new LinkedHashMap<>();
+        for (int i = 0; i < requests.size(); i++) {
+            groups.computeIfAbsent(requests.get(i).getEncodingId(), key -> new ArrayList<>()).add(i);
+        }
+        
+        Object[] results = new Object[requests.size()];
+        if (groups.size() == 1) {
+            Map.Entry<String, List<Integer>> group = groups.entrySet().iterator().next();
+            queryGroup(group.getKey(), group.getValue(), requests, results);
+        } else {
+            List<CompletableFuture<Void>> futures = new ArrayList<>();
+            for (Map.Entry<String, List<Integer>> group : groups.entrySet()) {
+                futures.add(CompletableFuture.runAsync(
+                        () -> queryGroup(group.getKey(), group.getValue(), requests, results), queryExecutor));
             }
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
         }
         
         return Map.of(
                 "total", requests.size(),
-                "results", results
+                "results", Arrays.asList(results)
         );
     }
 
+    /**
+     * 查询同一文本包的一组请求，结果按原请求位置写入results
+     * 同一语言的全部文本只解压一次，单条文本经块缓存读取
+     */
+    private void queryGroup(String encodingId, List<Integer> indexes, List<QueryRequest> requests, Object[] results) {
+        TextPack pack = null;
+        String error = null;
+        try {
+            EncodingRecord record = encodingId != null ? encodingStore.get(encodingId) : null;
+            if (record == null) {
+                error = "编码数据不存在: " + encodingId;
+            } else {
+                pack = TextPack.open(record.getPack(), packKey(encodingId, record), blockCache, textCodecRegistry);
+            }
+        } catch (Exception e) {
+            log.error("查询文本失败，编码ID: " + encodingId, e);
+            error = "查询失败: " + e.getMessage();
+        }
+        
+        Map<String, List<String>> decodedLanguages = new HashMap<>();
+        for (int index : indexes) {
+            QueryRequest request = requests.get(index);
+            if (pack == null) {
+                results[index] = Map.of("request", request, "success", false, "error", error);
+                continue;
+            }
+            encodingStore.touch(encodingId);
+            try {
+                // 索引越界时data为null，Map.of不接受null值
+                Map<String, Object> result = new LinkedHashMap<>();
+                result.put("request", request);
+                result.put("success", true);
+                result.put("data", resolveQuery(pack, request, decodedLanguages));
+                results[index] = result;
+            } catch (Exception e) {
+                results[index] = Map.of("request", request, "success", false, "error", "查询失败: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * 在已打开的文本包上执行查询
+     *
+     * @param decodedLanguages 已解压的语言全部文本，同一文本包的多个查询共用
+     */
+    private Object resolveQuery(TextPack pack, QueryRequest request, Map<String, List<String>> decodedLanguages) {
+        if (request.getLanguage() != null) {
+            if (request.getTextIndex() != null) {
+                // 查询特定索引的文本
+                List<String> decoded = decodedLanguages.get(request.getLanguage());
+                int textIndex = request.getTextIndex();
+                if (decoded == null) {
+                    return pack.text(request.getLanguage(), textIndex);
+                }
+                return textIndex >= 0 && textIndex < decoded.size() ? decoded.get(textIndex) : null;
+            } else {
+                // 返回该语言的所有文本
+                return toIndexedTexts(decodedLanguages.computeIfAbsent(request.getLanguage(), pack::texts));
+            }
+        } else {
+            // 返回所有语言的文本
+            Map<String, Object> textData = new LinkedHashMap<>();
+            for (String language : pack.languages()) {
+                textData.put(language, toIndexedTexts(decodedLanguages.computeIfAbsent(language, pack::texts)));
+            }
+            return textData;
+        }
+    }
+
     @Override
     public Object getEncodingInfo(String encodingId) {
         log.info("获取编码信息，编码ID: {}", encodingId);
         
-        EncodedData encodedData = encodingStorage.get(encodingId);
-        CompressionStats stats = statsStorage.get(encodingId);
-        
-        if (encodedData == null) {
+        EncodingRecord record = encodingStore.get(encodingId);
+        if (record == null) {
             throw new RuntimeException("编码数据不存在: " + encodingId);
         }
         
         return Map.of(
                 "encodingId", encodingId,
-                "taskId", encodedData.getTaskId(),
-                "languageCount", encodedData.getLanguageCount(),
-                "textCount", encodedData.getTextCount(),
-                "createTime", encodedData.getCreateTime(),
-                "compressionStats", stats != null ? stats : "统计信息不可用"
+                "taskId", record.getTaskId(),
+                "languageCount", record.getLanguageCount(),
+                "codec", record.getCodec(),
+                "cold", record.isCold(),
+                "textCount", record.getTextCount(),
+                "createTime", record.getCreateTime(),
+                "footprint", footprint(record),
+                "compressionStats", compressionStats(record)
         );
     }
 
@@ -170,19 +355,21 @@ public class TextEncodingServiceImpl implements TextEncodingService {
     public Object decodeTexts(String encodingId) {
         log.info("解码文本包，编码ID: {}", encodingId);
         
-        EncodedData encodedData = encodingStorage.get(encodingId);
-        if (encodedData == null) {
+        EncodingRecord record = encodingStore.get(encodingId);
+        if (record == null) {
             throw new RuntimeException("编码数据不存在: " + encodingId);
         }
+        encodingStore.touch(encodingId);
         
         try {
-            byte[] decompressedData = decompressData(encodedData.getCompressedData());
-            Map<String, Object> textData = JSONUtil.toBean(new String(decompressedData), Map.class);
+            TextPack pack = TextPack.open(record.getPack(), textCodecRegistry);
+            Map<String, Object> textData = toTextData(pack);
             
             return Map.of(
                     "encodingId", encodingId,
-                    "taskId", encodedData.getTaskId(),
+                    "taskId", record.getTaskId(),
                     "decodedTexts", textData,
+                    "textNames", pack.textNames(),
                     "decodeTime", LocalDateTime.now()
             );
             
@@ -196,8 +383,11 @@ public class TextEncodingServiceImpl implements TextEncodingService {
     public void deleteEncoding(String encodingId) {
         log.info("删除编码数据，编码ID: {}", encodingId);
         
-        encodingStorage.remove(encodingId);
-        statsStorage.remove(encodingId);
+        EncodingRecord removed = encodingStore.remove(encodingId);
+        if (removed != null) {
+            encodingStatistics.recordRemoved(removed);
+            blockCache.invalidate(packKey(encodingId, removed));
+        }
         
         log.info("编码数据删除完成，编码ID: {}", encodingId);
     }
@@ -206,42 +396,58 @@ public class TextEncodingServiceImpl implements TextEncodingService {
     public Map<String, Object> getEncodingStatistics() {
         log.info("获取编码统计信息");
         
-        int totalEncodings = encodingStorage.size();
-        long totalOriginalSize = statsStorage.values().stream()
-                .mapToLong(CompressionStats::getOriginalSize)
-                .sum();
-        long totalCompressedSize = statsStorage.values().stream()
-                .mapToLong(CompressionStats::getCompressedSize)
-                .sum();
+        // 读取增量维护的汇总值，不遍历存储
+        long totalEncodings = encodingStatistics.getTotalEncodings();
+        long totalOriginalSize = encodingStatistics.getTotalOriginalSize();
+        long totalCompressedSize = encodingStatistics.getTotalCompressedSize();
+        long totalTexts = encodingStatistics.getTotalTexts();
+        long overheadBytes = totalEncodings * ENTRY_OVERHEAD_BYTES;
         
         double avgCompressionRatio = totalOriginalSize > 0 ? 
                 (double) totalCompressedSize / totalOriginalSize : 0.0;
         
-        return Map.of(
-                "totalEncodings", totalEncodings,
-                "totalOriginalSize", totalOriginalSize,
-                "totalCompressedSize", totalCompressedSize,
-                "avgCompressionRatio", avgCompressionRatio,
-                "spaceSaved", totalOriginalSize - totalCompressedSize,
-                "spaceSavedPercentage", (1 - avgCompressionRatio) * 100
-        );
+        Map<String, Object> statistics = new LinkedHashMap<>();
+        statistics.put("totalEncodings", totalEncodings);
+        statistics.put("totalOriginalSize", totalOriginalSize);
+        statistics.put("totalCompressedSize", totalCompressedSize);
+        statistics.put("avgCompressionRatio", avgCompressionRatio);
+        statistics.put("spaceSaved", totalOriginalSize - totalCompressedSize);
+        statistics.put("spaceSavedPercentage", (1 - avgCompressionRatio) * 100);
+        statistics.put("histograms", Map.of(
+                "compressionRatio", encodingStatistics.getRatioHistogram(),
+                "originalSize", encodingStatistics.getSizeHistogram()
+        ));
+        statistics.put("footprint", Map.of(
+                "packBytes", totalCompressedSize,
+                "overheadBytes", overheadBytes,
+                "bytesPerText", totalTexts > 0 ? (double) (totalCompressedSize + overheadBytes) / totalTexts : 0.0
+        ));
+        statistics.put("blockCache", Map.of(
+                "hits", blockCache.getHits(),
+                "misses", blockCache.getMisses(),
+                "residentBytes", blockCache.getResidentBytes()
+        ));
+        statistics.put("optimizer", getOptimizerStatistics());
+        statistics.put("storage", encodingStore.getStatistics());
+        return statistics;
     }
 
     @Override
     public Object analyzeCompression(String encodingId) {
         log.info("分析压缩率，编码ID: {}", encodingId);
         
-        CompressionStats stats = statsStorage.get(encodingId);
-        if (stats == null) {
+        EncodingRecord record = encodingStore.get(encodingId);
+        if (record == null) {
             throw new RuntimeException("压缩统计信息不存在: " + encodingId);
         }
+        double compressionRatio = record.compressionRatio();
         
         String compressionLevel;
-        if (stats.getCompressionRatio() < 0.3) {
+        if (compressionRatio < 0.3) {
             compressionLevel = "优秀";
-        } else if (stats.getCompressionRatio() < 0.6) {
+        } else if (compressionRatio < 0.6) {
             compressionLevel = "良好";
-        } else if (stats.getCompressionRatio() < 0.8) {
+        } else if (compressionRatio < 0.8) {
             compressionLevel = "一般";
         } else {
             compressionLevel = "较差";
@@ -249,13 +455,13 @@ public class TextEncodingServiceImpl implements TextEncodingService {
         
         return Map.of(
                 "encodingId", encodingId,
-                "originalSize", stats.getOriginalSize(),
-                "compressedSize", stats.getCompressedSize(),
-                "compressionRatio", stats.getCompressionRatio(),
-                "spaceSaved", stats.getOriginalSize() - stats.getCompressedSize(),
-                "spaceSavedPercentage", (1 - stats.getCompressionRatio()) * 100,
+                "originalSize", record.getOriginalSize(),
+                "compressedSize", record.packSize(),
+                "compressionRatio", compressionRatio,
+                "spaceSaved", record.getOriginalSize() - record.packSize(),
+                "spaceSavedPercentage", (1 - compressionRatio) * 100,
                 "compressionLevel", compressionLevel,
-                "createTime", stats.getCreateTime()
+                "createTime", record.getCreateTime()
         );
     }
 
@@ -263,41 +469,50 @@ public class TextEncodingServiceImpl implements TextEncodingService {
     public Object optimizeEncoding(String encodingId) {
         log.info("优化编码，编码ID: {}", encodingId);
         
-        EncodedData encodedData = encodingStorage.get(encodingId);
-        if (encodedData == null) {
+        EncodingRecord record = encodingStore.get(encodingId);
+        if (record == null) {
             throw new RuntimeException("编码数据不存在: " + encodingId);
         }
         
         try {
-            // 重新编码和压缩
-            byte[] originalData = decompressData(encodedData.getCompressedData());
-            byte[] optimizedData = compressData(originalData);
+            // 用每种压缩算法重新编码，选择结果最小的
+            TextPack pack = TextPack.open(record.getPack(), textCodecRegistry);
+            Map<String, List<String>> texts = pack.readAll();
+            Map<String, Long> candidateSizes = new LinkedHashMap<>();
+            byte[] optimizedData = null;
+            TextCodec bestCodec = null;
+            for (TextCodec codec : textCodecRegistry.codecs()) {
+                if (codec.requiresDictionary() && !textCodecRegistry.hasDictionaries()) {
+                    continue;
+                }
+                byte[] candidate = TextPackWriter.write(texts, pack.textNames(), blockSize, codec, textCodecRegistry);
+                candidateSizes.put(codec.name(), (long) candidate.length);
+                if (optimizedData == null || candidate.length < optimizedData.length) {
+                    optimizedData = candidate;
+                    bestCodec = codec;
+                }
+            }
+            // 没有字典的语言退回无字典算法，按文本包实际使用的算法记录
+            bestCodec = packCodec(ByteBuffer.wrap(optimizedData));
             
-            long originalCompressedSize = encodedData.getCompressedData().length;
+            long originalCompressedSize = record.packSize();
             long optimizedSize = optimizedData.length;
+            boolean optimized = optimizedSize < originalCompressedSize
+                    && replacePack(encodingId, record, ByteBuffer.wrap(optimizedData), record.isCold());
             
-            if (optimizedSize < originalCompressedSize) {
-                encodedData.setCompressedData(optimizedData);
-                encodingStorage.put(encodingId, encodedData);
-                
-                // 更新统计信息
-                CompressionStats stats = statsStorage.get(encodingId);
-                if (stats != null) {
-                    stats.setCompressedSize(optimizedSize);
-                    stats.setCompressionRatio((double) optimizedSize / stats.getOriginalSize());
-                    statsStorage.put(encodingId, stats);
-                }
-                
-                log.info("编码优化完成，编码ID: {}, 优化前: {} bytes, 优化后: {} bytes", 
-                        encodingId, originalCompressedSize, optimizedSize);
+            if (optimized) {
+                log.info("编码优化完成，编码ID: {}, 压缩算法: {} -> {}, 优化前: {} bytes, 优化后: {} bytes", 
+                        encodingId, record.getCodec(), bestCodec.name(), originalCompressedSize, optimizedSize);
             }
             
             return Map.of(
                     "encodingId", encodingId,
-                    "optimized", optimizedSize < originalCompressedSize,
+                    "optimized", optimized,
+                    "codec", optimized ? bestCodec.name() : record.getCodec(),
+                    "candidateSizes", candidateSizes,
                     "originalSize", originalCompressedSize,
-                    "optimizedSize", optimizedSize,
-                    "spaceSaved", originalCompressedSize - optimizedSize,
+                    "optimizedSize", optimized ? optimizedSize : originalCompressedSize,
+                    "spaceSaved", optimized ? originalCompressedSize - optimizedSize : 0L,
                     "optimizationTime", LocalDateTime.now()
             );
             
@@ -307,85 +522,296 @@ public class TextEncodingServiceImpl implements TextEncodingService {
         }
     }
 
+    @Override
+    public Object trainDictionaries() {
+        log.info("训练压缩字典，编码数量: {}", encodingStore.size());
+        
+        // 从已存储的文本包中按语言采样
+        Map<String, List<byte[]>> samples = new HashMap<>();
+        Map<String, Integer> sampleBytes = new HashMap<>();
+        encodingStore.forEach((encodingId, record) -> {
+            TextPack pack = TextPack.open(record.getPack(), textCodecRegistry);
+            for (String language : pack.languages()) {
+                // 语言代码用作字典目录名，不合法的语言不训练字典（编码时退回无字典算法）
+                if (!TextDictionaryStore.isValidLanguage(language)
+                        || sampleBytes.getOrDefault(language, 0) >= dictionarySampleBytes) {
+                    continue;
+                }
+                for (String text : pack.texts(language)) {
+                    if (text == null || text.isEmpty()) {
+                        continue;
+                    }
+                    byte[] sample = text.getBytes(StandardCharsets.UTF_8);
+                    samples.computeIfAbsent(language, key -> new ArrayList<>()).add(sample);
+                    sampleBytes.merge(language, sample.length, Integer::sum);
+                }
+            }
+        });
+        
+        List<Map<String, Object>> trained = new ArrayList<>();
+        for (Map.Entry<String, List<byte[]>> entry : samples.entrySet()) {
+            try {
+                TextDictionary dictionary = textDictionaryStore.train(entry.getKey(), entry.getValue());
+                if (dictionary != null) {
+                    trained.add(dictionaryInfo(dictionary));
+                }
+            } catch (Exception e) {
+                log.error("训练压缩字典失败，语言: " + entry.getKey(), e);
+            }
+        }
+        
+        return Map.of(
+                "languages", samples.size(),
+                "trained", trained
+        );
+    }
+
+    @Override
+    public Object getDictionaries() {
+        List<Map<String, Object>> dictionaries = new ArrayList<>();
+        for (TextDictionary dictionary : textCodecRegistry.dictionaries()) {
+            dictionaries.add(dictionaryInfo(dictionary));
+        }
+        return dictionaries;
+    }
+
+    private Map<String, Object> dictionaryInfo(TextDictionary dictionary) {
+        return Map.of(
+                "language", dictionary.getLanguage(),
+                "version", dictionary.getVersion(),
+                "size", dictionary.getData().length,
+                "createTime", dictionary.getCreateTime()
+        );
+    }
+
     /**
-     * 编码文本数据
+     * 用重新编码的文本包替换原文本包
+     * 存储层按文本包版本比较后整体替换记录并递增版本，并发查询要么读到旧包要么读到新包，块缓存键随版本变化；
+     * 记录的压缩算法取自文本包头部
+     *
+     * @return 替换期间编码被删除或已被其他线程替换时返回false
      */
-    private EncodedData encodeTextData(EncodingRequest request) {
-        Map<String, Object> encodedTexts = new HashMap<>();
-        int textCount = 0;
+    private boolean replacePack(String encodingId, EncodingRecord current, ByteBuffer pack, boolean cold) {
+        EncodingRecord replacement = new EncodingRecord();
+        replacement.setTaskId(current.getTaskId());
+        replacement.setPack(pack);
+        replacement.setCodec(packCodec(pack).name());
+        replacement.setPackVersion(current.getPackVersion() + 1);
+        replacement.setLanguageCount(current.getLanguageCount());
+        replacement.setTextCount(current.getTextCount());
+        replacement.setOriginalSize(current.getOriginalSize());
+        replacement.setCreateTime(current.getCreateTime());
+        replacement.setLastAccessTime(current.getLastAccessTime());
+        replacement.setCold(cold);
+        if (!encodingStore.replace(encodingId, current.getPackVersion(), replacement)) {
+            return false;
+        }
+        encodingStatistics.recordReplaced(current, replacement);
+        blockCache.invalidate(packKey(encodingId, current));
+        return true;
+    }
+
+    /**
+     * 后台分层优化
+     * 长时间未访问的冷编码用高压缩率算法重新编码；冷编码重新被频繁访问时改回默认的快速算法。
+     * 每轮消耗的CPU时间不超过 间隔 * cpu-budget，未处理完的留到下一轮
+     */
+    @Scheduled(fixedDelayString = "${encoding.optimizer.interval-ms:60000}",
+            initialDelayString = "${encoding.optimizer.interval-ms:60000}")
+    public void optimizeColdEncodings() {
+        if (!optimizerEnabled || encodingStore.size() == 0) {
+            return;
+        }
         
-        for (Map.Entry<String, String> entry : request.getTexts().entrySet()) {
-            String language = entry.getKey();
-            String text = entry.getValue();
-            
-            // 为每个语言的文本分配索引
-            Map<String, String> languageTexts = new HashMap<>();
-            languageTexts.put("0", text); // 简单索引，可扩展为多文本支持
-            
-            encodedTexts.put(language, languageTexts);
-            textCount++;
+        long now = System.currentTimeMillis();
+        List<Map.Entry<String, EncodingRecord>> demoteCandidates = new ArrayList<>();
+        List<Map.Entry<String, EncodingRecord>> promoteCandidates = new ArrayList<>();
+        encodingStore.forEach((encodingId, record) -> {
+            boolean cold = record.isCold();
+            if (!cold && now - record.getLastAccessTime() >= coldIdleMs) {
+                demoteCandidates.add(new AbstractMap.SimpleImmutableEntry<>(encodingId, record));
+            } else if (cold && record.getAccessCount() >= promoteAccessCount
+                    && now - record.getLastAccessTime() < coldIdleMs) {
+                promoteCandidates.add(new AbstractMap.SimpleImmutableEntry<>(encodingId, record));
+            }
+        });
+        if (demoteCandidates.isEmpty() && promoteCandidates.isEmpty()) {
+            return;
         }
         
-        String jsonData = JSONUtil.toJsonStr(encodedTexts);
+        // 热点优先恢复快速算法，其余按最久未访问优先降级
+        demoteCandidates.sort(Comparator.comparingLong(entry -> entry.getValue().getLastAccessTime()));
+        List<Map.Entry<String, EncodingRecord>> candidates = new ArrayList<>(promoteCandidates);
+        candidates.addAll(demoteCandidates);
+        
+        TextCodec hotCodec = textCodecRegistry.codec(defaultAlgorithm);
+        long budgetNanos = (long) (optimizerIntervalMs * optimizerCpuBudget * 1_000_000L);
+        long startCpu = cpuTimeNanos();
+        int demoted = 0;
+        int promoted = 0;
+        long reclaimed = 0;
         
-        EncodedData encodedData = new EncodedData();
-        encodedData.setTaskId(request.getTaskId());
-        encodedData.setData(jsonData.getBytes());
-        encodedData.setLanguageCount(request.getTexts().size());
-        encodedData.setTextCount(textCount);
-        encodedData.setCreateTime(LocalDateTime.now());
+        for (Map.Entry<String, EncodingRecord> entry : candidates) {
+            if (cpuTimeNanos() - startCpu >= budgetNanos) {
+                log.debug("本轮分层优化CPU预算用尽，剩余编码留到下一轮");
+                break;
+            }
+            String encodingId = entry.getKey();
+            EncodingRecord record = entry.getValue();
+            boolean promote = record.isCold();
+            TextCodec targetCodec = promote ? hotCodec : coldCodec;
+            
+            try {
+                TextPack current = TextPack.open(record.getPack(), textCodecRegistry);
+                byte[] packData = TextPackWriter.write(current.readAll(), current.textNames(), blockSize,
+                        targetCodec, textCodecRegistry);
+                long saved = record.packSize() - packData.length;
+                
+                // 降级只在确实变小时替换文本包，未变小的仍标记为冷编码，避免每轮重复尝试
+                ByteBuffer pack;
+                if (!promote && saved <= 0) {
+                    pack = record.getPack();
+                    saved = 0;
+                } else {
+                    pack = ByteBuffer.wrap(packData);
+                }
+                if (replacePack(encodingId, record, pack, !promote)) {
+                    if (promote) {
+                        promoted++;
+                    } else {
+                        demoted++;
+                        reclaimed += saved;
+                    }
+                }
+            } catch (Exception e) {
+                log.error("分层优化编码失败，编码ID: " + encodingId, e);
+            }
+        }
         
-        return encodedData;
+        long cpuTimeMs = (cpuTimeNanos() - startCpu) / 1_000_000L;
+        optimizerDemoted.add(demoted);
+        optimizerPromoted.add(promoted);
+        optimizerBytesReclaimed.add(reclaimed);
+        optimizerCpuTimeMs.add(cpuTimeMs);
+        optimizerLastRunTime = LocalDateTime.now();
+        log.info("分层优化完成: 降级={}, 恢复快速算法={}, 回收字节={}, CPU耗时={}ms", demoted, promoted, reclaimed, cpuTimeMs);
+    }
+
+    private Map<String, Object> getOptimizerStatistics() {
+        return Map.of(
+                "enabled", optimizerEnabled,
+                "coldCodec", coldCodec.name(),
+                "demoted", optimizerDemoted.sum(),
+                "promoted", optimizerPromoted.sum(),
+                "bytesReclaimed", optimizerBytesReclaimed.sum(),
+                "cpuTimeMs", optimizerCpuTimeMs.sum(),
+                "lastRunTime", optimizerLastRunTime != null ? optimizerLastRunTime.toString() : "未运行"
+        );
     }
 
     /**
-     * 计算原始数据大小
+     * 当前线程CPU时间，JVM不支持时退回墙钟时间
      */
-    private long calculateOriginalSize(Map<String, String> texts) {
-        return texts.values().stream()
-                .mapToLong(text -> text.getBytes().length)
-                .sum();
+    private static long cpuTimeNanos() {
+        ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+        return threadMXBean.isCurrentThreadCpuTimeSupported()
+                ? threadMXBean.getCurrentThreadCpuTime() : System.nanoTime();
     }
 
     /**
-     * 压缩数据
+     * 单个编码的内存占用估算（内存映射存储的文本包计入堆外）
      */
-    private byte[] compressData(byte[] data) throws Exception {
-        return Snappy.compress(data);
+    private Map<String, Object> footprint(EncodingRecord record) {
+        long heapBytes = ENTRY_OVERHEAD_BYTES + (record.getTaskId() != null ? record.getTaskId().length() * 2L : 0);
+        long offHeapBytes = 0;
+        if (record.getPack().isDirect()) {
+            offHeapBytes = record.packSize();
+        } else {
+            heapBytes += record.packSize();
+        }
+        return Map.of(
+                "packBytes", record.packSize(),
+                "heapBytes", heapBytes,
+                "offHeapBytes", offHeapBytes,
+                "bytesPerText", record.getTextCount() > 0
+                        ? (double) (heapBytes + offHeapBytes) / record.getTextCount() : 0.0
+        );
+    }
+
+    private Map<String, Object> compressionStats(EncodingRecord record) {
+        return Map.of(
+                "originalSize", record.getOriginalSize(),
+                "compressedSize", record.packSize(),
+                "compressionRatio", record.compressionRatio(),
+                "createTime", record.getCreateTime()
+        );
     }
 
     /**
-     * 解压数据
+     * 块缓存中文本包的标识（编码ID#文本包版本）
      */
-    private byte[] decompressData(byte[] compressedData) throws Exception {
-        return Snappy.uncompress(compressedData);
+    private String packKey(String encodingId, EncodingRecord record) {
+        return encodingId + "#" + record.getPackVersion();
     }
 
     /**
-     * 编码数据实体
+     * 编码文本数据为二进制文本包
+     */
+    private EncodingRecord encodeTextData(String taskId, Map<String, List<String>> texts, List<String> textNames,
+                                          String compressionType) {
+        int textCount = 0;
+        for (List<String> languageTexts : texts.values()) {
+            textCount += languageTexts.size();
+        }
+        
+        TextCodec codec = textCodecRegistry.codec(compressionType != null ? compressionType : defaultAlgorithm);
+        ByteBuffer pack = ByteBuffer.wrap(TextPackWriter.write(texts, textNames, blockSize, codec, textCodecRegistry));
+        
+        EncodingRecord record = new EncodingRecord();
+        record.setTaskId(taskId);
+        record.setPack(pack);
+        record.setCodec(packCodec(pack).name());
+        record.setLastAccessTime(System.currentTimeMillis());
+        record.setLanguageCount(texts.size());
+        record.setTextCount(textCount);
+        record.setCreateTime(LocalDateTime.now());
+        
+        return record;
+    }
+    
+    /**
+     * 文本包实际使用的压缩算法（请求需要字典的算法而语言都没有字典时为退回的无字典算法）
      */
-    @Data
-    @AllArgsConstructor
-    @NoArgsConstructor
-    private static class EncodedData {
-        private String taskId;
-        private byte[] data;
-        private byte[] compressedData;
-        private int languageCount;
-        private int textCount;
-        private LocalDateTime createTime;
+    private TextCodec packCodec(ByteBuffer pack) {
+        return textCodecRegistry.codec(TextPack.open(pack, textCodecRegistry).codecId());
+    }
+    
+    /**
+     * 转换为 语言 -> {索引 -> 文本} 的查询结果结构
+     */
+    private Map<String, Object> toTextData(TextPack pack) {
+        Map<String, Object> textData = new LinkedHashMap<>();
+        for (String language : pack.languages()) {
+            textData.put(language, toIndexedTexts(pack.texts(language)));
+        }
+        return textData;
+    }
+    
+    private Map<String, String> toIndexedTexts(List<String> texts) {
+        Map<String, String> indexedTexts = new LinkedHashMap<>();
+        for (int i = 0; i < texts.size(); i++) {
+            indexedTexts.put(String.valueOf(i), texts.get(i));
+        }
+        return indexedTexts;
     }
 
     /**
-     * 压缩统计实体
+     * 计算原始数据大小
      */
-    @Data
-    @AllArgsConstructor
-    @NoArgsConstructor
-    private static class CompressionStats {
-        private long originalSize;
-        private long compressedSize;
-        private double compressionRatio;
-        private LocalDateTime createTime;
-    }
-}
\ No newline at end of file
+    private long calculateOriginalSize(Map<String, List<String>> texts) {
+        return texts.values().stream()
+                .flatMap(List::stream)
+                .mapToLong(text -> text != null ? text.getBytes().length : 0)
+                .sum();
+    }
+}
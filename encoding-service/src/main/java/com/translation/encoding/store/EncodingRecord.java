@@ -0,0 +1,41 @@
+package com.translation.encoding.store;
+
+import lombok.Data;
+
+import java.nio.ByteBuffer;
+import java.time.LocalDateTime;
+
+/**
+ * 编码记录
+ * 存储层只保存压缩后的文本包和元数据；访问时间、访问次数由存储层维护，读取时填入快照值
+ */
+@Data
+public class EncodingRecord {
+
+    private String taskId;
+    /** 二进制文本包（只读），见TextPack；不保留任何解压后的数据 */
+    private ByteBuffer pack;
+    /** 编码时选择的压缩算法 */
+    private String codec;
+    /** 文本包版本，重新编码替换文本包时递增 */
+    private long packVersion;
+    private int languageCount;
+    private int textCount;
+    /** 编码前的文本总字节数 */
+    private long originalSize;
+    private LocalDateTime createTime;
+    /** 是否已由后台优化转为冷编码 */
+    private boolean cold;
+    /** 最近访问时间（毫秒） */
+    private long lastAccessTime;
+    /** 当前文本包版本的访问次数 */
+    private long accessCount;
+
+    public int packSize() {
+        return pack.remaining();
+    }
+
+    public double compressionRatio() {
+        return originalSize > 0 ? (double) packSize() / originalSize : 0.0;
+    }
+}
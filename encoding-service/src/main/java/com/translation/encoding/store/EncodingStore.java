@@ -0,0 +1,60 @@
+package com.translation.encoding.store;
+
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+/**
+ * 编码数据存储
+ * 由encoding.storage.type选择实现：memory（堆内/直接内存）、mapped（内存映射分段文件，重启不丢失）
+ */
+public interface EncodingStore {
+
+    /**
+     * 保存新编码
+     */
+    void put(String encodingId, EncodingRecord record);
+
+    /**
+     * 获取编码，不存在时返回null
+     */
+    EncodingRecord get(String encodingId);
+
+    /**
+     * 当前文本包版本仍为expectedPackVersion时替换为新记录，访问次数清零
+     *
+     * @return 编码不存在或已被其他线程替换时返回false
+     */
+    boolean replace(String encodingId, long expectedPackVersion, EncodingRecord replacement);
+
+    /**
+     * 删除编码
+     *
+     * @return 被删除的记录，不存在时返回null
+     */
+    EncodingRecord remove(String encodingId);
+
+    /**
+     * 记录一次访问
+     */
+    void touch(String encodingId);
+
+    int size();
+
+    /**
+     * 遍历全部编码，遍历期间的并发修改不保证可见
+     */
+    void forEach(BiConsumer<String, EncodingRecord> action);
+
+    /**
+     * 注册丢弃回调：存储按容量上限或过期策略自行丢弃编码（之后get返回null）时调用，参数为被丢弃的编码ID和记录
+     * put覆盖、replace和remove由调用方处理，不触发回调；回调可能在存储内部的锁内执行，不能阻塞或再访问存储
+     * 不会自行丢弃编码的存储无需实现
+     */
+    default void addDropListener(BiConsumer<String, EncodingRecord> listener) {
+    }
+
+    /**
+     * 存储层统计信息
+     */
+    Map<String, Object> getStatistics();
+}
@@ -0,0 +1,629 @@
+package com.translation.encoding.store;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.BiConsumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.CRC32;
+
+/**
+ * 内存映射编码存储
+ * 编码记录追加写入 segment-编号.dat 分段文件，每个分段整体映射到内存；编码ID到记录位置的索引放在直接内存。
+ * <pre>
+ * 记录      int magic("EREC") | byte type | int bodyLength | int crc32(body) | body
+ * PUT       String encodingId | String taskId | String codec | long packVersion | int languageCount
+ *           | int textCount | long createTime | long originalSize | byte cold | int packLength | byte[] pack
+ * DELETE    String encodingId
+ * String    int length | byte[] UTF-8
+ * </pre>
+ * 读取时文本包直接返回映射区域的只读切片，不复制到堆内。
+ * 启动时按分段顺序重放记录重建索引，遇到魔数或校验值不符的记录即视为崩溃时未写完的尾部并截断。
+ * 已写满的分段中有效数据比例低于阈值时，后台把仍有效的记录复制到当前分段后删除该分段文件
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "encoding.storage.type", havingValue = "mapped")
+public class MappedEncodingStore implements EncodingStore {
+
+    private static final int RECORD_MAGIC = 0x45524543;
+    private static final byte TYPE_PUT = 1;
+    private static final byte TYPE_DELETE = 2;
+    private static final int RECORD_HEADER_SIZE = 13;
+    private static final Pattern SEGMENT_FILE = Pattern.compile("segment-(\\d+)\\.dat");
+
+    @Value("${encoding.storage.path:./encoding-store}")
+    private String storagePath;
+    @Value("${encoding.storage.segment-size:67108864}")
+    private int segmentSize;
+    @Value("${encoding.storage.compaction-threshold:0.5}")
+    private double compactionThreshold;
+    @Value("${encoding.storage.sync-on-write:false}")
+    private boolean syncOnWrite;
+    @Value("${encoding.storage.max-entries:10000}")
+    private int expectedEntries;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final TreeMap<Integer, Segment> segments = new TreeMap<>();
+    private OffHeapIndex index;
+    private Segment activeSegment;
+
+    private final AtomicLong compactions = new AtomicLong();
+    private long recoveredRecords;
+    private long corruptRecords;
+
+    public MappedEncodingStore() {
+    }
+
+    /**
+     * 不由Spring管理的实例（如内存存储的溢出存储），由创建方负责调用open、compact和close
+     */
+    MappedEncodingStore(String storagePath, int segmentSize, double compactionThreshold,
+                        boolean syncOnWrite, int expectedEntries) {
+        this.storagePath = storagePath;
+        this.segmentSize = segmentSize;
+        this.compactionThreshold = compactionThreshold;
+        this.syncOnWrite = syncOnWrite;
+        this.expectedEntries = expectedEntries;
+    }
+
+    @PostConstruct
+    public void open() {
+        index = new OffHeapIndex(expectedEntries);
+        try {
+            Files.createDirectories(Paths.get(storagePath));
+            File[] files = new File(storagePath).listFiles((dir, name) -> SEGMENT_FILE.matcher(name).matches());
+            if (files != null) {
+                Arrays.sort(files, (a, b) -> Integer.compare(segmentId(a), segmentId(b)));
+                for (int i = 0; i < files.length; i++) {
+                    recover(files[i], i == files.length - 1);
+                }
+            }
+            index.forEach((slot, segmentId, offset) -> {
+                Segment segment = segments.get(segmentId);
+                segment.liveBytes += recordLength(segment, offset);
+            });
+            if (activeSegment == null) {
+                activeSegment = createSegment(1, segmentSize);
+            }
+        } catch (Exception e) {
+            throw new RuntimeException("打开编码存储失败: " + storagePath + ", " + e.getMessage());
+        }
+        log.info("编码存储已打开: 目录={}, 分段数={}, 编码数={}, 重放记录={}, 损坏记录={}",
+                storagePath, segments.size(), index.size(), recoveredRecords, corruptRecords);
+    }
+
+    @Override
+    public void put(String encodingId, EncodingRecord record) {
+        byte[] body = putBody(encodingId, record);
+        long hash = OffHeapIndex.hash(encodingId);
+        byte[] key = encodingId.getBytes(StandardCharsets.UTF_8);
+        lock.writeLock().lock();
+        try {
+            Segment segment = append(TYPE_PUT, body);
+            int offset = segment.writePosition - RECORD_HEADER_SIZE - body.length;
+            segment.liveBytes += RECORD_HEADER_SIZE + body.length;
+            int slot = findSlot(hash, key);
+            if (slot >= 0) {
+                releaseRecord(index.segmentId(slot), index.offset(slot));
+                index.relocate(slot, segment.id, offset, true);
+            } else {
+                index.insert(hash, segment.id, offset, record.getLastAccessTime());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public EncodingRecord get(String encodingId) {
+        byte[] key = encodingId.getBytes(StandardCharsets.UTF_8);
+        lock.readLock().lock();
+        try {
+            int slot = findSlot(OffHeapIndex.hash(encodingId), key);
+            return slot >= 0 ? readRecord(slot) : null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean replace(String encodingId, long expectedPackVersion, EncodingRecord replacement) {
+        byte[] body = putBody(encodingId, replacement);
+        byte[] key = encodingId.getBytes(StandardCharsets.UTF_8);
+        lock.writeLock().lock();
+        try {
+            int slot = findSlot(OffHeapIndex.hash(encodingId), key);
+            if (slot < 0 || readRecord(slot).getPackVersion() != expectedPackVersion) {
+                return false;
+            }
+            releaseRecord(index.segmentId(slot), index.offset(slot));
+            Segment segment = append(TYPE_PUT, body);
+            segment.liveBytes += RECORD_HEADER_SIZE + body.length;
+            index.relocate(slot, segment.id, segment.writePosition - RECORD_HEADER_SIZE - body.length, true);
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public EncodingRecord remove(String encodingId) {
+        byte[] key = encodingId.getBytes(StandardCharsets.UTF_8);
+        lock.writeLock().lock();
+        try {
+            int slot = findSlot(OffHeapIndex.hash(encodingId), key);
+            if (slot < 0) {
+                return null;
+            }
+            EncodingRecord removed = readRecord(slot);
+            append(TYPE_DELETE, stringBody(key));
+            releaseRecord(index.segmentId(slot), index.offset(slot));
+            index.remove(slot);
+            return removed;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void touch(String encodingId) {
+        byte[] key = encodingId.getBytes(StandardCharsets.UTF_8);
+        lock.readLock().lock();
+        try {
+            int slot = findSlot(OffHeapIndex.hash(encodingId), key);
+            if (slot >= 0) {
+                index.touch(slot, System.currentTimeMillis());
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return index.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void forEach(BiConsumer<String, EncodingRecord> action) {
+        List<String> encodingIds = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            index.forEach((slot, segmentId, offset) -> encodingIds.add(readEncodingId(segments.get(segmentId), offset)));
+        } finally {
+            lock.readLock().unlock();
+        }
+        for (String encodingId : encodingIds) {
+            EncodingRecord record = get(encodingId);
+            if (record != null) {
+                action.accept(encodingId, record);
+            }
+        }
+    }
+
+    @Override
+    public Map<String, Object> getStatistics() {
+        lock.readLock().lock();
+        try {
+            long totalBytes = 0;
+            long liveBytes = 0;
+            for (Segment segment : segments.values()) {
+                totalBytes += segment.writePosition;
+                liveBytes += segment.liveBytes;
+            }
+            return Map.of(
+                    "type", "mapped",
+                    "path", storagePath,
+                    "entries", index.size(),
+                    "segments", segments.size(),
+                    "totalBytes", totalBytes,
+                    "liveBytes", liveBytes,
+                    "indexBytes", index.capacityBytes(),
+                    "compactions", compactions.get(),
+                    "recoveredRecords", recoveredRecords,
+                    "corruptRecords", corruptRecords
+            );
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 有效记录的总字节数（已覆盖、已删除的记录不计入）
+     */
+    long liveBytes() {
+        lock.readLock().lock();
+        try {
+            long liveBytes = 0;
+            for (Segment segment : segments.values()) {
+                liveBytes += segment.liveBytes;
+            }
+            return liveBytes;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 最久未访问的编码，按访问时间从早到晚排列，记录字节数累计达到bytes为止
+     */
+    List<String> leastRecentlyAccessed(long bytes) {
+        List<long[]> slots = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            index.forEach((slot, segmentId, offset) -> slots.add(new long[]{index.lastAccessTime(slot), segmentId, offset}));
+            slots.sort(Comparator.comparingLong(slot -> slot[0]));
+            List<String> encodingIds = new ArrayList<>();
+            long total = 0;
+            for (long[] slot : slots) {
+                if (total >= bytes) {
+                    break;
+                }
+                Segment segment = segments.get((int) slot[1]);
+                encodingIds.add(readEncodingId(segment, (int) slot[2]));
+                total += recordLength(segment, (int) slot[2]);
+            }
+            return encodingIds;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 整理有效数据比例低的已写满分段
+     * 每个分段在写锁内整理，期间读写短暂阻塞；已返回给调用方的文本包切片在映射被回收前仍然有效
+     */
+    @Scheduled(fixedDelayString = "${encoding.storage.compaction-interval-ms:300000}",
+            initialDelayString = "${encoding.storage.compaction-interval-ms:300000}")
+    public void compact() {
+        List<Integer> candidates = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            for (Segment segment : segments.values()) {
+                if (segment != activeSegment
+                        && segment.liveBytes < segment.writePosition * compactionThreshold) {
+                    candidates.add(segment.id);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        for (Integer segmentId : candidates) {
+            lock.writeLock().lock();
+            try {
+                Segment segment = segments.get(segmentId);
+                if (segment != null) {
+                    compactSegment(segment);
+                }
+            } catch (Exception e) {
+                log.error("整理编码存储分段失败: " + segmentId, e);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        lock.writeLock().lock();
+        try {
+            for (Segment segment : segments.values()) {
+                segment.buffer.force();
+                segment.channel.close();
+            }
+            log.info("编码存储已关闭: 分段数={}, 编码数={}", segments.size(), index.size());
+        } catch (Exception e) {
+            log.error("关闭编码存储失败", e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 把分段中仍有效的记录复制到当前分段，然后删除该分段文件。
+     * 删除标记只在更早的分段里可能还有对应的PUT记录时才需要保留；该编码已重新写入时不再需要
+     */
+    private void compactSegment(Segment segment) throws Exception {
+        boolean oldest = segment.id == segments.firstKey();
+        int moved = 0;
+        int position = 0;
+        while (position < segment.writePosition) {
+            int length = recordLength(segment, position);
+            byte type = segment.buffer.get(position + 4);
+            String encodingId = readEncodingId(segment, position);
+            byte[] key = encodingId.getBytes(StandardCharsets.UTF_8);
+            int slot = findSlot(OffHeapIndex.hash(encodingId), key);
+            if (type == TYPE_PUT && slot >= 0
+                    && index.segmentId(slot) == segment.id && index.offset(slot) == position) {
+                Segment target = appendRaw(segment, position, length);
+                target.liveBytes += length;
+                index.relocate(slot, target.id, target.writePosition - length, false);
+                moved++;
+            } else if (type == TYPE_DELETE && !oldest && slot < 0) {
+                appendRaw(segment, position, length);
+            }
+            position += length;
+        }
+
+        activeSegment.buffer.force();
+        segments.remove(segment.id);
+        segment.channel.close();
+        Files.deleteIfExists(segment.path);
+        compactions.incrementAndGet();
+        log.info("编码存储分段整理完成: 分段={}, 迁移记录={}", segment.id, moved);
+    }
+
+    /**
+     * 重放分段文件中的记录
+     */
+    private void recover(File file, boolean last) throws Exception {
+        FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ, StandardOpenOption.WRITE);
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size());
+        Segment segment = new Segment(segmentId(file), file.toPath(), channel, buffer);
+        segments.put(segment.id, segment);
+
+        int position = 0;
+        boolean corrupt = false;
+        while (position + RECORD_HEADER_SIZE <= buffer.capacity()) {
+            int magic = buffer.getInt(position);
+            if (magic == 0) {
+                break;
+            }
+            int bodyLength = buffer.getInt(position + 5);
+            if (magic != RECORD_MAGIC || bodyLength < 0
+                    || bodyLength > buffer.capacity() - position - RECORD_HEADER_SIZE
+                    || buffer.getInt(position + 9) != crc(buffer, position + RECORD_HEADER_SIZE, bodyLength)) {
+                corrupt = true;
+                break;
+            }
+
+            String encodingId = readEncodingId(segment, position);
+            byte[] key = encodingId.getBytes(StandardCharsets.UTF_8);
+            long hash = OffHeapIndex.hash(encodingId);
+            int slot = findSlot(hash, key);
+            byte type = buffer.get(position + 4);
+            if (type == TYPE_PUT) {
+                if (slot >= 0) {
+                    index.relocate(slot, segment.id, position, true);
+                } else {
+                    index.insert(hash, segment.id, position, System.currentTimeMillis());
+                }
+            } else if (type == TYPE_DELETE) {
+                if (slot >= 0) {
+                    index.remove(slot);
+                }
+            } else {
+                corrupt = true;
+                break;
+            }
+            recoveredRecords++;
+            position += RECORD_HEADER_SIZE + bodyLength;
+        }
+        segment.writePosition = position;
+
+        if (corrupt) {
+            corruptRecords++;
+            log.warn("编码存储分段存在未写完或损坏的记录，已截断: 文件={}, 位置={}", file.getName(), position);
+            if (last) {
+                // 清除截断位置之后的残留数据，避免之后追加的记录与残留内容拼接后被误认为有效记录
+                ByteBuffer tail = buffer.duplicate();
+                tail.position(position);
+                tail.put(new byte[buffer.capacity() - position]);
+            }
+        }
+        if (last) {
+            activeSegment = segment;
+        }
+    }
+
+    /**
+     * 追加记录，当前分段剩余空间不足时新建分段（超大记录单独占用一个分段）
+     */
+    private Segment append(byte type, byte[] body) {
+        int length = RECORD_HEADER_SIZE + body.length;
+        Segment segment = segmentFor(length);
+        ByteBuffer writer = segment.buffer.duplicate();
+        writer.position(segment.writePosition);
+        writer.putInt(RECORD_MAGIC);
+        writer.put(type);
+        writer.putInt(body.length);
+        writer.putInt(crc(ByteBuffer.wrap(body), 0, body.length));
+        writer.put(body);
+        segment.writePosition += length;
+        if (syncOnWrite) {
+            segment.buffer.force();
+        }
+        return segment;
+    }
+
+    /**
+     * 原样复制一条记录到当前分段
+     */
+    private Segment appendRaw(Segment source, int position, int length) {
+        Segment segment = segmentFor(length);
+        ByteBuffer record = source.buffer.duplicate();
+        record.position(position).limit(position + length);
+        ByteBuffer writer = segment.buffer.duplicate();
+        writer.position(segment.writePosition);
+        writer.put(record);
+        segment.writePosition += length;
+        return segment;
+    }
+
+    private Segment segmentFor(int length) {
+        if (activeSegment.writePosition + length <= activeSegment.buffer.capacity()) {
+            return activeSegment;
+        }
+        activeSegment.buffer.force();
+        activeSegment = createSegment(activeSegment.id + 1, Math.max(segmentSize, length));
+        return activeSegment;
+    }
+
+    private Segment createSegment(int id, int size) {
+        Path path = Paths.get(storagePath, String.format("segment-%06d.dat", id));
+        try {
+            FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE);
+            Segment segment = new Segment(id, path, channel, channel.map(FileChannel.MapMode.READ_WRITE, 0, size));
+            segments.put(id, segment);
+            log.info("创建编码存储分段: {}", path);
+            return segment;
+        } catch (Exception e) {
+            throw new RuntimeException("创建编码存储分段失败: " + path + ", " + e.getMessage());
+        }
+    }
+
+    /**
+     * 记录被覆盖或删除后从所在分段的有效数据中扣除
+     */
+    private void releaseRecord(int segmentId, int offset) {
+        Segment segment = segments.get(segmentId);
+        segment.liveBytes -= recordLength(segment, offset);
+    }
+
+    private int findSlot(long hash, byte[] key) {
+        return index.find(hash, (segmentId, offset) -> keyMatches(segments.get(segmentId), offset, key));
+    }
+
+    private boolean keyMatches(Segment segment, int offset, byte[] key) {
+        int position = offset + RECORD_HEADER_SIZE;
+        if (segment.buffer.getInt(position) != key.length) {
+            return false;
+        }
+        position += 4;
+        for (int i = 0; i < key.length; i++) {
+            if (segment.buffer.get(position + i) != key[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private EncodingRecord readRecord(int slot) {
+        Segment segment = segments.get(index.segmentId(slot));
+        ByteBuffer reader = segment.buffer.duplicate();
+        reader.position(index.offset(slot) + RECORD_HEADER_SIZE);
+        readString(reader);
+
+        EncodingRecord record = new EncodingRecord();
+        record.setTaskId(readString(reader));
+        record.setCodec(readString(reader));
+        record.setPackVersion(reader.getLong());
+        record.setLanguageCount(reader.getInt());
+        record.setTextCount(reader.getInt());
+        record.setCreateTime(LocalDateTime.ofInstant(Instant.ofEpochMilli(reader.getLong()), ZoneId.systemDefault()));
+        record.setOriginalSize(reader.getLong());
+        record.setCold(reader.get() == 1);
+        int packLength = reader.getInt();
+        reader.limit(reader.position() + packLength);
+        record.setPack(reader.slice().asReadOnlyBuffer());
+        record.setLastAccessTime(index.lastAccessTime(slot));
+        record.setAccessCount(index.accessCount(slot));
+        return record;
+    }
+
+    private String readEncodingId(Segment segment, int offset) {
+        ByteBuffer reader = segment.buffer.duplicate();
+        reader.position(offset + RECORD_HEADER_SIZE);
+        return readString(reader);
+    }
+
+    private int recordLength(Segment segment, int offset) {
+        return RECORD_HEADER_SIZE + segment.buffer.getInt(offset + 5);
+    }
+
+    private byte[] putBody(String encodingId, EncodingRecord record) {
+        byte[] id = encodingId.getBytes(StandardCharsets.UTF_8);
+        byte[] taskId = record.getTaskId() != null ? record.getTaskId().getBytes(StandardCharsets.UTF_8) : new byte[0];
+        byte[] codec = record.getCodec().getBytes(StandardCharsets.UTF_8);
+        ByteBuffer pack = record.getPack().duplicate();
+        ByteBuffer body = ByteBuffer.allocate(12 + id.length + taskId.length + codec.length + 37 + pack.remaining());
+        body.putInt(id.length).put(id);
+        body.putInt(taskId.length).put(taskId);
+        body.putInt(codec.length).put(codec);
+        body.putLong(record.getPackVersion());
+        body.putInt(record.getLanguageCount());
+        body.putInt(record.getTextCount());
+        body.putLong(record.getCreateTime().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+        body.putLong(record.getOriginalSize());
+        body.put((byte) (record.isCold() ? 1 : 0));
+        body.putInt(pack.remaining());
+        body.put(pack);
+        return body.array();
+    }
+
+    private static byte[] stringBody(byte[] value) {
+        return ByteBuffer.allocate(4 + value.length).putInt(value.length).put(value).array();
+    }
+
+    private static String readString(ByteBuffer reader) {
+        byte[] bytes = new byte[reader.getInt()];
+        reader.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static int crc(ByteBuffer buffer, int position, int length) {
+        ByteBuffer region = buffer.duplicate();
+        region.position(position).limit(position + length);
+        CRC32 crc = new CRC32();
+        crc.update(region);
+        return (int) crc.getValue();
+    }
+
+    private static int segmentId(File file) {
+        Matcher matcher = SEGMENT_FILE.matcher(file.getName());
+        return matcher.matches() ? Integer.parseInt(matcher.group(1)) : -1;
+    }
+
+    /**
+     * 分段文件，写入位置和有效字节数在写锁内修改
+     */
+    private static class Segment {
+        private final int id;
+        private final Path path;
+        private final FileChannel channel;
+        private final MappedByteBuffer buffer;
+        private int writePosition;
+        private long liveBytes;
+
+        private Segment(int id, Path path, FileChannel channel, MappedByteBuffer buffer) {
+            this.id = id;
+            this.path = path;
+            this.channel = channel;
+            this.buffer = buffer;
+        }
+    }
+}
@@ -0,0 +1,693 @@
+package com.translation.encoding.store;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiConsumer;
+
+/**
+ * 内存编码存储
+ * 文本包默认放在堆内，encoding.storage.off-heap=true时复制到直接内存。
+ * 按条目数和文本包字节数限制容量，淘汰策略为W-TinyLFU：新编码先进入窗口区（LRU），
+ * 移出窗口区时与主区（分段LRU：试用区+保护区）最久未访问的条目比较访问频率，频率更高者留下。
+ * 超出容量或超过ttl-hours未访问的编码写入磁盘上的溢出存储（MappedEncodingStore），再次访问时加载回内存；
+ * 未开启溢出时直接丢弃，丢弃的编码通知addDropListener注册的回调。
+ * 加载回内存的编码在溢出存储中保留副本，只有删除或重新写入时才删除，未修改的编码再次移出内存时不必重写。
+ * 溢出存储的读写不在淘汰锁内进行：淘汰锁内按顺序登记溢出操作，释放锁后在溢出锁内依次执行；
+ * 溢出存储的有效数据超过spill.max-bytes时丢弃最久未访问的编码，同样通知丢弃回调
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "encoding.storage.type", havingValue = "memory", matchIfMissing = true)
+public class MemoryEncodingStore implements EncodingStore {
+
+    /** 窗口区占总容量的比例 */
+    private static final double WINDOW_RATIO = 0.01;
+    /** 保护区占主区容量的比例 */
+    private static final double PROTECTED_RATIO = 0.8;
+    /** 溢出存储超出上限时清理到上限的该比例，避免每次写入都触发清理 */
+    private static final double SPILL_TRIM_RATIO = 0.9;
+
+    private enum Region { WINDOW, PROBATION, PROTECTED }
+
+    private enum SpillType { WRITE, REMOVE, REPLACE }
+
+    @Value("${encoding.storage.off-heap:false}")
+    private boolean offHeap;
+    @Value("${encoding.storage.max-entries:10000}")
+    private int maxEntries;
+    @Value("${encoding.storage.max-bytes:1073741824}")
+    private long maxBytes;
+    @Value("${encoding.storage.ttl-hours:24}")
+    private long ttlHours;
+    @Value("${encoding.storage.spill.enabled:true}")
+    private boolean spillEnabled;
+    @Value("${encoding.storage.spill.path:./encoding-spill}")
+    private String spillPath;
+    @Value("${encoding.storage.spill.max-bytes:10737418240}")
+    private long spillMaxBytes;
+    @Value("${encoding.storage.segment-size:67108864}")
+    private int segmentSize;
+    @Value("${encoding.storage.compaction-threshold:0.5}")
+    private double compactionThreshold;
+    @Value("${encoding.storage.sync-on-write:false}")
+    private boolean syncOnWrite;
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    // 淘汰策略状态，只在evictionLock内修改
+    private final ReentrantLock evictionLock = new ReentrantLock();
+    private final Map<Region, LinkedHashMap<String, Entry>> regions = new LinkedHashMap<>();
+    private final long[] regionBytes = new long[Region.values().length];
+    private FrequencySketch sketch;
+    private int windowMaxEntries;
+    private long windowMaxBytes;
+    private int protectedMaxEntries;
+    private long protectedMaxBytes;
+    private volatile long residentBytes;
+    /** 在溢出存储中有副本的驻留编码数，计算总数时去重 */
+    private volatile int spilledResidents;
+
+    private MappedEncodingStore spillStore;
+    /** 待执行的溢出操作，在evictionLock内按顺序登记，在spillLock内依次执行 */
+    private final Queue<SpillOperation> spillQueue = new ConcurrentLinkedQueue<>();
+    /** 编码ID -> 最近登记且尚未执行的溢出操作 */
+    private final Map<String, SpillOperation> pendingSpills = new ConcurrentHashMap<>();
+    private final ReentrantLock spillLock = new ReentrantLock();
+
+    private final LongAdder evicted = new LongAdder();
+    private final LongAdder admissionRejected = new LongAdder();
+    private final LongAdder expired = new LongAdder();
+    private final LongAdder spilled = new LongAdder();
+    private final LongAdder reloaded = new LongAdder();
+    private final LongAdder spillDropped = new LongAdder();
+    private final List<BiConsumer<String, EncodingRecord>> dropListeners = new CopyOnWriteArrayList<>();
+
+    @PostConstruct
+    public void init() {
+        for (Region region : Region.values()) {
+            regions.put(region, new LinkedHashMap<>());
+        }
+        sketch = new FrequencySketch(maxEntries);
+        windowMaxEntries = Math.max(1, (int) (maxEntries * WINDOW_RATIO));
+        windowMaxBytes = Math.max(1, (long) (maxBytes * WINDOW_RATIO));
+        protectedMaxEntries = (int) ((maxEntries - windowMaxEntries) * PROTECTED_RATIO);
+        protectedMaxBytes = (long) ((maxBytes - windowMaxBytes) * PROTECTED_RATIO);
+
+        if (spillEnabled) {
+            spillStore = new MappedEncodingStore(spillPath, segmentSize, compactionThreshold, syncOnWrite, maxEntries);
+            spillStore.open();
+        }
+        log.info("内存编码存储初始化: 最大条目数={}, 最大字节数={}, ttlHours={}, 溢出存储={}, 溢出上限={}",
+                maxEntries, maxBytes, ttlHours, spillEnabled ? spillPath : "未启用", spillMaxBytes);
+    }
+
+    @Override
+    public void put(String encodingId, EncodingRecord record) {
+        Entry entry = new Entry(resident(record), OffHeapIndex.hash(encodingId));
+        evictionLock.lock();
+        try {
+            Entry previous = entries.put(encodingId, entry);
+            if (previous != null) {
+                unlink(encodingId, previous);
+                residentBytes -= previous.weight;
+            }
+            // 溢出存储中的旧副本随重新写入删除
+            if (previous == null || previous.spilled) {
+                dropSpillCopy(encodingId, previous);
+            }
+            residentBytes += entry.weight;
+            sketch.increment(entry.keyHash);
+            link(encodingId, entry, Region.WINDOW);
+            evict();
+        } finally {
+            evictionLock.unlock();
+        }
+        drainSpill();
+    }
+
+    @Override
+    public EncodingRecord get(String encodingId) {
+        Entry entry = entries.get(encodingId);
+        if (entry != null) {
+            return entry.snapshot();
+        }
+        return spillStore != null ? reload(encodingId) : null;
+    }
+
+    @Override
+    public boolean replace(String encodingId, long expectedPackVersion, EncodingRecord replacement) {
+        SpillOperation spillReplace = null;
+        boolean replaced = false;
+        evictionLock.lock();
+        try {
+            Entry current = entries.get(encodingId);
+            if (current == null) {
+                // 不在内存中的编码直接在溢出存储中替换
+                if (spillStore != null) {
+                    spillReplace = scheduleSpill(new SpillOperation(SpillType.REPLACE, encodingId, replacement, expectedPackVersion));
+                }
+            } else if (current.record.getPackVersion() == expectedPackVersion) {
+                Entry entry = new Entry(resident(replacement), current.keyHash);
+                entries.put(encodingId, entry);
+                // 替换后保持在原区域的原位置
+                entry.region = current.region;
+                regions.get(entry.region).put(encodingId, entry);
+                regionBytes[entry.region.ordinal()] += entry.weight - current.weight;
+                residentBytes += entry.weight - current.weight;
+                if (current.spilled) {
+                    dropSpillCopy(encodingId, current);
+                }
+                evict();
+                replaced = true;
+            }
+        } finally {
+            evictionLock.unlock();
+        }
+        drainSpill();
+        return spillReplace != null ? spillReplace.replaced : replaced;
+    }
+
+    @Override
+    public EncodingRecord remove(String encodingId) {
+        Entry removed;
+        SpillOperation spillRemove = null;
+        evictionLock.lock();
+        try {
+            removed = entries.remove(encodingId);
+            if (removed != null) {
+                unlink(encodingId, removed);
+                residentBytes -= removed.weight;
+            }
+            if (removed == null || removed.spilled) {
+                spillRemove = dropSpillCopy(encodingId, removed);
+            }
+        } finally {
+            evictionLock.unlock();
+        }
+        drainSpill();
+        if (removed != null) {
+            return removed.snapshot();
+        }
+        return spillRemove != null ? spillRemove.removed : null;
+    }
+
+    @Override
+    public void touch(String encodingId) {
+        Entry entry = entries.get(encodingId);
+        if (entry == null) {
+            if (spillStore != null) {
+                spillStore.touch(encodingId);
+            }
+            return;
+        }
+        entry.lastAccessTime = System.currentTimeMillis();
+        entry.accessCount.incrementAndGet();
+        // 访问顺序只在拿到锁时调整，高并发读时丢弃部分访问记录，不阻塞查询
+        if (evictionLock.tryLock()) {
+            try {
+                if (entries.get(encodingId) == entry) {
+                    sketch.increment(entry.keyHash);
+                    onAccess(encodingId, entry);
+                }
+            } finally {
+                evictionLock.unlock();
+            }
+        }
+    }
+
+    @Override
+    public void addDropListener(BiConsumer<String, EncodingRecord> listener) {
+        dropListeners.add(listener);
+    }
+
+    @Override
+    public int size() {
+        return entries.size() + (spillStore != null ? spillStore.size() - spilledResidents : 0);
+    }
+
+    @Override
+    public void forEach(BiConsumer<String, EncodingRecord> action) {
+        drainSpill();
+        entries.forEach((encodingId, entry) -> action.accept(encodingId, entry.snapshot()));
+        if (spillStore != null) {
+            spillStore.forEach((encodingId, record) -> {
+                if (!entries.containsKey(encodingId)) {
+                    action.accept(encodingId, record);
+                }
+            });
+        }
+    }
+
+    @Override
+    public Map<String, Object> getStatistics() {
+        return Map.of(
+                "type", "memory",
+                "offHeap", offHeap,
+                "entries", entries.size(),
+                "residentBytes", residentBytes,
+                "maxEntries", maxEntries,
+                "maxBytes", maxBytes,
+                "ttlHours", ttlHours,
+                "spillMaxBytes", spillMaxBytes,
+                "eviction", Map.of(
+                        "evicted", evicted.sum(),
+                        "admissionRejected", admissionRejected.sum(),
+                        "expired", expired.sum(),
+                        "spilled", spilled.sum(),
+                        "reloaded", reloaded.sum(),
+                        "spillPending", spillQueue.size(),
+                        "spillDropped", spillDropped.sum()
+                ),
+                "spill", spillStore != null ? spillStore.getStatistics() : "未启用"
+        );
+    }
+
+    /**
+     * 超过ttl-hours未访问的编码移出内存
+     */
+    @Scheduled(fixedDelayString = "${encoding.storage.expire-interval-ms:60000}")
+    public void expire() {
+        if (ttlHours <= 0 || entries.isEmpty()) {
+            return;
+        }
+        long deadline = System.currentTimeMillis() - ttlHours * 3600_000L;
+        int count = 0;
+        evictionLock.lock();
+        try {
+            for (Map.Entry<String, Entry> entry : new ArrayList<>(entries.entrySet())) {
+                if (entry.getValue().lastAccessTime < deadline) {
+                    evictEntry(entry.getKey(), entry.getValue());
+                    count++;
+                }
+            }
+        } finally {
+            evictionLock.unlock();
+        }
+        drainSpill();
+        if (count > 0) {
+            expired.add(count);
+            log.info("过期编码已移出内存: 数量={}, 溢出到磁盘={}", count, spillStore != null);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${encoding.storage.compaction-interval-ms:300000}",
+            initialDelayString = "${encoding.storage.compaction-interval-ms:300000}")
+    public void compactSpill() {
+        if (spillStore != null) {
+            spillStore.compact();
+        }
+    }
+
+    /**
+     * 关闭时溢出存储中没有副本的驻留编码也写入溢出存储，重启后按需加载
+     */
+    @PreDestroy
+    public void close() {
+        if (spillStore == null) {
+            return;
+        }
+        drainSpill();
+        Map<String, EncodingRecord> unspilled = new LinkedHashMap<>();
+        evictionLock.lock();
+        try {
+            entries.forEach((encodingId, entry) -> {
+                if (!entry.spilled) {
+                    unspilled.put(encodingId, entry.snapshot());
+                }
+            });
+        } finally {
+            evictionLock.unlock();
+        }
+        spillLock.lock();
+        try {
+            unspilled.forEach(spillStore::put);
+            log.info("内存编码已写入溢出存储: 数量={}", unspilled.size());
+            spillStore.close();
+        } finally {
+            spillLock.unlock();
+        }
+    }
+
+    /**
+     * 从溢出存储加载编码回内存，溢出存储保留副本
+     * 在溢出锁内读取：先执行已登记的溢出操作，读取期间不会有其他溢出操作执行；
+     * 读取后该编码又登记了新的溢出操作（删除、替换）时重新读取
+     */
+    private EncodingRecord reload(String encodingId) {
+        spillLock.lock();
+        try {
+            while (true) {
+                runSpillOperations();
+                EncodingRecord record = spillStore.get(encodingId);
+                if (record != null) {
+                    // 溢出存储返回的是映射区域的切片，复制后才能随分段整理释放
+                    ByteBuffer pack = record.getPack();
+                    ByteBuffer copy = offHeap ? ByteBuffer.allocateDirect(pack.remaining()) : ByteBuffer.allocate(pack.remaining());
+                    copy.put(pack.duplicate()).flip();
+                    record.setPack(copy);
+                }
+
+                EncodingRecord snapshot;
+                evictionLock.lock();
+                try {
+                    Entry entry = entries.get(encodingId);
+                    if (entry != null) {
+                        return entry.snapshot();
+                    }
+                    if (pendingSpills.containsKey(encodingId)) {
+                        continue;
+                    }
+                    if (record == null) {
+                        return null;
+                    }
+                    entry = new Entry(resident(record), OffHeapIndex.hash(encodingId));
+                    entry.accessCount.set(record.getAccessCount());
+                    entry.spilled = true;
+                    spilledResidents++;
+                    entries.put(encodingId, entry);
+                    residentBytes += entry.weight;
+                    sketch.increment(entry.keyHash);
+                    link(encodingId, entry, Region.WINDOW);
+                    reloaded.increment();
+                    snapshot = entry.snapshot();
+                    evict();
+                } finally {
+                    evictionLock.unlock();
+                }
+                runSpillOperations();
+                return snapshot;
+            }
+        } finally {
+            spillLock.unlock();
+        }
+    }
+
+    /**
+     * 登记删除溢出存储中的副本，removed为被删除或覆盖的驻留条目（不在内存中时为null）
+     */
+    private SpillOperation dropSpillCopy(String encodingId, Entry removed) {
+        if (removed != null && removed.spilled) {
+            spilledResidents--;
+        }
+        if (spillStore == null) {
+            return null;
+        }
+        return scheduleSpill(new SpillOperation(SpillType.REMOVE, encodingId, null, 0));
+    }
+
+    /**
+     * 登记溢出操作，调用方持有evictionLock，释放锁后调用drainSpill执行
+     */
+    private SpillOperation scheduleSpill(SpillOperation operation) {
+        pendingSpills.put(operation.encodingId, operation);
+        spillQueue.add(operation);
+        return operation;
+    }
+
+    /**
+     * 执行已登记的溢出操作，调用方不能持有evictionLock
+     * 返回时调用方之前登记的操作都已执行完毕（由本线程或正在执行的其他线程执行）
+     */
+    private void drainSpill() {
+        if (spillStore == null) {
+            return;
+        }
+        spillLock.lock();
+        try {
+            runSpillOperations();
+        } finally {
+            spillLock.unlock();
+        }
+    }
+
+    /**
+     * 依次执行溢出操作，调用方持有spillLock
+     */
+    private void runSpillOperations() {
+        boolean written = false;
+        SpillOperation operation;
+        while ((operation = spillQueue.poll()) != null) {
+            try {
+                switch (operation.type) {
+                    case WRITE:
+                        spillStore.put(operation.encodingId, operation.record);
+                        written = true;
+                        break;
+                    case REMOVE:
+                        operation.removed = spillStore.remove(operation.encodingId);
+                        break;
+                    case REPLACE:
+                        operation.replaced = spillStore.replace(operation.encodingId,
+                                operation.expectedPackVersion, operation.record);
+                        written = true;
+                        break;
+                    default:
+                        break;
+                }
+            } catch (Exception e) {
+                log.error("溢出存储操作失败: type=" + operation.type + ", encodingId=" + operation.encodingId, e);
+            } finally {
+                pendingSpills.remove(operation.encodingId, operation);
+            }
+        }
+        if (written && spillMaxBytes > 0 && spillStore.liveBytes() > spillMaxBytes) {
+            trimSpill();
+        }
+    }
+
+    /**
+     * 溢出存储超出上限时丢弃最久未访问的编码；驻留在内存中的编码保留副本
+     * 调用方持有spillLock，期间不会有编码加载回内存并依赖即将删除的副本
+     */
+    private void trimSpill() {
+        long excess = spillStore.liveBytes() - (long) (spillMaxBytes * SPILL_TRIM_RATIO);
+        int dropped = 0;
+        for (String encodingId : spillStore.leastRecentlyAccessed(excess)) {
+            if (entries.containsKey(encodingId)) {
+                continue;
+            }
+            EncodingRecord removed = spillStore.remove(encodingId);
+            if (removed != null) {
+                dropped++;
+                fireDropped(encodingId, removed);
+            }
+        }
+        spillDropped.add(dropped);
+        log.warn("溢出存储超出上限，已丢弃最久未访问的编码: 数量={}, 上限={}", dropped, spillMaxBytes);
+    }
+
+    /**
+     * 按W-TinyLFU淘汰，直到条目数和字节数都不超过上限
+     */
+    private void evict() {
+        // 窗口区超限的条目移入试用区，作为准入候选
+        Deque<String> candidates = new ArrayDeque<>();
+        LinkedHashMap<String, Entry> window = regions.get(Region.WINDOW);
+        while (window.size() > 1 && (window.size() > windowMaxEntries
+                || regionBytes[Region.WINDOW.ordinal()] > windowMaxBytes)) {
+            Map.Entry<String, Entry> eldest = window.entrySet().iterator().next();
+            unlink(eldest.getKey(), eldest.getValue());
+            link(eldest.getKey(), eldest.getValue(), Region.PROBATION);
+            candidates.add(eldest.getKey());
+        }
+
+        while (!entries.isEmpty() && (entries.size() > maxEntries || residentBytes > maxBytes)) {
+            Map.Entry<String, Entry> victim = eldest(Region.PROBATION);
+            if (victim == null) {
+                victim = eldest(Region.PROTECTED);
+            }
+            if (victim == null) {
+                victim = eldest(Region.WINDOW);
+            }
+            String candidateId = candidates.peekFirst();
+            if (candidateId == null || candidateId.equals(victim.getKey())) {
+                candidates.remove(victim.getKey());
+                evictEntry(victim.getKey(), victim.getValue());
+                evicted.increment();
+                continue;
+            }
+
+            // 候选的访问频率高于主区最久未访问的条目时才准入
+            Entry candidate = entries.get(candidateId);
+            candidates.pollFirst();
+            if (sketch.frequency(candidate.keyHash) > sketch.frequency(victim.getValue().keyHash)) {
+                candidates.remove(victim.getKey());
+                evictEntry(victim.getKey(), victim.getValue());
+            } else {
+                evictEntry(candidateId, candidate);
+                admissionRejected.increment();
+            }
+            evicted.increment();
+        }
+    }
+
+    /**
+     * 访问后调整位置：窗口区和保护区移到队尾，试用区升入保护区
+     */
+    private void onAccess(String encodingId, Entry entry) {
+        switch (entry.region) {
+            case WINDOW:
+            case PROTECTED:
+                LinkedHashMap<String, Entry> queue = regions.get(entry.region);
+                queue.remove(encodingId);
+                queue.put(encodingId, entry);
+                break;
+            case PROBATION:
+                unlink(encodingId, entry);
+                link(encodingId, entry, Region.PROTECTED);
+                LinkedHashMap<String, Entry> protectedQueue = regions.get(Region.PROTECTED);
+                while (protectedQueue.size() > 1 && (protectedQueue.size() > protectedMaxEntries
+                        || regionBytes[Region.PROTECTED.ordinal()] > protectedMaxBytes)) {
+                    Map.Entry<String, Entry> eldest = protectedQueue.entrySet().iterator().next();
+                    unlink(eldest.getKey(), eldest.getValue());
+                    link(eldest.getKey(), eldest.getValue(), Region.PROBATION);
+                }
+                break;
+            default:
+                break;
+        }
+    }
+
+    /**
+     * 移出内存，开启溢出时登记写入溢出存储（已有相同副本时不再写入），未开启时编码被丢弃
+     */
+    private void evictEntry(String encodingId, Entry entry) {
+        if (spillStore != null) {
+            if (entry.spilled) {
+                spilledResidents--;
+            } else {
+                scheduleSpill(new SpillOperation(SpillType.WRITE, encodingId, entry.snapshot(), 0));
+            }
+            spilled.increment();
+        }
+        entries.remove(encodingId);
+        unlink(encodingId, entry);
+        residentBytes -= entry.weight;
+        if (spillStore == null) {
+            fireDropped(encodingId, entry.snapshot());
+        }
+    }
+
+    /**
+     * 通知丢弃回调，单个回调失败不影响存储和其他回调
+     */
+    private void fireDropped(String encodingId, EncodingRecord record) {
+        for (BiConsumer<String, EncodingRecord> listener : dropListeners) {
+            try {
+                listener.accept(encodingId, record);
+            } catch (Exception e) {
+                log.error("编码丢弃回调失败: encodingId=" + encodingId, e);
+            }
+        }
+    }
+
+    private Map.Entry<String, Entry> eldest(Region region) {
+        Iterator<Map.Entry<String, Entry>> iterator = regions.get(region).entrySet().iterator();
+        return iterator.hasNext() ? iterator.next() : null;
+    }
+
+    private void link(String encodingId, Entry entry, Region region) {
+        entry.region = region;
+        regions.get(region).put(encodingId, entry);
+        regionBytes[region.ordinal()] += entry.weight;
+    }
+
+    private void unlink(String encodingId, Entry entry) {
+        if (regions.get(entry.region).remove(encodingId) != null) {
+            regionBytes[entry.region.ordinal()] -= entry.weight;
+        }
+    }
+
+    /**
+     * 文本包的驻留形式：默认为堆内只读视图，开启off-heap时复制到直接内存，编码过程中的堆内数组随即可回收
+     */
+    private EncodingRecord resident(EncodingRecord record) {
+        ByteBuffer pack = record.getPack();
+        if (offHeap && !pack.isDirect()) {
+            ByteBuffer direct = ByteBuffer.allocateDirect(pack.remaining());
+            direct.put(pack.duplicate()).flip();
+            pack = direct;
+        }
+        record.setPack(pack.asReadOnlyBuffer());
+        return record;
+    }
+
+    /**
+     * 存储条目，访问统计单独维护，记录本身替换时整体换新
+     */
+    private static class Entry {
+        private final EncodingRecord record;
+        private final long keyHash;
+        /** 淘汰时计算容量使用的字节数 */
+        private final long weight;
+        private Region region;
+        /** 溢出存储中是否有与本条目相同的副本（从溢出存储加载且未修改） */
+        private boolean spilled;
+        private volatile long lastAccessTime;
+        private final AtomicLong accessCount = new AtomicLong();
+
+        private Entry(EncodingRecord record, long keyHash) {
+            this.record = record;
+            this.keyHash = keyHash;
+            this.weight = record.packSize();
+            this.lastAccessTime = record.getLastAccessTime();
+        }
+
+        private EncodingRecord snapshot() {
+            EncodingRecord snapshot = new EncodingRecord();
+            snapshot.setTaskId(record.getTaskId());
+            snapshot.setPack(record.getPack());
+            snapshot.setCodec(record.getCodec());
+            snapshot.setPackVersion(record.getPackVersion());
+            snapshot.setLanguageCount(record.getLanguageCount());
+            snapshot.setTextCount(record.getTextCount());
+            snapshot.setOriginalSize(record.getOriginalSize());
+            snapshot.setCreateTime(record.getCreateTime());
+            snapshot.setCold(record.isCold());
+            snapshot.setLastAccessTime(lastAccessTime);
+            snapshot.setAccessCount(accessCount.get());
+            return snapshot;
+        }
+    }
+
+    /**
+     * 溢出存储操作，执行后填入结果
+     */
+    private static class SpillOperation {
+        private final SpillType type;
+        private final String encodingId;
+        /** WRITE为写入的记录，REPLACE为替换后的记录 */
+        private final EncodingRecord record;
+        private final long expectedPackVersion;
+        private volatile EncodingRecord removed;
+        private volatile boolean replaced;
+
+        private SpillOperation(SpillType type, String encodingId, EncodingRecord record, long expectedPackVersion) {
+            this.type = type;
+            this.encodingId = encodingId;
+            this.record = record;
+            this.expectedPackVersion = expectedPackVersion;
+        }
+    }
+}
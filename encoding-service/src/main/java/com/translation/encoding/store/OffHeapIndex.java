@@ -0,0 +1,206 @@
+package com.translation.encoding.store;
+
+import java.nio.ByteBuffer;
+
+/**
+ * 编码ID到记录位置的堆外哈希索引
+ * 开放寻址（线性探测），每个槽位32字节:
+ * long keyHash | int segmentId | int offset | long lastAccessTime | long accessCount。
+ * 只保存编码ID的64位哈希，哈希相同时由调用方读取记录中的编码ID确认，索引本身不占用堆内存。
+ * 非线程安全，由调用方加锁
+ */
+class OffHeapIndex {
+
+    private static final int SLOT_SIZE = 32;
+    private static final long EMPTY = 0L;
+    private static final long DELETED = -1L;
+    private static final int MIN_CAPACITY = 1024;
+    private static final double MAX_LOAD = 0.7;
+
+    /**
+     * 判断槽位指向的记录是否属于要查找的编码ID
+     */
+    interface KeyMatcher {
+        boolean matches(int segmentId, int offset);
+    }
+
+    /**
+     * 遍历槽位
+     */
+    interface SlotVisitor {
+        void visit(int slot, int segmentId, int offset);
+    }
+
+    private ByteBuffer slots;
+    private int capacity;
+    private int size;
+    /** 已占用的槽位数（含删除标记） */
+    private int used;
+
+    OffHeapIndex(int expectedSize) {
+        allocate(tableCapacity(expectedSize));
+    }
+
+    /**
+     * 编码ID的64位哈希（FNV-1a），避开空槽和删除标记的取值
+     */
+    static long hash(String key) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < key.length(); i++) {
+            hash ^= key.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return hash == EMPTY || hash == DELETED ? 1L : hash;
+    }
+
+    /**
+     * 查找槽位，不存在时返回-1
+     */
+    int find(long hash, KeyMatcher matcher) {
+        int mask = capacity - 1;
+        for (int slot = spread(hash) & mask, probes = 0; probes < capacity; slot = (slot + 1) & mask, probes++) {
+            long slotHash = slots.getLong(slot * SLOT_SIZE);
+            if (slotHash == EMPTY) {
+                return -1;
+            }
+            if (slotHash == hash && matcher.matches(segmentId(slot), offset(slot))) {
+                return slot;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * 插入新键（调用方已确认不存在）
+     */
+    int insert(long hash, int segmentId, int offset, long lastAccessTime) {
+        if (used + 1 > capacity * MAX_LOAD) {
+            rehash(tableCapacity(size + 1));
+        }
+        int mask = capacity - 1;
+        int slot = spread(hash) & mask;
+        while (true) {
+            long slotHash = slots.getLong(slot * SLOT_SIZE);
+            if (slotHash == EMPTY || slotHash == DELETED) {
+                if (slotHash == EMPTY) {
+                    used++;
+                }
+                size++;
+                write(slot, hash, segmentId, offset, lastAccessTime, 0);
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    void remove(int slot) {
+        slots.putLong(slot * SLOT_SIZE, DELETED);
+        size--;
+    }
+
+    int segmentId(int slot) {
+        return slots.getInt(slot * SLOT_SIZE + 8);
+    }
+
+    int offset(int slot) {
+        return slots.getInt(slot * SLOT_SIZE + 12);
+    }
+
+    long lastAccessTime(int slot) {
+        return slots.getLong(slot * SLOT_SIZE + 16);
+    }
+
+    long accessCount(int slot) {
+        return slots.getLong(slot * SLOT_SIZE + 24);
+    }
+
+    /**
+     * 记录移动或替换后更新位置
+     *
+     * @param resetAccessCount 是否清零访问次数（文本包替换时清零，分段整理移动时保留）
+     */
+    void relocate(int slot, int segmentId, int offset, boolean resetAccessCount) {
+        slots.putInt(slot * SLOT_SIZE + 8, segmentId);
+        slots.putInt(slot * SLOT_SIZE + 12, offset);
+        if (resetAccessCount) {
+            slots.putLong(slot * SLOT_SIZE + 24, 0);
+        }
+    }
+
+    /**
+     * 记录访问，并发访问时次数为近似值
+     */
+    void touch(int slot, long now) {
+        slots.putLong(slot * SLOT_SIZE + 16, now);
+        slots.putLong(slot * SLOT_SIZE + 24, accessCount(slot) + 1);
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * 索引占用的堆外字节数
+     */
+    long capacityBytes() {
+        return (long) capacity * SLOT_SIZE;
+    }
+
+    void forEach(SlotVisitor visitor) {
+        for (int slot = 0; slot < capacity; slot++) {
+            long slotHash = slots.getLong(slot * SLOT_SIZE);
+            if (slotHash != EMPTY && slotHash != DELETED) {
+                visitor.visit(slot, segmentId(slot), offset(slot));
+            }
+        }
+    }
+
+    private void rehash(int newCapacity) {
+        ByteBuffer old = slots;
+        int oldCapacity = capacity;
+        allocate(newCapacity);
+        int mask = capacity - 1;
+        for (int i = 0; i < oldCapacity; i++) {
+            long slotHash = old.getLong(i * SLOT_SIZE);
+            if (slotHash == EMPTY || slotHash == DELETED) {
+                continue;
+            }
+            int slot = spread(slotHash) & mask;
+            while (slots.getLong(slot * SLOT_SIZE) != EMPTY) {
+                slot = (slot + 1) & mask;
+            }
+            write(slot, slotHash, old.getInt(i * SLOT_SIZE + 8), old.getInt(i * SLOT_SIZE + 12),
+                    old.getLong(i * SLOT_SIZE + 16), old.getLong(i * SLOT_SIZE + 24));
+            used++;
+            size++;
+        }
+    }
+
+    private void allocate(int newCapacity) {
+        capacity = newCapacity;
+        slots = ByteBuffer.allocateDirect(capacity * SLOT_SIZE);
+        size = 0;
+        used = 0;
+    }
+
+    private void write(int slot, long hash, int segmentId, int offset, long lastAccessTime, long accessCount) {
+        int base = slot * SLOT_SIZE;
+        slots.putLong(base, hash);
+        slots.putInt(base + 8, segmentId);
+        slots.putInt(base + 12, offset);
+        slots.putLong(base + 16, lastAccessTime);
+        slots.putLong(base + 24, accessCount);
+    }
+
+    private static int spread(long hash) {
+        return (int) (hash ^ (hash >>> 32));
+    }
+
+    private static int tableCapacity(int expectedSize) {
+        int capacity = MIN_CAPACITY;
+        while (capacity * MAX_LOAD < expectedSize * 2L) {
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+}
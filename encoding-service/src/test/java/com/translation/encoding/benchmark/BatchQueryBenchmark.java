@@ -0,0 +1,98 @@
+package com.translation.encoding.benchmark;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import com.translation.encoding.dto.QueryRequest;
+import com.translation.encoding.service.impl.TextEncodingServiceImpl;
+import com.translation.encoding.service.impl.TextEncodingServices;
+import com.translation.encoding.store.MemoryEncodingStore;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 批量查询：1000条查询随机分布在50个文本包中
+ * batch为batchQueryTexts（按文本包分组，每个文本包打开一次，不同文本包并行查询），single为逐条调用queryText
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BatchQueryBenchmark {
+
+    private static final int PACKS = 50;
+    private static final int QUERIES = 1000;
+    private static final String[] LANGUAGES = {"en", "zh", "ja"};
+
+    /** 每个文本包每个语言的文本数 */
+    @Param({"200"})
+    private int textCount;
+
+    /** 批量查询线程池大小 */
+    @Param({"1", "4"})
+    private int threads;
+
+    private MemoryEncodingStore encodingStore;
+    private TextEncodingServiceImpl service;
+    private List<QueryRequest> requests;
+
+    @Setup
+    public void setup() {
+        // 每条查询都打INFO日志，测量的是查询本身
+        ((Logger) LoggerFactory.getLogger(Logger.ROOT_LOGGER_NAME)).setLevel(Level.WARN);
+
+        encodingStore = TextEncodingServices.memoryStore(PACKS);
+        service = TextEncodingServices.service(encodingStore, TextEncodingServices.statistics(encodingStore), 16384, threads);
+
+        List<String> encodingIds = new ArrayList<>();
+        for (int i = 0; i < PACKS; i++) {
+            encodingIds.add(service.encodeTextPack("task-" + i, BenchmarkTexts.pack(textCount, i), null).getEncodingId());
+        }
+        Random random = new Random(42);
+        requests = new ArrayList<>();
+        for (int i = 0; i < QUERIES; i++) {
+            QueryRequest request = new QueryRequest();
+            request.setEncodingId(encodingIds.get(random.nextInt(PACKS)));
+            request.setLanguage(LANGUAGES[random.nextInt(LANGUAGES.length)]);
+            request.setTextIndex(random.nextInt(textCount));
+            requests.add(request);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        service.destroy();
+        encodingStore.close();
+    }
+
+    @Benchmark
+    public Object batch() {
+        return service.batchQueryTexts(requests);
+    }
+
+    @Benchmark
+    public Object single() {
+        Object[] results = new Object[requests.size()];
+        for (int i = 0; i < requests.size(); i++) {
+            results[i] = service.queryText(requests.get(i));
+        }
+        return results;
+    }
+}
@@ -0,0 +1,72 @@
+package com.translation.encoding.benchmark;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * 基准测试文本：由常用词随机组成的短句，接近翻译结果（每个音频文件一句到几句）的长度和用词重复度
+ */
+final class BenchmarkTexts {
+
+    private static final String[] ENGLISH = {
+            "the", "meeting", "will", "start", "at", "nine", "please", "confirm", "your", "attendance",
+            "we", "need", "to", "review", "quarterly", "report", "before", "friday", "customer", "order",
+            "has", "been", "shipped", "thank", "you", "for", "waiting", "translation", "audio", "file"};
+    private static final String[] CHINESE = {
+            "会议", "将在", "九点", "开始", "请", "确认", "您的", "出席", "我们", "需要",
+            "在周五", "之前", "审阅", "季度", "报告", "客户", "订单", "已经", "发货", "感谢",
+            "等待", "翻译", "音频", "文件", "今天", "明天", "项目", "进度", "问题", "处理"};
+    private static final String[] JAPANESE = {
+            "会議", "は", "九時", "に", "始まります", "出席", "を", "確認", "して", "ください",
+            "金曜日", "まで", "四半期", "報告書", "確認", "お客様", "の", "注文", "発送", "されました",
+            "お待たせ", "しました", "翻訳", "音声", "ファイル", "今日", "明日", "進捗", "問題", "対応"};
+
+    private BenchmarkTexts() {
+    }
+
+    /**
+     * 三个语言的文本包内容，每个语言textCount条
+     */
+    static Map<String, List<String>> pack(int textCount) {
+        return pack(textCount, 42);
+    }
+
+    static Map<String, List<String>> pack(int textCount, long seed) {
+        Random random = new Random(seed);
+        Map<String, List<String>> texts = new LinkedHashMap<>();
+        texts.put("en", sentences(random, ENGLISH, " ", textCount));
+        texts.put("zh", sentences(random, CHINESE, "", textCount));
+        texts.put("ja", sentences(random, JAPANESE, "", textCount));
+        return texts;
+    }
+
+    static long originalSize(Map<String, List<String>> texts) {
+        long size = 0;
+        for (List<String> languageTexts : texts.values()) {
+            for (String text : languageTexts) {
+                size += text.getBytes(StandardCharsets.UTF_8).length;
+            }
+        }
+        return size;
+    }
+
+    private static List<String> sentences(Random random, String[] words, String separator, int count) {
+        List<String> sentences = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            StringBuilder sentence = new StringBuilder();
+            int length = 6 + random.nextInt(20);
+            for (int j = 0; j < length; j++) {
+                if (j > 0) {
+                    sentence.append(separator);
+                }
+                sentence.append(words[random.nextInt(words.length)]);
+            }
+            sentences.add(sentence.append(separator.isEmpty() ? "。" : ".").toString());
+        }
+        return sentences;
+    }
+}
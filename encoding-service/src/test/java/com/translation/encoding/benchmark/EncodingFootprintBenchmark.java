@@ -0,0 +1,156 @@
+package com.translation.encoding.benchmark;
+
+import cn.hutool.json.JSONUtil;
+import com.translation.encoding.pack.SnappyCodec;
+import com.translation.encoding.pack.TextCodecRegistry;
+import com.translation.encoding.pack.TextPackWriter;
+import com.translation.encoding.store.EncodingRecord;
+import com.translation.encoding.store.MemoryEncodingStore;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.xerial.snappy.Snappy;
+
+import java.lang.management.BufferPoolMXBean;
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 每条文本的内存占用：原实现（JSON原文与Snappy压缩结果同时保留在堆内）与只保留压缩文本包（堆内/堆外）对比
+ * 每轮迭代写入ENCODINGS个编码，按释放前后堆和直接内存的差值计算每条文本占用的字节数并输出
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+public class EncodingFootprintBenchmark {
+
+    private static final int ENCODINGS = 500;
+    /** 每个编码每个语言的文本数（一个任务的音频文件数） */
+    private static final int TEXTS_PER_LANGUAGE = 20;
+    private static final int BLOCK_SIZE = 16384;
+
+    @Param({"json-snappy", "pack-heap", "pack-off-heap"})
+    private String layout;
+
+    private final TextCodecRegistry codecs = new TextCodecRegistry().register(new SnappyCodec());
+    private final List<Map<String, List<String>>> tasks = new ArrayList<>();
+    private int totalTexts;
+
+    /** 本轮写入的存储，迭代结束测量后释放；不作为返回值，避免被Blackhole保留到下一轮 */
+    private Object stored;
+
+    @Setup
+    public void setup() {
+        for (int i = 0; i < ENCODINGS; i++) {
+            Map<String, List<String>> texts = BenchmarkTexts.pack(TEXTS_PER_LANGUAGE, i);
+            tasks.add(texts);
+            totalTexts += texts.size() * TEXTS_PER_LANGUAGE;
+        }
+    }
+
+    @TearDown(Level.Iteration)
+    public void measure() {
+        // 保留和释放本轮写入的存储后各测量一次，差值即存储占用的内存
+        settle();
+        long heapRetained = heapUsed();
+        long directRetained = directUsed();
+        stored = null;
+        settle();
+        long heapBytes = heapRetained - heapUsed();
+        long directBytes = directRetained - directUsed();
+        System.out.printf("%n存储形式=%s, 文本数=%d, 堆内=%d, 堆外=%d, 每条文本=%.1f字节%n",
+                layout, totalTexts, heapBytes, directBytes, (double) (heapBytes + directBytes) / totalTexts);
+    }
+
+    @Benchmark
+    public void store() throws Exception {
+        if ("json-snappy".equals(layout)) {
+            Map<String, byte[][]> storage = new ConcurrentHashMap<>();
+            for (int i = 0; i < tasks.size(); i++) {
+                byte[] data = JSONUtil.toJsonStr(toIndexedTexts(tasks.get(i))).getBytes(StandardCharsets.UTF_8);
+                storage.put("encoding-" + i, new byte[][]{data, Snappy.compress(data)});
+            }
+            stored = storage;
+        } else {
+            MemoryEncodingStore storage = new MemoryEncodingStore();
+            ReflectionTestUtils.setField(storage, "offHeap", "pack-off-heap".equals(layout));
+            ReflectionTestUtils.setField(storage, "maxEntries", ENCODINGS);
+            ReflectionTestUtils.setField(storage, "maxBytes", Long.MAX_VALUE);
+            ReflectionTestUtils.setField(storage, "ttlHours", 0L);
+            ReflectionTestUtils.setField(storage, "spillEnabled", false);
+            storage.init();
+            for (int i = 0; i < tasks.size(); i++) {
+                EncodingRecord record = new EncodingRecord();
+                record.setTaskId("task-" + i);
+                record.setPack(ByteBuffer.wrap(TextPackWriter.write(tasks.get(i), BLOCK_SIZE,
+                        codecs.codec(SnappyCodec.ID), codecs)));
+                record.setCodec("snappy");
+                record.setTextCount(TEXTS_PER_LANGUAGE * tasks.get(i).size());
+                record.setLastAccessTime(System.currentTimeMillis());
+                storage.put("encoding-" + i, record);
+            }
+            stored = storage;
+        }
+    }
+
+    /**
+     * 原实现的JSON结构：{语言: {"索引": 文本}}
+     */
+    private static Map<String, Map<String, String>> toIndexedTexts(Map<String, List<String>> texts) {
+        Map<String, Map<String, String>> indexed = new LinkedHashMap<>();
+        texts.forEach((language, languageTexts) -> {
+            Map<String, String> languageIndexed = new LinkedHashMap<>();
+            for (int i = 0; i < languageTexts.size(); i++) {
+                languageIndexed.put(String.valueOf(i), languageTexts.get(i));
+            }
+            indexed.put(language, languageIndexed);
+        });
+        return indexed;
+    }
+
+    private static void settle() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private static long heapUsed() {
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+
+    private static long directUsed() {
+        for (BufferPoolMXBean pool : ManagementFactory.getPlatformMXBeans(BufferPoolMXBean.class)) {
+            if ("direct".equals(pool.getName())) {
+                return pool.getMemoryUsed();
+            }
+        }
+        return 0;
+    }
+}
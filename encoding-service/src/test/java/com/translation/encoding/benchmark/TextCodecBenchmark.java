@@ -0,0 +1,115 @@
+package com.translation.encoding.benchmark;
+
+import com.github.luben.zstd.ZstdDictTrainer;
+import com.translation.encoding.pack.Lz4Codec;
+import com.translation.encoding.pack.SnappyCodec;
+import com.translation.encoding.pack.TextCodec;
+import com.translation.encoding.pack.TextCodecRegistry;
+import com.translation.encoding.pack.TextDictionary;
+import com.translation.encoding.pack.TextPack;
+import com.translation.encoding.pack.TextPackWriter;
+import com.translation.encoding.pack.ZstdCodec;
+import com.translation.encoding.pack.ZstdDictionaryCodec;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 各压缩算法的压缩率（setup时输出）和编码、解码吞吐量
+ * 吞吐量以每秒处理的文本包数计，文本包为三个语言各1000条短句；zstd-dict的字典用另一组同分布的句子训练
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TextCodecBenchmark {
+
+    private static final int TEXT_COUNT = 1000;
+    private static final int DICTIONARY_SAMPLES = 5000;
+    private static final int DICTIONARY_SIZE = 112640;
+
+    @Param({"snappy", "lz4", "lz4-hc", "zstd", "zstd-19", "zstd-dict"})
+    private String codecName;
+
+    /** 文本块大小（解压后字节数） */
+    @Param({"1024", "16384"})
+    private int blockSize;
+
+    private TextCodecRegistry codecs;
+    private TextCodec codec;
+    private Map<String, List<String>> texts;
+    private byte[] pack;
+
+    @Setup
+    public void setup() {
+        codecs = new TextCodecRegistry();
+        codec = codec(codecName);
+        codecs.register(codec);
+        if (codec.requiresDictionary()) {
+            BenchmarkTexts.pack(DICTIONARY_SAMPLES, 7).forEach((language, samples) -> codecs.addDictionary(train(language, samples)));
+        }
+        texts = BenchmarkTexts.pack(TEXT_COUNT);
+        pack = encode();
+
+        long originalSize = BenchmarkTexts.originalSize(texts);
+        System.out.printf("%n压缩算法=%s, 块大小=%d, 原始大小=%d, 文本包=%d, 压缩率=%.3f%n",
+                codecName, blockSize, originalSize, pack.length, (double) pack.length / originalSize);
+    }
+
+    @Benchmark
+    public byte[] encode() {
+        return TextPackWriter.write(texts, blockSize, codec, codecs);
+    }
+
+    @Benchmark
+    public Map<String, List<String>> decode() {
+        return TextPack.open(pack, codecs).readAll();
+    }
+
+    private static TextCodec codec(String name) {
+        switch (name) {
+            case "snappy":
+                return new SnappyCodec();
+            case "lz4":
+                return new Lz4Codec(0);
+            case "lz4-hc":
+                return new Lz4Codec(9);
+            case "zstd":
+                return new ZstdCodec(3);
+            case "zstd-19":
+                return new ZstdCodec(19);
+            case "zstd-dict":
+                return new ZstdDictionaryCodec(3);
+            default:
+                throw new IllegalArgumentException("不支持的压缩算法: " + name);
+        }
+    }
+
+    private static TextDictionary train(String language, List<String> samples) {
+        int sampleBytes = 0;
+        for (String sample : samples) {
+            sampleBytes += sample.getBytes(StandardCharsets.UTF_8).length;
+        }
+        ZstdDictTrainer trainer = new ZstdDictTrainer(sampleBytes, DICTIONARY_SIZE);
+        for (String sample : samples) {
+            trainer.addSample(sample.getBytes(StandardCharsets.UTF_8));
+        }
+        return new TextDictionary(language, 1, trainer.trainSamples(), LocalDateTime.now());
+    }
+}
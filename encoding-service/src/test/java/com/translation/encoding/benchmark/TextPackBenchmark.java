@@ -0,0 +1,111 @@
+package com.translation.encoding.benchmark;
+
+import cn.hutool.json.JSONUtil;
+import com.translation.encoding.pack.SnappyCodec;
+import com.translation.encoding.pack.TextCodec;
+import com.translation.encoding.pack.TextCodecRegistry;
+import com.translation.encoding.pack.TextPack;
+import com.translation.encoding.pack.TextPackWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.xerial.snappy.Snappy;
+
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 二进制文本包与原JSON+Snappy格式对比：编码耗时、编码大小（setup时输出）和单条文本查询延迟
+ * 原格式为 {语言: {"索引": 文本}} 的JSON整体Snappy压缩，查询时整体解压并解析JSON
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TextPackBenchmark {
+
+    private static final int BLOCK_SIZE = 16384;
+
+    /** 每个语言的文本数 */
+    @Param({"100", "10000"})
+    private int textCount;
+
+    private final TextCodecRegistry codecs = new TextCodecRegistry().register(new SnappyCodec());
+    private TextCodec codec;
+    private Map<String, List<String>> texts;
+    private TextPack pack;
+    private byte[] json;
+    private int queryIndex;
+
+    @Setup
+    public void setup() {
+        codec = codecs.codec(SnappyCodec.ID);
+        texts = BenchmarkTexts.pack(textCount);
+        pack = TextPack.open(encodeBinary(), codecs);
+        json = encodeJson();
+
+        long originalSize = BenchmarkTexts.originalSize(texts);
+        System.out.printf("%n文本数=%d, 原始大小=%d, 二进制文本包=%d (%.3f), JSON+Snappy=%d (%.3f)%n",
+                textCount * texts.size(), originalSize, pack.size(), (double) pack.size() / originalSize,
+                json.length, (double) json.length / originalSize);
+    }
+
+    @Setup(Level.Invocation)
+    public void nextQuery() {
+        queryIndex = ThreadLocalRandom.current().nextInt(textCount);
+    }
+
+    @Benchmark
+    public byte[] encodeBinary() {
+        return TextPackWriter.write(texts, BLOCK_SIZE, codec, codecs);
+    }
+
+    @Benchmark
+    public byte[] encodeJson() {
+        Map<String, Map<String, String>> encodedTexts = new LinkedHashMap<>();
+        texts.forEach((language, languageTexts) -> {
+            Map<String, String> indexed = new LinkedHashMap<>();
+            for (int i = 0; i < languageTexts.size(); i++) {
+                indexed.put(String.valueOf(i), languageTexts.get(i));
+            }
+            encodedTexts.put(language, indexed);
+        });
+        try {
+            return Snappy.compress(JSONUtil.toJsonStr(encodedTexts).getBytes(StandardCharsets.UTF_8));
+        } catch (Exception e) {
+            throw new RuntimeException("JSON编码失败: " + e.getMessage(), e);
+        }
+    }
+
+    @Benchmark
+    public String queryBinary() {
+        return pack.text("en", queryIndex);
+    }
+
+    @Benchmark
+    @SuppressWarnings("unchecked")
+    public Object queryJson() {
+        try {
+            Map<String, Object> textData = JSONUtil.toBean(
+                    new String(Snappy.uncompress(json), StandardCharsets.UTF_8), Map.class);
+            return ((Map<String, Object>) textData.get("en")).get(String.valueOf(queryIndex));
+        } catch (Exception e) {
+            throw new RuntimeException("JSON查询失败: " + e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.translation.encoding.consumer;
+
+import com.translation.common.kafka.message.TranslationCompletedMessage;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * 翻译完成消息消费者测试：按音频文件名排列文本，缺少的翻译为空串
+ */
+class TranslationCompletedConsumerTest {
+
+    @Test
+    void textsFollowSortedFileNamesAndFillMissingWithEmpty() {
+        TranslationCompletedMessage message = new TranslationCompletedMessage();
+        message.setTaskId("task-1");
+        message.setTranslationResults(Arrays.asList(
+                result("b.wav", Map.of("en", "b-en")),
+                result(null, Map.of("en", "none-en", "zh", "none-zh")),
+                result("a.wav", Map.of("en", "a-en", "zh", "a-zh"))));
+
+        List<TranslationCompletedMessage.TranslationResult> results = TranslationCompletedConsumer.sortedResults(message);
+        assertEquals(Arrays.asList("a.wav", "b.wav", null),
+                Arrays.asList(results.get(0).getAudioFileName(), results.get(1).getAudioFileName(),
+                        results.get(2).getAudioFileName()));
+
+        Map<String, List<String>> texts = TranslationCompletedConsumer.toPackTexts(results);
+        assertEquals(Arrays.asList("a-en", "b-en", "none-en"), texts.get("en"));
+        assertEquals(Arrays.asList("a-zh", "", "none-zh"), texts.get("zh"), "缺少的翻译应为空串");
+    }
+
+    private static TranslationCompletedMessage.TranslationResult result(String audioFileName, Map<String, String> translations) {
+        return new TranslationCompletedMessage.TranslationResult(audioFileName, null, translations, null);
+    }
+}
@@ -0,0 +1,155 @@
+package com.translation.encoding.pack;
+
+import com.github.luben.zstd.ZstdDictTrainer;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 文本包测试：编码后完整读回、跨块点查询、多语言和空文本
+ */
+class TextPackTest {
+
+    private final TextCodecRegistry codecs = new TextCodecRegistry()
+            .register(new SnappyCodec())
+            .register(new Lz4Codec(0))
+            .register(new ZstdCodec(3));
+
+    @Test
+    void roundTripsEveryCodec() {
+        Map<String, List<String>> texts = new LinkedHashMap<>();
+        texts.put("en", sentences("sentence", 200));
+        texts.put("zh", sentences("句子", 200));
+
+        for (TextCodec codec : codecs.codecs()) {
+            TextPack pack = TextPack.open(TextPackWriter.write(texts, 256, codec, codecs), codecs);
+            assertEquals(texts, pack.readAll(), codec.name());
+            assertEquals(codec.id(), pack.codecId());
+            assertEquals(400, pack.totalTextCount());
+        }
+    }
+
+    @Test
+    void pointQueryDecodesAcrossBlocks() {
+        Map<String, List<String>> texts = new LinkedHashMap<>();
+        List<String> english = sentences("sentence", 500);
+        texts.put("en", english);
+        // 块很小，文本分布在多个块中，每条查询都要定位到正确的块
+        TextBlockCache cache = new TextBlockCache(1 << 20);
+        byte[] data = TextPackWriter.write(texts, 64, codecs.codec(SnappyCodec.ID), codecs);
+        TextPack pack = TextPack.open(ByteBuffer.wrap(data), "pack#1", cache, codecs);
+
+        for (int i = english.size() - 1; i >= 0; i--) {
+            assertEquals(english.get(i), pack.text("en", i));
+        }
+        long hits = cache.getHits();
+        assertEquals(english.get(7), pack.text("en", 7));
+        assertEquals(hits + 1, cache.getHits(), "再次查询应命中块缓存");
+        assertNull(pack.text("en", english.size()));
+        assertNull(pack.text("en", -1));
+        assertNull(pack.text("fr", 0));
+        assertEquals(0, pack.textCount("fr"));
+    }
+
+    @Test
+    void nullTextsAreReadAsEmpty() {
+        Map<String, List<String>> texts = new LinkedHashMap<>();
+        texts.put("en", Arrays.asList("first", null, "", "last"));
+        texts.put("ja", new ArrayList<>());
+
+        TextPack pack = TextPack.open(TextPackWriter.write(texts, 1024, codecs.codec(ZstdCodec.ID), codecs), codecs);
+        assertEquals(Arrays.asList("first", "", "", "last"), pack.texts("en"));
+        assertEquals("", pack.text("en", 1));
+        assertEquals(0, pack.textCount("ja"));
+        assertEquals(Arrays.asList("en", "ja"), new ArrayList<>(pack.languages()));
+    }
+
+    @Test
+    void textNamesAreStoredWithPack() {
+        Map<String, List<String>> texts = new LinkedHashMap<>();
+        texts.put("en", sentences("sentence", 3));
+        texts.put("zh", sentences("句子", 3));
+        List<String> names = Arrays.asList("a.wav", null, "音频.mp3");
+
+        TextPack pack = TextPack.open(TextPackWriter.write(texts, names, 16, codecs.codec(SnappyCodec.ID), codecs), codecs);
+        assertEquals(Arrays.asList("a.wav", "", "音频.mp3"), pack.textNames());
+        assertEquals(texts, pack.readAll(), "名称表不应影响文本的偏移");
+
+        // 不带名称写入的文本包没有名称表
+        assertTrue(TextPack.open(TextPackWriter.write(texts, 16, codecs.codec(SnappyCodec.ID), codecs), codecs)
+                .textNames().isEmpty());
+    }
+
+    @Test
+    void headerRecordsFallbackCodec() {
+        TextCodecRegistry dictionaryCodecs = new TextCodecRegistry()
+                .register(new ZstdCodec(3))
+                .register(new ZstdDictionaryCodec(3));
+        dictionaryCodecs.addDictionary(train("en", sentences("sentence", 2000)));
+        TextCodec codec = dictionaryCodecs.codec(ZstdDictionaryCodec.ID);
+
+        // 部分语言有字典：头部为请求的算法，没有字典的语言单独退回
+        Map<String, List<String>> mixed = new LinkedHashMap<>();
+        mixed.put("en", sentences("sentence", 100));
+        mixed.put("zh", sentences("句子", 100));
+        TextPack mixedPack = TextPack.open(TextPackWriter.write(mixed, 1024, codec, dictionaryCodecs), dictionaryCodecs);
+        assertEquals(ZstdDictionaryCodec.ID, mixedPack.codecId());
+        assertEquals(mixed, mixedPack.readAll());
+
+        // 所有语言都没有字典：头部记录退回的无字典算法
+        Map<String, List<String>> fallback = new LinkedHashMap<>();
+        fallback.put("zh", sentences("句子", 100));
+        TextPack fallbackPack = TextPack.open(TextPackWriter.write(fallback, 1024, codec, dictionaryCodecs), dictionaryCodecs);
+        assertEquals(ZstdCodec.ID, fallbackPack.codecId());
+        assertEquals(fallback, fallbackPack.readAll());
+    }
+
+    @Test
+    void fallbackKeepsCompressionLevel() {
+        TextCodecRegistry coldCodecs = new TextCodecRegistry().register(new ZstdCodec(3));
+        Map<String, List<String>> texts = new LinkedHashMap<>();
+        texts.put("en", sentences("sentence", 500));
+
+        // 冷编码使用高级别zstd-dict，没有字典时应退回同级别的zstd而不是注册表中的默认级别
+        byte[] fallback = TextPackWriter.write(texts, 16384, new ZstdDictionaryCodec(19), coldCodecs);
+        byte[] level19 = TextPackWriter.write(texts, 16384, new ZstdCodec(19), coldCodecs);
+        byte[] level3 = TextPackWriter.write(texts, 16384, coldCodecs.codec(ZstdCodec.ID), coldCodecs);
+        assertArrayEquals(level19, fallback);
+        assertTrue(fallback.length < level3.length);
+        assertEquals(texts, TextPack.open(fallback, coldCodecs).readAll());
+    }
+
+    @Test
+    void rejectsForeignData() {
+        assertThrows(IllegalArgumentException.class, () -> TextPack.open(new byte[16], codecs));
+    }
+
+    private static TextDictionary train(String language, List<String> samples) {
+        ZstdDictTrainer trainer = new ZstdDictTrainer(1 << 20, 16 << 10);
+        for (String sample : samples) {
+            trainer.addSample(sample.getBytes(StandardCharsets.UTF_8));
+        }
+        return new TextDictionary(language, 1, trainer.trainSamples(), LocalDateTime.now());
+    }
+
+    static List<String> sentences(String prefix, int count) {
+        List<String> texts = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            texts.add(prefix + " " + i + " " + "x".repeat(i % 17));
+        }
+        return texts;
+    }
+}
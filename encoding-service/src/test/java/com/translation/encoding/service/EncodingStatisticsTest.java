@@ -0,0 +1,134 @@
+package com.translation.encoding.service;
+
+import com.translation.encoding.service.impl.TextEncodingServiceImpl;
+import com.translation.encoding.service.impl.TextEncodingServices;
+import com.translation.encoding.store.EncodingStore;
+import com.translation.encoding.store.MemoryEncodingStore;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 编码统计测试：经过编码、覆盖、重新编码替换、删除和存储按容量丢弃后，增量维护的总量和直方图与全量遍历存储的结果一致
+ */
+class EncodingStatisticsTest {
+
+    private MemoryEncodingStore encodingStore;
+    private EncodingStatistics encodingStatistics;
+    private TextEncodingServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        encodingStore = TextEncodingServices.memoryStore(1000);
+        encodingStatistics = TextEncodingServices.statistics(encodingStore);
+        service = TextEncodingServices.service(encodingStore, encodingStatistics, 1024, 2);
+        ReflectionTestUtils.setField(service, "optimizerEnabled", true);
+        ReflectionTestUtils.setField(service, "optimizerIntervalMs", 60_000L);
+        ReflectionTestUtils.setField(service, "coldIdleMs", 0L);
+        ReflectionTestUtils.setField(service, "promoteAccessCount", Long.MAX_VALUE);
+        ReflectionTestUtils.setField(service, "optimizerCpuBudget", 1.0);
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.destroy();
+        encodingStore.close();
+    }
+
+    @Test
+    void totalsMatchFullScanAfterEncodeReplaceAndRemove() {
+        List<String> encodingIds = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            encodingIds.add(service.encodeTextPack("task-" + i, texts(i, 1 + i * 7), null).getEncodingId());
+        }
+        assertMatchesFullScan("编码后");
+
+        // 同一任务重复编码覆盖原编码
+        for (int i = 0; i < 3; i++) {
+            service.encodeTaskTexts("task-overwrite", texts(100 + i, 10 + i * 40), Collections.emptyList());
+        }
+        assertMatchesFullScan("覆盖后");
+
+        // 按最小结果重新编码替换
+        for (int i = 0; i < 10; i++) {
+            service.optimizeEncoding(encodingIds.get(i));
+        }
+        assertTrue(encodingStore.get(encodingIds.get(9)).getPackVersion() > 0, "应有编码被重新编码替换");
+        assertMatchesFullScan("优化后");
+
+        // 后台分层优化：全部降级为冷编码
+        service.optimizeColdEncodings();
+        encodingStore.forEach((encodingId, record) -> assertTrue(record.isCold(), encodingId + "应已降级"));
+        assertMatchesFullScan("降级后");
+
+        for (int i = 0; i < 20; i += 3) {
+            service.deleteEncoding(encodingIds.get(i));
+        }
+        service.deleteEncoding("missing");
+        assertMatchesFullScan("删除后");
+    }
+
+    @Test
+    void droppedEncodingsAreRemovedFromTotals() {
+        // 未开启溢出，超出容量的编码被丢弃
+        MemoryEncodingStore smallStore = TextEncodingServices.memoryStore(5);
+        EncodingStatistics smallStatistics = TextEncodingServices.statistics(smallStore);
+        TextEncodingServiceImpl smallService = TextEncodingServices.service(smallStore, smallStatistics, 1024, 2);
+        try {
+            for (int i = 0; i < 20; i++) {
+                smallService.encodeTextPack("task-" + i, texts(i, 1 + i * 7), null);
+            }
+            assertEquals(5, smallStore.size());
+            assertMatchesFullScan("丢弃后", smallStore, smallStatistics);
+        } finally {
+            smallService.destroy();
+            smallStore.close();
+        }
+    }
+
+    private void assertMatchesFullScan(String stage) {
+        assertMatchesFullScan(stage, encodingStore, encodingStatistics);
+    }
+
+    /**
+     * 新建统计实例从存储全量加载，与增量维护的统计比较
+     */
+    private static void assertMatchesFullScan(String stage, EncodingStore encodingStore,
+                                              EncodingStatistics encodingStatistics) {
+        EncodingStatistics fullScan = TextEncodingServices.statistics(encodingStore);
+
+        assertEquals(encodingStore.size(), encodingStatistics.getTotalEncodings(), stage + ": 编码数");
+        assertEquals(fullScan.getTotalEncodings(), encodingStatistics.getTotalEncodings(), stage + ": 编码数");
+        assertEquals(fullScan.getTotalTexts(), encodingStatistics.getTotalTexts(), stage + ": 文本数");
+        assertEquals(fullScan.getTotalOriginalSize(), encodingStatistics.getTotalOriginalSize(), stage + ": 原始大小");
+        assertEquals(fullScan.getTotalCompressedSize(), encodingStatistics.getTotalCompressedSize(), stage + ": 压缩后大小");
+        assertEquals(fullScan.getRatioHistogram(), encodingStatistics.getRatioHistogram(), stage + ": 压缩率分布");
+        assertEquals(fullScan.getSizeHistogram(), encodingStatistics.getSizeHistogram(), stage + ": 原始大小分布");
+    }
+
+    /**
+     * en和zh两个语言各count条重复度较高的文本，不同seed的内容和大小不同
+     */
+    private static Map<String, List<String>> texts(int seed, int count) {
+        Map<String, List<String>> texts = new LinkedHashMap<>();
+        List<String> english = new ArrayList<>();
+        List<String> chinese = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            english.add("task " + seed + " sentence " + i + " please confirm the meeting time");
+            chinese.add("任务" + seed + "第" + i + "句，请确认会议时间");
+        }
+        texts.put("en", english);
+        texts.put("zh", chinese);
+        return texts;
+    }
+}
@@ -0,0 +1,65 @@
+package com.translation.encoding.service;
+
+import com.translation.encoding.pack.TextCodecRegistry;
+import com.translation.encoding.pack.TextDictionary;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 压缩字典存储测试：字典保存后重新加载，语言代码不能让字典写到存储目录之外
+ */
+class TextDictionaryStoreTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void savedDictionariesReloadAndUnsafeLanguagesAreRejected() throws Exception {
+        Path root = tempDir.resolve("dictionaries");
+        TextDictionaryStore store = open(root, new TextCodecRegistry());
+
+        TextDictionary dictionary = store.train("zh-CN", samples());
+        assertEquals(1, dictionary.getVersion());
+        assertTrue(Files.exists(root.resolve("zh-CN").resolve("v1.dict")));
+
+        for (String language : List.of("../../x", "../x", "a/b", "a\\b", "..", "", "语言")) {
+            assertThrows(IllegalArgumentException.class, () -> store.train(language, samples()), language);
+        }
+        assertFalse(Files.exists(tempDir.resolve("x")), "字典不应写到存储目录之外");
+
+        TextCodecRegistry reloaded = new TextCodecRegistry();
+        open(root, reloaded);
+        assertEquals(1, reloaded.latestDictionary("zh-CN").getVersion());
+        assertEquals(1, reloaded.dictionaries().size());
+    }
+
+    private static TextDictionaryStore open(Path root, TextCodecRegistry registry) {
+        TextDictionaryStore store = new TextDictionaryStore();
+        ReflectionTestUtils.setField(store, "textCodecRegistry", registry);
+        ReflectionTestUtils.setField(store, "dictionaryPath", root.toString());
+        ReflectionTestUtils.setField(store, "dictionarySize", 4096);
+        ReflectionTestUtils.setField(store, "minSamples", 10);
+        store.load();
+        return store;
+    }
+
+    private static List<byte[]> samples() {
+        List<byte[]> samples = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            samples.add(("会议将在" + (i % 12) + "点开始，请确认您的出席 " + i).getBytes(StandardCharsets.UTF_8));
+        }
+        return samples;
+    }
+}
@@ -0,0 +1,158 @@
+package com.translation.encoding.service.impl;
+
+import com.translation.encoding.dto.EncodingResponse;
+import com.translation.encoding.dto.QueryRequest;
+import com.translation.encoding.service.EncodingStatistics;
+import com.translation.encoding.store.MemoryEncodingStore;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * 文本编码服务测试：任务编码ID确定、重复编码覆盖、丢弃后重新编码不读旧缓存块、批量查询按文本包分组并保持请求顺序
+ */
+class TextEncodingServiceImplTest {
+
+    private MemoryEncodingStore encodingStore;
+    private EncodingStatistics encodingStatistics;
+    private TextEncodingServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        encodingStore = TextEncodingServices.memoryStore(1000);
+        encodingStatistics = TextEncodingServices.statistics(encodingStore);
+        service = TextEncodingServices.service(encodingStore, encodingStatistics, 64, 4);
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.destroy();
+        encodingStore.close();
+    }
+
+    @Test
+    void redeliveredTaskOverwritesSameEncoding() {
+        EncodingResponse first = service.encodeTaskTexts("task-1",
+                texts("first", 3), Arrays.asList("a.wav", "b.wav", "c.wav"));
+        assertEquals("first-en-1", service.queryText(query(first.getEncodingId(), "en", 1)));
+
+        // 重复投递：编码ID不变，查询读到新内容而不是缓存的旧块，统计只计一次
+        EncodingResponse second = service.encodeTaskTexts("task-1",
+                texts("second", 2), Arrays.asList("a.wav", "b.wav"));
+        assertEquals(first.getEncodingId(), second.getEncodingId());
+        assertEquals("second-en-1", service.queryText(query(second.getEncodingId(), "en", 1)));
+        assertEquals(1, encodingStore.size());
+        assertEquals(1, encodingStatistics.getTotalEncodings());
+        assertEquals(4, encodingStatistics.getTotalTexts());
+        assertEquals(second.getCompressedSize(), encodingStatistics.getTotalCompressedSize());
+
+        @SuppressWarnings("unchecked")
+        Map<String, Object> decoded = (Map<String, Object>) service.decodeTexts(second.getEncodingId());
+        assertEquals(Arrays.asList("a.wav", "b.wav"), decoded.get("textNames"));
+
+        EncodingResponse other = service.encodeTaskTexts("task-2", texts("other", 1), List.of("a.wav"));
+        assertEquals(2, encodingStore.size());
+        assertEquals(2, encodingStatistics.getTotalEncodings());
+        assertEquals(TextEncodingServiceImpl.taskEncodingId("task-2"), other.getEncodingId());
+    }
+
+    @Test
+    void reencodingDroppedTaskDoesNotReadStaleBlocks() {
+        // 只容纳一个编码且不溢出，写入下一个编码时前一个被丢弃
+        MemoryEncodingStore smallStore = TextEncodingServices.memoryStore(1);
+        TextEncodingServiceImpl smallService = TextEncodingServices.service(smallStore,
+                TextEncodingServices.statistics(smallStore), 64, 1);
+        try {
+            String encodingId = smallService.encodeTaskTexts("task-1", texts("first", 3), List.of()).getEncodingId();
+            assertEquals("first-en-1", smallService.queryText(query(encodingId, "en", 1)));
+            smallService.encodeTaskTexts("task-2", texts("other", 3), List.of());
+            assertNull(smallStore.get(encodingId));
+
+            // 重新编码时没有旧记录，文本包版本与被丢弃的相同
+            smallService.encodeTaskTexts("task-1", texts("second", 3), List.of());
+            assertEquals("second-en-1", smallService.queryText(query(encodingId, "en", 1)));
+        } finally {
+            smallService.destroy();
+            smallStore.close();
+        }
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void batchQueryGroupsByEncodingAndKeepsRequestOrder() {
+        String a = service.encodeTaskTexts("task-a", texts("a", 50), List.of()).getEncodingId();
+        String b = service.encodeTaskTexts("task-b", texts("b", 50), List.of()).getEncodingId();
+        String c = service.encodeTaskTexts("task-c", texts("c", 50), List.of()).getEncodingId();
+
+        // 三个文本包和一个不存在的编码交错排列，同一文本包内既有单条查询也有整个语言的查询
+        List<QueryRequest> requests = new ArrayList<>();
+        for (int i = 0; i < 60; i++) {
+            String encodingId = List.of(a, b, c).get(i % 3);
+            requests.add(query(encodingId, i % 2 == 0 ? "en" : "zh", i % 50));
+        }
+        requests.add(5, query("missing", "en", 0));
+        requests.add(query(b, "zh", null));
+        requests.add(query(c, "en", 50));
+        requests.add(query("missing", "zh", 1));
+
+        Map<String, Object> response = (Map<String, Object>) service.batchQueryTexts(requests);
+        List<Map<String, Object>> results = (List<Map<String, Object>>) response.get("results");
+        assertEquals(requests.size(), response.get("total"));
+        assertEquals(requests.size(), results.size());
+
+        for (int i = 0; i < requests.size(); i++) {
+            QueryRequest request = requests.get(i);
+            Map<String, Object> result = results.get(i);
+            assertSame(request, result.get("request"), "结果应按请求原顺序排列: " + i);
+            if ("missing".equals(request.getEncodingId())) {
+                assertEquals(false, result.get("success"));
+                assertEquals("编码数据不存在: missing", result.get("error"));
+                continue;
+            }
+            assertEquals(true, result.get("success"), "第" + i + "条查询失败");
+            String prefix = request.getEncodingId().equals(a) ? "a" : request.getEncodingId().equals(b) ? "b" : "c";
+            if (request.getTextIndex() == null) {
+                Map<String, String> languageTexts = (Map<String, String>) result.get("data");
+                assertEquals(50, languageTexts.size());
+                assertEquals(prefix + "-zh-49", languageTexts.get("49"));
+            } else if (request.getTextIndex() >= 50) {
+                assertNull(result.get("data"), "索引越界时返回null");
+            } else {
+                assertEquals(prefix + "-" + request.getLanguage() + "-" + request.getTextIndex(), result.get("data"));
+            }
+        }
+    }
+
+    /**
+     * en和zh两个语言，每个语言count条文本，内容为 前缀-语言-索引
+     */
+    static Map<String, List<String>> texts(String prefix, int count) {
+        Map<String, List<String>> texts = new LinkedHashMap<>();
+        for (String language : List.of("en", "zh")) {
+            String[] languageTexts = new String[count];
+            for (int i = 0; i < count; i++) {
+                languageTexts[i] = prefix + "-" + language + "-" + i;
+            }
+            texts.put(language, Arrays.asList(languageTexts));
+        }
+        return texts;
+    }
+
+    static QueryRequest query(String encodingId, String language, Integer textIndex) {
+        QueryRequest request = new QueryRequest();
+        request.setEncodingId(encodingId);
+        request.setLanguage(language);
+        request.setTextIndex(textIndex);
+        return request;
+    }
+}
@@ -0,0 +1,64 @@
+package com.translation.encoding.service.impl;
+
+import com.translation.encoding.pack.SnappyCodec;
+import com.translation.encoding.pack.TextCodecRegistry;
+import com.translation.encoding.pack.ZstdCodec;
+import com.translation.encoding.service.EncodingStatistics;
+import com.translation.encoding.store.EncodingStore;
+import com.translation.encoding.store.MemoryEncodingStore;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * 测试和基准测试共用的装配：不经Spring容器创建内存存储、编码统计和编码服务
+ * 未指定的配置取application.yml中的默认值
+ */
+public final class TextEncodingServices {
+
+    private TextEncodingServices() {
+    }
+
+    /**
+     * 不限字节数、不过期、不溢出的内存存储，超出maxEntries的编码直接丢弃
+     */
+    public static MemoryEncodingStore memoryStore(int maxEntries) {
+        MemoryEncodingStore encodingStore = new MemoryEncodingStore();
+        ReflectionTestUtils.setField(encodingStore, "maxEntries", maxEntries);
+        ReflectionTestUtils.setField(encodingStore, "maxBytes", Long.MAX_VALUE);
+        ReflectionTestUtils.setField(encodingStore, "ttlHours", 0L);
+        ReflectionTestUtils.setField(encodingStore, "spillEnabled", false);
+        encodingStore.init();
+        return encodingStore;
+    }
+
+    /**
+     * 从存储全量加载的编码统计
+     */
+    public static EncodingStatistics statistics(EncodingStore encodingStore) {
+        EncodingStatistics encodingStatistics = new EncodingStatistics();
+        ReflectionTestUtils.setField(encodingStatistics, "encodingStore", encodingStore);
+        encodingStatistics.load();
+        return encodingStatistics;
+    }
+
+    /**
+     * 已初始化的编码服务：默认算法snappy，冷编码用zstd，开启块缓存；用完调用destroy
+     * 后台优化的参数在调用时读取，需要时由测试自行设置
+     */
+    public static TextEncodingServiceImpl service(EncodingStore encodingStore, EncodingStatistics encodingStatistics,
+                                                  int blockSize, int queryThreadPoolSize) {
+        TextEncodingServiceImpl service = new TextEncodingServiceImpl();
+        ReflectionTestUtils.setField(service, "encodingStore", encodingStore);
+        ReflectionTestUtils.setField(service, "encodingStatistics", encodingStatistics);
+        ReflectionTestUtils.setField(service, "textCodecRegistry",
+                new TextCodecRegistry().register(new SnappyCodec()).register(new ZstdCodec(3)));
+        ReflectionTestUtils.setField(service, "defaultAlgorithm", "snappy");
+        ReflectionTestUtils.setField(service, "blockSize", blockSize);
+        ReflectionTestUtils.setField(service, "cachingEnabled", true);
+        ReflectionTestUtils.setField(service, "cacheMaxBytes", 64L << 20);
+        ReflectionTestUtils.setField(service, "queryThreadPoolSize", queryThreadPoolSize);
+        ReflectionTestUtils.setField(service, "coldCodecName", "zstd");
+        ReflectionTestUtils.setField(service, "coldZstdLevel", 19);
+        service.init();
+        return service;
+    }
+}
@@ -0,0 +1,187 @@
+package com.translation.encoding.store;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 内存映射编码存储测试：重启重放、校验失败截断、未写完的尾部记录、分段整理
+ */
+class MappedEncodingStoreTest {
+
+    private static final int RECORD_HEADER_SIZE = 13;
+
+    @TempDir
+    Path storagePath;
+
+    private final List<MappedEncodingStore> opened = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        opened.forEach(MappedEncodingStore::close);
+    }
+
+    @Test
+    void reopenReplaysPutReplaceAndDelete() {
+        MappedEncodingStore store = open(1 << 20);
+        store.put("a", record("task-a", "first", 0));
+        store.put("b", record("task-b", "second", 0));
+        assertTrue(store.replace("a", 0, record("task-a", "first-v1", 1)));
+        assertFalse(store.replace("a", 0, record("task-a", "stale", 1)), "版本不符时不应替换");
+        assertEquals("second", pack(store.remove("b")));
+        store.close();
+
+        MappedEncodingStore reopened = open(1 << 20);
+        assertEquals(1, reopened.size());
+        EncodingRecord a = reopened.get("a");
+        assertEquals("first-v1", pack(a));
+        assertEquals(1, a.getPackVersion());
+        assertEquals("task-a", a.getTaskId());
+        assertNull(reopened.get("b"));
+        assertEquals(4L, reopened.getStatistics().get("recoveredRecords"));
+        assertEquals(0L, reopened.getStatistics().get("corruptRecords"));
+    }
+
+    @Test
+    void checksumMismatchTruncatesFromCorruptRecord() throws Exception {
+        MappedEncodingStore store = open(1 << 20);
+        store.put("a", record("task-a", "first", 0));
+        store.put("b", record("task-b", "second", 0));
+        store.put("c", record("task-c", "third", 0));
+        store.close();
+
+        // 翻转第二条记录文本包中的一个字节，校验值不再匹配
+        Path segment = storagePath.resolve("segment-000001.dat");
+        int second = recordLength(segment, 0);
+        int secondEnd = second + recordLength(segment, second);
+        try (RandomAccessFile file = new RandomAccessFile(segment.toFile(), "rw")) {
+            file.seek(secondEnd - 1);
+            int value = file.read();
+            file.seek(secondEnd - 1);
+            file.write(value ^ 0xFF);
+        }
+
+        MappedEncodingStore reopened = open(1 << 20);
+        assertEquals("first", pack(reopened.get("a")));
+        assertNull(reopened.get("b"), "校验失败的记录不应恢复");
+        assertNull(reopened.get("c"), "损坏记录之后的内容视为未写完的尾部");
+        assertEquals(1L, reopened.getStatistics().get("recoveredRecords"));
+        assertEquals(1L, reopened.getStatistics().get("corruptRecords"));
+
+        // 截断后追加的记录在再次重启后仍然有效，残留的旧记录不会复活
+        reopened.put("d", record("task-d", "fourth", 0));
+        reopened.close();
+        MappedEncodingStore again = open(1 << 20);
+        assertEquals("first", pack(again.get("a")));
+        assertEquals("fourth", pack(again.get("d")));
+        assertNull(again.get("c"));
+        assertEquals(0L, again.getStatistics().get("corruptRecords"));
+    }
+
+    @Test
+    void tornTailIsDropped() throws Exception {
+        MappedEncodingStore store = open(1 << 20);
+        store.put("a", record("task-a", "first", 0));
+        store.put("b", record("task-b", "x".repeat(200), 0));
+        store.close();
+
+        // 模拟写入第二条记录时崩溃：头部已写入，正文后半部分仍是0
+        Path segment = storagePath.resolve("segment-000001.dat");
+        int second = recordLength(segment, 0);
+        int secondLength = recordLength(segment, second);
+        try (RandomAccessFile file = new RandomAccessFile(segment.toFile(), "rw")) {
+            file.seek(second + secondLength / 2);
+            file.write(new byte[secondLength - secondLength / 2]);
+        }
+
+        MappedEncodingStore reopened = open(1 << 20);
+        assertEquals(1, reopened.size());
+        assertEquals("first", pack(reopened.get("a")));
+        assertNull(reopened.get("b"));
+        assertEquals(1L, reopened.getStatistics().get("corruptRecords"));
+    }
+
+    @Test
+    void compactionMovesLiveRecordsAndDeletesSegment() throws Exception {
+        // 每个分段放得下三条记录
+        MappedEncodingStore store = open(4096);
+        String body = "y".repeat(1100);
+        for (int i = 0; i < 6; i++) {
+            store.put("e" + i, record("task-" + i, body + i, 0));
+        }
+        Path first = storagePath.resolve("segment-000001.dat");
+        assertTrue(Files.exists(first));
+
+        // 第一个分段只剩一条有效记录
+        store.remove("e0");
+        store.put("e1", record("task-1", "rewritten", 1));
+        store.compact();
+
+        assertFalse(Files.exists(first), "整理后应删除分段文件");
+        assertEquals(1L, store.getStatistics().get("compactions"));
+        assertEquals(5, store.size());
+        assertEquals(body + 2, pack(store.get("e2")));
+        assertEquals("rewritten", pack(store.get("e1")));
+        store.close();
+
+        MappedEncodingStore reopened = open(4096);
+        assertEquals(5, reopened.size());
+        assertNull(reopened.get("e0"));
+        assertEquals("rewritten", pack(reopened.get("e1")));
+        for (int i = 2; i < 6; i++) {
+            assertEquals(body + i, pack(reopened.get("e" + i)));
+        }
+    }
+
+    private MappedEncodingStore open(int segmentSize) {
+        MappedEncodingStore store = new MappedEncodingStore(storagePath.toString(), segmentSize, 0.5, false, 16);
+        store.open();
+        opened.add(store);
+        return store;
+    }
+
+    private static EncodingRecord record(String taskId, String pack, long packVersion) {
+        EncodingRecord record = new EncodingRecord();
+        record.setTaskId(taskId);
+        record.setPack(ByteBuffer.wrap(pack.getBytes(StandardCharsets.UTF_8)));
+        record.setCodec("snappy");
+        record.setPackVersion(packVersion);
+        record.setLanguageCount(1);
+        record.setTextCount(1);
+        record.setOriginalSize(pack.length());
+        record.setCreateTime(LocalDateTime.now());
+        record.setLastAccessTime(System.currentTimeMillis());
+        return record;
+    }
+
+    private static String pack(EncodingRecord record) {
+        ByteBuffer pack = record.getPack().duplicate();
+        byte[] bytes = new byte[pack.remaining()];
+        pack.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * 按记录头部的正文长度计算记录总长度
+     */
+    private static int recordLength(Path segment, int offset) throws Exception {
+        try (RandomAccessFile file = new RandomAccessFile(segment.toFile(), "r")) {
+            file.seek(offset + 5);
+            return RECORD_HEADER_SIZE + file.readInt();
+        }
+    }
+}
@@ -0,0 +1,285 @@
+package com.translation.encoding.store;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 内存编码存储测试：W-TinyLFU准入与淘汰、字节数上限、TTL过期、溢出存储的副本保留和容量上限
+ */
+class MemoryEncodingStoreTest {
+
+    @TempDir
+    Path spillPath;
+
+    private final List<MemoryEncodingStore> opened = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        opened.forEach(MemoryEncodingStore::close);
+    }
+
+    @Test
+    void frequentlyAccessedEntriesSurviveOneHitWonders() {
+        MemoryEncodingStore store = open(100, Long.MAX_VALUE, false, 0);
+        for (int i = 0; i < 100; i++) {
+            store.put("hot-" + i, record("hot", 100));
+        }
+        for (int round = 0; round < 5; round++) {
+            for (int i = 0; i < 100; i++) {
+                store.touch("hot-" + i);
+            }
+        }
+        for (int i = 0; i < 50; i++) {
+            store.put("cold-" + i, record("cold", 100));
+        }
+
+        int hotResident = 0;
+        int coldResident = 0;
+        for (int i = 0; i < 100; i++) {
+            hotResident += store.get("hot-" + i) != null ? 1 : 0;
+        }
+        for (int i = 0; i < 50; i++) {
+            coldResident += store.get("cold-" + i) != null ? 1 : 0;
+        }
+        assertEquals(100, store.size());
+        assertTrue(hotResident >= 99, "访问频繁的编码应留在内存: " + hotResident);
+        assertTrue(coldResident <= 1, "只访问一次的新编码应被拒绝准入: " + coldResident);
+        assertEquals(50L, eviction(store).get("evicted"));
+        assertTrue((Long) eviction(store).get("admissionRejected") >= 49);
+    }
+
+    @Test
+    void residentBytesStayWithinLimit() {
+        MemoryEncodingStore store = open(1000, 10_000, false, 0);
+        List<String> dropped = new ArrayList<>();
+        store.addDropListener((encodingId, record) -> dropped.add(encodingId));
+        for (int i = 0; i < 50; i++) {
+            store.put("e" + i, record("e" + i, 1000));
+            assertTrue((Long) store.getStatistics().get("residentBytes") <= 10_000);
+        }
+        assertEquals(10, store.size());
+        // 未开启溢出，移出内存的编码都通知丢弃回调
+        assertEquals(40, dropped.size());
+        dropped.forEach(encodingId -> assertNull(store.get(encodingId)));
+    }
+
+    @Test
+    void idleEntriesExpireToSpillAndReload() {
+        MemoryEncodingStore store = open(100, Long.MAX_VALUE, true, 0);
+        ReflectionTestUtils.setField(store, "ttlHours", 1L);
+        EncodingRecord idle = record("idle", 100);
+        idle.setLastAccessTime(System.currentTimeMillis() - 2 * 3600_000L);
+        store.put("idle", idle);
+        store.put("active", record("active", 100));
+
+        store.expire();
+        assertEquals(1L, eviction(store).get("expired"));
+        assertEquals(1, store.getStatistics().get("entries"));
+        assertEquals(2, store.size());
+        assertEquals("idle", store.get("idle").getTaskId());
+        assertEquals(1L, eviction(store).get("reloaded"));
+    }
+
+    @Test
+    void expiredEntriesAreDroppedWithoutSpill() {
+        MemoryEncodingStore store = open(100, Long.MAX_VALUE, false, 0);
+        ReflectionTestUtils.setField(store, "ttlHours", 1L);
+        EncodingRecord idle = record("idle", 100);
+        idle.setLastAccessTime(System.currentTimeMillis() - 2 * 3600_000L);
+        store.put("idle", idle);
+
+        store.expire();
+        assertNull(store.get("idle"));
+        assertEquals(0, store.size());
+    }
+
+    @Test
+    void reloadKeepsSpillCopyUntilRemoved() {
+        MemoryEncodingStore store = open(1, Long.MAX_VALUE, true, 0);
+        store.put("a", record("task-a", 100));
+        store.put("b", record("task-b", 100));
+        assertEquals(2, store.size());
+
+        // a加载回内存，b移出；之后两者来回加载，未修改的编码再次移出时不重写
+        assertEquals("task-a", store.get("a").getTaskId());
+        assertEquals(2, store.size());
+        long spillBytes = spillTotalBytes(store);
+        assertEquals("task-b", store.get("b").getTaskId());
+        assertEquals("task-a", store.get("a").getTaskId());
+        assertEquals(2, store.size());
+        assertEquals(spillBytes, spillTotalBytes(store), "未修改的编码不应重复写入溢出存储");
+
+        // 删除时同时删除溢出副本
+        assertEquals("task-a", store.remove("a").getTaskId());
+        assertNull(store.get("a"));
+        assertEquals(1, store.size());
+    }
+
+    @Test
+    void replaceAndOverwriteDropStaleSpillCopy() {
+        MemoryEncodingStore store = open(1, Long.MAX_VALUE, true, 0);
+        store.put("a", record("task-a", 100));
+        store.put("b", record("task-b", 100));
+
+        // a在溢出存储中：直接在溢出存储替换
+        assertTrue(store.replace("a", 0, version(record("task-a", 200), 1)));
+        assertFalse(store.replace("a", 0, version(record("task-a", 300), 1)));
+        assertEquals(200, store.get("a").packSize());
+
+        // a已加载回内存且有副本：替换后旧副本失效，移出内存后读到新版本
+        assertTrue(store.replace("a", 1, version(record("task-a", 400), 2)));
+        store.get("b");
+        EncodingRecord a = store.get("a");
+        assertEquals(2, a.getPackVersion());
+        assertEquals(400, a.packSize());
+
+        store.put("b", record("task-b2", 50));
+        store.get("a");
+        assertEquals("task-b2", store.get("b").getTaskId());
+        assertEquals(2, store.size());
+    }
+
+    @Test
+    void spillIsTrimmedToMaxBytes() {
+        MemoryEncodingStore store = open(1, Long.MAX_VALUE, true, 20_000);
+        Map<String, EncodingRecord> dropped = new HashMap<>();
+        store.addDropListener(dropped::put);
+        for (int i = 0; i < 40; i++) {
+            store.put("e" + i, record("e" + i, 1000));
+        }
+        // 只有从溢出存储中丢弃的编码通知回调，移出内存写入溢出存储的不通知
+        assertEquals(eviction(store).get("spillDropped"), (long) dropped.size());
+        dropped.forEach((encodingId, record) -> {
+            assertEquals(encodingId, record.getTaskId());
+            assertNull(store.get(encodingId));
+        });
+        long liveBytes = (Long) spill(store).get("liveBytes");
+        assertTrue(liveBytes <= 20_000, "溢出存储应限制在上限内: " + liveBytes);
+        assertTrue((Long) eviction(store).get("spillDropped") > 0);
+        assertNotNull(store.get("e39"), "最近写入的编码应保留");
+        assertNull(store.get("e0"), "最久未访问的编码应被丢弃");
+    }
+
+    @Test
+    void concurrentEvictionKeepsEachEncodingConsistent() throws Exception {
+        // 每个线程只操作自己的编码，按本线程的操作顺序校验读到的版本；容量很小，读写都会触发移出和加载
+        MemoryEncodingStore store = open(8, Long.MAX_VALUE, true, 0);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                String prefix = "t" + t + "-";
+                long seed = t;
+                futures.add(executor.submit(() -> {
+                    Random random = new Random(seed);
+                    Map<String, String> expected = new HashMap<>();
+                    for (int i = 0; i < 2000; i++) {
+                        String encodingId = prefix + random.nextInt(20);
+                        int operation = random.nextInt(10);
+                        if (operation < 4) {
+                            String taskId = encodingId + "#" + i;
+                            store.put(encodingId, record(taskId, 64));
+                            expected.put(encodingId, taskId);
+                        } else if (operation < 5) {
+                            EncodingRecord removed = store.remove(encodingId);
+                            assertEquals(expected.remove(encodingId), removed != null ? removed.getTaskId() : null);
+                        } else {
+                            EncodingRecord record = store.get(encodingId);
+                            assertEquals(expected.get(encodingId), record != null ? record.getTaskId() : null);
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(0, eviction(store).get("spillPending"));
+    }
+
+    @Test
+    void residentEntriesSurviveRestart() {
+        MemoryEncodingStore store = open(10, Long.MAX_VALUE, true, 0);
+        store.put("a", record("task-a", 100));
+        store.put("b", record("task-b", 100));
+        store.close();
+        opened.remove(store);
+
+        MemoryEncodingStore reopened = open(10, Long.MAX_VALUE, true, 0);
+        assertEquals(2, reopened.size());
+        assertEquals("task-a", reopened.get("a").getTaskId());
+        assertEquals("task-b", reopened.get("b").getTaskId());
+        assertEquals(2, reopened.size());
+    }
+
+    private MemoryEncodingStore open(int maxEntries, long maxBytes, boolean spill, long spillMaxBytes) {
+        MemoryEncodingStore store = new MemoryEncodingStore();
+        ReflectionTestUtils.setField(store, "maxEntries", maxEntries);
+        ReflectionTestUtils.setField(store, "maxBytes", maxBytes);
+        ReflectionTestUtils.setField(store, "ttlHours", 0L);
+        ReflectionTestUtils.setField(store, "spillEnabled", spill);
+        ReflectionTestUtils.setField(store, "spillPath", spillPath.toString());
+        ReflectionTestUtils.setField(store, "spillMaxBytes", spillMaxBytes);
+        ReflectionTestUtils.setField(store, "segmentSize", 1 << 20);
+        ReflectionTestUtils.setField(store, "compactionThreshold", 0.5);
+        store.init();
+        opened.add(store);
+        return store;
+    }
+
+    private static EncodingRecord record(String taskId, int packSize) {
+        EncodingRecord record = new EncodingRecord();
+        record.setTaskId(taskId);
+        record.setPack(ByteBuffer.wrap(taskId.repeat(packSize / taskId.length() + 1)
+                .substring(0, packSize).getBytes(StandardCharsets.UTF_8)));
+        record.setCodec("snappy");
+        record.setTextCount(1);
+        record.setOriginalSize(packSize);
+        record.setCreateTime(LocalDateTime.now());
+        record.setLastAccessTime(System.currentTimeMillis());
+        return record;
+    }
+
+    private static EncodingRecord version(EncodingRecord record, long packVersion) {
+        record.setPackVersion(packVersion);
+        return record;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> eviction(MemoryEncodingStore store) {
+        return (Map<String, Object>) store.getStatistics().get("eviction");
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> spill(MemoryEncodingStore store) {
+        return (Map<String, Object>) store.getStatistics().get("spill");
+    }
+
+    private static long spillTotalBytes(MemoryEncodingStore store) {
+        return (Long) spill(store).get("totalBytes");
+    }
+}
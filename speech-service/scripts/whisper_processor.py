@@ -6,9 +6,12 @@ Whisper音频处理脚本
 """
 
 import argparse
+import contextlib
+import io
 import json
 import logging
 import os
+import re
 import sys
 import time
 import traceback
@@ -19,17 +22,77 @@ try:
     import torch
     import numpy as np
 except ImportError as e:
-    print(f"导入模块失败: {e}")
-    print("请安装所需依赖: pip install openai-whisper torch numpy")
+    print(f"导入模块失败: {e}", file=sys.stderr)
+    print("请安装所需依赖: pip install openai-whisper torch numpy", file=sys.stderr)
     sys.exit(1)
 
-# 配置日志
+# 配置日志（输出到stderr，stdout只用于输出识别结果）
 logging.basicConfig(
     level=logging.INFO,
-    format='%(asctime)s - %(levelname)s - %(message)s'
+    format='%(asctime)s - %(levelname)s - %(message)s',
+    stream=sys.stderr
 )
 logger = logging.getLogger(__name__)
 
+
+def emit_event(event):
+    """以jsonl格式向stdout输出一条事件并立即刷新，供调用方逐行解析"""
+    sys.__stdout__.write(json.dumps(event, ensure_ascii=False) + '\n')
+    sys.__stdout__.flush()
+
+
+class SegmentEventWriter(io.TextIOBase):
+    """
+    识别过程中替换sys.stdout，将Whisper verbose模式打印的分段行
+    （[mm:ss.mmm --> mm:ss.mmm] 文本）转换为segment事件，其余输出转到stderr
+    """
+    
+    SEGMENT_PATTERN = re.compile(r'^\[((?:\d+:)?\d+:\d+\.\d+) --> ((?:\d+:)?\d+:\d+\.\d+)\]\s*(.*)$')
+    
+    def __init__(self):
+        self.buffer = ''
+        self.index = 0
+    
+    def writable(self):
+        return True
+    
+    def write(self, text):
+        self.buffer += text
+        while '\n' in self.buffer:
+            line, self.buffer = self.buffer.split('\n', 1)
+            self._handle_line(line)
+        return len(text)
+    
+    def flush(self):
+        sys.stderr.flush()
+    
+    def close_pending(self):
+        if self.buffer:
+            self._handle_line(self.buffer)
+            self.buffer = ''
+    
+    def _handle_line(self, line):
+        match = self.SEGMENT_PATTERN.match(line)
+        if not match:
+            if line.strip():
+                print(line, file=sys.stderr)
+            return
+        emit_event({
+            'event': 'segment',
+            'id': self.index,
+            'start': self._to_seconds(match.group(1)),
+            'end': self._to_seconds(match.group(2)),
+            'text': match.group(3).strip()
+        })
+        self.index += 1
+    
+    @staticmethod
+    def _to_seconds(timestamp):
+        seconds = 0.0
+        for part in timestamp.split(':'):
+            seconds = seconds * 60 + float(part)
+        return round(seconds, 2)
+
 class WhisperProcessor:
     """Whisper语音识别处理器"""
     
@@ -68,7 +131,7 @@ class WhisperProcessor:
             logger.error(f"加载模型失败: {e}")
             raise
     
-    def process_audio(self, audio_file, language=None, task_id=None, **kwargs):
+    def process_audio(self, audio_file, language=None, task_id=None, stream_segments=False, **kwargs):
         """
         处理音频文件进行语音识别
         
@@ -76,6 +139,7 @@ class WhisperProcessor:
             audio_file: 音频文件路径
             language: 指定语言代码
             task_id: 任务ID
+            stream_segments: 是否在识别过程中逐段输出segment事件
             **kwargs: 其他参数
             
         Returns:
@@ -96,7 +160,7 @@ class WhisperProcessor:
             # 设置识别参数
             transcribe_options = {
                 'task': 'transcribe',  # 默认转录任务
-                'verbose': False
+                'verbose': stream_segments  # verbose模式下Whisper每解码出一段就打印一行
             }
             
             # 设置语言
@@ -108,7 +172,13 @@ class WhisperProcessor:
             
             # 执行语音识别
             logger.info("开始执行语音识别...")
-            result = self.model.transcribe(audio_file, **transcribe_options)
+            if stream_segments:
+                segment_writer = SegmentEventWriter()
+                with contextlib.redirect_stdout(segment_writer):
+                    result = self.model.transcribe(audio_file, **transcribe_options)
+                segment_writer.close_pending()
+            else:
+                result = self.model.transcribe(audio_file, **transcribe_options)
             
             processing_time = int((time.time() - start_time) * 1000)
             
@@ -208,7 +278,8 @@ def main():
     parser.add_argument('--model', default='base', help='Whisper模型名称')
     parser.add_argument('--language', help='指定语言代码')
     parser.add_argument('--task_id', help='任务ID')
-    parser.add_argument('--output_format', default='json', help='输出格式')
+    parser.add_argument('--output_format', default='json', choices=['json', 'jsonl', 'text'],
+                        help='输出格式（jsonl: 逐行输出segment事件，最后输出result/error事件）')
     
     args = parser.parse_args()
     
@@ -220,11 +291,16 @@ def main():
         result = processor.process_audio(
             audio_file=args.audio_file,
             language=args.language,
-            task_id=args.task_id
+            task_id=args.task_id,
+            stream_segments=args.output_format == 'jsonl'
         )
         
         # 输出结果
-        if args.output_format == 'json':
+        if args.output_format == 'jsonl':
+            emit_event(dict(result, event='result' if result.get('success') else 'error'))
+            if not result.get('success'):
+                sys.exit(1)
+        elif args.output_format == 'json':
             print(json.dumps(result, ensure_ascii=False, indent=2))
         else:
             if result.get('success'):
@@ -247,7 +323,9 @@ def main():
             'error_type': type(e).__name__
         }
         
-        if args.output_format == 'json':
+        if args.output_format == 'jsonl':
+            emit_event(dict(error_result, event='error'))
+        elif args.output_format == 'json':
             print(json.dumps(error_result, ensure_ascii=False, indent=2))
         else:
             print(f"错误: {e}")
@@ -3,10 +3,16 @@ package com.translation.speech.consumer;
 import com.translation.common.kafka.KafkaTopics;
 import com.translation.common.kafka.consumer.MemoryAwareConsumer;
 import com.translation.common.kafka.message.SpeechRecognitionCompletedMessage;
+import com.translation.common.kafka.message.SpeechRecognitionPartialMessage;
+import com.translation.common.kafka.message.SpeechRecognitionSegmentMessage;
 import com.translation.common.kafka.message.TaskCreatedMessage;
+import com.translation.common.kafka.message.TaskProgressMessage;
+import com.translation.common.util.AudioFileUtils;
 import com.translation.speech.service.SpeechRecognitionService;
+import com.translation.speech.service.TaskDispatchStore;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.kafka.support.Acknowledgment;
@@ -35,6 +41,11 @@ public class TaskCreatedConsumer extends MemoryAwareConsumer {
     private SpeechRecognitionService speechRecognitionService;
     @Resource
     private KafkaTemplate<String, Object> kafkaTemplate;
+    @Resource
+    private TaskDispatchStore taskDispatchStore;
+    
+    @Value("${speech.pipeline.incremental-enabled:true}")
+    private boolean incrementalEnabled;
     
     @KafkaListener(topics = KafkaTopics.TASK_CREATED, groupId = "speech-service-group")
     public void handleTaskCreated(@Payload TaskCreatedMessage message,
@@ -52,16 +63,24 @@ public class TaskCreatedConsumer extends MemoryAwareConsumer {
             return;
         }
         
+        // 发件箱至少一次投递，同一次投递重复到达时直接确认
+        if (taskDispatchStore.isProcessed(message.getTaskId(), message.getDispatchId())) {
+            log.info("任务创建消息已处理过，跳过重复投递: taskId={}, dispatchId={}",
+                     message.getTaskId(), message.getDispatchId());
+            acknowledgment.acknowledge();
+            return;
+        }
+        
         try {
             processSpeechRecognition(message);
-            acknowledgment.acknowledge();
             log.info("任务消息处理完成: taskId={}", message.getTaskId());
             
         } catch (Exception e) {
             log.error("处理任务创建消息失败: taskId=" + message.getTaskId(), e);
             sendTaskFailedMessage(message.getTaskId(), "语音识别处理失败: " + e.getMessage());
-            acknowledgment.acknowledge();
         }
+        taskDispatchStore.markProcessed(message.getTaskId(), message.getDispatchId());
+        acknowledgment.acknowledge();
     }
     
     private void processSpeechRecognition(TaskCreatedMessage message) {
@@ -79,9 +98,20 @@ public class TaskCreatedConsumer extends MemoryAwareConsumer {
         Map<String, Object> options = new HashMap<>();
         options.put("taskId", taskId);
         options.put("priority", message.getPriority());
+        options.put("resumeMode", Boolean.TRUE.equals(message.getResumeMode()));
+        if (message.getAudioManifest() != null) {
+            options.put("audioManifest", message.getAudioManifest());
+        }
         
         SpeechRecognitionService.BatchRecognitionResult batchResult = 
-            speechRecognitionService.batchRecognizeAudio(audioDirectoryPath, sourceLanguage, options);
+            speechRecognitionService.batchRecognizeAudio(audioDirectoryPath, sourceLanguage, options,
+                result -> {
+                    sendTaskProgressMessage(taskId, result);
+                    if (incrementalEnabled && result.isSuccess()) {
+                        sendPartialMessage(message, result);
+                    }
+                },
+                incrementalEnabled ? (audioFileName, segment) -> sendSegmentMessage(message, audioFileName, segment) : null);
         
         if (!batchResult.isSuccess()) {
             throw new RuntimeException("批量语音识别失败: " + batchResult.getErrorMessage());
@@ -96,22 +126,26 @@ public class TaskCreatedConsumer extends MemoryAwareConsumer {
         completedMessage.setSourceLanguage(sourceLanguage);
         completedMessage.setTargetLanguages(message.getTargetLanguages());
         completedMessage.setCompletedTime(LocalDateTime.now());
+        completedMessage.setResumeMode(message.getResumeMode());
+        completedMessage.setIncremental(incrementalEnabled);
         
         List<SpeechRecognitionCompletedMessage.RecognitionResult> recognitionResults = 
             batchResult.getResults().stream()
                 .filter(SpeechRecognitionService.SpeechRecognitionResult::isSuccess)
-                .map(result -> new SpeechRecognitionCompletedMessage.RecognitionResult(
-                    result.getAudioFileName(),
-                    result.getRecognizedText(),
-                    result.getConfidence(),
-                    getTextFilePath(audioDirectoryPath, result.getAudioFileName())
-                ))
+                .map(result -> toRecognitionResult(audioDirectoryPath, result))
                 .collect(Collectors.toList());
         
         completedMessage.setRecognitionResults(recognitionResults);
         
         try {
-            kafkaTemplate.send(KafkaTopics.SPEECH_RECOGNITION_COMPLETED, taskId, completedMessage);
+            if (incrementalEnabled) {
+                // 流水线模式下完成消息与分段、单文件消息发送到同一主题，翻译服务处理完成消息时该任务的单文件消息都已处理；
+                // 另向完成主题发送不含识别结果的阶段完成事件，供任务服务记录状态，翻译服务忽略该事件
+                kafkaTemplate.send(KafkaTopics.SPEECH_RECOGNITION_PARTIAL, taskId, completedMessage);
+                kafkaTemplate.send(KafkaTopics.SPEECH_RECOGNITION_COMPLETED, taskId, toStageEvent(completedMessage));
+            } else {
+                kafkaTemplate.send(KafkaTopics.SPEECH_RECOGNITION_COMPLETED, taskId, completedMessage);
+            }
             log.info("已发送语音识别完成消息: taskId={}", taskId);
             
         } catch (Exception e) {
@@ -120,9 +154,79 @@ public class TaskCreatedConsumer extends MemoryAwareConsumer {
         }
     }
     
-    private String getTextFilePath(String audioDirectoryPath, String audioFileName) {
-        String baseName = audioFileName.replaceFirst("[.][^.]+$", "");
-        return audioDirectoryPath + "/" + baseName + "_recognition.txt";
+    /**
+     * 流水线模式的阶段完成事件：与完成消息相同但不带识别结果
+     */
+    private SpeechRecognitionCompletedMessage toStageEvent(SpeechRecognitionCompletedMessage completedMessage) {
+        SpeechRecognitionCompletedMessage stageEvent = new SpeechRecognitionCompletedMessage();
+        stageEvent.setTaskId(completedMessage.getTaskId());
+        stageEvent.setAudioDirectoryPath(completedMessage.getAudioDirectoryPath());
+        stageEvent.setSourceLanguage(completedMessage.getSourceLanguage());
+        stageEvent.setTargetLanguages(completedMessage.getTargetLanguages());
+        stageEvent.setCompletedTime(completedMessage.getCompletedTime());
+        stageEvent.setResumeMode(completedMessage.getResumeMode());
+        stageEvent.setIncremental(true);
+        return stageEvent;
+    }
+    
+    private SpeechRecognitionCompletedMessage.RecognitionResult toRecognitionResult(
+            String audioDirectoryPath, SpeechRecognitionService.SpeechRecognitionResult result) {
+        return new SpeechRecognitionCompletedMessage.RecognitionResult(
+            result.getAudioFileName(),
+            result.getRecognizedText(),
+            result.getConfidence(),
+            AudioFileUtils.recognitionFilePath(audioDirectoryPath, result.getAudioFileName()),
+            result.getAudioChecksum()
+        );
+    }
+    
+    /**
+     * 发送单文件识别结果，翻译服务收到后立即翻译该文件
+     * 发送失败不影响任务，翻译服务收到完成消息时会补齐未收到的文件
+     */
+    private void sendPartialMessage(TaskCreatedMessage message, SpeechRecognitionService.SpeechRecognitionResult result) {
+        try {
+            SpeechRecognitionPartialMessage partialMessage = new SpeechRecognitionPartialMessage(
+                message.getTaskId(), message.getAudioDirectoryPath(), message.getSourceLanguage(),
+                message.getTargetLanguages(), message.getResumeMode(),
+                toRecognitionResult(message.getAudioDirectoryPath(), result), LocalDateTime.now());
+            
+            kafkaTemplate.send(KafkaTopics.SPEECH_RECOGNITION_PARTIAL, message.getTaskId(), partialMessage);
+            
+        } catch (Exception e) {
+            log.warn("发送部分识别消息失败: taskId=" + message.getTaskId() + ", file=" + result.getAudioFileName(), e);
+        }
+    }
+    
+    /**
+     * 发送识别分段，翻译服务在文件识别完成前即可开始翻译已识别的部分
+     * 发送失败不影响任务，翻译服务收到单文件结果时发现分段不完整会整体翻译该文件
+     */
+    private void sendSegmentMessage(TaskCreatedMessage message, String audioFileName,
+                                    SpeechRecognitionService.Segment segment) {
+        try {
+            SpeechRecognitionSegmentMessage segmentMessage = new SpeechRecognitionSegmentMessage(
+                message.getTaskId(), audioFileName, message.getSourceLanguage(), message.getTargetLanguages(),
+                segment.getStart(), segment.getEnd(), segment.getText(), LocalDateTime.now());
+            
+            kafkaTemplate.send(KafkaTopics.SPEECH_RECOGNITION_PARTIAL, message.getTaskId(), segmentMessage);
+            
+        } catch (Exception e) {
+            log.warn("发送识别分段消息失败: taskId=" + message.getTaskId() + ", file=" + audioFileName, e);
+        }
+    }
+    
+    private void sendTaskProgressMessage(String taskId, SpeechRecognitionService.SpeechRecognitionResult result) {
+        try {
+            TaskProgressMessage progressMessage = new TaskProgressMessage(
+                taskId, result.getAudioFileName(), TaskProgressMessage.Stage.SPEECH_RECOGNITION,
+                result.isSuccess(), result.getErrorMessage(), LocalDateTime.now());
+            
+            kafkaTemplate.send(KafkaTopics.TASK_PROGRESS, taskId, progressMessage);
+            
+        } catch (Exception e) {
+            log.warn("发送任务进度消息失败: taskId=" + taskId, e);
+        }
     }
     
     private void sendTaskFailedMessage(String taskId, String errorMessage) {
@@ -0,0 +1,53 @@
+package com.translation.speech.controller;
+
+import com.translation.common.response.ApiResponse;
+import com.translation.speech.service.RecognitionResultStore;
+import com.translation.speech.service.WhisperModelRouter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import javax.annotation.Resource;
+import java.util.Map;
+
+/**
+ * 语音识别服务控制器
+ * 提供识别服务运行状态相关的查询接口
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/speech")
+public class SpeechController {
+
+    @Resource
+    private RecognitionResultStore recognitionResultStore;
+    @Resource
+    private WhisperModelRouter whisperModelRouter;
+
+    /**
+     * 获取音频内容去重统计信息
+     */
+    @GetMapping("/dedup-statistics")
+    public ApiResponse<Map<String, Object>> getDedupStatistics() {
+        try {
+            return ApiResponse.success(recognitionResultStore.getStatistics());
+        } catch (Exception e) {
+            log.error("获取去重统计信息失败", e);
+            return ApiResponse.error("获取去重统计信息失败: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 获取Whisper模型档位路由状态
+     */
+    @GetMapping("/model-tiers")
+    public ApiResponse<Map<String, Object>> getModelTierStatus() {
+        try {
+            return ApiResponse.success(whisperModelRouter.getStatus());
+        } catch (Exception e) {
+            log.error("获取模型档位状态失败", e);
+            return ApiResponse.error("获取模型档位状态失败: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,208 @@
+package com.translation.speech.service;
+
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 音频分段器
+ * 使用ffmpeg silencedetect检测静音区间，在静音处把长音频切分为不超过指定时长的片段，
+ * 供多个Whisper进程并行识别
+ */
+@Slf4j
+@Component
+public class AudioSegmenter {
+
+    private static final Pattern DURATION_PATTERN = Pattern.compile("Duration: (\\d+):(\\d+):(\\d+(?:\\.\\d+)?)");
+    private static final Pattern SILENCE_START_PATTERN = Pattern.compile("silence_start: (-?\\d+(?:\\.\\d+)?)");
+    private static final Pattern SILENCE_END_PATTERN = Pattern.compile("silence_end: (\\d+(?:\\.\\d+)?)");
+    /** 进程退出后等待输出读取线程结束的最长时间 */
+    private static final long OUTPUT_DRAIN_TIMEOUT_MS = 5000;
+    private static final AtomicInteger OUTPUT_READER_INDEX = new AtomicInteger();
+
+    @Value("${audio.ffmpeg.path:ffmpeg}")
+    private String ffmpegPath;
+
+    @Value("${whisper.temp.dir:./temp/speech}")
+    private String tempDir;
+
+    @Value("${speech.chunking.silence-noise-db:-30}")
+    private int silenceNoiseDb;
+
+    @Value("${speech.chunking.silence-min-seconds:0.5}")
+    private double silenceMinSeconds;
+
+    @Value("${speech.chunking.timeout-seconds:600}")
+    private long timeoutSeconds;
+
+    /**
+     * 规划切分片段
+     * 每个片段不超过maxChunkSeconds，切分点优先选在片段后半段中最靠后的静音区间中点，找不到静音时按最大时长硬切
+     *
+     * @return 按时间顺序排列的片段；音频不超过maxChunkSeconds时只返回一个覆盖全程的片段
+     */
+    public List<AudioChunk> plan(String audioFilePath, double maxChunkSeconds) {
+        SilenceAnalysis analysis = detectSilences(audioFilePath);
+        double duration = analysis.duration;
+
+        List<AudioChunk> chunks = new ArrayList<>();
+        double start = 0;
+        while (duration - start > maxChunkSeconds) {
+            double limit = start + maxChunkSeconds;
+            double cut = -1;
+            for (double[] silence : analysis.silences) {
+                double middle = (silence[0] + silence[1]) / 2;
+                if (middle > start + maxChunkSeconds / 2 && middle <= limit) {
+                    cut = middle;
+                }
+            }
+            if (cut < 0) {
+                cut = limit;
+            }
+            chunks.add(new AudioChunk(chunks.size(), start, cut));
+            start = cut;
+        }
+        chunks.add(new AudioChunk(chunks.size(), start, duration));
+
+        log.debug("音频分段规划完成: file={}, duration={}s, 静音区间={}, 片段数={}",
+                audioFilePath, duration, analysis.silences.size(), chunks.size());
+        return chunks;
+    }
+
+    /**
+     * 将片段导出为16kHz单声道WAV临时文件（Whisper的输入格式，避免重复重采样）
+     */
+    public File extract(String audioFilePath, AudioChunk chunk) throws Exception {
+        Path dir = Paths.get(tempDir);
+        Files.createDirectories(dir);
+        File output = Files.createTempFile(dir, "chunk_" + chunk.getIndex() + "_", ".wav").toFile();
+
+        List<String> command = Arrays.asList(ffmpegPath, "-hide_banner", "-loglevel", "error", "-y",
+                "-ss", String.format(Locale.ROOT, "%.3f", chunk.getStartSeconds()),
+                "-t", String.format(Locale.ROOT, "%.3f", chunk.getEndSeconds() - chunk.getStartSeconds()),
+                "-i", audioFilePath, "-ac", "1", "-ar", "16000", output.getAbsolutePath());
+
+        StringBuffer errorOutput = new StringBuffer();
+        int exitCode = runFfmpeg(command, line -> errorOutput.append(line).append("\n"), "导出音频片段" + chunk.getIndex());
+        if (exitCode != 0) {
+            throw new RuntimeException("导出音频片段失败: " + errorOutput.toString().trim());
+        }
+        return output;
+    }
+
+    private SilenceAnalysis detectSilences(String audioFilePath) {
+        List<String> command = Arrays.asList(ffmpegPath, "-hide_banner", "-nostats", "-i", audioFilePath,
+                "-af", "silencedetect=noise=" + silenceNoiseDb + "dB:d=" + silenceMinSeconds, "-f", "null", "-");
+
+        SilenceAnalysis analysis = new SilenceAnalysis();
+        try {
+            int exitCode = runFfmpeg(command, analysis::parse, "静音检测");
+            if (exitCode != 0 || analysis.duration <= 0) {
+                throw new RuntimeException("静音检测失败: exitCode=" + exitCode);
+            }
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new RuntimeException("静音检测失败: " + e.getMessage());
+        }
+        return analysis;
+    }
+
+    /**
+     * 运行ffmpeg并等待结束，输出由独立线程逐行读取，读取阻塞时超时仍然生效；
+     * 超时或等待被中断（片段任务取消）时强制结束进程
+     *
+     * @return 进程退出码
+     */
+    private int runFfmpeg(List<String> command, Consumer<String> lineHandler, String description) throws Exception {
+        Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+        Thread outputReader = new Thread(() -> {
+            try (BufferedReader reader = new BufferedReader(
+                    new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    lineHandler.accept(line);
+                }
+            } catch (Exception e) {
+                log.debug("读取ffmpeg输出结束: {}", e.getMessage());
+            }
+        }, "ffmpeg-output-" + OUTPUT_READER_INDEX.incrementAndGet());
+        outputReader.setDaemon(true);
+        outputReader.start();
+        try {
+            if (!process.waitFor(timeoutSeconds, TimeUnit.SECONDS)) {
+                throw new RuntimeException(description + "超时");
+            }
+            // 进程已退出，等待读取线程处理完管道中剩余的输出
+            outputReader.join(OUTPUT_DRAIN_TIMEOUT_MS);
+            return process.exitValue();
+        } finally {
+            if (process.isAlive()) {
+                process.destroyForcibly();
+            }
+        }
+    }
+
+    /**
+     * 静音检测结果
+     */
+    private static class SilenceAnalysis {
+        private double duration;
+        private final List<double[]> silences = new ArrayList<>();
+        private Double silenceStart;
+
+        /**
+         * 解析一行silencedetect输出，只在ffmpeg输出读取线程中调用
+         */
+        private void parse(String line) {
+            Matcher matcher = DURATION_PATTERN.matcher(line);
+            if (matcher.find()) {
+                duration = Integer.parseInt(matcher.group(1)) * 3600
+                        + Integer.parseInt(matcher.group(2)) * 60
+                        + Double.parseDouble(matcher.group(3));
+                return;
+            }
+            matcher = SILENCE_START_PATTERN.matcher(line);
+            if (matcher.find()) {
+                silenceStart = Math.max(0, Double.parseDouble(matcher.group(1)));
+                return;
+            }
+            matcher = SILENCE_END_PATTERN.matcher(line);
+            if (matcher.find() && silenceStart != null) {
+                silences.add(new double[]{silenceStart, Double.parseDouble(matcher.group(1))});
+                silenceStart = null;
+            }
+        }
+    }
+
+    /**
+     * 音频片段
+     */
+    @Data
+    public static class AudioChunk {
+        /** 片段序号 */
+        private final int index;
+        /** 在原音频中的起始时间（秒） */
+        private final double startSeconds;
+        /** 在原音频中的结束时间（秒） */
+        private final double endSeconds;
+    }
+}
@@ -0,0 +1,148 @@
+package com.translation.speech.service;
+
+import cn.hutool.json.JSONUtil;
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 内容寻址的识别结果存储
+ * 以 (音频内容校验值, 语言, 请求的模型档位) 为键保存识别结果，不同任务、不同目录下内容相同的音频直接复用首次识别的结果。
+ * 键中的模型不含负载降级，只保存以请求档位识别的结果
+ * 结果以JSON文件落盘（按校验值前两位分目录），服务重启后仍然有效
+ */
+@Slf4j
+@Component
+public class RecognitionResultStore {
+
+    @Value("${speech.recognition-store.path:./recognition-store}")
+    private String storePath;
+
+    private final LongAdder lookups = new LongAdder();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder saves = new LongAdder();
+    private final LongAdder savedProcessingTimeMs = new LongAdder();
+
+    /**
+     * 查找内容相同音频的已有识别结果
+     */
+    public StoredRecognition lookup(String audioChecksum, String language, String model) {
+        if (audioChecksum == null) {
+            return null;
+        }
+
+        lookups.increment();
+        StoredRecognition stored = readFromDisk(key(audioChecksum, language, model), audioChecksum);
+        if (stored != null) {
+            hits.increment();
+            if (stored.getProcessingTimeMs() != null) {
+                savedProcessingTimeMs.add(stored.getProcessingTimeMs());
+            }
+        }
+        return stored;
+    }
+
+    /**
+     * 保存识别结果，同一键只保留首次识别的结果作为原始结果
+     */
+    public void save(String audioChecksum, String language, String model, String originTaskId,
+                     String originAudioPath, SpeechRecognitionService.SpeechRecognitionResult result) {
+        if (audioChecksum == null || !result.isSuccess()) {
+            return;
+        }
+
+        String key = key(audioChecksum, language, model);
+        Path filePath = filePath(key, audioChecksum);
+        if (Files.exists(filePath)) {
+            return;
+        }
+
+        StoredRecognition stored = new StoredRecognition();
+        stored.setAudioChecksum(audioChecksum);
+        stored.setLanguage(language);
+        stored.setModel(model);
+        stored.setRecognizedText(result.getRecognizedText());
+        stored.setConfidence(result.getConfidence());
+        stored.setProcessingTimeMs(result.getProcessingTimeMs());
+        stored.setOriginTaskId(originTaskId);
+        stored.setOriginAudioPath(originAudioPath);
+        stored.setCreateTime(System.currentTimeMillis());
+
+        try {
+            Files.createDirectories(filePath.getParent());
+            // 先写临时文件再原子替换，避免并发读取到不完整的结果
+            Path tempPath = Files.createTempFile(filePath.getParent(), key, ".tmp");
+            Files.write(tempPath, JSONUtil.toJsonStr(stored).getBytes(StandardCharsets.UTF_8));
+            Files.move(tempPath, filePath, StandardCopyOption.ATOMIC_MOVE);
+            saves.increment();
+        } catch (Exception e) {
+            log.warn("保存识别结果到内容存储失败: " + key, e);
+        }
+    }
+
+    /**
+     * 去重统计信息
+     */
+    public Map<String, Object> getStatistics() {
+        long lookupCount = lookups.sum();
+        long hitCount = hits.sum();
+
+        Map<String, Object> statistics = new HashMap<>();
+        statistics.put("lookups", lookupCount);
+        statistics.put("hits", hitCount);
+        statistics.put("hitRate", lookupCount > 0 ? (double) hitCount / lookupCount : 0.0);
+        statistics.put("saves", saves.sum());
+        statistics.put("savedProcessingTimeMs", savedProcessingTimeMs.sum());
+        return statistics;
+    }
+
+    private StoredRecognition readFromDisk(String key, String audioChecksum) {
+        Path filePath = filePath(key, audioChecksum);
+        if (!Files.isRegularFile(filePath)) {
+            return null;
+        }
+        try {
+            String json = new String(Files.readAllBytes(filePath), StandardCharsets.UTF_8);
+            return JSONUtil.toBean(json, StoredRecognition.class);
+        } catch (Exception e) {
+            log.warn("读取内容存储中的识别结果失败: " + key, e);
+            return null;
+        }
+    }
+
+    private String key(String audioChecksum, String language, String model) {
+        return audioChecksum + "_" + (language != null ? language : "auto") + "_" + model;
+    }
+
+    private Path filePath(String key, String audioChecksum) {
+        return Paths.get(storePath, audioChecksum.substring(0, 2), key + ".json");
+    }
+
+    /**
+     * 存储的识别结果
+     */
+    @Data
+    public static class StoredRecognition {
+        private String audioChecksum;
+        private String language;
+        private String model;
+        private String recognizedText;
+        private Double confidence;
+        private Long processingTimeMs;
+        /** 首次识别该内容的任务ID */
+        private String originTaskId;
+        /** 首次识别该内容时的音频路径 */
+        private String originAudioPath;
+        private Long createTime;
+    }
+}
@@ -3,6 +3,8 @@ package com.translation.speech.service;
 import lombok.Data;
 
 import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
 
 /**
  * 语音识别服务接口
@@ -18,17 +20,61 @@ public interface SpeechRecognitionService {
      * @param options 额外选项参数
      * @return 识别结果
      */
-    SpeechRecognitionResult recognizeAudio(String audioFilePath, String language, Map<String, Object> options);
+    default SpeechRecognitionResult recognizeAudio(String audioFilePath, String language, Map<String, Object> options) {
+        return recognizeAudio(audioFilePath, language, options, null);
+    }
+    
+    /**
+     * 识别音频文件，每识别出一个分段立即回调
+     * 
+     * @param audioFilePath 音频文件路径
+     * @param language 语言代码
+     * @param options 额外选项参数
+     * @param segmentListener 分段回调（时间戳相对于整个音频），可为null；长音频分片并行识别时也按时间顺序回调
+     * @return 识别结果
+     */
+    SpeechRecognitionResult recognizeAudio(String audioFilePath, String language, Map<String, Object> options,
+                                           Consumer<Segment> segmentListener);
     
     /**
      * 批量识别音频文件
      * 
      * @param audioDirectoryPath 音频目录路径
      * @param language 语言代码
-     * @param options 额外选项参数
+     * @param options 额外选项参数（resumeMode=true时复用校验通过的已有识别结果）
+     * @return 批量识别结果
+     */
+    default BatchRecognitionResult batchRecognizeAudio(String audioDirectoryPath, String language, Map<String, Object> options) {
+        return batchRecognizeAudio(audioDirectoryPath, language, options, null);
+    }
+    
+    /**
+     * 批量识别音频文件，每个文件处理完成后回调
+     * 
+     * @param audioDirectoryPath 音频目录路径
+     * @param language 语言代码
+     * @param options 额外选项参数（resumeMode=true时复用校验通过的已有识别结果）
+     * @param fileCompletedListener 单文件处理完成回调，可为null
+     * @return 批量识别结果
+     */
+    default BatchRecognitionResult batchRecognizeAudio(String audioDirectoryPath, String language, Map<String, Object> options,
+                                                       Consumer<SpeechRecognitionResult> fileCompletedListener) {
+        return batchRecognizeAudio(audioDirectoryPath, language, options, fileCompletedListener, null);
+    }
+    
+    /**
+     * 批量识别音频文件，每识别出一个分段、每个文件处理完成后分别回调
+     * 
+     * @param audioDirectoryPath 音频目录路径
+     * @param language 语言代码
+     * @param options 额外选项参数（resumeMode=true时复用校验通过的已有识别结果）
+     * @param fileCompletedListener 单文件处理完成回调，可为null
+     * @param segmentListener 分段回调（音频文件名, 分段），可为null；复用已有结果的文件没有分段回调
      * @return 批量识别结果
      */
-    BatchRecognitionResult batchRecognizeAudio(String audioDirectoryPath, String language, Map<String, Object> options);
+    BatchRecognitionResult batchRecognizeAudio(String audioDirectoryPath, String language, Map<String, Object> options,
+                                               Consumer<SpeechRecognitionResult> fileCompletedListener,
+                                               BiConsumer<String, Segment> segmentListener);
     
     /**
      * 检查模型是否可用
@@ -46,6 +92,16 @@ public interface SpeechRecognitionService {
         private String audioFileName;
         private String errorMessage;
         private Long processingTimeMs;
+        /** 源音频文件校验值 */
+        private String audioChecksum;
+        /** 是否复用了已有的识别结果 */
+        private boolean reused;
+        /** 命中内容去重时，原始识别结果的引用（任务ID:音频路径） */
+        private String dedupReference;
+        /** 实际使用的Whisper模型 */
+        private String modelName;
+        /** 分段信息（时间戳相对于整个音频），未请求分段时为空 */
+        private java.util.List<Segment> segments;
         
         // 构造函数
         public SpeechRecognitionResult(boolean success, String recognizedText, Double confidence, 
@@ -59,6 +115,21 @@ public interface SpeechRecognitionService {
         }
     }
     
+    /**
+     * 识别分段
+     */
+    @Data
+    class Segment {
+        /** 开始时间（秒） */
+        private Double start;
+        /** 结束时间（秒） */
+        private Double end;
+        /** 分段文本 */
+        private String text;
+        /** 分段置信度 */
+        private Double confidence;
+    }
+    
     /**
      * 批量识别结果
      */
@@ -0,0 +1,66 @@
+package com.translation.speech.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * 已处理的任务投递记录
+ * 每个任务落盘保存最近一次处理完成的投递ID，发件箱重复发送的同一次投递据此跳过，不会重复识别；
+ * 任务重启会生成新的投递ID，不受影响
+ */
+@Slf4j
+@Component
+public class TaskDispatchStore {
+
+    @Value("${speech.dispatch-store.path:./dispatch-store}")
+    private String storePath;
+
+    /**
+     * 该投递是否已经处理完成，没有投递ID的旧消息不去重
+     */
+    public boolean isProcessed(String taskId, String dispatchId) {
+        if (dispatchId == null) {
+            return false;
+        }
+        Path filePath = filePath(taskId);
+        if (!Files.isRegularFile(filePath)) {
+            return false;
+        }
+        try {
+            return dispatchId.equals(new String(Files.readAllBytes(filePath), StandardCharsets.UTF_8).trim());
+        } catch (Exception e) {
+            log.warn("读取任务投递记录失败: " + taskId, e);
+            return false;
+        }
+    }
+
+    /**
+     * 记录投递已处理完成（无论识别成功与否，结果都已上报）
+     */
+    public void markProcessed(String taskId, String dispatchId) {
+        if (dispatchId == null) {
+            return;
+        }
+        Path filePath = filePath(taskId);
+        try {
+            Files.createDirectories(filePath.getParent());
+            // 先写临时文件再原子替换，避免读取到不完整的投递ID
+            Path tempPath = Files.createTempFile(filePath.getParent(), taskId, ".tmp");
+            Files.write(tempPath, dispatchId.getBytes(StandardCharsets.UTF_8));
+            Files.move(tempPath, filePath, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (Exception e) {
+            log.warn("保存任务投递记录失败: " + taskId, e);
+        }
+    }
+
+    private Path filePath(String taskId) {
+        return Paths.get(storePath, taskId + ".dispatch");
+    }
+}
@@ -0,0 +1,185 @@
+package com.translation.speech.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Whisper模型分级路由
+ * 按任务优先级和音频时长在模型档位（由快到准排列）中选择基准档位，再根据排队情况整体降级：
+ * Whisper进程并发数受信号量限制，排队等待时间的滑动平均超过SLO时降一档，空闲时逐档恢复。
+ * 滑动平均按时间衰减（半衰期可配置），没有新的排队样本时也会逐渐回落，负载消失后能够恢复
+ */
+@Slf4j
+@Component
+public class WhisperModelRouter {
+
+    /** 排队等待时间滑动平均的平滑系数 */
+    private static final double WAIT_EWMA_ALPHA = 0.2;
+
+    @Value("${speech.whisper.model:base}")
+    private String defaultModel;
+
+    @Value("${speech.whisper.tiers:tiny,base,small,medium}")
+    private String tiersConfig;
+
+    @Value("${speech.whisper.max-concurrent:4}")
+    private int maxConcurrent;
+
+    @Value("${speech.whisper.queue-wait-slo-ms:30000}")
+    private long queueWaitSloMs;
+
+    @Value("${speech.whisper.long-audio-seconds:1800}")
+    private double longAudioSeconds;
+
+    @Value("${speech.whisper.wait-ewma-half-life-ms:60000}")
+    private long waitEwmaHalfLifeMs;
+
+    private List<String> tiers;
+    private int defaultTier;
+    private Semaphore permits;
+
+    private final AtomicInteger waiting = new AtomicInteger();
+    private final AtomicInteger downgradeLevel = new AtomicInteger();
+    private double waitEwmaMs;
+    private long waitEwmaUpdatedAt = System.currentTimeMillis();
+    private long levelChangedAt = System.currentTimeMillis();
+
+    @PostConstruct
+    public void init() {
+        tiers = Arrays.stream(tiersConfig.split(",")).map(String::trim).filter(t -> !t.isEmpty())
+                .collect(Collectors.toList());
+        if (!tiers.contains(defaultModel)) {
+            tiers = new ArrayList<>(tiers);
+            tiers.add(0, defaultModel);
+        }
+        defaultTier = tiers.indexOf(defaultModel);
+        permits = new Semaphore(maxConcurrent, true);
+        log.info("Whisper模型档位: {}, 默认={}, 最大并发={}, 排队SLO={}ms", tiers, defaultModel, maxConcurrent, queueWaitSloMs);
+    }
+
+    /**
+     * 选择模型
+     * 在请求档位的基础上叠加当前的负载降级
+     *
+     * @param priority 任务优先级（1-10，数字越小优先级越高），可为null
+     * @param durationSeconds 音频时长（秒），可为null
+     */
+    public String route(Integer priority, Double durationSeconds) {
+        tryRecover();
+        return tierModel(requestedTier(priority, durationSeconds) - downgradeLevel.get());
+    }
+
+    /**
+     * 不考虑负载降级时应使用的模型
+     * 高优先级（1-3）升一档，低优先级（8-10）降一档，超长音频降一档
+     */
+    public String requestedModel(Integer priority, Double durationSeconds) {
+        return tierModel(requestedTier(priority, durationSeconds));
+    }
+
+    private int requestedTier(Integer priority, Double durationSeconds) {
+        int tier = defaultTier;
+        if (priority != null && priority <= 3) {
+            tier++;
+        } else if (priority != null && priority >= 8) {
+            tier--;
+        }
+        if (durationSeconds != null && durationSeconds > longAudioSeconds) {
+            tier--;
+        }
+        return tier;
+    }
+
+    private String tierModel(int tier) {
+        return tiers.get(Math.max(0, Math.min(tiers.size() - 1, tier)));
+    }
+
+    /**
+     * 获取一个Whisper进程执行许可，阻塞直到有空闲许可，并根据排队时间调整降级档位
+     */
+    public void acquire() throws InterruptedException {
+        long waitStart = System.currentTimeMillis();
+        waiting.incrementAndGet();
+        try {
+            permits.acquire();
+        } finally {
+            waiting.decrementAndGet();
+        }
+        recordWait(System.currentTimeMillis() - waitStart);
+    }
+
+    /**
+     * 释放Whisper进程执行许可
+     */
+    public void release() {
+        permits.release();
+        tryRecover();
+    }
+
+    /**
+     * 路由状态信息
+     */
+    public Map<String, Object> getStatus() {
+        Map<String, Object> status = new HashMap<>();
+        status.put("tiers", tiers);
+        status.put("defaultModel", defaultModel);
+        status.put("downgradeLevel", downgradeLevel.get());
+        status.put("queueDepth", waiting.get());
+        status.put("runningProcesses", maxConcurrent - permits.availablePermits());
+        synchronized (this) {
+            status.put("queueWaitEwmaMs", Math.round(decayWaitEwma(System.currentTimeMillis())));
+        }
+        status.put("queueWaitSloMs", queueWaitSloMs);
+        return status;
+    }
+
+    private synchronized void recordWait(long waitMs) {
+        long now = System.currentTimeMillis();
+        waitEwmaMs = decayWaitEwma(now) * (1 - WAIT_EWMA_ALPHA) + waitMs * WAIT_EWMA_ALPHA;
+        if (waitEwmaMs > queueWaitSloMs && downgradeLevel.get() < tiers.size() - 1) {
+            int level = downgradeLevel.incrementAndGet();
+            levelChangedAt = now;
+            // 降级后重新开始观察，避免连续多次降级
+            waitEwmaMs = queueWaitSloMs / 2.0;
+            log.warn("Whisper排队时间超过SLO，模型降一档: 降级档位={}, 排队数={}", level, waiting.get());
+        }
+    }
+
+    /**
+     * 没有排队且衰减后的排队时间滑动平均足够低时升一档，两次调整之间至少间隔一个半衰期，避免一次性恢复到底
+     */
+    private synchronized void tryRecover() {
+        if (downgradeLevel.get() == 0 || waiting.get() > 0) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        if (now - levelChangedAt >= waitEwmaHalfLifeMs && decayWaitEwma(now) < queueWaitSloMs / 4.0) {
+            int level = downgradeLevel.decrementAndGet();
+            levelChangedAt = now;
+            log.info("Whisper负载恢复，模型升一档: 降级档位={}", level);
+        }
+    }
+
+    /**
+     * 按距上次更新的时间衰减排队时间滑动平均
+     */
+    private double decayWaitEwma(long now) {
+        long elapsed = now - waitEwmaUpdatedAt;
+        if (elapsed > 0) {
+            waitEwmaMs *= Math.pow(0.5, (double) elapsed / waitEwmaHalfLifeMs);
+            waitEwmaUpdatedAt = now;
+        }
+        return waitEwmaMs;
+    }
+}
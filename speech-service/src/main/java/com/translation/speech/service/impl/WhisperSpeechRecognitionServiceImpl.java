@@ -1,16 +1,35 @@
 package com.translation.speech.service.impl;
 
+import cn.hutool.json.JSONObject;
 import cn.hutool.json.JSONUtil;
+import com.translation.common.dto.AudioManifest;
+import com.translation.common.util.AudioDirectoryScanner;
+import com.translation.common.util.AudioFileUtils;
+import com.translation.speech.service.AudioSegmenter;
+import com.translation.speech.service.RecognitionResultStore;
 import com.translation.speech.service.SpeechRecognitionService;
+import com.translation.speech.service.WhisperModelRouter;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.annotation.Resource;
+import java.io.BufferedReader;
 import java.io.File;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 /**
@@ -27,13 +46,59 @@ public class WhisperSpeechRecognitionServiceImpl implements SpeechRecognitionSer
     @Value("${speech.whisper.model:base}")
     private String whisperModel;
     
+    @Value("${speech.chunking.enabled:true}")
+    private boolean chunkingEnabled;
+    
+    @Value("${speech.chunking.max-chunk-seconds:300}")
+    private double maxChunkSeconds;
+    
+    @Value("${speech.chunking.workers:4}")
+    private int chunkWorkers;
+    
+    @Resource
+    private RecognitionResultStore recognitionResultStore;
+    @Resource
+    private AudioSegmenter audioSegmenter;
+    @Resource
+    private WhisperModelRouter whisperModelRouter;
+    
+    /**
+     * 音频片段识别线程池，每个线程驱动一个Whisper进程
+     */
+    private ExecutorService chunkExecutor;
+    
+    private static final String HEADER_AUDIO_FILE = "音频文件: ";
+    private static final String HEADER_CONFIDENCE = "置信度: ";
+    private static final String HEADER_CHECKSUM = "音频校验: ";
+    private static final String HEADER_TEXT = "识别文本:";
+    
+    /** 识别失败时错误信息中保留的stderr行数 */
+    private static final int STDERR_TAIL_LINES = 20;
+    
+    /** 进程退出后等待stderr读取线程结束的时间 */
+    private static final long STDERR_DRAIN_TIMEOUT_MS = 2000;
+    
     private static final String[] SUPPORTED_LANGUAGES = {
         "zh", "en", "ja", "ko", "es", "fr", "de", "ru", "it", "pt"
     };
     
+    @PostConstruct
+    public void init() {
+        chunkExecutor = Executors.newFixedThreadPool(chunkWorkers, runnable -> {
+            Thread thread = new Thread(runnable, "whisper-chunk-worker");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+    
+    @PreDestroy
+    public void destroy() {
+        chunkExecutor.shutdownNow();
+    }
+    
     @Override
-    public SpeechRecognitionResult recognizeAudio(String audioFilePath, String language, Map<String, Object> options) {
-        long startTime = System.currentTimeMillis();
+    public SpeechRecognitionResult recognizeAudio(String audioFilePath, String language, Map<String, Object> options,
+                                                  Consumer<Segment> segmentListener) {
         File audioFile = new File(audioFilePath);
         
         if (!audioFile.exists()) {
@@ -41,6 +106,278 @@ public class WhisperSpeechRecognitionServiceImpl implements SpeechRecognitionSer
                 audioFile.getName(), "音频文件不存在: " + audioFilePath, 0L);
         }
         
+        // 选择模型档位，同一文件的所有片段使用同一模型
+        options = options != null ? new HashMap<>(options) : new HashMap<>();
+        String model = options.get("whisperModel") != null
+            ? options.get("whisperModel").toString() : routeModel(options, (Number) options.get("durationSeconds"));
+        options.put("whisperModel", model);
+        
+        SpeechRecognitionResult result = null;
+        
+        // 长音频在静音处切分后并行识别
+        boolean enableVad = options.get("enableVad") != null
+            ? Boolean.TRUE.equals(options.get("enableVad")) : chunkingEnabled;
+        if (enableVad) {
+            double chunkSeconds = options.get("maxSegmentLength") != null
+                ? ((Number) options.get("maxSegmentLength")).doubleValue() : maxChunkSeconds;
+            // 音频清单中已知时长不超过片段上限时无需静音检测
+            Object knownDuration = options.get("durationSeconds");
+            if (knownDuration == null || ((Number) knownDuration).doubleValue() > chunkSeconds) {
+                result = recognizeInChunks(audioFilePath, language, options, chunkSeconds, segmentListener);
+            }
+        }
+        
+        if (result == null) {
+            result = transcribeFile(audioFilePath, language, options, segmentListener);
+        }
+        
+        if (Boolean.FALSE.equals(options.get("includeSegments"))) {
+            result.setSegments(null);
+        }
+        result.setModelName(model);
+        return result;
+    }
+    
+    /**
+     * 按任务优先级、音频时长和当前负载选择模型档位
+     */
+    private String routeModel(Map<String, Object> options, Number durationSeconds) {
+        Object priority = options != null ? options.get("priority") : null;
+        return whisperModelRouter.route(priority instanceof Number ? ((Number) priority).intValue() : null,
+            durationSeconds != null ? durationSeconds.doubleValue() : null);
+    }
+    
+    /**
+     * 不考虑负载降级时应使用的模型档位，作为内容去重的键：负载降级期间同一内容仍能命中正常档位的识别结果
+     */
+    private String requestedModel(Map<String, Object> options, Number durationSeconds) {
+        Object priority = options != null ? options.get("priority") : null;
+        return whisperModelRouter.requestedModel(priority instanceof Number ? ((Number) priority).intValue() : null,
+            durationSeconds != null ? durationSeconds.doubleValue() : null);
+    }
+    
+    /**
+     * 分段并行识别
+     * 
+     * @return 识别结果；音频不需要切分或分段失败时返回null，由调用方整段识别
+     */
+    private SpeechRecognitionResult recognizeInChunks(String audioFilePath, String language, 
+                                                      Map<String, Object> options, double chunkSeconds,
+                                                      Consumer<Segment> segmentListener) {
+        long startTime = System.currentTimeMillis();
+        String audioFileName = new File(audioFilePath).getName();
+        
+        List<AudioSegmenter.AudioChunk> chunks;
+        try {
+            chunks = audioSegmenter.plan(audioFilePath, chunkSeconds);
+        } catch (Exception e) {
+            log.warn("音频分段失败，整段识别: {}, {}", audioFileName, e.getMessage());
+            return null;
+        }
+        if (chunks.size() <= 1) {
+            return null;
+        }
+        
+        log.info("音频分段并行识别: {}, 片段数={}", audioFileName, chunks.size());
+        
+        OrderedSegmentRelay relay = segmentListener == null ? null : new OrderedSegmentRelay(segmentListener);
+        ChunkProcesses processes = new ChunkProcesses();
+        List<Future<SpeechRecognitionResult>> futures = new ArrayList<>();
+        for (AudioSegmenter.AudioChunk chunk : chunks) {
+            Consumer<Segment> chunkListener = relay == null ? null : segment -> relay.accept(chunk.getIndex(), segment);
+            futures.add(chunkExecutor.submit(
+                () -> transcribeChunk(audioFilePath, chunk, language, options, chunkListener, processes)));
+        }
+        
+        // 按片段顺序拼接文本和时间戳
+        StringBuilder text = new StringBuilder();
+        List<Segment> segments = new ArrayList<>();
+        double weightedConfidence = 0;
+        double totalSeconds = 0;
+        String separator = "zh".equals(language) || "ja".equals(language) ? "" : " ";
+        
+        for (int i = 0; i < chunks.size(); i++) {
+            AudioSegmenter.AudioChunk chunk = chunks.get(i);
+            SpeechRecognitionResult chunkResult;
+            try {
+                chunkResult = futures.get(i).get();
+            } catch (Exception e) {
+                chunkResult = new SpeechRecognitionResult(false, null, 0.0, audioFileName, e.getMessage(), 0L);
+            }
+            
+            if (!chunkResult.isSuccess()) {
+                // 取消只能中断排队和等待许可的片段；已启动的Whisper进程阻塞在读取stdout上，需直接结束进程
+                futures.forEach(future -> future.cancel(true));
+                processes.abort();
+                return new SpeechRecognitionResult(false, null, 0.0, audioFileName,
+                    "片段" + chunk.getIndex() + "识别失败: " + chunkResult.getErrorMessage(),
+                    System.currentTimeMillis() - startTime);
+            }
+            
+            String chunkText = chunkResult.getRecognizedText() != null ? chunkResult.getRecognizedText().trim() : "";
+            if (!chunkText.isEmpty()) {
+                if (text.length() > 0) {
+                    text.append(separator);
+                }
+                text.append(chunkText);
+            }
+            
+            if (relay != null) {
+                relay.advance(chunk.getIndex() + 1);
+            }
+            
+            if (chunkResult.getSegments() != null) {
+                for (Segment segment : chunkResult.getSegments()) {
+                    segment.setStart(segment.getStart() + chunk.getStartSeconds());
+                    segment.setEnd(segment.getEnd() + chunk.getStartSeconds());
+                    segments.add(segment);
+                }
+            }
+            
+            double chunkLength = chunk.getEndSeconds() - chunk.getStartSeconds();
+            weightedConfidence += (chunkResult.getConfidence() != null ? chunkResult.getConfidence() : 0.0) * chunkLength;
+            totalSeconds += chunkLength;
+        }
+        
+        SpeechRecognitionResult result = new SpeechRecognitionResult(true, text.toString(),
+            totalSeconds > 0 ? Math.round(weightedConfidence / totalSeconds * 1000) / 1000.0 : 0.0,
+            audioFileName, null, System.currentTimeMillis() - startTime);
+        result.setSegments(segments);
+        return result;
+    }
+    
+    /**
+     * 导出并识别单个片段，识别完成后删除临时文件
+     */
+    private SpeechRecognitionResult transcribeChunk(String audioFilePath, AudioSegmenter.AudioChunk chunk,
+                                                    String language, Map<String, Object> options,
+                                                    Consumer<Segment> segmentListener,
+                                                    ChunkProcesses processes) throws Exception {
+        if (processes.isAborted()) {
+            throw new IllegalStateException("其它片段识别失败，已中止");
+        }
+        File chunkFile = audioSegmenter.extract(audioFilePath, chunk);
+        // 片段内的分段时间戳换算为整个音频的时间戳后再回调
+        Consumer<Segment> chunkListener = segmentListener == null ? null : segment -> {
+            segment.setStart(segment.getStart() + chunk.getStartSeconds());
+            segment.setEnd(segment.getEnd() + chunk.getStartSeconds());
+            segmentListener.accept(segment);
+        };
+        try {
+            return transcribeFile(chunkFile.getAbsolutePath(), language, options, chunkListener,
+                processes, chunk.getIndex());
+        } finally {
+            Files.deleteIfExists(chunkFile.toPath());
+        }
+    }
+    
+    /**
+     * 同一音频各片段正在运行的Whisper进程
+     * 一个片段失败时结束其余片段的进程：进程结束后stdout管道关闭，读取线程的readLine随即返回，并释放进程许可
+     */
+    private static class ChunkProcesses {
+        private final Map<Integer, Process> running = new ConcurrentHashMap<>();
+        private volatile boolean aborted;
+        
+        /**
+         * 登记片段的进程；已中止时立即结束该进程
+         */
+        void register(int chunkIndex, Process process) {
+            running.put(chunkIndex, process);
+            if (aborted) {
+                process.destroyForcibly();
+            }
+        }
+        
+        void unregister(int chunkIndex) {
+            running.remove(chunkIndex);
+        }
+        
+        boolean isAborted() {
+            return aborted;
+        }
+        
+        void abort() {
+            aborted = true;
+            running.values().forEach(Process::destroyForcibly);
+        }
+    }
+    
+    /**
+     * 按片段顺序转发并行识别的分段：当前片段的分段直接回调，后续片段的分段暂存，前面的片段全部完成后再按顺序回调
+     */
+    private static class OrderedSegmentRelay {
+        private final Consumer<Segment> listener;
+        private final Map<Integer, List<Segment>> pending = new HashMap<>();
+        private int current;
+        
+        OrderedSegmentRelay(Consumer<Segment> listener) {
+            this.listener = listener;
+        }
+        
+        synchronized void accept(int chunkIndex, Segment segment) {
+            if (chunkIndex == current) {
+                listener.accept(segment);
+            } else {
+                pending.computeIfAbsent(chunkIndex, key -> new ArrayList<>()).add(segment);
+            }
+        }
+        
+        /**
+         * 前面的片段已全部完成，转发该片段已暂存的分段
+         */
+        synchronized void advance(int chunkIndex) {
+            current = chunkIndex;
+            List<Segment> segments = pending.remove(chunkIndex);
+            if (segments != null) {
+                segments.forEach(listener);
+            }
+        }
+    }
+    
+    /**
+     * 解析Whisper输出的分段信息
+     */
+    private List<Segment> parseSegments(Object rawSegments) {
+        if (!(rawSegments instanceof List)) {
+            return null;
+        }
+        
+        List<Segment> segments = new ArrayList<>();
+        for (Object raw : (List<?>) rawSegments) {
+            if (!(raw instanceof Map)) {
+                continue;
+            }
+            Map<?, ?> item = (Map<?, ?>) raw;
+            Segment segment = new Segment();
+            segment.setStart(item.get("start") instanceof Number ? ((Number) item.get("start")).doubleValue() : 0.0);
+            segment.setEnd(item.get("end") instanceof Number ? ((Number) item.get("end")).doubleValue() : 0.0);
+            segment.setText(item.get("text") != null ? item.get("text").toString() : "");
+            segment.setConfidence(item.get("confidence") instanceof Number ? ((Number) item.get("confidence")).doubleValue() : null);
+            segments.add(segment);
+        }
+        return segments;
+    }
+    
+    /**
+     * 调用Whisper识别单个音频文件（或音频片段）
+     * 脚本以jsonl格式在stdout逐行输出事件（segment/result/error），日志输出到stderr并由独立线程读取，
+     * 分段事件到达即回调，不等整个文件识别完成
+     */
+    private SpeechRecognitionResult transcribeFile(String audioFilePath, String language, Map<String, Object> options,
+                                                   Consumer<Segment> segmentListener) {
+        return transcribeFile(audioFilePath, language, options, segmentListener, null, -1);
+    }
+    
+    /**
+     * 调用Whisper识别音频片段，进程登记到processes中，其它片段失败时由分段识别结束该进程
+     */
+    private SpeechRecognitionResult transcribeFile(String audioFilePath, String language, Map<String, Object> options,
+                                                   Consumer<Segment> segmentListener,
+                                                   ChunkProcesses processes, int chunkIndex) {
+        long startTime = System.currentTimeMillis();
+        File audioFile = new File(audioFilePath);
+        
         try {
             log.info("开始识别音频文件: {}", audioFile.getName());
             
@@ -48,11 +385,17 @@ public class WhisperSpeechRecognitionServiceImpl implements SpeechRecognitionSer
             List<String> command = new ArrayList<>();
             command.add("python3");
             command.add(whisperScriptPath);
+            command.add("--audio_file");
             command.add(audioFilePath);
-            command.add("--language");
-            command.add(language);
+            if (language != null) {
+                command.add("--language");
+                command.add(language);
+            }
             command.add("--model");
-            command.add(whisperModel);
+            command.add(options != null && options.get("whisperModel") != null
+                ? options.get("whisperModel").toString() : whisperModel);
+            command.add("--output_format");
+            command.add("jsonl");
             
             // 添加任务ID如果提供
             if (options != null && options.containsKey("taskId")) {
@@ -60,60 +403,81 @@ public class WhisperSpeechRecognitionServiceImpl implements SpeechRecognitionSer
                 command.add(options.get("taskId").toString());
             }
             
-            ProcessBuilder pb = new ProcessBuilder(command);
-            pb.redirectErrorStream(true);
-            Process process = pb.start();
-            
-            // 读取输出
-            Scanner scanner = new Scanner(process.getInputStream());
-            StringBuilder output = new StringBuilder();
-            while (scanner.hasNextLine()) {
-                output.append(scanner.nextLine()).append("\n");
+            // 限制同时运行的Whisper进程数，排队时间用于模型降级判断
+            whisperModelRouter.acquire();
+            JSONObject resultEvent = null;
+            int exitCode;
+            Deque<String> stderrTail = new ArrayDeque<>();
+            try {
+                Process process = new ProcessBuilder(command).start();
+                if (processes != null) {
+                    processes.register(chunkIndex, process);
+                }
+                try {
+                    Thread stderrDrainer = drainStderr(process, audioFile.getName(), stderrTail);
+                    
+                    try (BufferedReader reader = new BufferedReader(
+                            new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+                        String line;
+                        while ((line = reader.readLine()) != null) {
+                            if (!line.startsWith("{")) {
+                                log.debug("[whisper:{}] {}", audioFile.getName(), line);
+                                continue;
+                            }
+                            JSONObject event = JSONUtil.parseObj(line);
+                            String eventType = event.getStr("event");
+                            if ("segment".equals(eventType)) {
+                                if (segmentListener != null) {
+                                    segmentListener.accept(toSegment(event));
+                                }
+                            } else if ("result".equals(eventType) || "error".equals(eventType)) {
+                                resultEvent = event;
+                            }
+                        }
+                    }
+                    
+                    exitCode = process.waitFor();
+                    stderrDrainer.join(STDERR_DRAIN_TIMEOUT_MS);
+                } finally {
+                    // 解析事件或分段回调抛出异常时未读到输出结束，需要结束仍在运行的Whisper进程
+                    if (processes != null) {
+                        processes.unregister(chunkIndex);
+                    }
+                    if (process.isAlive()) {
+                        process.destroyForcibly();
+                    }
+                }
+            } finally {
+                whisperModelRouter.release();
             }
-            scanner.close();
-            
-            int exitCode = process.waitFor();
             long processingTime = System.currentTimeMillis() - startTime;
             
-            if (exitCode != 0) {
-                log.error("Whisper处理失败: exitCode={}, output={}", exitCode, output.toString());
+            if (resultEvent == null || exitCode != 0 && !"error".equals(resultEvent.getStr("event"))) {
+                String stderr;
+                synchronized (stderrTail) {
+                    stderr = String.join("\n", stderrTail);
+                }
+                log.error("Whisper处理失败: exitCode={}, stderr={}", exitCode, stderr);
                 return new SpeechRecognitionResult(false, null, 0.0, 
-                    audioFile.getName(), "Whisper处理失败: " + output.toString(), processingTime);
+                    audioFile.getName(), "Whisper处理失败: exitCode=" + exitCode + ", " + stderr, processingTime);
             }
             
-            // 解析Whisper输出
-            String outputStr = output.toString().trim();
-            try {
-                Map<String, Object> result = JSONUtil.toBean(outputStr, Map.class);
-                
-                if (result.containsKey("success") && Boolean.TRUE.equals(result.get("success"))) {
-                    String recognizedText = (String) result.get("text");
-                    Double confidence = result.containsKey("confidence") ? 
-                        ((Number) result.get("confidence")).doubleValue() : 0.8;
-                    
-                    log.info("音频识别成功: {} -> {}", audioFile.getName(), 
-                            recognizedText.length() > 50 ? recognizedText.substring(0, 50) + "..." : recognizedText);
-                    
-                    return new SpeechRecognitionResult(true, recognizedText, confidence, 
-                        audioFile.getName(), null, processingTime);
-                } else {
-                    String errorMsg = (String) result.get("error");
-                    return new SpeechRecognitionResult(false, null, 0.0, 
-                        audioFile.getName(), errorMsg, processingTime);
-                }
-                
-            } catch (Exception e) {
-                log.warn("解析Whisper输出失败，使用原始输出: {}", e.getMessage());
-                // 如果JSON解析失败，尝试直接使用输出作为文本
-                if (outputStr.length() > 0) {
-                    return new SpeechRecognitionResult(true, outputStr, 0.5, 
-                        audioFile.getName(), null, processingTime);
-                } else {
-                    return new SpeechRecognitionResult(false, null, 0.0, 
-                        audioFile.getName(), "无法解析识别结果", processingTime);
-                }
+            if (!"result".equals(resultEvent.getStr("event")) || !Boolean.TRUE.equals(resultEvent.getBool("success"))) {
+                return new SpeechRecognitionResult(false, null, 0.0, 
+                    audioFile.getName(), resultEvent.getStr("error"), processingTime);
             }
             
+            String recognizedText = resultEvent.getStr("text", "");
+            Double confidence = resultEvent.getDouble("confidence", 0.8);
+            
+            log.info("音频识别成功: {} -> {}", audioFile.getName(), 
+                    recognizedText.length() > 50 ? recognizedText.substring(0, 50) + "..." : recognizedText);
+            
+            SpeechRecognitionResult recognitionResult = new SpeechRecognitionResult(true, recognizedText, confidence, 
+                audioFile.getName(), null, processingTime);
+            recognitionResult.setSegments(parseSegments(resultEvent.get("segments")));
+            return recognitionResult;
+            
         } catch (Exception e) {
             long processingTime = System.currentTimeMillis() - startTime;
             log.error("语音识别异常: " + audioFile.getName(), e);
@@ -122,68 +486,221 @@ public class WhisperSpeechRecognitionServiceImpl implements SpeechRecognitionSer
         }
     }
     
+    /**
+     * 独立线程读取Whisper进程的stderr日志，避免管道写满阻塞进程，保留最后若干行用于错误信息
+     */
+    private Thread drainStderr(Process process, String audioFileName, Deque<String> stderrTail) {
+        Thread thread = new Thread(() -> {
+            try (BufferedReader reader = new BufferedReader(
+                    new InputStreamReader(process.getErrorStream(), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    log.debug("[whisper:{}] {}", audioFileName, line);
+                    synchronized (stderrTail) {
+                        stderrTail.addLast(line);
+                        if (stderrTail.size() > STDERR_TAIL_LINES) {
+                            stderrTail.removeFirst();
+                        }
+                    }
+                }
+            } catch (Exception e) {
+                log.debug("读取Whisper日志输出结束: {}", e.getMessage());
+            }
+        }, "whisper-stderr-" + audioFileName);
+        thread.setDaemon(true);
+        thread.start();
+        return thread;
+    }
+    
+    private Segment toSegment(JSONObject event) {
+        Segment segment = new Segment();
+        segment.setStart(event.getDouble("start", 0.0));
+        segment.setEnd(event.getDouble("end", 0.0));
+        segment.setText(event.getStr("text", ""));
+        segment.setConfidence(event.getDouble("confidence"));
+        return segment;
+    }
+    
     @Override
-    public BatchRecognitionResult batchRecognizeAudio(String audioDirectoryPath, String language, Map<String, Object> options) {
-        File audioDir = new File(audioDirectoryPath);
-        
-        if (!audioDir.exists() || !audioDir.isDirectory()) {
-            return new BatchRecognitionResult(false, Collections.emptyList(), 0, 0, 0, 
-                "音频目录不存在: " + audioDirectoryPath);
+    public BatchRecognitionResult batchRecognizeAudio(String audioDirectoryPath, String language, Map<String, Object> options,
+                                                      Consumer<SpeechRecognitionResult> fileCompletedListener,
+                                                      BiConsumer<String, Segment> segmentListener) {
+        // 优先使用任务创建时生成的音频清单，没有清单时才扫描目录
+        AudioManifest manifest = options != null ? (AudioManifest) options.get("audioManifest") : null;
+        if (manifest == null) {
+            if (!new File(audioDirectoryPath).isDirectory()) {
+                return new BatchRecognitionResult(false, Collections.emptyList(), 0, 0, 0, 
+                    "音频目录不存在: " + audioDirectoryPath);
+            }
+            manifest = AudioDirectoryScanner.scan(audioDirectoryPath, false);
         }
         
-        // 获取所有MP3文件
-        File[] mp3Files = audioDir.listFiles((dir, name) -> name.toLowerCase().endsWith(".mp3"));
-        if (mp3Files == null || mp3Files.length == 0) {
+        List<AudioManifest.Entry> entries = manifest.getEntries();
+        if (entries == null || entries.isEmpty()) {
             return new BatchRecognitionResult(false, Collections.emptyList(), 0, 0, 0, 
                 "目录中没有MP3文件");
         }
         
-        log.info("开始批量识别音频文件: 目录={}, 文件数={}", audioDirectoryPath, mp3Files.length);
+        log.info("开始批量识别音频文件: 目录={}, 文件数={}", audioDirectoryPath, entries.size());
+        
+        boolean resumeMode = options != null && Boolean.TRUE.equals(options.get("resumeMode"));
+        String taskId = options != null && options.get("taskId") != null ? options.get("taskId").toString() : null;
         
         List<SpeechRecognitionResult> results = new ArrayList<>();
         int successCount = 0;
         int failureCount = 0;
+        int reusedCount = 0;
+        int dedupCount = 0;
         
-        for (File mp3File : mp3Files) {
-            SpeechRecognitionResult result = recognizeAudio(mp3File.getAbsolutePath(), language, options);
+        for (AudioManifest.Entry entry : entries) {
+            String audioFileName = entry.getFileName();
+            String audioChecksum;
+            try {
+                // 按处理时的文件内容计算校验值，文件在任务创建后被修改也不会用到过期的校验值
+                audioChecksum = AudioDirectoryScanner.inspect(audioDirectoryPath, entry).getChecksum();
+            } catch (Exception e) {
+                log.warn("读取音频文件失败: " + audioFileName, e);
+                SpeechRecognitionResult failed = new SpeechRecognitionResult(false, null, 0.0, audioFileName,
+                    e.getMessage(), 0L);
+                results.add(failed);
+                failureCount++;
+                if (fileCompletedListener != null) {
+                    fileCompletedListener.accept(failed);
+                }
+                continue;
+            }
+            
+            // 续跑模式下优先复用校验通过的已有识别结果
+            SpeechRecognitionResult result = resumeMode ? loadRecognitionResult(audioFileName, audioChecksum, audioDirectoryPath) : null;
+            if (result != null) {
+                reusedCount++;
+            } else {
+                // 其他任务已识别过内容相同的音频时直接复用
+                String audioPath = new File(audioDirectoryPath, audioFileName).getAbsolutePath();
+                String requestedModel = requestedModel(options, entry.getDurationSeconds());
+                RecognitionResultStore.StoredRecognition stored = recognitionResultStore.lookup(audioChecksum, language, requestedModel);
+                if (stored != null) {
+                    result = new SpeechRecognitionResult(true, stored.getRecognizedText(), stored.getConfidence(),
+                        audioFileName, null, 0L);
+                    result.setModelName(stored.getModel());
+                    result.setDedupReference(stored.getOriginTaskId() + ":" + stored.getOriginAudioPath());
+                    dedupCount++;
+                    log.info("音频内容已识别过，复用原始结果: {} -> {}", audioFileName, result.getDedupReference());
+                } else {
+                    Map<String, Object> fileOptions = options != null ? new HashMap<>(options) : new HashMap<>();
+                    if (entry.getDurationSeconds() != null) {
+                        fileOptions.put("durationSeconds", entry.getDurationSeconds());
+                    }
+                    fileOptions.put("whisperModel", routeModel(options, entry.getDurationSeconds()));
+                    result = recognizeAudio(audioPath, language, fileOptions,
+                        segmentListener == null ? null : segment -> segmentListener.accept(audioFileName, segment));
+                    result.setAudioFileName(audioFileName);
+                    // 负载降级时得到的低档位结果不作为该内容的原始结果，避免之后的请求复用到降级结果
+                    if (requestedModel.equals(result.getModelName())) {
+                        recognitionResultStore.save(audioChecksum, language, requestedModel, taskId, audioPath, result);
+                    }
+                }
+                result.setAudioChecksum(audioChecksum);
+            }
             results.add(result);
             
             if (result.isSuccess()) {
                 successCount++;
                 // 保存识别结果到文件
-                saveRecognitionResult(mp3File, result, audioDirectoryPath);
+                if (!result.isReused()) {
+                    saveRecognitionResult(audioFileName, result, audioDirectoryPath);
+                }
             } else {
                 failureCount++;
             }
+            
+            if (fileCompletedListener != null) {
+                fileCompletedListener.accept(result);
+            }
         }
         
         boolean overallSuccess = successCount > 0;
-        log.info("批量语音识别完成: 总数={}, 成功={}, 失败={}", mp3Files.length, successCount, failureCount);
+        log.info("批量语音识别完成: 总数={}, 成功={}, 失败={}, 复用={}, 内容去重={}", 
+            entries.size(), successCount, failureCount, reusedCount, dedupCount);
         
-        return new BatchRecognitionResult(overallSuccess, results, mp3Files.length, 
+        return new BatchRecognitionResult(overallSuccess, results, entries.size(), 
             successCount, failureCount, null);
     }
     
     /**
      * 保存识别结果到文件
      */
-    private void saveRecognitionResult(File audioFile, SpeechRecognitionResult result, String audioDirectoryPath) {
+    private void saveRecognitionResult(String audioFileName, SpeechRecognitionResult result, String audioDirectoryPath) {
         try {
-            String baseName = audioFile.getName().replaceFirst("[.][^.]+$", "");
-            Path textFilePath = Paths.get(audioDirectoryPath, baseName + "_recognition.txt");
+            Path textFilePath = Paths.get(AudioFileUtils.recognitionFilePath(audioDirectoryPath, audioFileName));
             
             StringBuilder content = new StringBuilder();
-            content.append("音频文件: ").append(audioFile.getName()).append("\n");
+            content.append(HEADER_AUDIO_FILE).append(audioFileName).append("\n");
             content.append("识别时间: ").append(new Date()).append("\n");
-            content.append("置信度: ").append(result.getConfidence()).append("\n");
+            content.append(HEADER_CONFIDENCE).append(result.getConfidence()).append("\n");
             content.append("处理时间: ").append(result.getProcessingTimeMs()).append("ms\n");
-            content.append("识别文本:\n").append(result.getRecognizedText());
+            content.append(HEADER_CHECKSUM).append(result.getAudioChecksum()).append("\n");
+            content.append(HEADER_TEXT).append("\n").append(result.getRecognizedText());
             
             Files.write(textFilePath, content.toString().getBytes("UTF-8"));
             log.debug("识别结果已保存: {}", textFilePath);
             
         } catch (Exception e) {
-            log.warn("保存识别结果失败: " + audioFile.getName(), e);
+            log.warn("保存识别结果失败: " + audioFileName, e);
+        }
+    }
+    
+    /**
+     * 读取已有的识别结果文件
+     * 只有文件名和音频校验值都与当前源音频一致时才视为有效，否则返回null
+     */
+    private SpeechRecognitionResult loadRecognitionResult(String audioFileName, String audioChecksum, String audioDirectoryPath) {
+        Path textFilePath = Paths.get(AudioFileUtils.recognitionFilePath(audioDirectoryPath, audioFileName));
+        if (!Files.isRegularFile(textFilePath)) {
+            return null;
+        }
+        
+        try {
+            List<String> lines = Files.readAllLines(textFilePath, StandardCharsets.UTF_8);
+            String fileName = null;
+            String checksum = null;
+            Double confidence = null;
+            int textStart = -1;
+            
+            for (int i = 0; i < lines.size(); i++) {
+                String line = lines.get(i);
+                if (line.startsWith(HEADER_AUDIO_FILE)) {
+                    fileName = line.substring(HEADER_AUDIO_FILE.length()).trim();
+                } else if (line.startsWith(HEADER_CHECKSUM)) {
+                    checksum = line.substring(HEADER_CHECKSUM.length()).trim();
+                } else if (line.startsWith(HEADER_CONFIDENCE)) {
+                    confidence = Double.valueOf(line.substring(HEADER_CONFIDENCE.length()).trim());
+                } else if (line.equals(HEADER_TEXT)) {
+                    textStart = i + 1;
+                    break;
+                }
+            }
+            
+            if (!audioFileName.equals(fileName) || !audioChecksum.equals(checksum) || textStart < 0) {
+                log.debug("已有识别结果与源音频不匹配，重新识别: {}", audioFileName);
+                return null;
+            }
+            
+            String recognizedText = String.join("\n", lines.subList(textStart, lines.size()));
+            if (recognizedText.trim().isEmpty()) {
+                return null;
+            }
+            
+            SpeechRecognitionResult result = new SpeechRecognitionResult(true, recognizedText, confidence,
+                audioFileName, null, 0L);
+            result.setAudioChecksum(audioChecksum);
+            result.setReused(true);
+            log.info("复用已有识别结果: {}", audioFileName);
+            return result;
+            
+        } catch (Exception e) {
+            log.warn("读取已有识别结果失败，重新识别: " + audioFileName, e);
+            return null;
         }
     }
     
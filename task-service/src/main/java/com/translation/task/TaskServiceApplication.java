@@ -3,6 +3,7 @@ package com.translation.task;
 import org.mybatis.spring.annotation.MapperScan;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
  * 任务服务启动类
@@ -10,6 +11,7 @@ import org.springframework.boot.autoconfigure.SpringBootApplication;
  */
 @SpringBootApplication(scanBasePackages = {"com.translation.task", "com.translation.common"})
 @MapperScan("com.translation.task.mapper")
+@EnableScheduling
 public class TaskServiceApplication {
     
     public static void main(String[] args) {
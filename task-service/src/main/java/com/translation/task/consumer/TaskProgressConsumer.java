@@ -0,0 +1,133 @@
+package com.translation.task.consumer;
+
+import com.translation.common.kafka.KafkaTopics;
+import com.translation.common.kafka.message.EncodingCompletedMessage;
+import com.translation.common.kafka.message.SpeechRecognitionCompletedMessage;
+import com.translation.common.kafka.message.TaskProgressMessage;
+import com.translation.common.kafka.message.TranslationCompletedMessage;
+import com.translation.task.entity.TranslationTask;
+import com.translation.task.service.TaskProgressAggregator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.messaging.handler.annotation.Payload;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.Resource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 任务进度消费者 - 任务服务
+ * 批量接收各服务上报的单文件进度、阶段完成和任务失败消息，交由聚合器合并后批量更新任务记录。
+ * 一批消息全部写入数据库后才确认位点；写入超时则抛出异常由容器重新投递，聚合器的写入是幂等的
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TaskProgressConsumer {
+
+    @Resource
+    private TaskProgressAggregator taskProgressAggregator;
+
+    @Value("${task.progress.ack-timeout-ms:30000}")
+    private long ackTimeoutMs;
+
+    @KafkaListener(topics = KafkaTopics.TASK_PROGRESS, containerFactory = "batchKafkaListenerContainerFactory")
+    public void handleTaskProgress(@Payload List<TaskProgressMessage> messages, Acknowledgment acknowledgment) {
+        List<CompletableFuture<Void>> flushed = new ArrayList<>();
+        for (TaskProgressMessage message : messages) {
+            log.debug("接收到任务进度消息: taskId={}, file={}, stage={}, success={}",
+                      message.getTaskId(), message.getAudioFileName(), message.getStage(), message.getSuccess());
+            if (message.getAudioFileName() == null) {
+                log.warn("任务进度消息缺少音频文件名，无法去重计数: taskId={}", message.getTaskId());
+                continue;
+            }
+
+            boolean success = Boolean.TRUE.equals(message.getSuccess());
+            if (TaskProgressMessage.Stage.SPEECH_RECOGNITION.equals(message.getStage())) {
+                // 识别成功的文件还要经过翻译，只有识别失败才算该文件处理结束
+                flushed.add(taskProgressAggregator.recordStatus(
+                        message.getTaskId(), TranslationTask.Status.SPEECH_RECOGNITION, null));
+                flushed.add(taskProgressAggregator.recordFileProgress(
+                        message.getTaskId(), message.getAudioFileName(), success, false));
+            } else {
+                flushed.add(taskProgressAggregator.recordFileProgress(
+                        message.getTaskId(), message.getAudioFileName(), success, true));
+            }
+        }
+        acknowledgeWhenFlushed(flushed, acknowledgment);
+    }
+
+    /**
+     * 语音识别阶段完成；流水线模式下语音服务同样在该主题发送不带识别结果的阶段完成事件
+     */
+    @KafkaListener(topics = KafkaTopics.SPEECH_RECOGNITION_COMPLETED, containerFactory = "batchKafkaListenerContainerFactory")
+    public void handleSpeechRecognitionCompleted(@Payload List<SpeechRecognitionCompletedMessage> messages,
+                                                 Acknowledgment acknowledgment) {
+        List<CompletableFuture<Void>> flushed = new ArrayList<>();
+        for (SpeechRecognitionCompletedMessage message : messages) {
+            log.info("任务语音识别阶段完成: taskId={}", message.getTaskId());
+            flushed.add(taskProgressAggregator.recordStatus(message.getTaskId(), TranslationTask.Status.TRANSLATION, null));
+        }
+        acknowledgeWhenFlushed(flushed, acknowledgment);
+    }
+
+    @KafkaListener(topics = KafkaTopics.TRANSLATION_COMPLETED, containerFactory = "batchKafkaListenerContainerFactory")
+    public void handleTranslationCompleted(@Payload List<TranslationCompletedMessage> messages,
+                                           Acknowledgment acknowledgment) {
+        List<CompletableFuture<Void>> flushed = new ArrayList<>();
+        for (TranslationCompletedMessage message : messages) {
+            log.info("任务翻译阶段完成: taskId={}", message.getTaskId());
+            flushed.add(taskProgressAggregator.recordStatus(message.getTaskId(), TranslationTask.Status.ENCODING, null));
+        }
+        acknowledgeWhenFlushed(flushed, acknowledgment);
+    }
+
+    @KafkaListener(topics = KafkaTopics.ENCODING_COMPLETED, containerFactory = "batchKafkaListenerContainerFactory")
+    public void handleEncodingCompleted(@Payload List<EncodingCompletedMessage> messages, Acknowledgment acknowledgment) {
+        List<CompletableFuture<Void>> flushed = new ArrayList<>();
+        for (EncodingCompletedMessage message : messages) {
+            log.info("任务编码阶段完成: taskId={}, encodingId={}", message.getTaskId(), message.getEncodingId());
+            flushed.add(taskProgressAggregator.recordStatus(message.getTaskId(), TranslationTask.Status.COMPLETED, null));
+        }
+        acknowledgeWhenFlushed(flushed, acknowledgment);
+    }
+
+    @KafkaListener(topics = KafkaTopics.TASK_FAILED, containerFactory = "batchKafkaListenerContainerFactory")
+    public void handleTaskFailed(@Payload List<Map<String, Object>> messages, Acknowledgment acknowledgment) {
+        List<CompletableFuture<Void>> flushed = new ArrayList<>();
+        for (Map<String, Object> message : messages) {
+            Object taskId = message.get("taskId");
+            log.warn("接收到任务失败消息: taskId={}, service={}, error={}",
+                     taskId, message.get("service"), message.get("errorMessage"));
+
+            if (taskId != null) {
+                Object errorMessage = message.get("errorMessage");
+                flushed.add(taskProgressAggregator.recordStatus(taskId.toString(), TranslationTask.Status.FAILED,
+                        errorMessage != null ? errorMessage.toString() : null));
+            }
+        }
+        acknowledgeWhenFlushed(flushed, acknowledgment);
+    }
+
+    /**
+     * 等待本批事件全部写入数据库后确认位点，超时则抛出异常，不确认的消息由容器重新投递
+     */
+    private void acknowledgeWhenFlushed(List<CompletableFuture<Void>> flushed, Acknowledgment acknowledgment) {
+        try {
+            CompletableFuture.allOf(flushed.toArray(new CompletableFuture[0])).get(ackTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("等待任务进度写入被中断");
+        } catch (Exception e) {
+            throw new RuntimeException("等待任务进度写入超时: " + e.getMessage());
+        }
+        acknowledgment.acknowledge();
+    }
+}
@@ -2,17 +2,25 @@ package com.translation.task.controller;
 
 import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.translation.common.response.ApiResponse;
+import com.translation.task.dto.BatchCreateTaskRequest;
+import com.translation.task.dto.BatchCreateTaskResult;
 import com.translation.task.dto.CreateTaskRequest;
+import com.translation.task.dto.CursorPageResponse;
 import com.translation.task.dto.TaskQueryRequest;
 import com.translation.task.dto.TaskResponse;
+import com.translation.task.service.TaskEventHub;
 import com.translation.task.service.TaskService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import javax.annotation.Resource;
 import javax.validation.Valid;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -28,6 +36,8 @@ public class TaskController {
 
     @Resource
     private TaskService taskService;
+    @Resource
+    private TaskEventHub taskEventHub;
 
     /**
      * 创建音频翻译任务（系统入口）
@@ -48,6 +58,40 @@ public class TaskController {
         }
     }
 
+    /**
+     * 批量创建音频翻译任务
+     * 每一项独立校验，返回逐项结果；校验通过的任务统一批量写入
+     */
+    @PostMapping("/audio/batch-create")
+    public ApiResponse<Map<String, Object>> batchCreateAudioTranslationTasks(@Valid @RequestBody BatchCreateTaskRequest request) {
+        log.info("收到批量创建音频翻译任务请求，任务数: {}", request.getTasks().size());
+        
+        try {
+            List<BatchCreateTaskResult> results = taskService.batchCreateAudioTranslationTasks(request.getTasks());
+            long successCount = results.stream().filter(BatchCreateTaskResult::getSuccess).count();
+            
+            Map<String, Object> response = new HashMap<>();
+            response.put("total", results.size());
+            response.put("successCount", successCount);
+            response.put("failureCount", results.size() - successCount);
+            response.put("results", results);
+            return ApiResponse.success(response, "批量创建任务完成");
+        } catch (Exception e) {
+            log.error("批量创建音频翻译任务失败", e);
+            return ApiResponse.error("批量创建任务失败: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 订阅任务变更推送（SSE）
+     * 传入taskId时只推送该任务的状态和进度变更，不传时推送全部任务的变更
+     */
+    @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter subscribeTaskEvents(@RequestParam(required = false) String taskId) {
+        log.info("订阅任务变更推送，任务ID: {}", taskId);
+        return taskEventHub.subscribe(taskId);
+    }
+
     /**
      * 查询任务详情
      */
@@ -80,6 +124,24 @@ public class TaskController {
         }
     }
 
+    /**
+     * 游标分页查询任务列表
+     * 首页不传游标，后续页传入上一页返回的nextCursorCreateTime和nextCursorId。
+     * 任务名称按前缀匹配，与分页查询的包含匹配不同
+     */
+    @PostMapping("/list/cursor")
+    public ApiResponse<CursorPageResponse<TaskResponse>> getTasksByCursor(@Valid @RequestBody TaskQueryRequest request) {
+        log.info("游标分页查询任务列表: {}", request);
+        
+        try {
+            CursorPageResponse<TaskResponse> response = taskService.getTaskListByCursor(request);
+            return ApiResponse.success(response);
+        } catch (Exception e) {
+            log.error("游标分页查询任务列表失败", e);
+            return ApiResponse.error("查询任务列表失败: " + e.getMessage());
+        }
+    }
+
     /**
      * 取消任务
      */
@@ -98,14 +160,15 @@ public class TaskController {
 
     /**
      * 重启任务
-     * 用于故障转移和任务重做
+     * 用于故障转移和任务重做，resume=true时续跑，只处理缺失或失败的文件
      */
     @PostMapping("/{taskId}/restart")
-    public ApiResponse<Void> restartTask(@PathVariable String taskId) {
-        log.info("重启任务，任务ID: {}", taskId);
+    public ApiResponse<Void> restartTask(@PathVariable String taskId,
+                                         @RequestParam(defaultValue = "false") boolean resume) {
+        log.info("重启任务，任务ID: {}, 续跑: {}", taskId, resume);
         
         try {
-            taskService.restartTask(taskId);
+            taskService.restartTask(taskId, resume);
             return ApiResponse.success(null, "任务重启成功");
         } catch (Exception e) {
             log.error("重启任务失败，任务ID: {}", taskId, e);
@@ -128,4 +191,17 @@ public class TaskController {
             return ApiResponse.error("获取统计信息失败: " + e.getMessage());
         }
     }
+
+    /**
+     * 获取任务详情缓存统计信息
+     */
+    @GetMapping("/cache-statistics")
+    public ApiResponse<Object> getCacheStatistics() {
+        try {
+            return ApiResponse.success(taskService.getCacheStatistics());
+        } catch (Exception e) {
+            log.error("获取缓存统计信息失败", e);
+            return ApiResponse.error("获取缓存统计信息失败: " + e.getMessage());
+        }
+    }
 }
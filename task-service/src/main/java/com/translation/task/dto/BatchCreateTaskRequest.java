@@ -0,0 +1,27 @@
+package com.translation.task.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import javax.validation.Valid;
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.Size;
+import java.util.List;
+
+/**
+ * 批量创建任务请求DTO
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchCreateTaskRequest {
+    
+    /**
+     * 待创建的任务列表
+     */
+    @Valid
+    @NotEmpty(message = "任务列表不能为空")
+    @Size(max = 1000, message = "单次最多创建1000个任务")
+    private List<CreateTaskRequest> tasks;
+}
@@ -0,0 +1,44 @@
+package com.translation.task.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+/**
+ * 批量创建任务的单项结果DTO
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchCreateTaskResult {
+    
+    /**
+     * 在请求列表中的序号（从0开始）
+     */
+    private Integer index;
+    
+    /**
+     * 音频文件目录名称
+     */
+    private String audioDirectory;
+    
+    /**
+     * 是否创建成功
+     */
+    private Boolean success;
+    
+    /**
+     * 任务ID（创建成功时返回）
+     */
+    private String taskId;
+    
+    /**
+     * 音频文件数量
+     */
+    private Integer totalFiles;
+    
+    /**
+     * 失败原因
+     */
+    private String errorMessage;
+}
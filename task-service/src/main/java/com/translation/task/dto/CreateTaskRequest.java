@@ -38,6 +38,11 @@ public class CreateTaskRequest {
      */
     private Integer priority = 5;
     
+    /**
+     * 是否递归扫描子目录中的音频文件
+     */
+    private Boolean recursive = false;
+    
     /**
      * 任务描述
      */
@@ -0,0 +1,48 @@
+package com.translation.task.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 游标分页响应DTO
+ * 下一页请求携带nextCursorCreateTime和nextCursorId即可，不需要OFFSET
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPageResponse<T> {
+    
+    /**
+     * 当前页记录
+     */
+    private List<T> records;
+    
+    /**
+     * 每页大小
+     */
+    private Integer size;
+    
+    /**
+     * 是否还有下一页
+     */
+    private Boolean hasMore;
+    
+    /**
+     * 下一页游标：最后一条记录的创建时间
+     */
+    private LocalDateTime nextCursorCreateTime;
+    
+    /**
+     * 下一页游标：最后一条记录的主键ID
+     */
+    private Long nextCursorId;
+    
+    /**
+     * 总记录数（仅在请求withTotal=true时返回）
+     */
+    private Long total;
+}
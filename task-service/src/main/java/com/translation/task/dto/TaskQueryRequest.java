@@ -4,6 +4,8 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
 
+import java.time.LocalDateTime;
+
 /**
  * 任务查询请求DTO
  */
@@ -13,7 +15,7 @@ import lombok.AllArgsConstructor;
 public class TaskQueryRequest {
     
     /**
-     * 任务名称（模糊查询）
+     * 任务名称（分页查询为包含匹配，游标分页为前缀匹配）
      */
     private String taskName;
     
@@ -51,4 +53,19 @@ public class TaskQueryRequest {
      * 排序方式（ASC/DESC）
      */
     private String orderDirection = "DESC";
+    
+    /**
+     * 游标分页：上一页最后一条记录的创建时间（首页为空）
+     */
+    private LocalDateTime cursorCreateTime;
+    
+    /**
+     * 游标分页：上一页最后一条记录的主键ID（首页为空）
+     */
+    private Long cursorId;
+    
+    /**
+     * 游标分页：是否同时返回总记录数（需要额外一次COUNT查询）
+     */
+    private Boolean withTotal = false;
 }
\ No newline at end of file
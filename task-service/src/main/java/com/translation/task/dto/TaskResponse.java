@@ -44,6 +44,31 @@ public class TaskResponse {
      */
     private String status;
     
+    /**
+     * 总文件数
+     */
+    private Integer totalFiles;
+    
+    /**
+     * 已处理文件数
+     */
+    private Integer processedFiles;
+    
+    /**
+     * 成功处理文件数
+     */
+    private Integer successFiles;
+    
+    /**
+     * 失败文件数
+     */
+    private Integer failedFiles;
+    
+    /**
+     * 进度百分比
+     */
+    private Double progressPercent;
+    
     /**
      * 识别结果
      */
@@ -64,6 +89,11 @@ public class TaskResponse {
      */
     private String errorMessage;
     
+    /**
+     * 版本号，每次状态或进度变更时递增
+     */
+    private Integer version;
+    
     /**
      * 创建时间
      */
@@ -0,0 +1,100 @@
+package com.translation.task.entity;
+
+import com.baomidou.mybatisplus.annotation.*;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+import java.time.LocalDateTime;
+
+/**
+ * 任务消息发件箱实体
+ * 与任务记录在同一事务中写入，由发件箱中继异步投递到Kafka
+ */
+@Data
+@EqualsAndHashCode(callSuper = false)
+@TableName("task_outbox")
+public class TaskOutbox {
+    
+    @TableId(value = "id", type = IdType.ASSIGN_ID)
+    private Long id;
+    
+    /**
+     * 关联的任务ID
+     */
+    @TableField("task_id")
+    private String taskId;
+    
+    /**
+     * 目标Kafka主题
+     */
+    @TableField("topic")
+    private String topic;
+    
+    /**
+     * 消息Key
+     */
+    @TableField("message_key")
+    private String messageKey;
+    
+    /**
+     * 消息类型（消息类全限定名）
+     */
+    @TableField("message_type")
+    private String messageType;
+    
+    /**
+     * 消息内容（JSON）
+     */
+    @TableField("payload")
+    private String payload;
+    
+    /**
+     * 投递状态
+     * @see com.translation.task.entity.TaskOutbox.Status
+     */
+    @TableField("status")
+    private String status;
+    
+    /**
+     * 已尝试投递次数
+     */
+    @TableField("attempts")
+    private Integer attempts;
+    
+    /**
+     * 最近一次投递失败原因
+     */
+    @TableField("last_error")
+    private String lastError;
+    
+    /**
+     * 当前领取该记录的中继批次标识
+     */
+    @TableField("claim_token")
+    private String claimToken;
+    
+    /**
+     * 领取租约到期时间，到期前其它中继不会再领取该记录
+     */
+    @TableField("claim_expire_time")
+    private LocalDateTime claimExpireTime;
+    
+    /**
+     * 创建时间
+     */
+    @TableField("create_time")
+    private LocalDateTime createTime;
+    
+    /**
+     * 投递成功时间
+     */
+    @TableField("sent_time")
+    private LocalDateTime sentTime;
+    
+    // 投递状态常量
+    public static class Status {
+        public static final String PENDING = "PENDING";
+        public static final String SENT = "SENT";
+        public static final String FAILED = "FAILED";
+    }
+}
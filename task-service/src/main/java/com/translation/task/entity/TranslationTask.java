@@ -5,6 +5,9 @@ import lombok.Data;
 import lombok.EqualsAndHashCode;
 
 import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 
 /**
  * 翻译任务实体
@@ -35,6 +38,12 @@ public class TranslationTask {
     @TableField("audio_directory_path")
     private String audioDirectoryPath;
     
+    /**
+     * 是否递归扫描子目录中的音频文件
+     */
+    @TableField("recursive_scan")
+    private Boolean recursiveScan;
+    
     /**
      * 源语言
      */
@@ -47,6 +56,12 @@ public class TranslationTask {
     @TableField("target_languages")
     private String targetLanguages;
     
+    /**
+     * 目标语言位掩码，按位对应LanguageEnum，用于目标语言过滤
+     */
+    @TableField("target_language_mask")
+    private Long targetLanguageMask;
+    
     /**
      * 任务状态
      * @see com.translation.task.entity.TranslationTask.Status
@@ -102,6 +117,12 @@ public class TranslationTask {
     @TableField("priority")
     private Integer priority;
     
+    /**
+     * 版本号，每次状态或进度变更时递增
+     */
+    @TableField("version")
+    private Integer version;
+    
     /**
      * 创建时间
      */
@@ -136,6 +157,37 @@ public class TranslationTask {
         public static final String COMPLETED = "COMPLETED";
         public static final String FAILED = "FAILED";
         public static final String CANCELLED = "CANCELLED";
+        
+        /**
+         * 处理流水线中的非终态，按推进顺序排列
+         */
+        public static final List<String> PIPELINE = Collections.unmodifiableList(Arrays.asList(
+                CREATED, PROCESSING, SPEECH_RECOGNITION, TRANSLATION, ENCODING));
+        
+        /**
+         * 允许重启的状态
+         */
+        public static final List<String> RESTARTABLE = Collections.unmodifiableList(Arrays.asList(
+                FAILED, CANCELLED));
+        
+        /**
+         * 是否为终态
+         */
+        public static boolean isTerminal(String status) {
+            return COMPLETED.equals(status) || FAILED.equals(status) || CANCELLED.equals(status);
+        }
+        
+        /**
+         * 允许推进到目标状态的前置状态
+         * 终态可由任意非终态进入，流水线状态只能向前推进
+         */
+        public static List<String> precedingStatuses(String status) {
+            if (isTerminal(status)) {
+                return PIPELINE;
+            }
+            int index = PIPELINE.indexOf(status);
+            return index > 0 ? PIPELINE.subList(0, index) : Collections.emptyList();
+        }
     }
     
     // 任务类型常量
@@ -0,0 +1,19 @@
+package com.translation.task.event;
+
+import lombok.Getter;
+import org.springframework.context.ApplicationEvent;
+
+/**
+ * 任务变更事件
+ * 任务状态或进度写入数据库后发布，用于缓存失效和变更推送
+ */
+@Getter
+public class TaskChangedEvent extends ApplicationEvent {
+
+    private final String taskId;
+
+    public TaskChangedEvent(Object source, String taskId) {
+        super(source);
+        this.taskId = taskId;
+    }
+}
@@ -0,0 +1,31 @@
+package com.translation.task.mapper;
+
+import org.apache.ibatis.annotations.Delete;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+/**
+ * 任务单文件处理结果Mapper接口
+ * 每个文件只保留首个最终结果，重复投递的进度消息不会重复计数
+ */
+@Mapper
+public interface TaskFileProgressMapper {
+
+    /**
+     * 记录文件的最终处理结果，文件已有结果时忽略
+     *
+     * @return 受影响行数，0表示该文件的结果已记录过
+     */
+    @Insert("INSERT IGNORE INTO task_file_progress (task_id, audio_file_name, success, create_time) " +
+            "VALUES (#{taskId}, #{audioFileName}, #{success}, NOW())")
+    int insertIgnore(@Param("taskId") String taskId,
+                     @Param("audioFileName") String audioFileName,
+                     @Param("success") boolean success);
+
+    /**
+     * 清除任务的全部文件结果（任务重启时进度从零开始）
+     */
+    @Delete("DELETE FROM task_file_progress WHERE task_id = #{taskId}")
+    int deleteByTaskId(@Param("taskId") String taskId);
+}
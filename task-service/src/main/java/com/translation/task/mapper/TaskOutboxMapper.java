@@ -0,0 +1,58 @@
+package com.translation.task.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.translation.task.entity.TaskOutbox;
+import org.apache.ibatis.annotations.Delete;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Update;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+/**
+ * 任务消息发件箱Mapper接口
+ */
+@Mapper
+public interface TaskOutboxMapper extends BaseMapper<TaskOutbox> {
+
+    /**
+     * 领取一批待投递记录：未被领取或租约已过期的记录按主键顺序写入本批次标识和租约到期时间
+     * 单条UPDATE加行锁完成判断和领取，多个中继并发执行时同一记录只会被一个批次领取
+     *
+     * @return 领取到的记录数
+     */
+    @Update("UPDATE task_outbox SET claim_token = #{claimToken}, claim_expire_time = #{expireTime} " +
+            "WHERE status = 'PENDING' AND (claim_expire_time IS NULL OR claim_expire_time < #{now}) " +
+            "ORDER BY id LIMIT #{limit}")
+    int claim(@Param("claimToken") String claimToken,
+              @Param("now") LocalDateTime now,
+              @Param("expireTime") LocalDateTime expireTime,
+              @Param("limit") int limit);
+
+    /**
+     * 批量标记为已投递，只处理仍由本批次领取的记录
+     */
+    @Update("<script>" +
+            "UPDATE task_outbox SET status = 'SENT', sent_time = NOW(), claim_expire_time = NULL " +
+            "WHERE status = 'PENDING' AND claim_token = #{claimToken} AND id IN " +
+            "<foreach collection='ids' item='id' open='(' separator=',' close=')'>#{id}</foreach>" +
+            "</script>")
+    int markSent(@Param("claimToken") String claimToken, @Param("ids") Collection<Long> ids);
+
+    /**
+     * 记录一次投递失败并释放领取，下次轮询可重新领取；达到最大尝试次数后标记为FAILED
+     */
+    @Update("UPDATE task_outbox SET attempts = attempts + 1, last_error = #{error}, " +
+            "claim_token = NULL, claim_expire_time = NULL, " +
+            "status = CASE WHEN attempts >= #{maxAttempts} THEN 'FAILED' ELSE status END " +
+            "WHERE id = #{id} AND status = 'PENDING' AND claim_token = #{claimToken}")
+    int markAttemptFailed(@Param("claimToken") String claimToken, @Param("id") Long id,
+                          @Param("error") String error, @Param("maxAttempts") int maxAttempts);
+
+    /**
+     * 清理早于指定时间的已投递记录
+     */
+    @Delete("DELETE FROM task_outbox WHERE status = 'SENT' AND sent_time < #{before} LIMIT #{limit}")
+    int deleteSentBefore(@Param("before") LocalDateTime before, @Param("limit") int limit);
+}
@@ -3,10 +3,82 @@ package com.translation.task.mapper;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.translation.task.entity.TranslationTask;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.annotations.Update;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 
 /**
  * 翻译任务Mapper接口
  */
 @Mapper
 public interface TranslationTaskMapper extends BaseMapper<TranslationTask> {
-}
\ No newline at end of file
+
+    /**
+     * 按单文件结果表重新计算任务进度
+     * 写入的是绝对计数而不是增量，同一批结果重复刷新不会重复计数
+     */
+    @Update("UPDATE translation_task t, " +
+            "(SELECT COUNT(*) AS processed, COALESCE(SUM(success), 0) AS succeeded " +
+            "FROM task_file_progress WHERE task_id = #{taskId}) p SET " +
+            "t.progress_percent = CASE WHEN t.total_files > 0 " +
+            "THEN LEAST(100, ROUND(p.processed * 100.0 / t.total_files, 2)) " +
+            "ELSE t.progress_percent END, " +
+            "t.processed_files = p.processed, " +
+            "t.success_files = p.succeeded, " +
+            "t.failed_files = p.processed - p.succeeded, " +
+            "t.version = t.version + 1, t.update_time = NOW() " +
+            "WHERE t.task_id = #{taskId}")
+    int refreshProgress(@Param("taskId") String taskId);
+
+    /**
+     * 条件状态变更：仅当任务当前处于fromStatuses之一时才更新，单条语句完成判断和修改，
+     * 并发变更时只有一个能命中条件，同时递增版本号。
+     * 状态变更不依赖先读出的记录，状态条件本身就是比较并交换，不需要再比较版本号
+     *
+     * @return 受影响行数，0表示状态变更未发生
+     */
+    @Update("<script>" +
+            "UPDATE translation_task SET status = #{status}, version = version + 1, update_time = NOW()" +
+            "<if test='errorMessage != null'>, error_message = #{errorMessage}</if>" +
+            "<if test=\"status == 'PROCESSING'\">, start_time = NOW()</if>" +
+            "<if test=\"status == 'COMPLETED'\">, progress_percent = 100</if>" +
+            "<if test=\"status == 'COMPLETED' or status == 'FAILED' or status == 'CANCELLED'\">, complete_time = NOW()</if>" +
+            " WHERE task_id = #{taskId} AND status IN " +
+            "<foreach collection='fromStatuses' item='fromStatus' open='(' separator=',' close=')'>#{fromStatus}</foreach>" +
+            "</script>")
+    int transitionStatus(@Param("taskId") String taskId,
+                         @Param("fromStatuses") Collection<String> fromStatuses,
+                         @Param("status") String status,
+                         @Param("errorMessage") String errorMessage);
+
+    /**
+     * 重启任务：仅当任务仍是读取时的版本且处于fromStatuses之一时，重置进度并直接进入PROCESSING
+     * 重启消息由读取到的任务记录构建，版本号不一致说明记录在读取后被修改过，由调用方重新读取后重试。
+     * 总文件数以重启时重新扫描得到的音频清单为准
+     *
+     * @return 受影响行数，0表示任务不存在、版本已变化或当前状态不允许重启
+     */
+    @Update("<script>" +
+            "UPDATE translation_task SET status = 'PROCESSING', version = version + 1, " +
+            "total_files = #{totalFiles}, processed_files = 0, success_files = 0, failed_files = 0, progress_percent = 0, " +
+            "error_message = NULL, complete_time = NULL, start_time = NOW(), update_time = NOW()" +
+            " WHERE task_id = #{taskId} AND version = #{version} AND status IN " +
+            "<foreach collection='fromStatuses' item='fromStatus' open='(' separator=',' close=')'>#{fromStatus}</foreach>" +
+            "</script>")
+    int restart(@Param("taskId") String taskId,
+                @Param("version") int version,
+                @Param("fromStatuses") Collection<String> fromStatuses,
+                @Param("totalFiles") int totalFiles);
+
+    /**
+     * 按状态聚合任务数量，一次查询得到全部状态的计数
+     *
+     * @return 每行包含status和task_count
+     */
+    @Select("SELECT status, COUNT(*) AS task_count FROM translation_task GROUP BY status")
+    List<Map<String, Object>> countByStatus();
+}
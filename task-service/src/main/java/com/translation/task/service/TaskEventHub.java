@@ -0,0 +1,191 @@
+package com.translation.task.service;
+
+import com.translation.task.dto.TaskResponse;
+import com.translation.task.event.TaskChangedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.annotation.Resource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 任务变更推送中心
+ * 订阅任务变更事件，通过SSE向订阅了单个任务或全部任务的客户端推送最新的任务状态和进度。
+ * 每个订阅者有独立的有界缓冲区，写满时丢弃最旧的事件；由单独的发送线程写出，慢客户端不会阻塞事件来源
+ */
+@Slf4j
+@Component
+public class TaskEventHub {
+
+    private static final String EVENT_NAME = "task";
+
+    @Resource
+    private TaskService taskService;
+
+    @Value("${task.events.buffer-size:64}")
+    private int bufferSize;
+
+    @Value("${task.events.emitter-timeout-ms:1800000}")
+    private long emitterTimeoutMs;
+
+    @Value("${task.events.send-interval-ms:200}")
+    private long sendIntervalMs;
+
+    @Value("${task.events.heartbeat-interval-ms:15000}")
+    private long heartbeatIntervalMs;
+
+    private final Set<Subscriber> subscribers = new CopyOnWriteArraySet<>();
+
+    private ScheduledExecutorService sender;
+
+    @PostConstruct
+    public void init() {
+        sender = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "task-event-sender");
+            thread.setDaemon(true);
+            return thread;
+        });
+        sender.scheduleWithFixedDelay(this::drainAll, sendIntervalMs, sendIntervalMs, TimeUnit.MILLISECONDS);
+        sender.scheduleWithFixedDelay(this::heartbeat, heartbeatIntervalMs, heartbeatIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void destroy() {
+        sender.shutdownNow();
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+        subscribers.clear();
+    }
+
+    /**
+     * 订阅任务变更
+     *
+     * @param taskId 任务ID，为空时订阅全部任务
+     */
+    public SseEmitter subscribe(String taskId) {
+        SseEmitter emitter = new SseEmitter(emitterTimeoutMs);
+        Subscriber subscriber = new Subscriber(taskId, emitter, new ArrayBlockingQueue<>(bufferSize));
+
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(e -> subscribers.remove(subscriber));
+        subscribers.add(subscriber);
+
+        // 订阅单个任务时先推送一次当前状态
+        if (taskId != null) {
+            TaskResponse current = taskService.getTaskById(taskId);
+            if (current != null) {
+                subscriber.offer(current);
+            }
+        }
+
+        log.info("新增任务变更订阅: taskId={}, 当前订阅数={}", taskId != null ? taskId : "ALL", subscribers.size());
+        return emitter;
+    }
+
+    /**
+     * 任务变更后读取最新任务信息并分发给订阅者
+     * 排在缓存失效之后执行，读到的是已提交的最新数据；同一变更只读取一次，由所有订阅者共享
+     */
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTaskChanged(TaskChangedEvent event) {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+
+        TaskResponse response = null;
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.taskId != null && !subscriber.taskId.equals(event.getTaskId())) {
+                continue;
+            }
+            if (response == null) {
+                response = taskService.getTaskById(event.getTaskId());
+                if (response == null) {
+                    return;
+                }
+            }
+            subscriber.offer(response);
+        }
+    }
+
+    /**
+     * 当前订阅数
+     */
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    private void drainAll() {
+        for (Subscriber subscriber : subscribers) {
+            List<TaskResponse> pending = new ArrayList<>();
+            subscriber.queue.drainTo(pending);
+            try {
+                for (TaskResponse response : pending) {
+                    subscriber.emitter.send(SseEmitter.event()
+                            .name(EVENT_NAME)
+                            .id(response.getTaskName() + ":" + response.getVersion())
+                            .data(response));
+                }
+            } catch (Exception e) {
+                log.debug("推送任务变更失败，移除订阅: taskId={}, error={}", subscriber.taskId, e.getMessage());
+                remove(subscriber);
+            }
+        }
+    }
+
+    private void heartbeat() {
+        for (Subscriber subscriber : subscribers) {
+            try {
+                subscriber.emitter.send(SseEmitter.event().comment("heartbeat"));
+            } catch (Exception e) {
+                remove(subscriber);
+            }
+        }
+    }
+
+    private void remove(Subscriber subscriber) {
+        subscribers.remove(subscriber);
+        subscriber.emitter.completeWithError(new IllegalStateException("订阅连接已断开"));
+    }
+
+    /**
+     * 单个SSE订阅者
+     */
+    private static class Subscriber {
+        private final String taskId;
+        private final SseEmitter emitter;
+        private final BlockingQueue<TaskResponse> queue;
+
+        private Subscriber(String taskId, SseEmitter emitter, BlockingQueue<TaskResponse> queue) {
+            this.taskId = taskId;
+            this.emitter = emitter;
+            this.queue = queue;
+        }
+
+        /**
+         * 缓冲区已满时丢弃最旧的事件
+         */
+        private void offer(TaskResponse response) {
+            synchronized (queue) {
+                while (!queue.offer(response)) {
+                    queue.poll();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,220 @@
+package com.translation.task.service;
+
+import cn.hutool.core.util.IdUtil;
+import cn.hutool.core.util.StrUtil;
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.extension.toolkit.Db;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.translation.task.entity.TaskOutbox;
+import com.translation.task.entity.TranslationTask;
+import com.translation.task.mapper.TaskOutboxMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.annotation.Resource;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 任务消息发件箱中继
+ * 业务事务内只写发件箱记录；中继定时领取一批待投递记录（带租约，多个实例不会同时领取同一记录），
+ * 异步发送到Kafka（依靠producer的linger和压缩合批），等待本批发送确认后批量标记为已投递。
+ * 投递语义仍为至少一次：确认超时但实际已送达的消息会在释放领取后再次发送，
+ * 消费端按消息中的dispatchId去重。
+ * 中继在独立线程上运行：等待发送确认最长send-timeout-ms，不能占用Spring默认的单线程调度器，
+ * 否则Broker变慢时会拖住进度批量写库等其它定时任务
+ */
+@Slf4j
+@Component
+public class TaskOutboxRelay {
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    @Resource
+    private TaskOutboxMapper taskOutboxMapper;
+    @Resource
+    private KafkaTemplate<String, Object> kafkaTemplate;
+    @Resource
+    private ObjectMapper objectMapper;
+    @Lazy
+    @Resource
+    private TaskService taskService;
+
+    @Value("${task.outbox.batch-size:500}")
+    private int batchSize;
+
+    @Value("${task.outbox.send-timeout-ms:10000}")
+    private long sendTimeoutMs;
+
+    @Value("${task.outbox.max-attempts:10}")
+    private int maxAttempts;
+
+    @Value("${task.outbox.retention-hours:24}")
+    private int retentionHours;
+
+    @Value("${task.outbox.lease-ms:60000}")
+    private long leaseMs;
+
+    @Value("${task.outbox.poll-interval-ms:200}")
+    private long pollIntervalMs;
+
+    @Value("${task.outbox.cleanup-interval-ms:3600000}")
+    private long cleanupIntervalMs;
+
+    private ScheduledExecutorService scheduler;
+
+    @PostConstruct
+    public void init() {
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "task-outbox-relay");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(() -> runSafely("投递", this::relay),
+                pollIntervalMs, pollIntervalMs, TimeUnit.MILLISECONDS);
+        scheduler.scheduleWithFixedDelay(() -> runSafely("清理", this::cleanup),
+                cleanupIntervalMs, cleanupIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void destroy() {
+        scheduler.shutdownNow();
+    }
+
+    /**
+     * 在当前事务中写入一条待投递消息，必须与业务数据处于同一事务
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueue(String taskId, String topic, String key, Object message) {
+        taskOutboxMapper.insert(buildOutbox(taskId, topic, key, message));
+    }
+
+    /**
+     * 在当前事务中批量写入待投递消息（JDBC批量插入），消息Key使用任务ID
+     *
+     * @param messagesByTaskId 任务ID到消息的映射
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueueAll(String topic, Map<String, Object> messagesByTaskId) {
+        List<TaskOutbox> outboxes = new ArrayList<>(messagesByTaskId.size());
+        messagesByTaskId.forEach((taskId, message) -> outboxes.add(buildOutbox(taskId, topic, taskId, message)));
+        Db.saveBatch(outboxes, batchSize);
+    }
+
+    private TaskOutbox buildOutbox(String taskId, String topic, String key, Object message) {
+        TaskOutbox outbox = new TaskOutbox();
+        outbox.setTaskId(taskId);
+        outbox.setTopic(topic);
+        outbox.setMessageKey(key);
+        outbox.setMessageType(message.getClass().getName());
+        try {
+            outbox.setPayload(objectMapper.writeValueAsString(message));
+        } catch (Exception e) {
+            throw new RuntimeException("序列化发件箱消息失败: " + e.getMessage());
+        }
+        outbox.setStatus(TaskOutbox.Status.PENDING);
+        outbox.setAttempts(0);
+        outbox.setCreateTime(LocalDateTime.now());
+        return outbox;
+    }
+
+    /**
+     * 定时领取并批量投递待发送的消息
+     */
+    public void relay() {
+        // 租约需覆盖整批的发送确认等待，到期前即使本实例卡住其它实例也不会重复投递
+        String claimToken = IdUtil.simpleUUID();
+        LocalDateTime now = LocalDateTime.now();
+        if (taskOutboxMapper.claim(claimToken, now, now.plus(leaseMs, ChronoUnit.MILLIS), batchSize) == 0) {
+            return;
+        }
+        List<TaskOutbox> pending = taskOutboxMapper.selectList(new LambdaQueryWrapper<TaskOutbox>()
+                .eq(TaskOutbox::getClaimToken, claimToken)
+                .eq(TaskOutbox::getStatus, TaskOutbox.Status.PENDING)
+                .orderByAsc(TaskOutbox::getId));
+
+        // 先全部异步发出，让producer在linger窗口内合批压缩，再统一等待确认
+        Map<TaskOutbox, CompletableFuture<?>> futures = new LinkedHashMap<>();
+        for (TaskOutbox outbox : pending) {
+            try {
+                Object message = objectMapper.readValue(outbox.getPayload(), Class.forName(outbox.getMessageType()));
+                futures.put(outbox, kafkaTemplate.send(outbox.getTopic(), outbox.getMessageKey(), message).completable());
+            } catch (Exception e) {
+                CompletableFuture<Object> failed = new CompletableFuture<>();
+                failed.completeExceptionally(e);
+                futures.put(outbox, failed);
+            }
+        }
+
+        List<Long> sentIds = new ArrayList<>();
+        long deadline = System.currentTimeMillis() + sendTimeoutMs;
+        for (Map.Entry<TaskOutbox, CompletableFuture<?>> entry : futures.entrySet()) {
+            TaskOutbox outbox = entry.getKey();
+            try {
+                long remaining = Math.max(deadline - System.currentTimeMillis(), 1);
+                entry.getValue().get(remaining, TimeUnit.MILLISECONDS);
+                sentIds.add(outbox.getId());
+            } catch (Exception e) {
+                handleFailure(claimToken, outbox, e);
+            }
+        }
+
+        if (!sentIds.isEmpty()) {
+            int marked = taskOutboxMapper.markSent(claimToken, sentIds);
+            if (marked < sentIds.size()) {
+                log.warn("部分发件箱记录的领取租约已过期，可能被重复投递: 已发送={}, 已标记={}", sentIds.size(), marked);
+            }
+        }
+        log.debug("发件箱投递完成: 成功={}, 失败={}", sentIds.size(), pending.size() - sentIds.size());
+    }
+
+    /**
+     * 定时清理过期的已投递记录
+     */
+    public void cleanup() {
+        LocalDateTime before = LocalDateTime.now().minusHours(retentionHours);
+        int deleted;
+        do {
+            deleted = taskOutboxMapper.deleteSentBefore(before, batchSize);
+        } while (deleted >= batchSize);
+    }
+
+    /**
+     * 定时执行的任务抛出异常时只记录日志，避免ScheduledExecutorService停止后续调度
+     */
+    private void runSafely(String name, Runnable action) {
+        try {
+            action.run();
+        } catch (Exception e) {
+            log.error("发件箱" + name + "失败", e);
+        }
+    }
+
+    private void handleFailure(String claimToken, TaskOutbox outbox, Exception e) {
+        Throwable cause = e.getCause() != null ? e.getCause() : e;
+        String error = StrUtil.maxLength(cause.getClass().getSimpleName() + ": " + cause.getMessage(), MAX_ERROR_LENGTH);
+        log.warn("发件箱消息投递失败: id={}, taskId={}, attempts={}, error={}",
+                outbox.getId(), outbox.getTaskId(), outbox.getAttempts() + 1, error);
+
+        // 领取已过期被其它批次接手时不再记录本次失败
+        if (taskOutboxMapper.markAttemptFailed(claimToken, outbox.getId(), error, maxAttempts) > 0
+                && outbox.getAttempts() + 1 >= maxAttempts) {
+            taskService.updateTaskStatus(outbox.getTaskId(), TranslationTask.Status.FAILED, "Kafka消息发送失败: " + error);
+        }
+    }
+}
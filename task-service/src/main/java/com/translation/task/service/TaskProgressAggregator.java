@@ -0,0 +1,170 @@
+package com.translation.task.service;
+
+import com.translation.task.entity.TranslationTask;
+import com.translation.task.event.TaskChangedEvent;
+import com.translation.task.mapper.TaskFileProgressMapper;
+import com.translation.task.mapper.TranslationTaskMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.ibatis.session.ExecutorType;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import javax.annotation.Resource;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 任务进度聚合器
+ * 将短时间内同一任务的多条进度/状态事件合并，按固定间隔以批量UPDATE写入数据库，
+ * 避免每条事件都执行一次selectOne + updateById。
+ * 文件结果按文件名去重写入结果表后重新计算绝对计数，状态为条件更新，重复投递的事件不会重复计数；
+ * 记录事件返回的Future在覆盖该事件的刷新提交后完成，消费者据此在落库后才确认位点
+ */
+@Slf4j
+@Component
+public class TaskProgressAggregator {
+
+    @Resource
+    private SqlSessionFactory sqlSessionFactory;
+    @Resource
+    private ApplicationEventPublisher eventPublisher;
+
+    private final Map<String, PendingProgress> pendingProgress = new ConcurrentHashMap<>();
+
+    /**
+     * 记录单个文件的处理结果
+     *
+     * @param countSuccess 成功时是否计入已处理文件数（只有最后一个阶段的成功才算文件处理完成）
+     * @return 该结果写入数据库后完成
+     */
+    public CompletableFuture<Void> recordFileProgress(String taskId, String audioFileName,
+                                                      boolean success, boolean countSuccess) {
+        return pendingProgress.compute(taskId, (key, pending) -> {
+            PendingProgress merged = pending != null ? pending : new PendingProgress();
+            if (!success || countSuccess) {
+                // 同一文件只保留首个最终结果，与结果表的去重规则一致
+                merged.fileResults.putIfAbsent(audioFileName, success);
+            }
+            return merged;
+        }).flushed;
+    }
+
+    /**
+     * 记录任务状态变更，同一刷新周期内只保留推进最远的状态
+     *
+     * @return 该状态写入数据库后完成
+     */
+    public CompletableFuture<Void> recordStatus(String taskId, String status, String errorMessage) {
+        return pendingProgress.compute(taskId, (key, pending) -> {
+            PendingProgress merged = pending != null ? pending : new PendingProgress();
+            if (merged.status == null || isAhead(status, merged.status)) {
+                merged.status = status;
+                merged.errorMessage = errorMessage;
+            }
+            return merged;
+        }).flushed;
+    }
+
+    /**
+     * 定时将累积的进度批量写入数据库
+     */
+    @Scheduled(fixedDelayString = "${task.progress.flush-interval-ms:500}")
+    public void flush() {
+        if (pendingProgress.isEmpty()) {
+            return;
+        }
+
+        Map<String, PendingProgress> drained = new HashMap<>();
+        for (String taskId : new ArrayList<>(pendingProgress.keySet())) {
+            PendingProgress pending = pendingProgress.remove(taskId);
+            if (pending != null) {
+                drained.put(taskId, pending);
+            }
+        }
+
+        try (SqlSession sqlSession = sqlSessionFactory.openSession(ExecutorType.BATCH)) {
+            TranslationTaskMapper mapper = sqlSession.getMapper(TranslationTaskMapper.class);
+            TaskFileProgressMapper fileProgressMapper = sqlSession.getMapper(TaskFileProgressMapper.class);
+
+            for (Map.Entry<String, PendingProgress> entry : drained.entrySet()) {
+                String taskId = entry.getKey();
+                PendingProgress pending = entry.getValue();
+
+                if (!pending.fileResults.isEmpty()) {
+                    pending.fileResults.forEach((audioFileName, success) ->
+                            fileProgressMapper.insertIgnore(taskId, audioFileName, success));
+                    mapper.refreshProgress(taskId);
+                }
+
+                List<String> fromStatuses = pending.status != null
+                        ? TranslationTask.Status.precedingStatuses(pending.status) : null;
+                if (fromStatuses != null && !fromStatuses.isEmpty()) {
+                    mapper.transitionStatus(taskId, fromStatuses, pending.status, pending.errorMessage);
+                }
+            }
+
+            sqlSession.flushStatements();
+            sqlSession.commit();
+            log.debug("任务进度批量写入完成: 任务数={}", drained.size());
+            drained.forEach((taskId, pending) -> {
+                pending.flushed.complete(null);
+                eventPublisher.publishEvent(new TaskChangedEvent(this, taskId));
+            });
+
+        } catch (Exception e) {
+            log.error("任务进度批量写入失败，将在下个周期重试: 任务数=" + drained.size(), e);
+            drained.forEach(this::requeue);
+        }
+    }
+
+    @PreDestroy
+    public void destroy() {
+        flush();
+    }
+
+    private void requeue(String taskId, PendingProgress failed) {
+        pendingProgress.merge(taskId, failed, (current, retry) -> {
+            // 重试批次中的文件结果先到，覆盖之后记录的同名文件；等待重试批次的消费者随合并后的批次一起完成
+            current.fileResults.putAll(retry.fileResults);
+            current.flushed.thenRun(() -> retry.flushed.complete(null));
+            if (retry.status != null && (current.status == null || isAhead(retry.status, current.status))) {
+                current.status = retry.status;
+                current.errorMessage = retry.errorMessage;
+            }
+            return current;
+        });
+    }
+
+    /**
+     * candidate是否比current推进得更远：终态优先，其次按流水线顺序
+     */
+    private boolean isAhead(String candidate, String current) {
+        if (TranslationTask.Status.isTerminal(current)) {
+            return false;
+        }
+        if (TranslationTask.Status.isTerminal(candidate)) {
+            return true;
+        }
+        return TranslationTask.Status.PIPELINE.indexOf(candidate) > TranslationTask.Status.PIPELINE.indexOf(current);
+    }
+
+    /**
+     * 单个任务在一个刷新周期内累积的进度
+     */
+    private static class PendingProgress {
+        /** 文件名 -> 是否成功，只包含已有最终结果的文件 */
+        private final Map<String, Boolean> fileResults = new HashMap<>();
+        /** 本批写入数据库后完成 */
+        private final CompletableFuture<Void> flushed = new CompletableFuture<>();
+        private String status;
+        private String errorMessage;
+    }
+}
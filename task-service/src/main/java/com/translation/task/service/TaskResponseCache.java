@@ -0,0 +1,145 @@
+package com.translation.task.service;
+
+import com.translation.task.dto.TaskResponse;
+import com.translation.task.entity.TranslationTask;
+import com.translation.task.event.TaskChangedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * 任务详情读穿透缓存
+ * 按taskId缓存TaskResponse，容量有上限（LRU淘汰）；未结束任务使用短TTL，已结束任务使用长TTL，
+ * 任务变更事件在事务提交后使对应条目失效
+ */
+@Slf4j
+@Component
+public class TaskResponseCache {
+
+    @Value("${task.cache.max-size:10000}")
+    private int maxSize;
+
+    @Value("${task.cache.active-ttl-ms:2000}")
+    private long activeTtlMs;
+
+    @Value("${task.cache.terminal-ttl-ms:600000}")
+    private long terminalTtlMs;
+
+    private final Map<String, CacheEntry> entries = new LinkedHashMap<String, CacheEntry>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, CacheEntry> eldest) {
+            if (size() > maxSize) {
+                evictions.increment();
+                return true;
+            }
+            return false;
+        }
+    };
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder dbQueries = new LongAdder();
+    /** 超出容量被LRU淘汰的条目数 */
+    private final LongAdder evictions = new LongAdder();
+    /** 任务变更后被失效的条目数 */
+    private final LongAdder invalidations = new LongAdder();
+
+    /**
+     * 正在加载的任务 -> 本次加载的令牌
+     * 失效时移除对应令牌，加载完成时令牌已不是本次的就不写入缓存，避免旧数据以长TTL留在缓存中；
+     * 只影响同一任务的加载，条目在加载结束时移除
+     */
+    private final Map<String, Object> loadTokens = new HashMap<>();
+
+    /**
+     * 读取任务详情，未命中或已过期时通过loader查询数据库并写入缓存
+     * 查询结果为null（任务不存在）时不缓存
+     */
+    public TaskResponse get(String taskId, Function<String, TaskResponse> loader) {
+        long now = System.currentTimeMillis();
+        Object loadToken = new Object();
+        synchronized (entries) {
+            CacheEntry entry = entries.get(taskId);
+            if (entry != null && entry.expireAt > now) {
+                hits.increment();
+                return entry.response;
+            }
+            loadTokens.put(taskId, loadToken);
+        }
+
+        TaskResponse response = null;
+        try {
+            dbQueries.increment();
+            response = loader.apply(taskId);
+        } finally {
+            synchronized (entries) {
+                // 令牌被失效移除或被同一任务更晚的加载替换时，本次结果不写入缓存
+                if (loadTokens.remove(taskId, loadToken) && response != null) {
+                    long ttl = TranslationTask.Status.isTerminal(response.getStatus()) ? terminalTtlMs : activeTtlMs;
+                    entries.put(taskId, new CacheEntry(response, now + ttl));
+                }
+            }
+        }
+        return response;
+    }
+
+    /**
+     * 使指定任务的缓存失效，同时作废该任务正在进行的加载
+     */
+    public void evict(String taskId) {
+        synchronized (entries) {
+            loadTokens.remove(taskId);
+            if (entries.remove(taskId) != null) {
+                invalidations.increment();
+            }
+        }
+    }
+
+    /**
+     * 任务变更后失效缓存；在事务中发布时等到提交后再执行，避免并发读把旧数据重新写回缓存
+     */
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTaskChanged(TaskChangedEvent event) {
+        evict(event.getTaskId());
+    }
+
+    /**
+     * 缓存统计信息：命中率及实际访问数据库的次数
+     */
+    public Map<String, Object> getStatistics() {
+        long hitCount = hits.sum();
+        long queryCount = dbQueries.sum();
+        long requests = hitCount + queryCount;
+
+        Map<String, Object> statistics = new HashMap<>();
+        synchronized (entries) {
+            statistics.put("size", entries.size());
+        }
+        statistics.put("maxSize", maxSize);
+        statistics.put("hits", hitCount);
+        statistics.put("hitRate", requests > 0 ? (double) hitCount / requests : 0.0);
+        statistics.put("dbQueries", queryCount);
+        statistics.put("evictions", evictions.sum());
+        statistics.put("invalidations", invalidations.sum());
+        return statistics;
+    }
+
+    private static class CacheEntry {
+        private final TaskResponse response;
+        private final long expireAt;
+
+        private CacheEntry(TaskResponse response, long expireAt) {
+            this.response = response;
+            this.expireAt = expireAt;
+        }
+    }
+}
@@ -1,6 +1,8 @@
 package com.translation.task.service;
 
+import com.translation.task.dto.BatchCreateTaskResult;
 import com.translation.task.dto.CreateTaskRequest;
+import com.translation.task.dto.CursorPageResponse;
 import com.translation.task.dto.TaskResponse;
 import com.translation.task.dto.TaskQueryRequest;
 import com.baomidou.mybatisplus.core.metadata.IPage;
@@ -19,7 +21,13 @@ public interface TaskService {
     Map<String, Object> createAudioTranslationTask(CreateTaskRequest request);
     
     /**
-     * 根据ID获取任务详情
+     * 批量创建音频翻译任务
+     * 并行校验音频目录，校验通过的任务在同一事务中批量写入，返回每一项的创建结果
+     */
+    List<BatchCreateTaskResult> batchCreateAudioTranslationTasks(List<CreateTaskRequest> requests);
+    
+    /**
+     * 根据ID获取任务详情（读穿透缓存）
      */
     TaskResponse getTaskById(String taskId);
     
@@ -30,8 +38,11 @@ public interface TaskService {
     
     /**
      * 重启任务
+     * 
+     * @param taskId 任务ID
+     * @param resume 是否续跑：复用校验通过的已有识别/翻译结果，只处理缺失或失败的文件
      */
-    boolean restartTask(String taskId);
+    boolean restartTask(String taskId, boolean resume);
     
     /**
      * 获取任务列表（分页查询）
@@ -39,12 +50,26 @@ public interface TaskService {
     IPage<TaskResponse> getTaskList(TaskQueryRequest request);
     
     /**
-     * 获取任务统计信息
+     * 获取任务列表（游标分页）
+     * 按 (create_time, id) 键集翻页，总数仅在withTotal=true时计算
+     */
+    CursorPageResponse<TaskResponse> getTaskListByCursor(TaskQueryRequest request);
+    
+    /**
+     * 获取任务统计信息（来自定时刷新的内存快照）
      */
     Map<String, Object> getTaskStatistics();
     
+    /**
+     * 获取任务详情缓存统计信息（命中率、数据库查询次数）
+     */
+    Map<String, Object> getCacheStatistics();
+    
     /**
      * 更新任务状态
+     * 以单条条件UPDATE完成，只有当前状态允许进入目标状态时才会生效
+     * 
+     * @return 状态变更是否发生
      */
-    void updateTaskStatus(String taskId, String status, String errorMessage);
+    boolean updateTaskStatus(String taskId, String status, String errorMessage);
 }
\ No newline at end of file
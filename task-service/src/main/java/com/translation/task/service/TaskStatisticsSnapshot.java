@@ -0,0 +1,94 @@
+package com.translation.task.service;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.translation.task.entity.TranslationTask;
+import com.translation.task.mapper.TranslationTaskMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.Resource;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 任务统计快照
+ * 定时用一条GROUP BY聚合查询加一条今日计数查询刷新内存快照，统计接口直接返回快照，不再访问数据库
+ */
+@Slf4j
+@Component
+public class TaskStatisticsSnapshot {
+
+    @Resource
+    private TranslationTaskMapper translationTaskMapper;
+
+    private volatile Map<String, Object> snapshot;
+
+    /**
+     * 获取当前统计快照，首次访问时同步加载
+     */
+    public Map<String, Object> get() {
+        Map<String, Object> current = snapshot;
+        if (current == null) {
+            synchronized (this) {
+                current = snapshot;
+                if (current == null) {
+                    current = load();
+                    snapshot = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    /**
+     * 定时刷新统计快照
+     */
+    @Scheduled(fixedDelayString = "${task.statistics.refresh-interval-ms:5000}")
+    public void refresh() {
+        try {
+            snapshot = load();
+        } catch (Exception e) {
+            log.error("刷新任务统计快照失败，继续使用上一次快照", e);
+        }
+    }
+
+    private Map<String, Object> load() {
+        Map<String, Long> countsByStatus = new HashMap<>();
+        long totalTasks = 0;
+        for (Map<String, Object> row : translationTaskMapper.countByStatus()) {
+            long count = ((Number) row.get("task_count")).longValue();
+            countsByStatus.put((String) row.get("status"), count);
+            totalTasks += count;
+        }
+
+        // 处理中包含流水线中的各个阶段
+        long processing = countsByStatus.getOrDefault(TranslationTask.Status.PROCESSING, 0L)
+                + countsByStatus.getOrDefault(TranslationTask.Status.SPEECH_RECOGNITION, 0L)
+                + countsByStatus.getOrDefault(TranslationTask.Status.TRANSLATION, 0L)
+                + countsByStatus.getOrDefault(TranslationTask.Status.ENCODING, 0L);
+
+        Map<String, Long> statusCounts = new HashMap<>();
+        statusCounts.put("created", countsByStatus.getOrDefault(TranslationTask.Status.CREATED, 0L));
+        statusCounts.put("processing", processing);
+        statusCounts.put("completed", countsByStatus.getOrDefault(TranslationTask.Status.COMPLETED, 0L));
+        statusCounts.put("failed", countsByStatus.getOrDefault(TranslationTask.Status.FAILED, 0L));
+        statusCounts.put("cancelled", countsByStatus.getOrDefault(TranslationTask.Status.CANCELLED, 0L));
+
+        // 今日任务数
+        LambdaQueryWrapper<TranslationTask> todayWrapper = new LambdaQueryWrapper<>();
+        todayWrapper.ge(TranslationTask::getCreateTime, LocalDate.now().atStartOfDay());
+        long todayTasks = translationTaskMapper.selectCount(todayWrapper);
+
+        Map<String, Object> statistics = new HashMap<>();
+        statistics.put("totalTasks", totalTasks);
+        statistics.put("statusCounts", statusCounts);
+        statistics.put("todayTasks", todayTasks);
+        statistics.put("snapshotTime", LocalDateTime.now());
+        return Collections.unmodifiableMap(statistics);
+    }
+}
@@ -2,31 +2,44 @@ package com.translation.task.service.impl;
 
 import cn.hutool.core.util.IdUtil;
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
-import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
 import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.baomidou.mybatisplus.extension.toolkit.Db;
+import com.translation.common.dto.AudioManifest;
+import com.translation.common.enums.LanguageEnum;
 import com.translation.common.kafka.KafkaTopics;
 import com.translation.common.kafka.message.TaskCreatedMessage;
+import com.translation.common.util.AudioDirectoryScanner;
+import com.translation.task.dto.BatchCreateTaskResult;
 import com.translation.task.dto.CreateTaskRequest;
+import com.translation.task.dto.CursorPageResponse;
 import com.translation.task.dto.TaskQueryRequest;
 import com.translation.task.dto.TaskResponse;
 import com.translation.task.entity.TranslationTask;
+import com.translation.task.event.TaskChangedEvent;
+import com.translation.task.mapper.TaskFileProgressMapper;
 import com.translation.task.mapper.TranslationTaskMapper;
+import com.translation.task.service.TaskOutboxRelay;
+import com.translation.task.service.TaskResponseCache;
 import com.translation.task.service.TaskService;
+import com.translation.task.service.TaskStatisticsSnapshot;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import javax.annotation.Resource;
 import java.io.File;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 /**
  * 任务服务实现类 - 系统入口服务
@@ -39,122 +52,209 @@ public class TaskServiceImpl implements TaskService {
     @Resource
     private TranslationTaskMapper translationTaskMapper;
     @Resource
-    private KafkaTemplate<String, Object> kafkaTemplate;
+    private TaskFileProgressMapper taskFileProgressMapper;
+    @Resource
+    private TaskOutboxRelay taskOutboxRelay;
+    @Resource
+    private TaskStatisticsSnapshot taskStatisticsSnapshot;
+    @Resource
+    private TaskResponseCache taskResponseCache;
+    @Resource
+    private ApplicationEventPublisher eventPublisher;
+    @Resource
+    private TransactionTemplate transactionTemplate;
+    
+    /**
+     * 游标分页单页最大记录数
+     */
+    private static final long MAX_CURSOR_PAGE_SIZE = 1000;
+    
+    /**
+     * 批量创建任务时每批JDBC插入的记录数
+     */
+    private static final int BATCH_INSERT_SIZE = 500;
+    
+    /**
+     * 重启任务时因版本冲突重新读取的最大次数
+     */
+    private static final int MAX_RESTART_ATTEMPTS = 3;
     
     @Value("${audio.source.path:./audio-source}")
     private String audioSourcePath;
     
     @Override
-    @Transactional
     public Map<String, Object> createAudioTranslationTask(CreateTaskRequest request) {
         // 生成任务ID
         String taskId = IdUtil.simpleUUID();
         
-        // 验证音频目录
+        // 验证音频目录并生成音频清单，在事务外完成，不占用数据库连接
         String audioDirectoryPath = audioSourcePath + "/" + request.getAudioDirectory();
-        File audioDir = new File(audioDirectoryPath);
+        AudioManifest manifest = scanAudioDirectory(audioDirectoryPath, request.getAudioDirectory(),
+                Boolean.TRUE.equals(request.getRecursive()));
+        int totalFiles = manifest.getEntries().size();
         
-        if (!audioDir.exists() || !audioDir.isDirectory()) {
-            throw new RuntimeException("音频目录不存在: " + request.getAudioDirectory());
+        // 创建任务记录
+        TranslationTask task = buildTask(taskId, request, audioDirectoryPath, totalFiles);
+        
+        // 任务记录与发件箱消息同一事务写入，由发件箱中继投递Kafka消息启动处理流程
+        transactionTemplate.executeWithoutResult(status -> {
+            if (translationTaskMapper.insert(task) <= 0) {
+                throw new RuntimeException("保存任务到数据库失败");
+            }
+            taskOutboxRelay.enqueue(taskId, KafkaTopics.TASK_CREATED, taskId, buildCreatedMessage(task, manifest));
+            eventPublisher.publishEvent(new TaskChangedEvent(this, taskId));
+        });
+        
+        log.info("任务创建成功: taskId={}, audioDirectory={}, totalFiles={}", 
+                 taskId, request.getAudioDirectory(), totalFiles);
+        
+        // 返回任务信息
+        Map<String, Object> response = new HashMap<>();
+        response.put("taskId", taskId);
+        response.put("audioDirectory", request.getAudioDirectory());
+        response.put("totalFiles", totalFiles);
+        response.put("status", TranslationTask.Status.PROCESSING);
+        response.put("createTime", task.getCreateTime());
+        
+        return response;
+    }
+    
+    @Override
+    public List<BatchCreateTaskResult> batchCreateAudioTranslationTasks(List<CreateTaskRequest> requests) {
+        // 在事务外并行校验音频目录并生成音频清单，结果按请求顺序返回
+        AudioManifest[] manifests = new AudioManifest[requests.size()];
+        List<BatchCreateTaskResult> results = IntStream.range(0, requests.size())
+                .parallel()
+                .mapToObj(index -> validateBatchItem(index, requests.get(index), manifests))
+                .collect(Collectors.toList());
+        
+        List<TranslationTask> tasks = new ArrayList<>();
+        Map<String, Object> messages = new LinkedHashMap<>();
+        for (BatchCreateTaskResult result : results) {
+            if (!result.getSuccess()) {
+                continue;
+            }
+            CreateTaskRequest request = requests.get(result.getIndex());
+            String taskId = IdUtil.simpleUUID();
+            TranslationTask task = buildTask(taskId, request,
+                    audioSourcePath + "/" + request.getAudioDirectory(), result.getTotalFiles());
+            tasks.add(task);
+            messages.put(taskId, buildCreatedMessage(task, manifests[result.getIndex()]));
+            result.setTaskId(taskId);
         }
         
-        // 统计音频文件数量
-        File[] mp3Files = audioDir.listFiles((dir, name) -> name.toLowerCase().endsWith(".mp3"));
-        int totalFiles = mp3Files != null ? mp3Files.length : 0;
+        if (!tasks.isEmpty()) {
+            // JDBC批量插入任务记录和发件箱记录，同一事务提交
+            transactionTemplate.executeWithoutResult(status -> {
+                Db.saveBatch(tasks, BATCH_INSERT_SIZE);
+                taskOutboxRelay.enqueueAll(KafkaTopics.TASK_CREATED, messages);
+                tasks.forEach(task -> eventPublisher.publishEvent(new TaskChangedEvent(this, task.getTaskId())));
+            });
+        }
         
-        if (totalFiles == 0) {
-            throw new RuntimeException("音频目录中没有MP3文件: " + request.getAudioDirectory());
+        log.info("批量创建任务完成: 请求数={}, 成功={}, 失败={}",
+                 requests.size(), tasks.size(), requests.size() - tasks.size());
+        return results;
+    }
+    
+    /**
+     * 校验批量创建中的单个任务请求
+     */
+    private BatchCreateTaskResult validateBatchItem(int index, CreateTaskRequest request, AudioManifest[] manifests) {
+        BatchCreateTaskResult result = new BatchCreateTaskResult();
+        result.setIndex(index);
+        result.setAudioDirectory(request.getAudioDirectory());
+        try {
+            manifests[index] = scanAudioDirectory(audioSourcePath + "/" + request.getAudioDirectory(),
+                    request.getAudioDirectory(), Boolean.TRUE.equals(request.getRecursive()));
+            result.setTotalFiles(manifests[index].getEntries().size());
+            result.setSuccess(true);
+        } catch (Exception e) {
+            result.setSuccess(false);
+            result.setErrorMessage(e.getMessage());
+        }
+        return result;
+    }
+    
+    /**
+     * 校验音频目录并生成音频清单
+     * 只读取文件属性，校验值和时长由语音识别服务在处理每个文件前计算
+     */
+    private AudioManifest scanAudioDirectory(String audioDirectoryPath, String audioDirectory, boolean recursive) {
+        if (!new File(audioDirectoryPath).isDirectory()) {
+            throw new RuntimeException("音频目录不存在: " + audioDirectory);
         }
         
-        // 创建任务记录
+        AudioManifest manifest = AudioDirectoryScanner.scan(audioDirectoryPath, recursive);
+        if (manifest.getEntries().isEmpty()) {
+            throw new RuntimeException("音频目录中没有MP3文件: " + audioDirectory);
+        }
+        return manifest;
+    }
+    
+    /**
+     * 构建新任务记录
+     * 启动消息与任务记录在同一事务中写入发件箱，任务直接进入处理中
+     */
+    private TranslationTask buildTask(String taskId, CreateTaskRequest request, String audioDirectoryPath, int totalFiles) {
         TranslationTask task = new TranslationTask();
         task.setTaskId(taskId);
         task.setTaskType(TranslationTask.Type.AUDIO_TRANSLATION);
         task.setAudioDirectoryPath(audioDirectoryPath);
+        task.setRecursiveScan(Boolean.TRUE.equals(request.getRecursive()));
         task.setSourceLanguage(request.getSourceLanguage());
         task.setTargetLanguages(request.getTargetLanguages());
-        task.setStatus(TranslationTask.Status.CREATED);
+        task.setTargetLanguageMask(LanguageEnum.toMask(request.getTargetLanguages()));
+        task.setStatus(TranslationTask.Status.PROCESSING);
         task.setTotalFiles(totalFiles);
         task.setProcessedFiles(0);
         task.setSuccessFiles(0);
         task.setFailedFiles(0);
         task.setProgressPercent(0.0);
+        task.setVersion(0);
         task.setPriority(request.getPriority());
         task.setCreateTime(LocalDateTime.now());
-        task.setUpdateTime(LocalDateTime.now());
-        
-        // 保存到数据库
-        int result = translationTaskMapper.insert(task);
-        if (result <= 0) {
-            throw new RuntimeException("保存任务到数据库失败");
-        }
-        
-        log.info("任务创建成功: taskId={}, audioDirectory={}, totalFiles={}", 
-                 taskId, request.getAudioDirectory(), totalFiles);
-        
-        // 发送Kafka消息启动处理流程
+        task.setUpdateTime(task.getCreateTime());
+        task.setStartTime(task.getCreateTime());
+        return task;
+    }
+    
+    /**
+     * 构建任务启动消息
+     */
+    private TaskCreatedMessage buildCreatedMessage(TranslationTask task, AudioManifest manifest) {
         TaskCreatedMessage message = new TaskCreatedMessage();
-        message.setTaskId(taskId);
-        message.setAudioDirectoryPath(audioDirectoryPath);
-        message.setSourceLanguage(request.getSourceLanguage());
-        message.setTargetLanguages(request.getTargetLanguages());
-        message.setTaskType(TranslationTask.Type.AUDIO_TRANSLATION);
+        message.setTaskId(task.getTaskId());
+        message.setAudioDirectoryPath(task.getAudioDirectoryPath());
+        message.setSourceLanguage(task.getSourceLanguage());
+        message.setTargetLanguages(task.getTargetLanguages());
+        message.setTaskType(task.getTaskType());
         message.setCreatedTime(LocalDateTime.now());
-        message.setPriority(request.getPriority());
-        
-        try {
-            kafkaTemplate.send(KafkaTopics.TASK_CREATED, taskId, message);
-            log.info("已发送任务创建消息到Kafka: taskId={}", taskId);
-            
-            // 更新任务状态为处理中
-            updateTaskStatus(taskId, TranslationTask.Status.PROCESSING, null);
-            
-        } catch (Exception e) {
-            log.error("发送Kafka消息失败: taskId=" + taskId, e);
-            // 如果Kafka发送失败，回滚任务状态
-            updateTaskStatus(taskId, TranslationTask.Status.FAILED, "Kafka消息发送失败: " + e.getMessage());
-            throw new RuntimeException("启动任务处理失败: " + e.getMessage());
-        }
-        
-        // 返回任务信息
-        Map<String, Object> response = new HashMap<>();
-        response.put("taskId", taskId);
-        response.put("audioDirectory", request.getAudioDirectory());
-        response.put("totalFiles", totalFiles);
-        response.put("status", TranslationTask.Status.PROCESSING);
-        response.put("createTime", task.getCreateTime());
-        
-        return response;
+        message.setPriority(task.getPriority());
+        message.setAudioManifest(manifest);
+        message.setDispatchId(IdUtil.simpleUUID());
+        return message;
     }
     
     @Override
-    @Transactional
     public boolean cancelTask(String taskId) {
-        TranslationTask task = translationTaskMapper.selectOne(
-                new LambdaQueryWrapper<TranslationTask>().eq(TranslationTask::getTaskId, taskId)
-        );
-        
-        if (task == null) {
-            return false;
-        }
-        
         // 只能取消未完成的任务
-        if (TranslationTask.Status.COMPLETED.equals(task.getStatus()) ||
-            TranslationTask.Status.FAILED.equals(task.getStatus()) ||
-            TranslationTask.Status.CANCELLED.equals(task.getStatus())) {
-            return false;
-        }
-        
-        // 更新任务状态为已取消
-        task.setStatus(TranslationTask.Status.CANCELLED);
-        task.setUpdateTime(LocalDateTime.now());
-        task.setCompleteTime(LocalDateTime.now());
+        boolean cancelled = translationTaskMapper.transitionStatus(
+                taskId, TranslationTask.Status.PIPELINE, TranslationTask.Status.CANCELLED, null) > 0;
         
-        return translationTaskMapper.updateById(task) > 0;
+        if (cancelled) {
+            eventPublisher.publishEvent(new TaskChangedEvent(this, taskId));
+        }
+        log.info("取消任务: taskId={}, cancelled={}", taskId, cancelled);
+        return cancelled;
     }
     
     @Override
     public TaskResponse getTaskById(String taskId) {
+        return taskResponseCache.get(taskId, this::loadTaskResponse);
+    }
+    
+    private TaskResponse loadTaskResponse(String taskId) {
         TranslationTask task = translationTaskMapper.selectOne(
                 new LambdaQueryWrapper<TranslationTask>().eq(TranslationTask::getTaskId, taskId)
         );
@@ -167,82 +267,56 @@ public class TaskServiceImpl implements TaskService {
     }
     
     @Override
-    public boolean restartTask(String taskId) {
-        TranslationTask task = translationTaskMapper.selectOne(
-                new LambdaQueryWrapper<TranslationTask>().eq(TranslationTask::getTaskId, taskId)
-        );
-        
-        if (task == null) {
-            return false;
-        }
-        
-        // 只能重启失败或取消的任务
-        if (!TranslationTask.Status.FAILED.equals(task.getStatus()) &&
-            !TranslationTask.Status.CANCELLED.equals(task.getStatus())) {
-            return false;
-        }
-        
-        // 重置任务状态
-        task.setStatus(TranslationTask.Status.CREATED);
-        task.setUpdateTime(LocalDateTime.now());
-        task.setStartTime(null);
-        task.setCompleteTime(null);
-        task.setErrorMessage(null);
-        task.setProcessedFiles(0);
-        task.setSuccessFiles(0);
-        task.setFailedFiles(0);
-        task.setProgressPercent(0.0);
-        
-        boolean updated = translationTaskMapper.updateById(task) > 0;
-        
-        if (updated) {
-            try {
-                // 重新发送Kafka消息
-                TaskCreatedMessage message = new TaskCreatedMessage();
-                message.setTaskId(taskId);
-                message.setTaskType(task.getTaskType());
-                message.setAudioDirectoryPath(task.getAudioDirectoryPath());
-                message.setSourceLanguage(task.getSourceLanguage());
-                message.setTargetLanguages(task.getTargetLanguages());
-                
-                kafkaTemplate.send(KafkaTopics.TASK_CREATED, taskId, message);
-                log.info("重新发送任务创建消息到Kafka: taskId={}", taskId);
-                
-                updateTaskStatus(taskId, TranslationTask.Status.PROCESSING, null);
-            } catch (Exception e) {
-                log.error("重启任务发送Kafka消息失败: taskId=" + taskId, e);
-                updateTaskStatus(taskId, TranslationTask.Status.FAILED, "重启任务失败: " + e.getMessage());
+    public boolean restartTask(String taskId, boolean resume) {
+        for (int attempt = 1; attempt <= MAX_RESTART_ATTEMPTS; attempt++) {
+            TranslationTask task = translationTaskMapper.selectOne(
+                    new LambdaQueryWrapper<TranslationTask>().eq(TranslationTask::getTaskId, taskId)
+            );
+            if (task == null || !TranslationTask.Status.RESTARTABLE.contains(task.getStatus())) {
                 return false;
             }
+            
+            // 重新扫描音频目录，目录内容可能在任务创建后发生了变化
+            AudioManifest manifest = AudioDirectoryScanner.scan(task.getAudioDirectoryPath(),
+                    Boolean.TRUE.equals(task.getRecursiveScan()));
+            
+            // 只能重启失败或取消的任务，重置进度并直接进入处理中；重新写入的任务启动消息与状态重置在同一事务中提交
+            Boolean restarted = transactionTemplate.execute(status -> {
+                if (translationTaskMapper.restart(taskId, task.getVersion(), TranslationTask.Status.RESTARTABLE,
+                        manifest.getEntries().size()) == 0) {
+                    return false;
+                }
+                // 进度从零开始，清除上一轮记录的文件结果
+                taskFileProgressMapper.deleteByTaskId(taskId);
+                
+                TaskCreatedMessage message = buildCreatedMessage(task, manifest);
+                message.setResumeMode(resume);
+                taskOutboxRelay.enqueue(taskId, KafkaTopics.TASK_CREATED, taskId, message);
+                return true;
+            });
+            
+            if (Boolean.TRUE.equals(restarted)) {
+                eventPublisher.publishEvent(new TaskChangedEvent(this, taskId));
+                log.info("任务已重启: taskId={}, resume={}", taskId, resume);
+                return true;
+            }
+            log.debug("任务记录在读取后被修改，重新读取: taskId={}, attempt={}", taskId, attempt);
         }
-        
-        return updated;
+        return false;
     }
     
     @Override
     public IPage<TaskResponse> getTaskList(TaskQueryRequest request) {
         Page<TranslationTask> page = new Page<>(request.getCurrent(), request.getSize());
 
-        LambdaQueryWrapper<TranslationTask> queryWrapper = new LambdaQueryWrapper<>();
-        
-        if (request.getTaskName() != null && !request.getTaskName().trim().isEmpty()) {
-            queryWrapper.like(TranslationTask::getTaskId, request.getTaskName());
-        }
-        if (request.getStatus() != null && !request.getStatus().trim().isEmpty()) {
-            queryWrapper.eq(TranslationTask::getStatus, request.getStatus());
-        }
-        if (request.getSourceLanguage() != null && !request.getSourceLanguage().trim().isEmpty()) {
-            queryWrapper.eq(TranslationTask::getSourceLanguage, request.getSourceLanguage());
-        }
-        if (request.getTargetLanguage() != null && !request.getTargetLanguage().trim().isEmpty()) {
-            queryWrapper.like(TranslationTask::getTargetLanguages, request.getTargetLanguage());
-        }
+        // 原有分页接口保持任务名称包含匹配
+        LambdaQueryWrapper<TranslationTask> queryWrapper = buildFilterWrapper(request, false);
         
-        // 排序
+        // 排序（create_time相同的记录按主键保证顺序稳定）
         if ("ASC".equalsIgnoreCase(request.getOrderDirection())) {
-            queryWrapper.orderByAsc(TranslationTask::getCreateTime);
+            queryWrapper.orderByAsc(TranslationTask::getCreateTime).orderByAsc(TranslationTask::getId);
         } else {
-            queryWrapper.orderByDesc(TranslationTask::getCreateTime);
+            queryWrapper.orderByDesc(TranslationTask::getCreateTime).orderByDesc(TranslationTask::getId);
         }
         
         IPage<TranslationTask> taskPage = translationTaskMapper.selectPage(page, queryWrapper);
@@ -263,30 +337,102 @@ public class TaskServiceImpl implements TaskService {
     }
     
     @Override
-    public Map<String, Object> getTaskStatistics() {
-        Map<String, Object> statistics = new HashMap<>();
+    public CursorPageResponse<TaskResponse> getTaskListByCursor(TaskQueryRequest request) {
+        int size = (int) Math.min(Math.max(request.getSize() != null ? request.getSize() : 10, 1), MAX_CURSOR_PAGE_SIZE);
+        boolean ascending = "ASC".equalsIgnoreCase(request.getOrderDirection());
+        
+        LambdaQueryWrapper<TranslationTask> queryWrapper = buildFilterWrapper(request, true);
+        
+        // 总数只在调用方需要时才查询，避免每页都做一次COUNT
+        Long total = null;
+        if (Boolean.TRUE.equals(request.getWithTotal())) {
+            total = translationTaskMapper.selectCount(queryWrapper);
+        }
+        
+        // 键集条件：(create_time, id) 严格位于游标之后，走 (create_time, id) 复合索引，翻页深度不影响耗时
+        LocalDateTime cursorCreateTime = request.getCursorCreateTime();
+        Long cursorId = request.getCursorId();
+        if (cursorCreateTime != null && cursorId != null) {
+            if (ascending) {
+                queryWrapper.and(w -> w.gt(TranslationTask::getCreateTime, cursorCreateTime)
+                        .or(o -> o.eq(TranslationTask::getCreateTime, cursorCreateTime).gt(TranslationTask::getId, cursorId)));
+            } else {
+                queryWrapper.and(w -> w.lt(TranslationTask::getCreateTime, cursorCreateTime)
+                        .or(o -> o.eq(TranslationTask::getCreateTime, cursorCreateTime).lt(TranslationTask::getId, cursorId)));
+            }
+        }
         
-        // 总任务数
-        long totalTasks = translationTaskMapper.selectCount(null);
-        statistics.put("totalTasks", totalTasks);
+        if (ascending) {
+            queryWrapper.orderByAsc(TranslationTask::getCreateTime).orderByAsc(TranslationTask::getId);
+        } else {
+            queryWrapper.orderByDesc(TranslationTask::getCreateTime).orderByDesc(TranslationTask::getId);
+        }
+        // 多取一条用于判断是否还有下一页
+        queryWrapper.last("LIMIT " + (size + 1));
         
-        // 各状态任务数
-        Map<String, Long> statusCounts = new HashMap<>();
-        statusCounts.put("created", translationTaskMapper.selectCount(new QueryWrapper<TranslationTask>().eq("status", TranslationTask.Status.CREATED)));
-        statusCounts.put("processing", translationTaskMapper.selectCount(new QueryWrapper<TranslationTask>().eq("status", TranslationTask.Status.PROCESSING)));
-        statusCounts.put("completed", translationTaskMapper.selectCount(new QueryWrapper<TranslationTask>().eq("status", TranslationTask.Status.COMPLETED)));
-        statusCounts.put("failed", translationTaskMapper.selectCount(new QueryWrapper<TranslationTask>().eq("status", TranslationTask.Status.FAILED)));
-        statusCounts.put("cancelled", translationTaskMapper.selectCount(new QueryWrapper<TranslationTask>().eq("status", TranslationTask.Status.CANCELLED)));
+        List<TranslationTask> tasks = translationTaskMapper.selectList(queryWrapper);
+        boolean hasMore = tasks.size() > size;
+        if (hasMore) {
+            tasks = tasks.subList(0, size);
+        }
         
-        statistics.put("statusCounts", statusCounts);
+        CursorPageResponse<TaskResponse> response = new CursorPageResponse<>();
+        response.setRecords(tasks.stream().map(this::convertToTaskResponse).collect(Collectors.toList()));
+        response.setSize(size);
+        response.setHasMore(hasMore);
+        response.setTotal(total);
+        if (!tasks.isEmpty()) {
+            TranslationTask last = tasks.get(tasks.size() - 1);
+            response.setNextCursorCreateTime(last.getCreateTime());
+            response.setNextCursorId(last.getId());
+        }
         
-        // 今日任务数
-        LambdaQueryWrapper<TranslationTask> todayWrapper = new LambdaQueryWrapper<>();
-        todayWrapper.ge(TranslationTask::getCreateTime, LocalDateTime.now().toLocalDate());
-        long todayTasks = translationTaskMapper.selectCount(todayWrapper);
-        statistics.put("todayTasks", todayTasks);
+        return response;
+    }
+    
+    /**
+     * 构建列表查询的过滤条件
+     * 目标语言使用位掩码过滤；按位与条件无法走索引，只在排序索引扫描到的行上逐行过滤
+     *
+     * @param taskNamePrefix 任务名称是否使用前缀匹配（可走唯一索引），否则为包含匹配
+     */
+    private LambdaQueryWrapper<TranslationTask> buildFilterWrapper(TaskQueryRequest request, boolean taskNamePrefix) {
+        LambdaQueryWrapper<TranslationTask> queryWrapper = new LambdaQueryWrapper<>();
         
-        return statistics;
+        if (request.getTaskName() != null && !request.getTaskName().trim().isEmpty()) {
+            if (taskNamePrefix) {
+                queryWrapper.likeRight(TranslationTask::getTaskId, request.getTaskName().trim());
+            } else {
+                queryWrapper.like(TranslationTask::getTaskId, request.getTaskName().trim());
+            }
+        }
+        if (request.getStatus() != null && !request.getStatus().trim().isEmpty()) {
+            queryWrapper.eq(TranslationTask::getStatus, request.getStatus());
+        }
+        if (request.getSourceLanguage() != null && !request.getSourceLanguage().trim().isEmpty()) {
+            queryWrapper.eq(TranslationTask::getSourceLanguage, request.getSourceLanguage());
+        }
+        if (request.getTargetLanguage() != null && !request.getTargetLanguage().trim().isEmpty()) {
+            long mask = LanguageEnum.toMask(request.getTargetLanguage());
+            if (mask != 0L) {
+                queryWrapper.apply("target_language_mask & {0} <> 0", mask);
+            } else {
+                // 无法识别的语言代码，退回到原有的文本匹配
+                queryWrapper.like(TranslationTask::getTargetLanguages, request.getTargetLanguage());
+            }
+        }
+        
+        return queryWrapper;
+    }
+    
+    @Override
+    public Map<String, Object> getTaskStatistics() {
+        return taskStatisticsSnapshot.get();
+    }
+    
+    @Override
+    public Map<String, Object> getCacheStatistics() {
+        return taskResponseCache.getStatistics();
     }
     
     private TaskResponse convertToTaskResponse(TranslationTask task) {
@@ -297,36 +443,32 @@ public class TaskServiceImpl implements TaskService {
         response.setSourceLanguage(task.getSourceLanguage());
         response.setTargetLanguage(task.getTargetLanguages());
         response.setStatus(task.getStatus());
+        response.setTotalFiles(task.getTotalFiles());
+        response.setProcessedFiles(task.getProcessedFiles());
+        response.setSuccessFiles(task.getSuccessFiles());
+        response.setFailedFiles(task.getFailedFiles());
+        response.setProgressPercent(task.getProgressPercent());
         response.setErrorMessage(task.getErrorMessage());
+        response.setVersion(task.getVersion());
         response.setCreatedAt(task.getCreateTime());
         response.setUpdatedAt(task.getUpdateTime());
         return response;
     }
     
     @Override
-    @Transactional
-    public void updateTaskStatus(String taskId, String status, String errorMessage) {
-        TranslationTask task = translationTaskMapper.selectOne(
-            new LambdaQueryWrapper<TranslationTask>().eq(TranslationTask::getTaskId, taskId)
-        );
+    public boolean updateTaskStatus(String taskId, String status, String errorMessage) {
+        List<String> fromStatuses = TranslationTask.Status.precedingStatuses(status);
+        if (fromStatuses.isEmpty()) {
+            return false;
+        }
         
-        if (task != null) {
-            task.setStatus(status);
-            task.setUpdateTime(LocalDateTime.now());
-            
-            if (errorMessage != null) {
-                task.setErrorMessage(errorMessage);
-            }
-            
-            if (TranslationTask.Status.PROCESSING.equals(status)) {
-                task.setStartTime(LocalDateTime.now());
-            } else if (TranslationTask.Status.COMPLETED.equals(status) || 
-                       TranslationTask.Status.FAILED.equals(status)) {
-                task.setCompleteTime(LocalDateTime.now());
-            }
-            
-            translationTaskMapper.updateById(task);
+        boolean updated = translationTaskMapper.transitionStatus(taskId, fromStatuses, status, errorMessage) > 0;
+        if (updated) {
+            eventPublisher.publishEvent(new TaskChangedEvent(this, taskId));
             log.info("任务状态更新: taskId={}, status={}", taskId, status);
+        } else {
+            log.warn("任务状态未更新（任务不存在或当前状态不允许）: taskId={}, status={}", taskId, status);
         }
+        return updated;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,154 @@
+package com.translation.task.consumer;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.test.autoconfigure.MybatisPlusTest;
+import com.translation.common.kafka.message.EncodingCompletedMessage;
+import com.translation.common.kafka.message.SpeechRecognitionCompletedMessage;
+import com.translation.common.kafka.message.TaskProgressMessage;
+import com.translation.common.kafka.message.TranslationCompletedMessage;
+import com.translation.task.entity.TranslationTask;
+import com.translation.task.mapper.TranslationTaskMapper;
+import com.translation.task.service.TaskProgressAggregator;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * 任务进度消费者的状态流转测试
+ * 按流水线模式下各服务发出的消息顺序投递，验证任务依次经过每个阶段，晚到的阶段消息不会使状态回退
+ */
+@MybatisPlusTest(properties = "logging.level.com.translation.task=INFO")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class TaskProgressConsumerStatusTest {
+
+    @Autowired
+    private TranslationTaskMapper translationTaskMapper;
+    @Autowired
+    private SqlSessionFactory sqlSessionFactory;
+
+    private TaskProgressAggregator taskProgressAggregator;
+    private TaskProgressConsumer taskProgressConsumer;
+    private final ExecutorService listener = Executors.newSingleThreadExecutor();
+
+    @BeforeEach
+    void setUp() {
+        taskProgressAggregator = new TaskProgressAggregator();
+        ReflectionTestUtils.setField(taskProgressAggregator, "sqlSessionFactory", sqlSessionFactory);
+        ReflectionTestUtils.setField(taskProgressAggregator, "eventPublisher", (ApplicationEventPublisher) event -> {
+        });
+        taskProgressConsumer = new TaskProgressConsumer();
+        ReflectionTestUtils.setField(taskProgressConsumer, "taskProgressAggregator", taskProgressAggregator);
+        ReflectionTestUtils.setField(taskProgressConsumer, "ackTimeoutMs", 5000L);
+    }
+
+    @AfterEach
+    void cleanup() {
+        listener.shutdownNow();
+        translationTaskMapper.delete(new LambdaQueryWrapper<>());
+    }
+
+    @Test
+    void pipelineModeRecordsEveryStage() throws Exception {
+        String taskId = insertTask();
+        List<String> statuses = new ArrayList<>();
+
+        TaskProgressMessage progress = new TaskProgressMessage();
+        progress.setTaskId(taskId);
+        progress.setAudioFileName("a.wav");
+        progress.setStage(TaskProgressMessage.Stage.SPEECH_RECOGNITION);
+        progress.setSuccess(true);
+        deliver(() -> taskProgressConsumer.handleTaskProgress(List.of(progress), () -> {
+        }));
+        statuses.add(selectStatus(taskId));
+
+        // 流水线模式下语音服务在完成主题上发送的阶段完成事件（不带识别结果）
+        SpeechRecognitionCompletedMessage speechCompleted = new SpeechRecognitionCompletedMessage();
+        speechCompleted.setTaskId(taskId);
+        speechCompleted.setIncremental(true);
+        speechCompleted.setCompletedTime(LocalDateTime.now());
+        deliver(() -> taskProgressConsumer.handleSpeechRecognitionCompleted(List.of(speechCompleted), () -> {
+        }));
+        statuses.add(selectStatus(taskId));
+
+        TranslationCompletedMessage translationCompleted = new TranslationCompletedMessage();
+        translationCompleted.setTaskId(taskId);
+        deliver(() -> taskProgressConsumer.handleTranslationCompleted(List.of(translationCompleted), () -> {
+        }));
+        statuses.add(selectStatus(taskId));
+
+        // 重复投递的语音识别完成事件晚于翻译完成到达
+        deliver(() -> taskProgressConsumer.handleSpeechRecognitionCompleted(List.of(speechCompleted), () -> {
+        }));
+        statuses.add(selectStatus(taskId));
+
+        EncodingCompletedMessage encodingCompleted = new EncodingCompletedMessage();
+        encodingCompleted.setTaskId(taskId);
+        deliver(() -> taskProgressConsumer.handleEncodingCompleted(List.of(encodingCompleted), () -> {
+        }));
+        statuses.add(selectStatus(taskId));
+
+        assertEquals(List.of(TranslationTask.Status.SPEECH_RECOGNITION, TranslationTask.Status.TRANSLATION,
+                TranslationTask.Status.ENCODING, TranslationTask.Status.ENCODING, TranslationTask.Status.COMPLETED),
+                statuses);
+    }
+
+    /**
+     * 在监听线程上处理一批消息，期间代替定时任务刷新聚合器，直到该批确认
+     */
+    private void deliver(Runnable batch) throws Exception {
+        Future<?> handled = listener.submit(batch);
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!handled.isDone()) {
+            if (System.currentTimeMillis() > deadline) {
+                fail("消息处理未在超时前确认");
+            }
+            taskProgressAggregator.flush();
+            Thread.sleep(10);
+        }
+        handled.get(1, TimeUnit.SECONDS);
+    }
+
+    private String insertTask() {
+        TranslationTask task = new TranslationTask();
+        task.setTaskId(java.util.UUID.randomUUID().toString().replace("-", ""));
+        task.setTaskType(TranslationTask.Type.AUDIO_TRANSLATION);
+        task.setSourceLanguage("en");
+        task.setTargetLanguages("zh");
+        task.setTargetLanguageMask(0L);
+        task.setRecursiveScan(false);
+        task.setStatus(TranslationTask.Status.PROCESSING);
+        task.setTotalFiles(1);
+        task.setProcessedFiles(0);
+        task.setSuccessFiles(0);
+        task.setFailedFiles(0);
+        task.setProgressPercent(0.0);
+        task.setPriority(5);
+        task.setVersion(0);
+        task.setCreateTime(LocalDateTime.now());
+        task.setUpdateTime(task.getCreateTime());
+        translationTaskMapper.insert(task);
+        return task.getTaskId();
+    }
+
+    private String selectStatus(String taskId) {
+        return translationTaskMapper.selectOne(
+                new LambdaQueryWrapper<TranslationTask>().eq(TranslationTask::getTaskId, taskId)).getStatus();
+    }
+}
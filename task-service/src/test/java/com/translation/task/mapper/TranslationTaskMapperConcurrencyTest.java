@@ -0,0 +1,164 @@
+package com.translation.task.mapper;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.test.autoconfigure.MybatisPlusTest;
+import com.translation.task.entity.TranslationTask;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 任务状态条件更新的并发测试
+ * 多个线程同时发起状态变更，验证只有合法的变更生效、版本号与生效次数一致且状态不会回退
+ */
+@MybatisPlusTest(properties = "logging.level.com.translation.task=INFO")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class TranslationTaskMapperConcurrencyTest {
+
+    private static final int THREADS = 16;
+    private static final int ROUNDS = 50;
+
+    @Autowired
+    private TranslationTaskMapper translationTaskMapper;
+
+    @AfterEach
+    void cleanup() {
+        translationTaskMapper.delete(new LambdaQueryWrapper<>());
+    }
+
+    @Test
+    void concurrentTerminalTransitionsOnlyOneWins() throws Exception {
+        List<String> terminals = List.of(TranslationTask.Status.COMPLETED,
+                TranslationTask.Status.FAILED, TranslationTask.Status.CANCELLED);
+
+        for (int round = 0; round < ROUNDS; round++) {
+            String taskId = insertTask(TranslationTask.Status.PROCESSING);
+
+            List<Callable<Integer>> calls = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                String status = terminals.get(i % terminals.size());
+                calls.add(() -> translationTaskMapper.transitionStatus(
+                        taskId, TranslationTask.Status.precedingStatuses(status), status, null));
+            }
+
+            assertEquals(1, race(calls), "终态只能被设置一次");
+            TranslationTask task = selectTask(taskId);
+            assertTrue(terminals.contains(task.getStatus()));
+            assertEquals(1, task.getVersion());
+        }
+    }
+
+    @Test
+    void concurrentPipelineTransitionsNeverMoveBackwards() throws Exception {
+        List<String> forward = List.of(TranslationTask.Status.SPEECH_RECOGNITION,
+                TranslationTask.Status.TRANSLATION, TranslationTask.Status.ENCODING);
+
+        for (int round = 0; round < ROUNDS; round++) {
+            String taskId = insertTask(TranslationTask.Status.PROCESSING);
+
+            List<Callable<Integer>> calls = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                String status = forward.get(i % forward.size());
+                calls.add(() -> translationTaskMapper.transitionStatus(
+                        taskId, TranslationTask.Status.precedingStatuses(status), status, null));
+            }
+            Collections.shuffle(calls);
+
+            int applied = race(calls);
+            TranslationTask task = selectTask(taskId);
+            // 每个状态最多生效一次，且最远的状态一定会生效
+            assertTrue(applied >= 1 && applied <= forward.size());
+            assertEquals(TranslationTask.Status.ENCODING, task.getStatus());
+            assertEquals(applied, task.getVersion());
+        }
+    }
+
+    @Test
+    void restartWithStaleVersionIsRejected() throws Exception {
+        for (int round = 0; round < ROUNDS; round++) {
+            String taskId = insertTask(TranslationTask.Status.FAILED);
+            int readVersion = selectTask(taskId).getVersion();
+
+            List<Callable<Integer>> calls = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                calls.add(() -> translationTaskMapper.restart(
+                        taskId, readVersion, TranslationTask.Status.RESTARTABLE, 3));
+            }
+
+            assertEquals(1, race(calls), "同一版本只能重启一次");
+            TranslationTask task = selectTask(taskId);
+            assertEquals(TranslationTask.Status.PROCESSING, task.getStatus());
+            assertEquals(readVersion + 1, task.getVersion());
+            assertEquals(3, task.getTotalFiles());
+        }
+    }
+
+    /**
+     * 所有线程就绪后同时执行，返回受影响行数之和
+     */
+    private int race(List<Callable<Integer>> calls) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(calls.size());
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<Integer>> futures = new ArrayList<>();
+            for (Callable<Integer> call : calls) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return call.call();
+                }));
+            }
+            start.countDown();
+
+            int affected = 0;
+            for (Future<Integer> future : futures) {
+                affected += future.get(30, TimeUnit.SECONDS);
+            }
+            return affected;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private String insertTask(String status) {
+        TranslationTask task = new TranslationTask();
+        task.setTaskId(java.util.UUID.randomUUID().toString().replace("-", ""));
+        task.setTaskType(TranslationTask.Type.AUDIO_TRANSLATION);
+        task.setSourceLanguage("en");
+        task.setTargetLanguages("zh");
+        task.setTargetLanguageMask(0L);
+        task.setRecursiveScan(false);
+        task.setStatus(status);
+        task.setTotalFiles(10);
+        task.setProcessedFiles(0);
+        task.setSuccessFiles(0);
+        task.setFailedFiles(0);
+        task.setProgressPercent(0.0);
+        task.setPriority(5);
+        task.setVersion(0);
+        task.setCreateTime(LocalDateTime.now());
+        task.setUpdateTime(task.getCreateTime());
+        translationTaskMapper.insert(task);
+        return task.getTaskId();
+    }
+
+    private TranslationTask selectTask(String taskId) {
+        return translationTaskMapper.selectOne(
+                new LambdaQueryWrapper<TranslationTask>().eq(TranslationTask::getTaskId, taskId));
+    }
+}
@@ -0,0 +1,70 @@
+package com.translation.task.service;
+
+import com.translation.task.dto.TaskResponse;
+import com.translation.task.entity.TranslationTask;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * 任务详情缓存测试：按任务失效加载结果、容量淘汰计数
+ */
+class TaskResponseCacheTest {
+
+    private TaskResponseCache cache;
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        cache = new TaskResponseCache();
+        ReflectionTestUtils.setField(cache, "maxSize", 2);
+        ReflectionTestUtils.setField(cache, "activeTtlMs", 60_000L);
+        ReflectionTestUtils.setField(cache, "terminalTtlMs", 60_000L);
+    }
+
+    @Test
+    void invalidationDuringLoadOnlyDiscardsThatTask() {
+        // 加载期间其它任务失效不影响本次结果写入缓存，本任务失效则丢弃本次结果
+        cache.get("task-1", taskId -> {
+            cache.evict("task-2");
+            return response(taskId);
+        });
+        cache.get("task-1", this::countingLoad);
+        assertEquals(0, loads.get(), "其它任务失效不应阻止本任务写入缓存");
+
+        cache.get("task-3", taskId -> {
+            cache.evict("task-3");
+            return response(taskId);
+        });
+        cache.get("task-3", this::countingLoad);
+        assertEquals(1, loads.get(), "加载期间本任务失效，结果不应写入缓存");
+    }
+
+    @Test
+    void capacityEvictionsAreCounted() {
+        cache.get("task-1", this::countingLoad);
+        cache.get("task-2", this::countingLoad);
+        cache.get("task-3", this::countingLoad);
+        cache.evict("task-3");
+
+        assertEquals(1L, cache.getStatistics().get("evictions"));
+        assertEquals(1L, cache.getStatistics().get("invalidations"));
+        assertEquals(1, cache.getStatistics().get("size"));
+    }
+
+    private TaskResponse countingLoad(String taskId) {
+        loads.incrementAndGet();
+        return response(taskId);
+    }
+
+    private TaskResponse response(String taskId) {
+        TaskResponse response = new TaskResponse();
+        response.setTaskName(taskId);
+        response.setStatus(TranslationTask.Status.PROCESSING);
+        return response;
+    }
+}
@@ -0,0 +1,35 @@
+-- 测试用H2表结构，与SQL目录下的MySQL建表语句保持一致
+CREATE TABLE IF NOT EXISTS translation_task (
+  id bigint NOT NULL AUTO_INCREMENT,
+  task_id varchar(64) NOT NULL,
+  task_type varchar(32) NOT NULL,
+  audio_directory_path varchar(512),
+  recursive_scan tinyint NOT NULL DEFAULT 0,
+  source_language varchar(16) NOT NULL,
+  target_languages text,
+  target_language_mask bigint NOT NULL DEFAULT 0,
+  status varchar(32) NOT NULL,
+  total_files int DEFAULT 0,
+  processed_files int DEFAULT 0,
+  success_files int DEFAULT 0,
+  failed_files int DEFAULT 0,
+  progress_percent decimal(5,2) DEFAULT 0.00,
+  error_message text,
+  result_file_path varchar(512),
+  priority int DEFAULT 5,
+  version int NOT NULL DEFAULT 0,
+  create_time timestamp DEFAULT CURRENT_TIMESTAMP,
+  update_time timestamp DEFAULT CURRENT_TIMESTAMP,
+  start_time timestamp NULL,
+  complete_time timestamp NULL,
+  PRIMARY KEY (id),
+  CONSTRAINT uk_task_id UNIQUE (task_id)
+);
+
+CREATE TABLE IF NOT EXISTS task_file_progress (
+  task_id varchar(64) NOT NULL,
+  audio_file_name varchar(512) NOT NULL,
+  success tinyint NOT NULL,
+  create_time timestamp DEFAULT CURRENT_TIMESTAMP,
+  PRIMARY KEY (task_id, audio_file_name)
+);
@@ -1,13 +1,21 @@
 package com.translation.translate.consumer;
 
+import cn.hutool.json.JSONObject;
+import cn.hutool.json.JSONUtil;
 import com.translation.common.kafka.KafkaTopics;
 import com.translation.common.kafka.consumer.MemoryAwareConsumer;
 import com.translation.common.kafka.message.SpeechRecognitionCompletedMessage;
+import com.translation.common.kafka.message.SpeechRecognitionPartialMessage;
+import com.translation.common.kafka.message.SpeechRecognitionSegmentMessage;
+import com.translation.common.kafka.message.TaskProgressMessage;
 import com.translation.common.kafka.message.TranslationCompletedMessage;
+import com.translation.common.util.AudioFileUtils;
+import com.translation.translate.service.SegmentTranslationBuffer;
 import com.translation.translate.service.TranslationService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.jetbrains.annotations.NotNull;
+import org.springframework.kafka.annotation.KafkaHandler;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.kafka.support.Acknowledgment;
@@ -17,6 +25,7 @@ import org.springframework.messaging.handler.annotation.Payload;
 import org.springframework.stereotype.Component;
 
 import javax.annotation.Resource;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.time.LocalDateTime;
@@ -24,23 +33,101 @@ import java.util.*;
 
 /**
  * 语音识别完成消息消费者 - 翻译服务
+ * 流水线模式下识别分段、单文件识别结果和完成消息都以taskId为键发送到同一主题，同一任务的消息由同一消费者按顺序处理：
+ * 分段到达即按批翻译，文件识别完成即完成该文件的翻译并保存翻译结果文件，完成消息到达时该任务的单文件消息都已处理过，
+ * 按翻译结果文件复用已翻译的文件，只补齐未翻译的文件。翻译结果文件保存在音频目录下，分区迁移到其他实例或服务重启后同样有效
  */
 @Slf4j
 @Component
 @RequiredArgsConstructor
+@KafkaListener(topics = KafkaTopics.SPEECH_RECOGNITION_PARTIAL, groupId = "translate-service-group")
 public class SpeechRecognitionCompletedConsumer extends MemoryAwareConsumer {
 
     @Resource
     private TranslationService translationService;
     @Resource
     private KafkaTemplate<String, Object> kafkaTemplate;
+    @Resource
+    private SegmentTranslationBuffer segmentTranslationBuffer;
+    
+    @KafkaHandler
+    public void handleSpeechRecognitionSegment(@Payload SpeechRecognitionSegmentMessage message,
+                                              Acknowledgment acknowledgment) {
+        // 内存不足时跳过，该文件的分段不完整，识别完成后整体翻译
+        if (shouldStopConsuming()) {
+            log.warn("内存使用率过高，跳过识别分段消息: taskId={}, file={}", message.getTaskId(), message.getAudioFileName());
+            forceGarbageCollection();
+            segmentTranslationBuffer.discard(message.getTaskId(), message.getAudioFileName());
+            acknowledgment.acknowledge();
+            return;
+        }
+        
+        try {
+            segmentTranslationBuffer.append(message);
+        } catch (Exception e) {
+            log.warn("处理识别分段失败: taskId=" + message.getTaskId() + ", file=" + message.getAudioFileName(), e);
+        } finally {
+            acknowledgment.acknowledge();
+        }
+    }
+    
+    @KafkaHandler
+    public void handleSpeechRecognitionPartial(@Payload SpeechRecognitionPartialMessage message,
+                                              @Header(KafkaHeaders.RECEIVED_TOPIC) String topic,
+                                              @Header(KafkaHeaders.OFFSET) long offset,
+                                              Acknowledgment acknowledgment) {
+        
+        String audioFileName = message.getRecognitionResult().getAudioFileName();
+        log.debug("接收到部分识别消息: taskId={}, file={}, offset={}", message.getTaskId(), audioFileName, offset);
+        
+        // 内存不足时跳过，由完成消息补齐该文件
+        if (shouldStopConsuming()) {
+            log.warn("内存使用率过高，跳过部分识别消息: taskId={}, file={}", message.getTaskId(), audioFileName);
+            forceGarbageCollection();
+            segmentTranslationBuffer.discard(message.getTaskId(), audioFileName);
+            acknowledgment.acknowledge();
+            return;
+        }
+        
+        try {
+            translatePartial(message);
+        } catch (Exception e) {
+            log.warn("流水线翻译失败，完成消息到达时重试: taskId=" + message.getTaskId() + ", file=" + audioFileName, e);
+        } finally {
+            acknowledgment.acknowledge();
+        }
+    }
     
+    /**
+     * 流水线模式的完成消息，与该任务的单文件消息在同一分区，到达时单文件消息都已处理
+     */
+    @KafkaHandler
+    public void handlePipelineCompleted(@Payload SpeechRecognitionCompletedMessage message,
+                                        @Header(KafkaHeaders.RECEIVED_TOPIC) String topic,
+                                        @Header(KafkaHeaders.OFFSET) long offset,
+                                        Acknowledgment acknowledgment) {
+        translate(message, topic, offset, acknowledgment);
+    }
+    
+    /**
+     * 非流水线模式的完成消息
+     * 流水线模式下该主题上的完成消息只用于任务服务记录阶段状态，翻译由部分识别主题上的完成消息触发，这里直接跳过
+     */
     @KafkaListener(topics = KafkaTopics.SPEECH_RECOGNITION_COMPLETED, groupId = "translate-service-group")
     public void handleSpeechRecognitionCompleted(@Payload SpeechRecognitionCompletedMessage message,
                                                 @Header(KafkaHeaders.RECEIVED_TOPIC) String topic,
                                                 @Header(KafkaHeaders.OFFSET) long offset,
                                                 Acknowledgment acknowledgment) {
-        
+        if (Boolean.TRUE.equals(message.getIncremental())) {
+            log.debug("流水线模式的阶段完成消息，由部分识别主题处理: taskId={}", message.getTaskId());
+            acknowledgment.acknowledge();
+            return;
+        }
+        translate(message, topic, offset, acknowledgment);
+    }
+    
+    private void translate(SpeechRecognitionCompletedMessage message, String topic, long offset,
+                           Acknowledgment acknowledgment) {
         log.info("接收到语音识别完成消息: taskId={}, topic={}, offset={}",
                  message.getTaskId(), topic, offset);
         
@@ -71,23 +158,51 @@ public class SpeechRecognitionCompletedConsumer extends MemoryAwareConsumer {
         log.info("开始翻译处理: taskId={}, sourceLanguage={}, targetLanguagesArr={}",
                  taskId, sourceLanguage, Arrays.toString(targetLanguagesArr));
 
-        Map<String, String> sourceTextsMap = getSourceTextsMap(message);
-
-        Map<String, Object> options = new HashMap<>();
-        options.put("taskId", taskId);
+        List<TranslationCompletedMessage.TranslationResult> translationResults = new ArrayList<>();
+        List<SpeechRecognitionCompletedMessage.RecognitionResult> pendingResults = message.getRecognitionResults();
         
-        TranslationService.MultiBatchTranslationResult batchResult = 
-            translationService.multiBatchTranslateTexts(sourceTextsMap, sourceLanguage, targetLanguagesArr, options);
-        
-        if (!batchResult.isSuccess()) {
-            throw new RuntimeException("批量翻译失败: " + batchResult.getErrorMessage());
+        // 流水线模式下复用单文件消息已翻译的文件，续跑模式下复用校验通过的已有翻译结果，只翻译缺失或失败的文件
+        boolean reuseTranslations = Boolean.TRUE.equals(message.getIncremental()) || Boolean.TRUE.equals(message.getResumeMode());
+        if (reuseTranslations && pendingResults != null) {
+            List<SpeechRecognitionCompletedMessage.RecognitionResult> candidates = pendingResults;
+            pendingResults = new ArrayList<>();
+            for (SpeechRecognitionCompletedMessage.RecognitionResult recognitionResult : candidates) {
+                TranslationCompletedMessage.TranslationResult existing =
+                    loadTranslationResult(audioDirectoryPath, recognitionResult, targetLanguagesArr);
+                if (existing != null) {
+                    translationResults.add(existing);
+                } else {
+                    pendingResults.add(recognitionResult);
+                }
+            }
+            log.info("复用已有翻译结果: taskId={}, 复用翻译结果={}, 待翻译文件={}",
+                     taskId, translationResults.size(), pendingResults.size());
         }
         
-        log.info("翻译完成: taskId={}, 总文件数={}, 成功={}, 失败={}", 
-                 taskId, batchResult.getTotalFiles(), batchResult.getSuccessFiles(), batchResult.getFailureFiles());
+        if (translationResults.isEmpty() || pendingResults == null || !pendingResults.isEmpty()) {
+            Map<String, String> sourceTextsMap = getSourceTextsMap(pendingResults);
+            Map<String, String> audioChecksums = new HashMap<>();
+            for (SpeechRecognitionCompletedMessage.RecognitionResult recognitionResult : pendingResults) {
+                audioChecksums.put(recognitionResult.getAudioFileName(), recognitionResult.getAudioChecksum());
+            }
+
+            Map<String, Object> options = new HashMap<>();
+            options.put("taskId", taskId);
+            
+            TranslationService.MultiBatchTranslationResult batchResult = 
+                translationService.multiBatchTranslateTexts(sourceTextsMap, sourceLanguage, targetLanguagesArr, options);
+            
+            if (!batchResult.isSuccess()) {
+                throw new RuntimeException("批量翻译失败: " + batchResult.getErrorMessage());
+            }
+            
+            log.info("翻译完成: taskId={}, 总文件数={}, 成功={}, 失败={}", 
+                     taskId, batchResult.getTotalFiles(), batchResult.getSuccessFiles(), batchResult.getFailureFiles());
+            
+            translationResults.addAll(saveTranslationResults(audioDirectoryPath, batchResult, audioChecksums));
+        }
         
-        List<TranslationCompletedMessage.TranslationResult> translationResults = 
-            saveTranslationResults(audioDirectoryPath, batchResult);
+        sendTaskProgressMessages(taskId, message.getRecognitionResults(), translationResults);
         
         TranslationCompletedMessage completedMessage = new TranslationCompletedMessage();
         completedMessage.setTaskId(taskId);
@@ -104,14 +219,113 @@ public class SpeechRecognitionCompletedConsumer extends MemoryAwareConsumer {
         }
     }
 
+    /**
+     * 翻译单个文件的识别结果并保存
+     * 已按分段翻译的文件只翻译剩余分段并拼接译文，分段不完整时整体翻译；
+     * 已有校验通过的翻译结果（重复投递或续跑）时直接复用
+     * 
+     * @return 翻译结果，原文为空时返回null
+     */
+    private TranslationCompletedMessage.TranslationResult translatePartial(SpeechRecognitionPartialMessage message) {
+        SpeechRecognitionCompletedMessage.RecognitionResult recognitionResult = message.getRecognitionResult();
+        String[] targetLanguagesArr = message.getTargetLanguages().split(",");
+        
+        TranslationCompletedMessage.TranslationResult existing =
+            loadTranslationResult(message.getAudioDirectoryPath(), recognitionResult, targetLanguagesArr);
+        if (existing != null) {
+            segmentTranslationBuffer.discard(message.getTaskId(), recognitionResult.getAudioFileName());
+            return existing;
+        }
+        
+        String recognizedText = recognitionResult.getRecognizedText();
+        if (recognizedText == null || recognizedText.trim().isEmpty()) {
+            segmentTranslationBuffer.discard(message.getTaskId(), recognitionResult.getAudioFileName());
+            return null;
+        }
+        
+        Map<String, String> segmentTranslations = segmentTranslationBuffer.complete(message.getTaskId(),
+            recognitionResult.getAudioFileName(), recognizedText, message.getSourceLanguage(), targetLanguagesArr);
+        if (segmentTranslations != null) {
+            try {
+                return saveTranslationResult(message.getAudioDirectoryPath(), recognitionResult.getAudioFileName(),
+                    recognizedText, message.getSourceLanguage(), segmentTranslations, recognitionResult.getAudioChecksum());
+            } catch (Exception e) {
+                throw new RuntimeException("保存翻译结果失败: " + e.getMessage());
+            }
+        }
+        if (!translationService.isServiceAvailable()) {
+            throw new RuntimeException("翻译服务不可用，请检查API配置");
+        }
+        
+        Map<String, Object> options = new HashMap<>();
+        options.put("taskId", message.getTaskId());
+        
+        TranslationService.MultiBatchTranslationResult batchResult = translationService.multiBatchTranslateTexts(
+            Collections.singletonMap(recognitionResult.getAudioFileName(), recognizedText),
+            message.getSourceLanguage(), targetLanguagesArr, options);
+        if (!batchResult.isSuccess()) {
+            throw new RuntimeException("翻译失败: " + batchResult.getErrorMessage());
+        }
+        
+        List<TranslationCompletedMessage.TranslationResult> saved = saveTranslationResults(
+            message.getAudioDirectoryPath(), batchResult,
+            Collections.singletonMap(recognitionResult.getAudioFileName(), recognitionResult.getAudioChecksum()));
+        return saved.isEmpty() ? null : saved.get(0);
+    }
+    
+    /**
+     * 读取已有的翻译结果文件
+     * 只有音频校验值、原文一致且包含全部目标语言的译文时才视为有效，否则返回null
+     */
+    private TranslationCompletedMessage.TranslationResult loadTranslationResult(
+            String audioDirectoryPath, SpeechRecognitionCompletedMessage.RecognitionResult recognitionResult,
+            String[] targetLanguages) {
+        String audioFileName = recognitionResult.getAudioFileName();
+        String translationFilePath = AudioFileUtils.translationFilePath(audioDirectoryPath, audioFileName);
+        if (recognitionResult.getAudioChecksum() == null || !Files.isRegularFile(Paths.get(translationFilePath))) {
+            return null;
+        }
+        
+        try {
+            JSONObject translationData = JSONUtil.parseObj(
+                new String(Files.readAllBytes(Paths.get(translationFilePath)), StandardCharsets.UTF_8));
+            
+            if (!recognitionResult.getAudioChecksum().equals(translationData.getStr("audioChecksum")) ||
+                !Objects.equals(recognitionResult.getRecognizedText(), translationData.getStr("originalText"))) {
+                return null;
+            }
+            
+            JSONObject translationsJson = translationData.getJSONObject("translations");
+            if (translationsJson == null) {
+                return null;
+            }
+            
+            Map<String, String> translations = new HashMap<>();
+            for (String targetLanguage : targetLanguages) {
+                String translatedText = translationsJson.getStr(targetLanguage);
+                if (translatedText == null || translatedText.trim().isEmpty()) {
+                    return null;
+                }
+                translations.put(targetLanguage, translatedText);
+            }
+            
+            log.info("复用已有翻译结果: {}", audioFileName);
+            return new TranslationCompletedMessage.TranslationResult(
+                audioFileName, recognitionResult.getRecognizedText(), translations, translationFilePath);
+            
+        } catch (Exception e) {
+            log.warn("读取已有翻译结果失败，重新翻译: " + audioFileName, e);
+            return null;
+        }
+    }
+
     @NotNull
-    private Map<String, String> getSourceTextsMap(SpeechRecognitionCompletedMessage message) {
+    private Map<String, String> getSourceTextsMap(List<SpeechRecognitionCompletedMessage.RecognitionResult> recognitionResults) {
         boolean serviceAvailable = translationService.isServiceAvailable();
         if (!serviceAvailable) {
             throw new RuntimeException("翻译服务不可用，请检查API配置");
         }
 
-        List<SpeechRecognitionCompletedMessage.RecognitionResult> recognitionResults = message.getRecognitionResults();
         if (recognitionResults == null || recognitionResults.isEmpty()) {
             throw new RuntimeException("没有可翻译的语音识别结果");
         }
@@ -139,7 +353,8 @@ public class SpeechRecognitionCompletedConsumer extends MemoryAwareConsumer {
     }
 
     private List<TranslationCompletedMessage.TranslationResult> saveTranslationResults(
-            String audioDirectoryPath, TranslationService.MultiBatchTranslationResult batchResult) {
+            String audioDirectoryPath, TranslationService.MultiBatchTranslationResult batchResult,
+            Map<String, String> audioChecksums) {
         
         List<TranslationCompletedMessage.TranslationResult> results = new ArrayList<>();
         
@@ -163,26 +378,8 @@ public class SpeechRecognitionCompletedConsumer extends MemoryAwareConsumer {
                     }
                 }
                 
-                String baseName = audioFileName.replaceFirst("[.][^.]+$", "");
-                String translationFilePath = audioDirectoryPath + "/" + baseName + "_translations.json";
-                
-                Map<String, Object> translationData = new HashMap<>();
-                translationData.put("audioFileName", audioFileName);
-                translationData.put("originalText", result.getSourceText());
-                translationData.put("sourceLanguage", result.getSourceLanguage());
-                translationData.put("translations", translations);
-                translationData.put("translationTime", LocalDateTime.now());
-                
-                Files.write(Paths.get(translationFilePath), 
-                           cn.hutool.json.JSONUtil.toJsonPrettyStr(translationData).getBytes("UTF-8"));
-                
-                log.debug("翻译结果已保存: {}", translationFilePath);
-                
-                TranslationCompletedMessage.TranslationResult translationResult = 
-                    new TranslationCompletedMessage.TranslationResult(
-                        audioFileName, result.getSourceText(), translations, translationFilePath);
-                
-                results.add(translationResult);
+                results.add(saveTranslationResult(audioDirectoryPath, audioFileName, result.getSourceText(),
+                    result.getSourceLanguage(), translations, audioChecksums.get(audioFileName)));
                 
             } catch (Exception e) {
                 log.error("保存翻译结果失败: " + audioFileName, e);
@@ -192,6 +389,53 @@ public class SpeechRecognitionCompletedConsumer extends MemoryAwareConsumer {
         return results;
     }
     
+    private TranslationCompletedMessage.TranslationResult saveTranslationResult(
+            String audioDirectoryPath, String audioFileName, String sourceText, String sourceLanguage,
+            Map<String, String> translations, String audioChecksum) throws Exception {
+        String translationFilePath = AudioFileUtils.translationFilePath(audioDirectoryPath, audioFileName);
+        
+        Map<String, Object> translationData = new HashMap<>();
+        translationData.put("audioFileName", audioFileName);
+        translationData.put("originalText", sourceText);
+        translationData.put("sourceLanguage", sourceLanguage);
+        translationData.put("translations", translations);
+        translationData.put("audioChecksum", audioChecksum);
+        translationData.put("translationTime", LocalDateTime.now());
+        
+        Files.write(Paths.get(translationFilePath), 
+                   JSONUtil.toJsonPrettyStr(translationData).getBytes("UTF-8"));
+        
+        log.debug("翻译结果已保存: {}", translationFilePath);
+        
+        return new TranslationCompletedMessage.TranslationResult(audioFileName, sourceText, translations, translationFilePath);
+    }
+    
+    /**
+     * 上报每个文件的翻译进度：已产出翻译结果的文件记为成功，其余记为失败
+     */
+    private void sendTaskProgressMessages(String taskId,
+                                          List<SpeechRecognitionCompletedMessage.RecognitionResult> recognitionResults,
+                                          List<TranslationCompletedMessage.TranslationResult> translationResults) {
+        Set<String> translatedFiles = new HashSet<>();
+        for (TranslationCompletedMessage.TranslationResult translationResult : translationResults) {
+            translatedFiles.add(translationResult.getAudioFileName());
+        }
+        
+        for (SpeechRecognitionCompletedMessage.RecognitionResult recognitionResult : recognitionResults) {
+            boolean success = translatedFiles.contains(recognitionResult.getAudioFileName());
+            try {
+                TaskProgressMessage progressMessage = new TaskProgressMessage(
+                    taskId, recognitionResult.getAudioFileName(), TaskProgressMessage.Stage.TRANSLATION,
+                    success, success ? null : "翻译失败", LocalDateTime.now());
+                
+                kafkaTemplate.send(KafkaTopics.TASK_PROGRESS, taskId, progressMessage);
+                
+            } catch (Exception e) {
+                log.warn("发送任务进度消息失败: taskId=" + taskId, e);
+            }
+        }
+    }
+    
     private void sendTaskFailedMessage(String taskId, String errorMessage) {
         try {
             Map<String, Object> failedMessage = new HashMap<>();
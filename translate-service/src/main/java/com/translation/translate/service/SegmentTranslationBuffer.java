@@ -0,0 +1,172 @@
+package com.translation.translate.service;
+
+import com.translation.common.kafka.message.SpeechRecognitionSegmentMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.Resource;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 识别分段的流水线翻译
+ * 按文件累积到达的识别分段，未翻译的原文达到批量大小时翻译这一批，文件识别完成时翻译剩余分段并按顺序拼接译文，
+ * 长音频的翻译与识别同时进行。分段有缺失（消息发送失败、内存不足时跳过等）或某一批翻译失败时不拼接，
+ * 由调用方整体翻译该文件
+ */
+@Slf4j
+@Component
+public class SegmentTranslationBuffer {
+
+    @Resource
+    private TranslationService translationService;
+
+    @Value("${translation.pipeline.segment-batch-chars:1000}")
+    private int segmentBatchChars;
+
+    @Value("${translation.pipeline.state-ttl-ms:3600000}")
+    private long stateTtlMs;
+
+    private final Map<String, FileState> files = new ConcurrentHashMap<>();
+
+    /**
+     * 追加一个分段，未翻译的原文达到批量大小时翻译这一批
+     */
+    public void append(SpeechRecognitionSegmentMessage message) {
+        purgeExpired();
+        String text = message.getText() != null ? message.getText().trim() : "";
+        if (text.isEmpty()) {
+            return;
+        }
+
+        FileState state = files.computeIfAbsent(key(message.getTaskId(), message.getAudioFileName()), key -> new FileState());
+        synchronized (state) {
+            if (state.failed) {
+                return;
+            }
+            state.sourceText.append(text);
+            state.pending.add(text);
+            state.pendingChars += text.length();
+            if (state.pendingChars >= segmentBatchChars) {
+                translatePending(state, message.getTaskId(), message.getAudioFileName(), message.getSourceLanguage(),
+                    message.getTargetLanguages().split(","));
+            }
+        }
+    }
+
+    /**
+     * 文件识别完成：翻译剩余的分段并按顺序拼接各批译文
+     *
+     * @return 目标语言 -> 译文；没有收到该文件的分段、分段原文与识别文本不一致或有批次翻译失败时返回null
+     */
+    public Map<String, String> complete(String taskId, String audioFileName, String recognizedText,
+                                        String sourceLanguage, String[] targetLanguages) {
+        FileState state = files.remove(key(taskId, audioFileName));
+        if (state == null) {
+            return null;
+        }
+
+        synchronized (state) {
+            if (!state.failed && !normalize(state.sourceText).equals(normalize(recognizedText))) {
+                log.debug("识别分段不完整，整体翻译: taskId={}, file={}", taskId, audioFileName);
+                return null;
+            }
+            if (!state.failed && !state.pending.isEmpty()) {
+                translatePending(state, taskId, audioFileName, sourceLanguage, targetLanguages);
+            }
+            if (state.failed) {
+                return null;
+            }
+
+            Map<String, String> translations = new HashMap<>();
+            for (String targetLanguage : targetLanguages) {
+                StringJoiner joiner = new StringJoiner(separator(targetLanguage));
+                for (Map<String, String> batch : state.batches) {
+                    joiner.add(batch.get(targetLanguage));
+                }
+                translations.put(targetLanguage, joiner.toString());
+            }
+            log.info("分段流水线翻译完成: taskId={}, file={}, 批次数={}", taskId, audioFileName, state.batches.size());
+            return translations;
+        }
+    }
+
+    /**
+     * 丢弃文件已累积的分段（该文件不再需要分段翻译结果）
+     */
+    public void discard(String taskId, String audioFileName) {
+        files.remove(key(taskId, audioFileName));
+    }
+
+    private void translatePending(FileState state, String taskId, String audioFileName,
+                                  String sourceLanguage, String[] targetLanguages) {
+        String sourceText = String.join(separator(sourceLanguage), state.pending);
+        state.pending.clear();
+        state.pendingChars = 0;
+
+        try {
+            Map<String, Object> options = new HashMap<>();
+            options.put("taskId", taskId);
+            TranslationService.MultiBatchTranslationResult result = translationService.multiBatchTranslateTexts(
+                Collections.singletonMap(audioFileName, sourceText), sourceLanguage, targetLanguages, options);
+            TranslationService.BatchTranslationResult fileResult = result.isSuccess() && result.getResults() != null
+                ? result.getResults().get(audioFileName) : null;
+            if (fileResult == null || !fileResult.isSuccess()) {
+                throw new RuntimeException(fileResult != null ? fileResult.getErrorMessage() : result.getErrorMessage());
+            }
+
+            Map<String, String> translations = new HashMap<>();
+            for (String targetLanguage : targetLanguages) {
+                TranslationService.TranslationResult translation = fileResult.getTranslations().get(targetLanguage);
+                if (translation == null || !translation.isSuccess()) {
+                    throw new RuntimeException("缺少目标语言译文: " + targetLanguage);
+                }
+                translations.put(targetLanguage, translation.getTranslatedText().trim());
+            }
+            state.batches.add(translations);
+
+        } catch (Exception e) {
+            log.warn("分段批次翻译失败，文件识别完成后整体翻译: taskId={}, file={}, {}", taskId, audioFileName, e.getMessage());
+            state.failed = true;
+        }
+    }
+
+    /**
+     * 清理超时的文件状态（文件识别失败或单文件结果消息丢失时不会被取走）
+     */
+    private void purgeExpired() {
+        long expireBefore = System.currentTimeMillis() - stateTtlMs;
+        files.values().removeIf(state -> state.createTime < expireBefore);
+    }
+
+    private static String key(String taskId, String audioFileName) {
+        return taskId + "/" + audioFileName;
+    }
+
+    /**
+     * 中文、日文按字拼接，其他语言以空格分隔
+     */
+    private static String separator(String language) {
+        return language != null && (language.startsWith("zh") || language.startsWith("ja")) ? "" : " ";
+    }
+
+    private static String normalize(CharSequence text) {
+        return text == null ? "" : text.toString().replaceAll("\\s+", "");
+    }
+
+    /**
+     * 单个文件的分段翻译状态
+     */
+    private static class FileState {
+        /** 已收到的全部分段原文（用于校验分段是否完整） */
+        private final StringBuilder sourceText = new StringBuilder();
+        /** 尚未翻译的分段 */
+        private final List<String> pending = new ArrayList<>();
+        /** 已翻译的批次（目标语言 -> 译文），按时间顺序排列 */
+        private final List<Map<String, String>> batches = new ArrayList<>();
+        private int pendingChars;
+        private boolean failed;
+        private final long createTime = System.currentTimeMillis();
+    }
+}
@@ -8,6 +8,26 @@ const PORT = 5000;
 // Serve static files from the current directory
 app.use(express.static('.'));
 
+// Proxy task event stream (SSE) to the Task Service, keeping the connection open and unbuffered
+app.use('/api/tasks/events', createProxyMiddleware({
+    target: 'http://localhost:8001',
+    changeOrigin: true,
+    timeout: 0,
+    proxyTimeout: 0,
+    onProxyRes: (proxyRes) => {
+        proxyRes.headers['cache-control'] = 'no-cache';
+        proxyRes.headers['x-accel-buffering'] = 'no';
+    },
+    onError: (err, req, res) => {
+        console.error('Event stream proxy error:', err);
+        if (!res.headersSent) {
+            res.status(502).end();
+        } else {
+            res.end();
+        }
+    }
+}));
+
 // Proxy API requests to the Task Service
 app.use('/api', createProxyMiddleware({
     target: 'http://localhost:8001',